@@ -2,6 +2,11 @@ package com.regulation.contentieux;
 
 import atlantafx.base.theme.PrimerLight;
 import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.service.RapportSchedulerService;
+import com.regulation.contentieux.service.AppExecutors;
+import com.regulation.contentieux.service.ArchivageService;
+import com.regulation.contentieux.service.AuditService;
+import com.regulation.contentieux.service.SyncScheduler;
 import com.regulation.contentieux.util.FXMLLoaderUtil;
 import com.regulation.contentieux.util.StageManager;
 import com.regulation.contentieux.util.AlertUtil;
@@ -71,6 +76,15 @@ public class Main extends Application {
             // 5. Affichage de la fenêtre
             primaryStage.show();
 
+            // 6. Synchronisation de fond vers MySQL
+            SyncScheduler.getInstance().start();
+
+            // 7. Pré-génération planifiée des rapports
+            RapportSchedulerService.getInstance().start();
+
+            // 8. Archivage des affaires clôturées anciennes
+            ArchivageService.getInstance().start();
+
             logger.info("✅ Application démarrée");
 
         } catch (Exception e) {
@@ -83,6 +97,11 @@ public class Main extends Application {
     @Override
     public void stop() throws Exception {
         logger.info("=== ARRÊT DE L'APPLICATION ===");
+        RapportSchedulerService.getInstance().stop();
+        ArchivageService.getInstance().stop();
+        AppExecutors.getInstance().arreter();
+        AuditService.getInstance().arreter();
+        SyncScheduler.getInstance().stop();
         super.stop();
         logger.info("Application fermée");
     }
@@ -1,7 +1,12 @@
 package com.regulation.contentieux.config;
 
+import com.regulation.contentieux.service.RapportPregenereStore;
+import com.regulation.contentieux.service.RegleRepartitionService;
+import com.regulation.contentieux.service.SyncCheckpointStore;
+import com.regulation.contentieux.util.AuditPlansRequetes;
 import com.regulation.contentieux.util.DatabaseSchemaCompletion;
 import com.regulation.contentieux.util.DatabaseSchemaUpdate;
+import com.regulation.contentieux.util.SequencesNumeros;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
@@ -13,7 +18,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
+import java.util.Set;
 
 import static com.regulation.contentieux.util.DatabaseMigrationTool.addMissingColumns;
 
@@ -461,6 +471,11 @@ public class DatabaseConfig {
                     createAllSQLiteTables();
                     createInitialData();
                     DatabaseSchemaCompletion.executeSchemaCompletion();
+                    try (Connection conn = getSQLiteConnection()) {
+                        SyncCheckpointStore.preparerSchema(conn);
+                        RegleRepartitionService.preparerSchema(conn);
+                        RapportPregenereStore.preparerSchema(conn);
+                    }
 
                     logger.info("✅ Base de données SQLite initialisée avec schéma complet : {}", sqlitePath);
                     logger.info("✅ Base de données complète créée avec succès");
@@ -484,6 +499,13 @@ public class DatabaseConfig {
                     try (Connection conn = getSQLiteConnection()) {
                         logger.info("✅ Connexion à la base existante: OK");
                         logTableCounts(conn);
+                        SequencesNumeros.creerColonnes(conn);
+                        createCompositeIndexes(conn);
+                        ajouterHorodatageMandats(conn);
+                        contraindreMandatActifUnique(conn);
+                        SyncCheckpointStore.preparerSchema(conn);
+                        RegleRepartitionService.preparerSchema(conn);
+                        RapportPregenereStore.preparerSchema(conn);
                         optimizeDatabase(conn);
                     }
                 } catch (Exception e) {
@@ -781,7 +803,7 @@ public class DatabaseConfig {
 
                 // Vérifier que la connexion est valide
                 if (conn.isValid(5)) {
-                    return conn;
+                    return AuditPlansRequetes.observer(conn);
                 } else {
                     conn.close();
                     throw new SQLException("Connexion invalide obtenue du pool");
@@ -1062,10 +1084,8 @@ public class DatabaseConfig {
                     date_fin DATE NOT NULL,
                     actif INTEGER NOT NULL DEFAULT 0,
                     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
-                    created_by TEXT,
-                    CONSTRAINT un_seul_actif CHECK (
-                        (SELECT COUNT(*) FROM mandats WHERE actif = 1) <= 1
-                    )
+                    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+                    created_by TEXT
                 )
                 """,
 
@@ -1163,9 +1183,189 @@ public class DatabaseConfig {
             }
         }
 
+        SequencesNumeros.creerColonnes(conn);
+        createCompositeIndexes(conn);
+        contraindreMandatActifUnique(conn);
+
         logger.debug("✅ Index créés");
     }
 
+    /**
+     * Index composite : colonnes dans l'ordre de l'index (suffixe DESC accepté)
+     */
+    private record IndexComposite(String nom, String table, String... colonnes) {
+    }
+
+    /**
+     * Index composites et couvrants, dérivés des requêtes fréquentes :
+     * répartition (acteurs d'une affaire par rôle), rapports (encaissements
+     * validés d'une période), mandats, liste des affaires, tableaux par service
+     * et recherche des agents DD/DG par rôle
+     *
+     * Les colonnes en fin d'index rendent l'index couvrant : la requête est
+     * servie sans lire la table. mandats(numero_mandat) est déjà indexé par
+     * sa contrainte UNIQUE.
+     */
+    private static final List<IndexComposite> INDEX_COMPOSITES = List.of(
+            new IndexComposite("idx_affaire_acteurs_affaire_role", "affaire_acteurs",
+                    "affaire_id", "role_sur_affaire", "agent_id"),
+            new IndexComposite("idx_affaire_acteurs_agent_role", "affaire_acteurs",
+                    "agent_id", "role_sur_affaire", "affaire_id"),
+            new IndexComposite("idx_encaissements_statut_date", "encaissements",
+                    "statut", "date_encaissement", "affaire_id", "montant_encaisse"),
+            new IndexComposite("idx_encaissements_mandat", "encaissements",
+                    "numero_mandat", "affaire_id"),
+            new IndexComposite("idx_affaires_service_date", "affaires",
+                    "service_id", "date_creation"),
+            new IndexComposite("idx_roles_speciaux_role", "roles_speciaux",
+                    "role_nom", "agent_id")
+    );
+
+    /**
+     * Index partiels sur les lignes vivantes (deleted = 0) : toutes les
+     * requêtes d'AffaireDAO portent ce filtre, les lignes supprimées ne
+     * pèsent donc plus dans ces index. Liste, périodes, comptage par statut
+     * et affaires d'un contrevenant.
+     *
+     * idx_affaires_liste existait d'abord sans condition : une base qui
+     * porte encore cette version la voit recréée partielle.
+     */
+    private static final String CONDITION_LIGNES_VIVANTES = "deleted = 0";
+
+    private static final List<IndexComposite> INDEX_LIGNES_VIVANTES = List.of(
+            new IndexComposite("idx_affaires_liste", "affaires",
+                    "date_creation DESC", "numero_affaire DESC"),
+            new IndexComposite("idx_affaires_vivantes_statut", "affaires",
+                    "statut", "date_creation"),
+            new IndexComposite("idx_affaires_vivantes_contrevenant", "affaires",
+                    "contrevenant_id", "date_creation")
+    );
+
+    /**
+     * Crée les index composites manquants, à la création comme à l'ouverture
+     * d'une base existante
+     *
+     * Un index n'est créé que si sa table et toutes ses colonnes existent :
+     * les bases déployées n'ont pas toutes le même schéma.
+     */
+    public static void createCompositeIndexes(Connection conn) {
+        int crees = 0;
+        for (IndexComposite index : INDEX_COMPOSITES) {
+            if (creerIndex(conn, index, null)) {
+                crees++;
+            }
+        }
+        for (IndexComposite index : INDEX_LIGNES_VIVANTES) {
+            if (creerIndex(conn, index, CONDITION_LIGNES_VIVANTES)) {
+                crees++;
+            }
+        }
+        logger.debug("📇 {}/{} index composites vérifiés", crees,
+                INDEX_COMPOSITES.size() + INDEX_LIGNES_VIVANTES.size());
+    }
+
+    /**
+     * Crée un index si sa table et ses colonnes (y compris celle de la condition) existent
+     */
+    private static boolean creerIndex(Connection conn, IndexComposite index, String condition) {
+        try {
+            Set<String> colonnesTable = getColumnNames(conn, index.table());
+            boolean colonnesPresentes = !colonnesTable.isEmpty() && Arrays.stream(index.colonnes())
+                    .map(colonne -> colonne.split(" ")[0].toLowerCase())
+                    .allMatch(colonnesTable::contains)
+                    && (condition == null || colonnesTable.contains(condition.split(" ")[0]));
+            if (!colonnesPresentes) {
+                logger.debug("Index {} ignoré : colonnes absentes de {}", index.nom(), index.table());
+                return false;
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                if (condition != null && existeSansCondition(conn, index.nom())) {
+                    stmt.execute("DROP INDEX " + index.nom());
+                }
+                stmt.execute("CREATE INDEX IF NOT EXISTS " + index.nom() + " ON " + index.table()
+                        + "(" + String.join(", ", index.colonnes()) + ")"
+                        + (condition != null ? " WHERE " + condition : ""));
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.warn("⚠️ Index {} non créé: {}", index.nom(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Vrai si l'index existe sans clause WHERE (version complète d'un index devenu partiel)
+     */
+    private static boolean existeSansCondition(Connection conn, String nomIndex) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT sql FROM sqlite_master WHERE type = 'index' AND name = ?")) {
+            stmt.setString(1, nomIndex);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getString(1) != null
+                        && !rs.getString(1).toUpperCase(Locale.ROOT).contains(" WHERE ");
+            }
+        }
+    }
+
+    /**
+     * Ajoute updated_at aux bases dont la table mandats n'en a pas
+     *
+     * MandatService modifie actif et statut sur place en écrivant updated_at ;
+     * sans cette colonne la synchronisation incrémentale ne verrait pas ces
+     * modifications. SQLite refuse CURRENT_TIMESTAMP comme défaut d'une colonne
+     * ajoutée : les lignes existantes reprennent leur created_at.
+     */
+    private static void ajouterHorodatageMandats(Connection conn) {
+        try {
+            Set<String> colonnes = getColumnNames(conn, "mandats");
+            if (colonnes.isEmpty() || colonnes.contains("updated_at")) {
+                return;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE mandats ADD COLUMN updated_at DATETIME");
+                stmt.executeUpdate("UPDATE mandats SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP)");
+            }
+            logger.info("✅ Colonne updated_at ajoutée à mandats");
+        } catch (SQLException e) {
+            logger.warn("⚠️ Colonne updated_at non ajoutée à mandats: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Un seul mandat actif : index unique partiel sur actif = 1
+     *
+     * Remplace la contrainte CHECK (SELECT COUNT(*) ...) de la table mandats,
+     * que SQLite refuse (sous-requête interdite dans un CHECK) et qui empêchait
+     * la création d'une base neuve. MandatService désactive les autres mandats
+     * avant d'activer le nouveau, dans la même transaction : l'index n'est
+     * jamais violé en fonctionnement normal.
+     */
+    private static void contraindreMandatActifUnique(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM mandats WHERE actif = 1")) {
+                if (rs.next() && rs.getInt(1) > 1) {
+                    logger.warn("⚠️ {} mandats actifs : contrainte un_seul_actif non posée", rs.getInt(1));
+                    return;
+                }
+            }
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS un_seul_actif ON mandats(actif) WHERE actif = 1");
+        } catch (SQLException e) {
+            logger.warn("⚠️ Contrainte un_seul_actif non posée: {}", e.getMessage());
+        }
+    }
+
+    private static Set<String> getColumnNames(Connection conn, String table) throws SQLException {
+        Set<String> colonnes = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                colonnes.add(rs.getString("name").toLowerCase());
+            }
+        }
+        return colonnes;
+    }
+
     /**
      * Crée les données initiales
      */
@@ -1358,11 +1558,19 @@ public class DatabaseConfig {
 
             logger.info("Tentative de connexion MySQL : {}:{}@{}/{}", username, "****", host, database);
 
+            // URL complète en surcharge (System Property ou database.properties), comme pour SQLite
+            String url = System.getProperty("mysql.url", dbProperties.getProperty("mysql.url"));
+            if (url == null || url.isBlank()) {
+                url = String.format("jdbc:mysql://%s:%s/%s", host, port, database);
+            }
+
             HikariConfig config = new HikariConfig();
-            config.setJdbcUrl(String.format("jdbc:mysql://%s:%s/%s", host, port, database));
+            config.setJdbcUrl(url);
             config.setUsername(username);
             config.setPassword(password);
-            config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+            if (url.startsWith("jdbc:mysql:")) {
+                config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+            }
 
             // Configuration du pool
             config.setMaximumPoolSize(Integer.parseInt(
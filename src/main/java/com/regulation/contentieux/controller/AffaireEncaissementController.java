@@ -49,6 +49,10 @@ public class AffaireEncaissementController implements Initializable {
 
     private static final Logger logger = LoggerFactory.getLogger(AffaireEncaissementController.class);
 
+    private static final String VUE_RECHERCHE_AGENTS = "saisie-recherche-agents";
+    private static final String VUE_RECHERCHE_CONTREVENANTS = "saisie-recherche-contrevenants";
+    private static final String VUE_RECHERCHE_CONTRAVENTIONS = "saisie-recherche-contraventions";
+
     // === SECTION AFFAIRE ===
     @FXML private TextField numeroAffaireField;
     @FXML private DatePicker dateCreationPicker;
@@ -367,7 +371,7 @@ public class AffaireEncaissementController implements Initializable {
                         logger.error("Erreur recherche agents", searchTask.getException());
                     });
 
-                    new Thread(searchTask).start();
+                    AppExecutors.getInstance().executerIO(VUE_RECHERCHE_AGENTS, searchTask);
                 });
                 searchTimer.play();
             } else {
@@ -1128,7 +1132,7 @@ public class AffaireEncaissementController implements Initializable {
                         countLabel.setText(results.size() + " résultats trouvés");
                     });
 
-                    new Thread(searchTask).start();
+                    AppExecutors.getInstance().executerIO(VUE_RECHERCHE_CONTREVENANTS, searchTask);
                 });
 
                 searchTimer.play();
@@ -1238,7 +1242,7 @@ public class AffaireEncaissementController implements Initializable {
                         countLabel.setText(results.size() + " résultats trouvés");
                     });
 
-                    new Thread(searchTask).start();
+                    AppExecutors.getInstance().executerIO(VUE_RECHERCHE_CONTRAVENTIONS, searchTask);
                 });
 
                 searchTimer.play();
@@ -1299,7 +1303,7 @@ public class AffaireEncaissementController implements Initializable {
             });
         });
 
-        new Thread(task).start();
+        AppExecutors.getInstance().executerIO(task);
     }
 
     /**
@@ -1326,7 +1330,7 @@ public class AffaireEncaissementController implements Initializable {
             });
         });
 
-        new Thread(task).start();
+        AppExecutors.getInstance().executerIO(task);
     }
 
     /**
@@ -1344,7 +1348,7 @@ public class AffaireEncaissementController implements Initializable {
             centreCombo.getItems().setAll(task.getValue());
         });
 
-        new Thread(task).start();
+        AppExecutors.getInstance().executerIO(task);
     }
 
     /**
@@ -1362,7 +1366,7 @@ public class AffaireEncaissementController implements Initializable {
             serviceCombo.getItems().setAll(task.getValue());
         });
 
-        new Thread(task).start();
+        AppExecutors.getInstance().executerIO(task);
     }
 
     /**
@@ -1380,7 +1384,7 @@ public class AffaireEncaissementController implements Initializable {
             bureauCombo.getItems().setAll(task.getValue());
         });
 
-        new Thread(task).start();
+        AppExecutors.getInstance().executerIO(task);
     }
 
     /**
@@ -1398,7 +1402,7 @@ public class AffaireEncaissementController implements Initializable {
             banqueCombo.getItems().setAll(task.getValue());
         });
 
-        new Thread(task).start();
+        AppExecutors.getInstance().executerIO(task);
     }
 
     /**
@@ -1416,7 +1420,7 @@ public class AffaireEncaissementController implements Initializable {
             indicateurAgentCombo.getItems().setAll(task.getValue());
         });
 
-        new Thread(task).start();
+        AppExecutors.getInstance().executerIO(task);
     }
 
     /**
@@ -1633,7 +1637,7 @@ public class AffaireEncaissementController implements Initializable {
             });
         });
 
-        new Thread(createTask).start();
+        AppExecutors.getInstance().executerIO(createTask);
     }
 
     /**
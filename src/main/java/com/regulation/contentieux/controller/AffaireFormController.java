@@ -401,7 +401,7 @@ public class AffaireFormController implements Initializable {
         Task<List<Contravention>> loadTask = new Task<List<Contravention>>() {
             @Override
             protected List<Contravention> call() throws Exception {
-                return contraventionDAO.findAll();
+                return ReferentielCache.getInstance().getContraventions();
             }
         };
 
@@ -415,7 +415,7 @@ public class AffaireFormController implements Initializable {
             logger.error("Erreur lors du chargement des contraventions", loadTask.getException());
         });
 
-        new Thread(loadTask).start();
+        AppExecutors.getInstance().executerIO(loadTask);
     }
 
 
@@ -814,7 +814,7 @@ public class AffaireFormController implements Initializable {
                     "Impossible de charger les données de référence");
         });
 
-        new Thread(loadTask).start();
+        AppExecutors.getInstance().executerIO(loadTask);
     }
 
     private void loadContrevenants() {
@@ -832,7 +832,7 @@ public class AffaireFormController implements Initializable {
 
     private void loadContraventions() {
         try {
-            List<Contravention> list = contraventionDAO.findAll();
+            List<Contravention> list = ReferentielCache.getInstance().getContraventions();
             Platform.runLater(() -> {
                 if (contraventionComboBox != null) {
                     contraventionComboBox.setItems(FXCollections.observableArrayList(list));
@@ -853,7 +853,7 @@ public class AffaireFormController implements Initializable {
 
     private void loadBureaux() {
         try {
-            List<Bureau> list = bureauDAO.findAll();
+            List<Bureau> list = ReferentielCache.getInstance().getBureaux();
             Platform.runLater(() -> {
                 if (bureauComboBox != null) {
                     bureauComboBox.setItems(FXCollections.observableArrayList(list));
@@ -873,7 +873,7 @@ public class AffaireFormController implements Initializable {
 
     private void loadServices() {
         try {
-            List<Service> list = serviceDAO.findAll();
+            List<Service> list = ReferentielCache.getInstance().getServices();
             Platform.runLater(() -> {
                 if (serviceComboBox != null) {
                     serviceComboBox.setItems(FXCollections.observableArrayList(list));
@@ -913,7 +913,7 @@ public class AffaireFormController implements Initializable {
         Task<List<Banque>> loadTask = new Task<List<Banque>>() {
             @Override
             protected List<Banque> call() throws Exception {
-                return banqueDAO.findAll();
+                return ReferentielCache.getInstance().getBanques();
             }
         };
 
@@ -928,7 +928,7 @@ public class AffaireFormController implements Initializable {
             logger.error("Erreur lors du chargement des banques", loadTask.getException());
         });
 
-        new Thread(loadTask).start();
+        AppExecutors.getInstance().executerIO(loadTask);
     }
 
     // AJOUT : Chargement des statuts
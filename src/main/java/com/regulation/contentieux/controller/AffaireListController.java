@@ -14,6 +14,7 @@ import com.regulation.contentieux.model.Affaire;
 import com.regulation.contentieux.model.enums.StatutAffaire;
 import com.regulation.contentieux.service.AuthenticationService;
 import com.regulation.contentieux.util.AlertUtil;
+import com.regulation.contentieux.util.ChargeurListe;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -103,6 +104,27 @@ public class AffaireListController implements Initializable {
     private long totalElements = 0;
     private int totalPages = 0;
 
+    /**
+     * Critères de la dernière recherche lancée
+     */
+    private record CriteresAffaires(String recherche, StatutAffaire statut, LocalDate dateDebut, LocalDate dateFin) {
+        static final CriteresAffaires AUCUN = new CriteresAffaires(null, null, null, null);
+    }
+
+    /**
+     * Critères et page d'un chargement de la liste
+     */
+    private record RequeteAffaires(CriteresAffaires criteres, int page, int taille) {
+        RequeteAffaires suivante(ChargeurListe.Page<?> chargee) {
+            return (long) page * taille < chargee.total() ? new RequeteAffaires(criteres, page + 1, taille) : null;
+        }
+    }
+
+    private CriteresAffaires criteresRecherche = CriteresAffaires.AUCUN;
+    private final ChargeurListe<RequeteAffaires, AffaireViewModel> chargeurListe = new ChargeurListe<>(
+            "affaires", this::chargerPage, RequeteAffaires::suivante,
+            this::afficherPage, this::afficherErreurChargement);
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         try {
@@ -421,16 +443,13 @@ public class AffaireListController implements Initializable {
     }
 
     /**
-     * Chargement des données RÉELLES de la base
-     */
-    /**
-     * Chargement des données depuis la base
+     * Chargement de la page courante avec les critères de la dernière recherche
      */
     private void loadData() {
-        logger.debug("Chargement des données depuis la base...");
+        RequeteAffaires requete = new RequeteAffaires(criteresRecherche, currentPage, pageSize);
 
-        // Afficher immédiatement un indicateur de chargement
-        Platform.runLater(() -> {
+        // Afficher immédiatement un indicateur de chargement, sauf si la page était préchargée
+        if (!chargeurListe.demander(requete)) {
             affaires.clear();
             if (totalCountLabel != null) {
                 totalCountLabel.setText("Chargement...");
@@ -438,78 +457,76 @@ public class AffaireListController implements Initializable {
             if (paginationInfoLabel != null) {
                 paginationInfoLabel.setText("Chargement en cours...");
             }
-        });
-
-        // Créer une tâche asynchrone pour le chargement
-        Task<List<AffaireViewModel>> loadTask = new Task<List<AffaireViewModel>>() {
-            @Override
-            protected List<AffaireViewModel> call() throws Exception {
-                logger.info("Début du chargement asynchrone - page {} (pageSize: {})", currentPage, pageSize);
-
-                // Chargement des affaires depuis la base
-                List<Affaire> affairesFromDb = affaireDAO.findAll(
-                        (currentPage - 1) * pageSize, // offset
-                        pageSize // limit
-                );
-
-                // Comptage total
-                totalElements = affaireDAO.count();
-
-                logger.info("Chargées {} affaires depuis la base (total: {})",
-                        affairesFromDb.size(), totalElements);
-
-                // Conversion en ViewModels
-                List<AffaireViewModel> viewModels = new ArrayList<>();
-                for (Affaire affaire : affairesFromDb) {
-                    viewModels.add(convertToViewModel(affaire));
-                }
+        }
+    }
 
-                return viewModels;
-            }
+    /**
+     * Recharge la page courante après une modification
+     */
+    private void refreshData() {
+        chargeurListe.invalider();
+        loadData();
+    }
 
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    // Mise à jour de la liste
-                    affaires.clear();
-                    affaires.addAll(getValue());
+    /**
+     * Chargement d'une page, hors du thread JavaFX
+     */
+    private ChargeurListe.Page<AffaireViewModel> chargerPage(RequeteAffaires requete) {
+        CriteresAffaires criteres = requete.criteres();
+        logger.debug("Chargement page {} (pageSize: {}) : {}", requete.page(), requete.taille(), criteres);
 
-                    // Mise à jour des compteurs
-                    totalPages = (int) Math.ceil((double) totalElements / pageSize);
+        List<AffaireDAO.LigneAffaire> lignes = affaireDAO.findLignesListe(
+                criteres.recherche(), criteres.statut(), criteres.dateDebut(), criteres.dateFin(),
+                null, // bureauId (pas utilisé pour l'instant)
+                (requete.page() - 1) * requete.taille(), // offset
+                requete.taille() // limit
+        );
 
-                    // Mise à jour des labels
-                    updateTotalCountLabel();
-                    updatePaginationInfo();
-                    updatePaginationButtons();
-                    updatePaginationNumbers();
+        long total = affaireDAO.countSearchAffaires(
+                criteres.recherche(), criteres.statut(), criteres.dateDebut(), criteres.dateFin(), null);
 
-                    logger.info("Interface mise à jour avec succès : {} affaires affichées", affaires.size());
-                });
-            }
+        logger.info("Chargées {} affaires depuis la base (page {}, total: {})",
+                lignes.size(), requete.page(), total);
 
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    logger.error("Erreur lors du chargement des données", getException());
+        // Conversion en ViewModels
+        List<AffaireViewModel> viewModels = new ArrayList<>(lignes.size());
+        for (AffaireDAO.LigneAffaire ligne : lignes) {
+            viewModels.add(convertToViewModel(ligne));
+        }
 
-                    if (totalCountLabel != null) {
-                        totalCountLabel.setText("Erreur");
-                    }
-                    if (paginationInfoLabel != null) {
-                        paginationInfoLabel.setText("Erreur de chargement");
-                    }
+        return new ChargeurListe.Page<>(viewModels, total);
+    }
 
-                    AlertUtil.showErrorAlert("Erreur de chargement",
-                            "Impossible de charger les affaires",
-                            "Vérifiez la connexion à la base de données.");
-                });
-            }
-        };
+    private void afficherPage(RequeteAffaires requete, ChargeurListe.Page<AffaireViewModel> page) {
+        // Mise à jour de la liste
+        affaires.setAll(page.elements());
+
+        // Mise à jour des compteurs
+        totalElements = page.total();
+        totalPages = (int) Math.ceil((double) totalElements / pageSize);
+
+        // Mise à jour des labels
+        updateTotalCountLabel();
+        updatePaginationInfo();
+        updatePaginationButtons();
+        updatePaginationNumbers();
+
+        logger.info("Interface mise à jour avec succès : {} affaires affichées", affaires.size());
+    }
+
+    private void afficherErreurChargement(Throwable erreur) {
+        logger.error("Erreur lors du chargement des données", erreur);
+
+        if (totalCountLabel != null) {
+            totalCountLabel.setText("Erreur");
+        }
+        if (paginationInfoLabel != null) {
+            paginationInfoLabel.setText("Erreur de chargement");
+        }
 
-        // Exécuter la tâche dans un thread séparé
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        AlertUtil.showErrorAlert("Erreur de chargement",
+                "Impossible de charger les affaires",
+                "Vérifiez la connexion à la base de données.");
     }
 
     // ===== MÉTHODES D'ACTION =====
@@ -523,7 +540,7 @@ public class AffaireListController implements Initializable {
 
             if (controller.getCreatedAffaire() != null) {
                 logger.info("Nouvelle affaire créée : {}", controller.getCreatedAffaire().getNumeroAffaire());
-                loadData();
+                refreshData();
             }
         } catch (Exception e) {
             logger.error("Erreur lors de l'ouverture du dialogue", e);
@@ -581,108 +598,10 @@ public class AffaireListController implements Initializable {
 
         // Réinitialiser à la première page pour une nouvelle recherche
         currentPage = 1;
+        criteresRecherche = new CriteresAffaires(searchTerm, statut, dateDebut, dateFin);
 
         // Recharger avec les critères
-        loadDataWithCriteria(searchTerm, statut, dateDebut, dateFin);
-    }
-
-    /**
-     * Chargement des données avec critères de recherche
-     */
-    /**
-     * Chargement des données avec critères de recherche
-     */
-    private void loadDataWithCriteria(String searchTerm, StatutAffaire statut,
-                                      LocalDate dateDebut, LocalDate dateFin) {
-        logger.debug("Chargement avec critères: terme='{}', statut={}, dates={} à {}",
-                searchTerm, statut, dateDebut, dateFin);
-
-        // Afficher indicateur de chargement
-        Platform.runLater(() -> {
-            affaires.clear();
-            if (totalCountLabel != null) {
-                totalCountLabel.setText("Recherche...");
-            }
-            if (paginationInfoLabel != null) {
-                paginationInfoLabel.setText("Recherche en cours...");
-            }
-        });
-
-        // Tâche asynchrone pour la recherche
-        Task<List<AffaireViewModel>> searchTask = new Task<List<AffaireViewModel>>() {
-            @Override
-            protected List<AffaireViewModel> call() throws Exception {
-                // Utiliser la méthode de recherche avec critères
-                List<Affaire> affairesFromDb = affaireDAO.searchAffaires(
-                        searchTerm, statut, dateDebut, dateFin,
-                        null, // bureauId (pas utilisé pour l'instant)
-                        (currentPage - 1) * pageSize, // offset
-                        pageSize // limit
-                );
-
-                // Pour le comptage avec critères, utiliser la même recherche sans limite
-                // (Idéalement, il faudrait une méthode countSearchAffaires, mais on utilise l'existant)
-                List<Affaire> allResults = affaireDAO.searchAffaires(
-                        searchTerm, statut, dateDebut, dateFin,
-                        null, 0, Integer.MAX_VALUE
-                );
-                totalElements = allResults.size();
-
-                logger.info("Recherche terminée: {} résultats trouvés (page {}, total {})",
-                        affairesFromDb.size(), currentPage, totalElements);
-
-                // Conversion en ViewModels
-                List<AffaireViewModel> viewModels = new ArrayList<>();
-                for (Affaire affaire : affairesFromDb) {
-                    viewModels.add(convertToViewModel(affaire));
-                }
-
-                return viewModels;
-            }
-
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    // Mise à jour de la liste
-                    affaires.clear();
-                    affaires.addAll(getValue());
-
-                    // Mise à jour des compteurs
-                    totalPages = (int) Math.ceil((double) totalElements / pageSize);
-
-                    // Mise à jour de l'interface
-                    updateTotalCountLabel();
-                    updatePaginationInfo();
-                    updatePaginationButtons();
-                    updatePaginationNumbers();
-
-                    logger.info("Recherche terminée : {} résultats affichés sur {} total",
-                            affaires.size(), totalElements);
-                });
-            }
-
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    logger.error("Erreur lors de la recherche", getException());
-
-                    if (totalCountLabel != null) {
-                        totalCountLabel.setText("Erreur");
-                    }
-                    if (paginationInfoLabel != null) {
-                        paginationInfoLabel.setText("Erreur de recherche");
-                    }
-
-                    AlertUtil.showErrorAlert("Erreur", "Erreur de recherche",
-                            "Impossible d'effectuer la recherche : " + getException().getMessage());
-                });
-            }
-        };
-
-        // Exécuter la recherche
-        Thread searchThread = new Thread(searchTask);
-        searchThread.setDaemon(true);
-        searchThread.start();
+        loadData();
     }
 
     /**
@@ -733,53 +652,20 @@ public class AffaireListController implements Initializable {
     /**
      * Convertit une Affaire en AffaireViewModel
      */
-    private AffaireViewModel convertToViewModel(Affaire affaire) {
+    private AffaireViewModel convertToViewModel(AffaireDAO.LigneAffaire ligne) {
         AffaireViewModel viewModel = new AffaireViewModel();
 
         // Données de base
-        viewModel.setNumeroAffaire(affaire.getNumeroAffaire());
-        viewModel.setDateCreation(affaire.getDateCreation());
-
-        // Montant
-        BigDecimal montantTotal = affaire.getMontantAmendeTotal();
-        if (montantTotal != null) {
-            viewModel.setMontantAmendeTotal(montantTotal.doubleValue());
-        } else {
-            viewModel.setMontantAmendeTotal(0.0);
-        }
-
-        // Contrevenant
-        if (affaire.getContrevenant() != null) {
-            viewModel.setContrevenantNom(affaire.getContrevenant().getNomComplet());
-        } else {
-            viewModel.setContrevenantNom("N/A");
-        }
-
-        // Contravention - La base utilise une contravention unique
-        if (affaire.getContraventions() != null && !affaire.getContraventions().isEmpty()) {
-            // Prendre la première (et unique) contravention
-            Contravention contravention = affaire.getContraventions().get(0);
-            viewModel.setContraventionLibelle(contravention.getLibelle());
-        } else {
-            viewModel.setContraventionLibelle("N/A");
-        }
+        viewModel.setNumeroAffaire(ligne.numeroAffaire());
+        viewModel.setDateCreation(ligne.dateCreation());
+        viewModel.setMontantAmendeTotal(ligne.montantAmendeTotal().doubleValue());
+        viewModel.setStatut(ligne.statut());
 
-        // Statut
-        viewModel.setStatut(affaire.getStatut() != null ? affaire.getStatut() : StatutAffaire.OUVERTE);
-
-        // Bureau
-        if (affaire.getBureau() != null) {
-            viewModel.setBureauNom(affaire.getBureau().getNomBureau());
-        } else {
-            viewModel.setBureauNom("N/A");
-        }
-
-        // Service
-        if (affaire.getService() != null) {
-            viewModel.setServiceNom(affaire.getService().getNomService());
-        } else {
-            viewModel.setServiceNom("N/A");
-        }
+        // Libellés liés : "N/A" si absents
+        viewModel.setContrevenantNom(ligne.contrevenantNom() != null ? ligne.contrevenantNom() : "N/A");
+        viewModel.setContraventionLibelle(ligne.contraventionLibelle() != null ? ligne.contraventionLibelle() : "N/A");
+        viewModel.setBureauNom(ligne.bureauNom() != null ? ligne.bureauNom() : "N/A");
+        viewModel.setServiceNom(ligne.serviceNom() != null ? ligne.serviceNom() : "N/A");
 
         return viewModel;
     }
@@ -790,6 +676,8 @@ public class AffaireListController implements Initializable {
         if (statutComboBox != null) statutComboBox.setValue(null);
         if (dateDebutPicker != null) dateDebutPicker.setValue(null);
         if (dateFinPicker != null) dateFinPicker.setValue(null);
+        criteresRecherche = CriteresAffaires.AUCUN;
+        currentPage = 1;
         loadData();
     }
 
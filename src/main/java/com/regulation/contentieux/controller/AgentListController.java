@@ -4,7 +4,11 @@ import com.regulation.contentieux.dao.AgentDAO;
 import com.regulation.contentieux.model.Agent;
 import com.regulation.contentieux.service.AgentService;
 import com.regulation.contentieux.service.AuthenticationService;
+import com.regulation.contentieux.service.ReferentielCache;
+import com.regulation.contentieux.service.ResultatOperationLot;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.util.AlertUtil;
+import com.regulation.contentieux.util.ChargeurListe;
 import com.regulation.contentieux.util.DateFormatter;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
@@ -26,11 +30,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.regulation.contentieux.model.Service;
-import com.regulation.contentieux.dao.ServiceDAO;
 
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
@@ -91,6 +95,7 @@ public class AgentListController implements Initializable {
 
     // Services et données
     private AgentService agentService;
+    private final AgentDAO agentDAO = new AgentDAO();
     private AuthenticationService authService;
     private ObservableList<AgentViewModel> agents;
 
@@ -100,6 +105,21 @@ public class AgentListController implements Initializable {
     private long totalElements = 0;
     private int totalPages = 0;
 
+    /**
+     * Critères et page d'un chargement de la liste
+     */
+    private record RequeteAgents(String recherche, String grade, Boolean actif, int page, int taille) {
+        RequeteAgents suivante(ChargeurListe.Page<?> chargee) {
+            return (long) page * taille < chargee.total()
+                    ? new RequeteAgents(recherche, grade, actif, page + 1, taille)
+                    : null;
+        }
+    }
+
+    private final ChargeurListe<RequeteAgents, AgentViewModel> chargeurListe = new ChargeurListe<>(
+            "agents", this::chargerPage, RequeteAgents::suivante,
+            this::afficherPage, this::afficherErreurChargement);
+
     @FXML
     private void showRolesSpeciauxDialog() {
         if (!authService.getCurrentUser().isAdmin()) {
@@ -182,9 +202,7 @@ public class AgentListController implements Initializable {
                     "Impossible de charger la liste des agents.");
         });
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        AppExecutors.getInstance().executerIO(loadTask);
 
         // Ajouter les éléments au grid
         grid.add(new Label("Directeur Départemental (DD):"), 0, 0);
@@ -240,7 +258,7 @@ public class AgentListController implements Initializable {
                             "Les rôles DD et DG ont été attribués avec succès.");
 
                     // Rafraîchir la liste des agents
-                    loadData();
+                    refresh();
 
                 } catch (Exception ex) {
                     logger.error("Erreur lors de l'attribution des rôles", ex);
@@ -391,9 +409,8 @@ public class AgentListController implements Initializable {
         // AJOUT : Colonne Rôle Spécial
         if (roleSpecialColumn != null) {
             roleSpecialColumn.setCellValueFactory(cellData -> {
-                // Chercher le rôle spécial de cet agent dans la base de données
-                AgentDAO agentDAO = new AgentDAO();
-                String roleSpecial = agentDAO.getRoleSpecial(cellData.getValue().getId());
+                // Rôle spécial chargé avec la page
+                String roleSpecial = cellData.getValue().getRoleSpecial();
                 return new javafx.beans.property.SimpleStringProperty(roleSpecial != null ? roleSpecial : "");
             });
 
@@ -534,105 +551,72 @@ public class AgentListController implements Initializable {
      * Charge les données
      */
     private void loadData() {
-        Platform.runLater(() -> {
+        RequeteAgents requete = new RequeteAgents(searchField.getText(), gradeComboBox.getValue(),
+                statutComboBox.getValue(), currentPage, pageSize);
+
+        if (!chargeurListe.demander(requete)) {
             agents.clear();
             totalCountLabel.setText("Chargement...");
             paginationInfoLabel.setText("Chargement en cours...");
-        });
+        }
+    }
 
-        Task<List<AgentViewModel>> loadTask = new Task<List<AgentViewModel>>() {
-            @Override
-            protected List<AgentViewModel> call() throws Exception {
-                String searchText = searchField.getText();
-                String grade = gradeComboBox.getValue();
-                Boolean actif = statutComboBox.getValue();
-
-                logger.info("Chargement page {} (pageSize: {})", currentPage, pageSize);
-
-                List<Agent> agentsList = agentService.searchAgents(
-                        searchText, grade, null, actif, currentPage, pageSize);
-
-                totalElements = agentService.countSearchAgents(searchText, grade, null, actif);
-
-                logger.info("Chargement terminé: {} agents trouvés sur {} total",
-                        agentsList.size(), totalElements);
-
-                return agentsList.stream()
-                        .map(agent -> {
-                            AgentViewModel vm = new AgentViewModel();
-                            vm.setId(agent.getId());
-                            vm.setCodeAgent(agent.getCodeAgent());
-                            vm.setNom(agent.getNom());
-                            vm.setPrenom(agent.getPrenom());
-                            vm.setGrade(agent.getGrade());
-                            vm.setServiceId(agent.getServiceId());
-                            if (agent.getService() != null) {
-                                vm.setServiceNom(agent.getService().getNomService());
-                            }
-                            vm.setActif(agent.isActif());
-                            vm.setCreatedAt(agent.getCreatedAt());
-
-                            // AJOUT : Charger le rôle spécial si la colonne existe
-                            if (roleSpecialColumn != null) {
-                                AgentDAO agentDAO = new AgentDAO();
-                                String roleSpecial = agentDAO.getRoleSpecial(agent.getId());
-                                vm.setRoleSpecial(roleSpecial);
-                            }
-
-                            return vm;
-                        })
-                        .collect(Collectors.toList());
-            }
+    /**
+     * Chargement d'une page, hors du thread JavaFX
+     */
+    private ChargeurListe.Page<AgentViewModel> chargerPage(RequeteAgents requete) {
+        logger.info("Chargement page {} (pageSize: {})", requete.page(), requete.taille());
 
-            private AgentViewModel convertToViewModel(Agent agent) {
-                AgentViewModel viewModel = new AgentViewModel();
-                viewModel.setId(agent.getId());
-                viewModel.setCodeAgent(agent.getCodeAgent());
-                viewModel.setNom(agent.getNom());
-                viewModel.setPrenom(agent.getPrenom());
-                viewModel.setGrade(agent.getGrade());
-                viewModel.setServiceId(agent.getServiceId());
-                viewModel.setServiceNom("Service #" + agent.getServiceId()); // Simplifié
-                viewModel.setActif(agent.getActif());
-                viewModel.setCreatedAt(agent.getCreatedAt());
-                return viewModel;
-            }
+        List<AgentDAO.LigneAgent> lignes = agentDAO.findLignesListe(
+                requete.recherche(), requete.grade(), null, requete.actif(), requete.page(), requete.taille());
 
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    agents.clear();
-                    agents.addAll(getValue());
+        long total = agentService.countSearchAgents(requete.recherche(), requete.grade(), null, requete.actif());
 
-                    totalPages = (int) Math.ceil((double) totalElements / pageSize);
-                    updatePaginationInfo();
-                    updatePaginationButtons();
-                    updatePaginationNumbers();
+        logger.info("Chargement terminé: {} agents trouvés sur {} total", lignes.size(), total);
 
-                    String countText = formatLargeNumber(totalElements) + " agent(s)";
-                    totalCountLabel.setText(countText);
+        return new ChargeurListe.Page<>(lignes.stream()
+                .map(this::convertToViewModel)
+                .collect(Collectors.toList()), total);
+    }
 
-                    logger.debug("Interface mise à jour: {} agents affichés", agents.size());
-                });
-            }
+    private AgentViewModel convertToViewModel(AgentDAO.LigneAgent ligne) {
+        AgentViewModel vm = new AgentViewModel();
+        vm.setId(ligne.id());
+        vm.setCodeAgent(ligne.codeAgent());
+        vm.setNom(ligne.nom());
+        vm.setPrenom(ligne.prenom());
+        vm.setGrade(ligne.grade());
+        vm.setServiceId(ligne.serviceId());
+        vm.setServiceNom(ligne.serviceNom());
+        vm.setActif(ligne.actif());
+        vm.setCreatedAt(ligne.createdAt());
+        vm.setRoleSpecial(ligne.roleSpecial());
+        return vm;
+    }
 
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    logger.error("Erreur lors du chargement des agents", getException());
-                    totalCountLabel.setText("Erreur");
-                    paginationInfoLabel.setText("Erreur de chargement");
+    private void afficherPage(RequeteAgents requete, ChargeurListe.Page<AgentViewModel> page) {
+        agents.setAll(page.elements());
 
-                    AlertUtil.showErrorAlert("Erreur de chargement",
-                            "Impossible de charger les agents",
-                            "Vérifiez la connexion à la base de données.");
-                });
-            }
-        };
+        totalElements = page.total();
+        totalPages = (int) Math.ceil((double) totalElements / pageSize);
+        updatePaginationInfo();
+        updatePaginationButtons();
+        updatePaginationNumbers();
+
+        String countText = formatLargeNumber(totalElements) + " agent(s)";
+        totalCountLabel.setText(countText);
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        logger.debug("Interface mise à jour: {} agents affichés", agents.size());
+    }
+
+    private void afficherErreurChargement(Throwable erreur) {
+        logger.error("Erreur lors du chargement des agents", erreur);
+        totalCountLabel.setText("Erreur");
+        paginationInfoLabel.setText("Erreur de chargement");
+
+        AlertUtil.showErrorAlert("Erreur de chargement",
+                "Impossible de charger les agents",
+                "Vérifiez la connexion à la base de données.");
     }
 
     private String formatLargeNumber(long number) {
@@ -720,8 +704,7 @@ public class AgentListController implements Initializable {
         Task<List<Service>> loadServicesTask = new Task<List<Service>>() {
             @Override
             protected List<Service> call() throws Exception {
-                ServiceDAO serviceDAO = new ServiceDAO();
-                return serviceDAO.findAll();
+                return ReferentielCache.getInstance().getServices();
             }
         };
 
@@ -747,7 +730,7 @@ public class AgentListController implements Initializable {
             });
         });
 
-        new Thread(loadServicesTask).start();
+        AppExecutors.getInstance().executerIO(loadServicesTask);
 
         // Ajouter les champs au grid
         grid.add(new Label("Code:"), 0, 0);
@@ -824,7 +807,7 @@ public class AgentListController implements Initializable {
                                 savedAgent.getNomComplet() + " a été créé avec succès." +
                                 (savedAgent.getService() != null ?
                                         "\nService : " + savedAgent.getService().getNomService() : ""));
-                loadData(); // Rafraîchir la liste
+                refresh(); // Rafraîchir la liste
             } catch (Exception e) {
                 logger.error("Erreur lors de la création de l'agent", e);
                 AlertUtil.showErrorAlert("Erreur",
@@ -871,7 +854,7 @@ public class AgentListController implements Initializable {
                     AlertUtil.showInfoAlert("Statut modifié",
                             "Agent " + action,
                             "L'agent " + agent.getCodeAgent() + " a été " + action + " avec succès.");
-                    loadData();
+                    refresh();
                 });
             }
 
@@ -886,9 +869,7 @@ public class AgentListController implements Initializable {
             }
         };
 
-        Thread toggleThread = new Thread(toggleTask);
-        toggleThread.setDaemon(true);
-        toggleThread.start();
+        AppExecutors.getInstance().executerIO(toggleTask);
     }
 
     private void editSelectedAgents() {
@@ -913,22 +894,36 @@ public class AgentListController implements Initializable {
     }
 
     private void performDeletion(List<AgentViewModel> agents) {
-        Task<Void> deleteTask = new Task<Void>() {
+        List<Long> ids = agents.stream()
+                .map(AgentViewModel::getId)
+                .collect(Collectors.toList());
+
+        Task<ResultatOperationLot> deleteTask = new Task<ResultatOperationLot>() {
             @Override
-            protected Void call() throws Exception {
-                for (AgentViewModel agent : agents) {
-                    agentService.deleteAgent(agent.getId());
-                }
-                return null;
+            protected ResultatOperationLot call() throws Exception {
+                return agentService.deleteAgents(ids);
             }
 
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    AlertUtil.showInfoAlert("Suppression réussie",
-                            "Agents supprimés",
-                            agents.size() + " agent(s) supprimé(s) avec succès.");
-                    loadData();
+                    ResultatOperationLot resultat = getValue();
+                    String message = resultat.getNombreEffectues() + " agent(s) supprimé(s) avec succès.";
+
+                    if (resultat.estComplet()) {
+                        AlertUtil.showInfoAlert("Suppression réussie", "Agents supprimés", message);
+                    } else {
+                        Map<Long, String> codes = agents.stream()
+                                .collect(Collectors.toMap(AgentViewModel::getId, AgentViewModel::getCodeAgent, (a, b) -> a));
+                        String details = resultat.getEchecs().stream()
+                                .limit(10)
+                                .map(e -> "- " + codes.getOrDefault(e.id(), "#" + e.id()) + " : " + e.motif())
+                                .collect(Collectors.joining("\n"));
+                        AlertUtil.showWarningAlert("Suppression partielle",
+                                resultat.getEchecs().size() + " agent(s) non supprimé(s)",
+                                message + "\n" + details);
+                    }
+                    refresh();
                 });
             }
 
@@ -938,14 +933,12 @@ public class AgentListController implements Initializable {
                     logger.error("Erreur lors de la suppression", getException());
                     AlertUtil.showErrorAlert("Erreur de suppression",
                             "Impossible de supprimer les agents",
-                            "Une erreur technique s'est produite.");
+                            "Une erreur technique s'est produite. Aucun agent n'a été supprimé.");
                 });
             }
         };
 
-        Thread deleteThread = new Thread(deleteTask);
-        deleteThread.setDaemon(true);
-        deleteThread.start();
+        AppExecutors.getInstance().executerIO(deleteTask);
     }
 
     private void activateSelectedAgents() {
@@ -985,7 +978,7 @@ public class AgentListController implements Initializable {
                         AlertUtil.showInfoAlert("Statut modifié",
                                 "Agents " + pastAction,
                                 agents.size() + " agent(s) " + pastAction + " avec succès.");
-                        loadData();
+                        refresh();
                     });
                 }
 
@@ -1000,9 +993,7 @@ public class AgentListController implements Initializable {
                 }
             };
 
-            Thread statusThread = new Thread(statusTask);
-            statusThread.setDaemon(true);
-            statusThread.start();
+            AppExecutors.getInstance().executerIO(statusTask);
         }
     }
 
@@ -1142,6 +1133,7 @@ public class AgentListController implements Initializable {
     }
 
     public void refresh() {
+        chargeurListe.invalider();
         loadData();
     }
 
@@ -4,6 +4,7 @@ import com.regulation.contentieux.dao.ContrevenantDAO;
 import com.regulation.contentieux.model.Contrevenant;
 import com.regulation.contentieux.service.AuthenticationService;
 import com.regulation.contentieux.service.ValidationService;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.util.AlertUtil;
 import com.regulation.contentieux.util.CurrencyFormatter;
 import javafx.application.Platform;
@@ -440,9 +441,7 @@ public class ContrevenantFormController implements Initializable {
             }
         };
 
-        Thread saveThread = new Thread(saveTask);
-        saveThread.setDaemon(true);
-        saveThread.start();
+        AppExecutors.getInstance().executerIO(saveTask);
     }
 
     /**
@@ -554,9 +553,7 @@ public class ContrevenantFormController implements Initializable {
             }
         };
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        AppExecutors.getInstance().executerIO(loadTask);
     }
 
     // Méthodes publiques pour l'intégration
@@ -1,9 +1,12 @@
 package com.regulation.contentieux.controller;
 
+import com.regulation.contentieux.dao.ContrevenantDAO;
 import com.regulation.contentieux.model.Contrevenant;
 import com.regulation.contentieux.service.AuthenticationService;
 import com.regulation.contentieux.service.ContrevenantService;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.util.AlertUtil;
+import com.regulation.contentieux.util.ChargeurListe;
 import com.regulation.contentieux.util.DateFormatter;
 import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
@@ -79,6 +82,7 @@ public class ContrevenantListController implements Initializable {
 
     // Services et données
     private ContrevenantService contrevenantService;
+    private final ContrevenantDAO contrevenantDAO = new ContrevenantDAO();
     private AuthenticationService authService;
     private ObservableList<ContrevenantViewModel> contrevenants;
 
@@ -88,6 +92,21 @@ public class ContrevenantListController implements Initializable {
     private long totalElements = 0;
     private int totalPages = 0;
 
+    /**
+     * Critères et page d'un chargement de la liste
+     */
+    private record RequeteContrevenants(String recherche, String typePersonne, int page, int taille) {
+        RequeteContrevenants suivante(ChargeurListe.Page<?> chargee) {
+            return (long) page * taille < chargee.total()
+                    ? new RequeteContrevenants(recherche, typePersonne, page + 1, taille)
+                    : null;
+        }
+    }
+
+    private final ChargeurListe<RequeteContrevenants, ContrevenantViewModel> chargeurListe = new ChargeurListe<>(
+            "contrevenants", this::chargerPage, RequeteContrevenants::suivante,
+            this::afficherPage, this::afficherErreurChargement);
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         contrevenantService = new ContrevenantService();
@@ -272,89 +291,76 @@ public class ContrevenantListController implements Initializable {
      * Charge les données
      */
     private void loadData() {
-        // Afficher immédiatement un indicateur de chargement
-        Platform.runLater(() -> {
+        RequeteContrevenants requete = new RequeteContrevenants(searchField.getText(),
+                typePersonneComboBox.getValue(), currentPage, pageSize);
+
+        // Afficher immédiatement un indicateur de chargement, sauf si la page était préchargée
+        if (!chargeurListe.demander(requete)) {
             contrevenants.clear();
             totalCountLabel.setText("Chargement...");
             paginationInfoLabel.setText("Chargement en cours...");
-        });
-
-        Task<List<ContrevenantViewModel>> loadTask = new Task<List<ContrevenantViewModel>>() {
-            @Override
-            protected List<ContrevenantViewModel> call() throws Exception {
-                // Récupération des critères de recherche
-                String searchText = searchField.getText();
-                String typePersonne = typePersonneComboBox.getValue();
-
-                logger.info("Chargement page {} (pageSize: {})", currentPage, pageSize);
+        }
+    }
 
-                // Chargement des contrevenants
-                List<Contrevenant> contrevenantsList = contrevenantService.searchContrevenants(
-                        searchText, typePersonne, currentPage, pageSize);
+    /**
+     * Chargement d'une page, hors du thread JavaFX
+     */
+    private ChargeurListe.Page<ContrevenantViewModel> chargerPage(RequeteContrevenants requete) {
+        logger.info("Chargement page {} (pageSize: {})", requete.page(), requete.taille());
 
-                // Comptage total
-                totalElements = contrevenantService.countSearchContrevenants(searchText, typePersonne);
+        // Chargement des lignes affichées
+        List<ContrevenantDAO.LigneContrevenant> lignes = contrevenantDAO.findLignesListe(
+                requete.recherche(), requete.typePersonne(), requete.page(), requete.taille());
 
-                logger.info("Chargement terminé: {} contrevenants trouvés sur {} total",
-                        contrevenantsList.size(), totalElements);
+        // Comptage total
+        long total = contrevenantService.countSearchContrevenants(requete.recherche(), requete.typePersonne());
 
-                // Conversion vers le modèle d'affichage
-                return contrevenantsList.stream()
-                        .map(this::convertToViewModel)
-                        .collect(Collectors.toList());
-            }
+        logger.info("Chargement terminé: {} contrevenants trouvés sur {} total", lignes.size(), total);
 
-            private ContrevenantViewModel convertToViewModel(Contrevenant contrevenant) {
-                ContrevenantViewModel viewModel = new ContrevenantViewModel();
-                viewModel.setId(contrevenant.getId());
-                viewModel.setCode(contrevenant.getCode());
-                viewModel.setNomComplet(contrevenant.getNomComplet());
-                viewModel.setTypePersonne(contrevenant.getTypePersonne());
-                viewModel.setTelephone(contrevenant.getTelephone());
-                viewModel.setEmail(contrevenant.getEmail());
-                viewModel.setAdresse(contrevenant.getAdresse());
-                viewModel.setCreatedAt(contrevenant.getCreatedAt());
-                return viewModel;
-            }
+        // Conversion vers le modèle d'affichage
+        return new ChargeurListe.Page<>(lignes.stream()
+                .map(this::convertToViewModel)
+                .collect(Collectors.toList()), total);
+    }
 
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    contrevenants.clear();
-                    contrevenants.addAll(getValue());
+    private ContrevenantViewModel convertToViewModel(ContrevenantDAO.LigneContrevenant ligne) {
+        ContrevenantViewModel viewModel = new ContrevenantViewModel();
+        viewModel.setId(ligne.id());
+        viewModel.setCode(ligne.code());
+        viewModel.setNomComplet(ligne.nomComplet());
+        viewModel.setTypePersonne(ligne.typePersonne());
+        viewModel.setTelephone(ligne.telephone());
+        viewModel.setEmail(ligne.email());
+        viewModel.setAdresse(ligne.adresse());
+        viewModel.setCreatedAt(ligne.createdAt());
+        return viewModel;
+    }
 
-                    // Mise à jour de la pagination
-                    totalPages = (int) Math.ceil((double) totalElements / pageSize);
-                    updatePaginationInfo();
-                    updatePaginationButtons();
-                    updatePaginationNumbers();
+    private void afficherPage(RequeteContrevenants requete, ChargeurListe.Page<ContrevenantViewModel> page) {
+        contrevenants.setAll(page.elements());
 
-                    // Mise à jour du compteur
-                    String countText = formatLargeNumber(totalElements) + " contrevenant(s)";
-                    totalCountLabel.setText(countText);
+        // Mise à jour de la pagination
+        totalElements = page.total();
+        totalPages = (int) Math.ceil((double) totalElements / pageSize);
+        updatePaginationInfo();
+        updatePaginationButtons();
+        updatePaginationNumbers();
 
-                    logger.debug("Interface mise à jour: {} contrevenants affichés", contrevenants.size());
-                });
-            }
+        // Mise à jour du compteur
+        String countText = formatLargeNumber(totalElements) + " contrevenant(s)";
+        totalCountLabel.setText(countText);
 
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    logger.error("Erreur lors du chargement des contrevenants", getException());
-                    totalCountLabel.setText("Erreur");
-                    paginationInfoLabel.setText("Erreur de chargement");
+        logger.debug("Interface mise à jour: {} contrevenants affichés", contrevenants.size());
+    }
 
-                    AlertUtil.showErrorAlert("Erreur de chargement",
-                            "Impossible de charger les contrevenants",
-                            "Vérifiez la connexion à la base de données.");
-                });
-            }
-        };
+    private void afficherErreurChargement(Throwable erreur) {
+        logger.error("Erreur lors du chargement des contrevenants", erreur);
+        totalCountLabel.setText("Erreur");
+        paginationInfoLabel.setText("Erreur de chargement");
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.setPriority(Thread.NORM_PRIORITY);
-        loadThread.start();
+        AlertUtil.showErrorAlert("Erreur de chargement",
+                "Impossible de charger les contrevenants",
+                "Vérifiez la connexion à la base de données.");
     }
 
     /**
@@ -445,7 +451,7 @@ public class ContrevenantListController implements Initializable {
                     AlertUtil.showInfoAlert("Suppression réussie",
                             "Contrevenants supprimés",
                             contrevenants.size() + " contrevenant(s) supprimé(s) avec succès.");
-                    loadData();
+                    refresh();
                 });
             }
 
@@ -460,9 +466,7 @@ public class ContrevenantListController implements Initializable {
             }
         };
 
-        Thread deleteThread = new Thread(deleteTask);
-        deleteThread.setDaemon(true);
-        deleteThread.start();
+        AppExecutors.getInstance().executerIO(deleteTask);
     }
 
     private void duplicateSelectedContrevenants() {
@@ -603,6 +607,7 @@ public class ContrevenantListController implements Initializable {
     }
 
     public void refresh() {
+        chargeurListe.invalider();
         loadData();
     }
 
@@ -10,6 +10,7 @@ import com.regulation.contentieux.model.enums.StatutEncaissement;
 import com.regulation.contentieux.service.AuthenticationService;
 import com.regulation.contentieux.service.EncaissementService;
 import com.regulation.contentieux.service.AffaireService;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.util.AlertUtil;
 import com.regulation.contentieux.util.CurrencyFormatter;
 import com.regulation.contentieux.util.DateFormatter;
@@ -282,9 +283,7 @@ public class EncaissementFormController implements Initializable {
             }
         };
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        AppExecutors.getInstance().executerIO(loadTask);
     }
 
     private void loadEncaissementsHistory(Long affaireId) {
@@ -339,9 +338,7 @@ public class EncaissementFormController implements Initializable {
             }
         };
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        AppExecutors.getInstance().executerIO(loadTask);
     }
 
     /**
@@ -652,9 +649,7 @@ public class EncaissementFormController implements Initializable {
             }
         };
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        AppExecutors.getInstance().executerIO(loadTask);
     }
 
     private void updateAffaireDetails(Affaire affaire) {
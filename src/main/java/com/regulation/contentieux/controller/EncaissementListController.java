@@ -1,11 +1,15 @@
 package com.regulation.contentieux.controller;
 
+import com.regulation.contentieux.dao.EncaissementDAO;
 import com.regulation.contentieux.model.Encaissement;
 import com.regulation.contentieux.model.enums.ModeReglement;
 import com.regulation.contentieux.model.enums.StatutEncaissement;
 import com.regulation.contentieux.service.AuthenticationService;
 import com.regulation.contentieux.service.EncaissementService;
+import com.regulation.contentieux.service.ResultatOperationLot;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.util.AlertUtil;
+import com.regulation.contentieux.util.ChargeurListe;
 import com.regulation.contentieux.util.CurrencyFormatter;
 import com.regulation.contentieux.util.DateFormatter;
 import javafx.application.Platform;
@@ -29,6 +33,7 @@ import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
@@ -90,6 +95,7 @@ public class EncaissementListController implements Initializable {
 
     // Services et données
     private EncaissementService encaissementService;
+    private EncaissementDAO encaissementDAO;
     private AuthenticationService authService;
     private ObservableList<EncaissementViewModel> encaissements;
 
@@ -99,9 +105,26 @@ public class EncaissementListController implements Initializable {
     private long totalElements = 0;
     private int totalPages = 0;
 
+    /**
+     * Critères et page d'un chargement de la liste
+     */
+    private record RequeteEncaissements(String recherche, StatutEncaissement statut, ModeReglement modeReglement,
+                                        LocalDate dateDebut, LocalDate dateFin, int page, int taille) {
+        RequeteEncaissements suivante(ChargeurListe.Page<?> chargee) {
+            return (long) page * taille < chargee.total()
+                    ? new RequeteEncaissements(recherche, statut, modeReglement, dateDebut, dateFin, page + 1, taille)
+                    : null;
+        }
+    }
+
+    private final ChargeurListe<RequeteEncaissements, EncaissementViewModel> chargeurListe = new ChargeurListe<>(
+            "encaissements", this::chargerPage, RequeteEncaissements::suivante,
+            this::afficherPage, this::afficherErreurChargement);
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         encaissementService = new EncaissementService();
+        encaissementDAO = new EncaissementDAO();
         authService = AuthenticationService.getInstance();
         encaissements = FXCollections.observableArrayList();
 
@@ -375,99 +398,83 @@ public class EncaissementListController implements Initializable {
     }
 
     /**
-     * Charge les données
+     * Charge la page courante avec les critères saisis
      */
     private void loadData() {
-        Platform.runLater(() -> {
+        RequeteEncaissements requete = new RequeteEncaissements(searchField.getText(), statutComboBox.getValue(),
+                modeReglementComboBox.getValue(), dateDebutPicker.getValue(), dateFinPicker.getValue(),
+                currentPage, pageSize);
+
+        if (!chargeurListe.demander(requete)) {
             encaissements.clear();
             totalCountLabel.setText("Chargement...");
             paginationInfoLabel.setText("Chargement en cours...");
-        });
-
-        Task<List<EncaissementViewModel>> loadTask = new Task<List<EncaissementViewModel>>() {
-            @Override
-            protected List<EncaissementViewModel> call() throws Exception {
-                // Récupération des critères de recherche
-                String searchText = searchField.getText();
-                StatutEncaissement statut = statutComboBox.getValue();
-                ModeReglement modeReglement = modeReglementComboBox.getValue();
-                LocalDate dateDebut = dateDebutPicker.getValue();
-                LocalDate dateFin = dateFinPicker.getValue();
-
-                logger.info("Chargement page {} (pageSize: {})", currentPage, pageSize);
-
-                // Chargement des encaissements
-                List<Encaissement> encaissementsList = encaissementService.searchEncaissements(
-                        searchText, statut, modeReglement, dateDebut, dateFin, null, currentPage, pageSize);
-
-                // Comptage total
-                totalElements = encaissementService.countSearchEncaissements(
-                        searchText, statut, modeReglement, dateDebut, dateFin, null);
-
-                logger.info("Chargement terminé: {} encaissements trouvés sur {} total",
-                        encaissementsList.size(), totalElements);
-
-                // Conversion vers le modèle d'affichage
-                return encaissementsList.stream()
-                        .map(this::convertToViewModel)
-                        .collect(Collectors.toList());
-            }
-
-            private EncaissementViewModel convertToViewModel(Encaissement encaissement) {
-                EncaissementViewModel viewModel = new EncaissementViewModel();
-                viewModel.setId(encaissement.getId());
-                viewModel.setReference(encaissement.getReference());
-                viewModel.setAffaireId(encaissement.getAffaireId());
-                viewModel.setAffaireNumero("Affaire #" + encaissement.getAffaireId()); // Simplifié
-                BigDecimal montantEncaisse = encaissement.getMontantEncaisse();
-                viewModel.setMontantEncaisse(montantEncaisse != null ? montantEncaisse.doubleValue() : 0.0);
-                viewModel.setDateEncaissement(encaissement.getDateEncaissement());
-                viewModel.setModeReglement(encaissement.getModeReglement());
-                viewModel.setStatut(encaissement.getStatut());
-                viewModel.setBanqueId(encaissement.getBanqueId());
-                viewModel.setBanqueNom(encaissement.getBanqueId() != null ? "Banque #" + encaissement.getBanqueId() : "");
-                viewModel.setCreatedAt(encaissement.getCreatedAt());
-                viewModel.setCreatedBy(encaissement.getCreatedBy());
-                return viewModel;
-            }
-
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    encaissements.clear();
-                    encaissements.addAll(getValue());
-
-                    // Mise à jour de la pagination
-                    totalPages = (int) Math.ceil((double) totalElements / pageSize);
-                    updatePaginationInfo();
-                    updatePaginationButtons();
-                    updatePaginationNumbers();
+        }
+    }
 
-                    // Mise à jour du compteur
-                    String countText = formatLargeNumber(totalElements) + " encaissement(s)";
-                    totalCountLabel.setText(countText);
+    /**
+     * Chargement d'une page, hors du thread JavaFX
+     */
+    private ChargeurListe.Page<EncaissementViewModel> chargerPage(RequeteEncaissements requete) {
+        logger.info("Chargement page {} (pageSize: {})", requete.page(), requete.taille());
+
+        List<EncaissementDAO.LigneEncaissement> lignes = encaissementDAO.findLignesListe(
+                requete.recherche(), requete.modeReglement(), requete.dateDebut(),
+                requete.dateFin(), null, requete.page(), requete.taille());
+
+        long total = encaissementService.countSearchEncaissements(
+                requete.recherche(), requete.statut(), requete.modeReglement(), requete.dateDebut(),
+                requete.dateFin(), null);
+
+        logger.info("Chargement terminé: {} encaissements trouvés sur {} total", lignes.size(), total);
+
+        return new ChargeurListe.Page<>(lignes.stream()
+                .map(this::convertToViewModel)
+                .collect(Collectors.toList()), total);
+    }
+
+    private EncaissementViewModel convertToViewModel(EncaissementDAO.LigneEncaissement ligne) {
+        EncaissementViewModel viewModel = new EncaissementViewModel();
+        viewModel.setId(ligne.id());
+        viewModel.setReference(ligne.reference());
+        viewModel.setAffaireId(ligne.affaireId());
+        viewModel.setAffaireNumero(ligne.numeroAffaire() != null ? ligne.numeroAffaire()
+                : ligne.affaireId() != null ? "Affaire #" + ligne.affaireId() : "");
+        viewModel.setMontantEncaisse(ligne.montantEncaisse().doubleValue());
+        viewModel.setDateEncaissement(ligne.dateEncaissement());
+        viewModel.setModeReglement(ligne.modeReglement());
+        viewModel.setStatut(StatutEncaissement.VALIDE); // Pas de colonne statut dans le schéma
+        viewModel.setBanqueId(ligne.banqueId());
+        viewModel.setBanqueNom(ligne.banqueNom() != null ? ligne.banqueNom() : "");
+        viewModel.setCreatedAt(ligne.createdAt());
+        return viewModel;
+    }
+
+    private void afficherPage(RequeteEncaissements requete, ChargeurListe.Page<EncaissementViewModel> page) {
+        encaissements.setAll(page.elements());
+
+        // Mise à jour de la pagination
+        totalElements = page.total();
+        totalPages = (int) Math.ceil((double) totalElements / pageSize);
+        updatePaginationInfo();
+        updatePaginationButtons();
+        updatePaginationNumbers();
 
-                    logger.debug("Interface mise à jour: {} encaissements affichés", encaissements.size());
-                });
-            }
+        // Mise à jour du compteur
+        String countText = formatLargeNumber(totalElements) + " encaissement(s)";
+        totalCountLabel.setText(countText);
 
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    logger.error("Erreur lors du chargement des encaissements", getException());
-                    totalCountLabel.setText("Erreur");
-                    paginationInfoLabel.setText("Erreur de chargement");
+        logger.debug("Interface mise à jour: {} encaissements affichés", encaissements.size());
+    }
 
-                    AlertUtil.showErrorAlert("Erreur de chargement",
-                            "Impossible de charger les encaissements",
-                            "Vérifiez la connexion à la base de données.");
-                });
-            }
-        };
+    private void afficherErreurChargement(Throwable erreur) {
+        logger.error("Erreur lors du chargement des encaissements", erreur);
+        totalCountLabel.setText("Erreur");
+        paginationInfoLabel.setText("Erreur de chargement");
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        AlertUtil.showErrorAlert("Erreur de chargement",
+                "Impossible de charger les encaissements",
+                "Vérifiez la connexion à la base de données.");
     }
 
     /**
@@ -568,7 +575,7 @@ public class EncaissementListController implements Initializable {
                     AlertUtil.showSuccessAlert("Validation réussie",
                             "Encaissement validé",
                             "L'encaissement " + encaissement.getReference() + " a été validé avec succès.");
-                    loadData();
+                    refresh();
                 });
             }
 
@@ -583,9 +590,7 @@ public class EncaissementListController implements Initializable {
             }
         };
 
-        Thread validateThread = new Thread(validateTask);
-        validateThread.setDaemon(true);
-        validateThread.start();
+        AppExecutors.getInstance().executerIO(validateTask);
     }
 
     private void performRejection(EncaissementViewModel encaissement) {
@@ -603,7 +608,7 @@ public class EncaissementListController implements Initializable {
                     AlertUtil.showSuccessAlert("Rejet réussi",
                             "Encaissement rejeté",
                             "L'encaissement " + encaissement.getReference() + " a été rejeté avec succès.");
-                    loadData();
+                    refresh();
                 });
             }
 
@@ -618,9 +623,7 @@ public class EncaissementListController implements Initializable {
             }
         };
 
-        Thread rejectThread = new Thread(rejectTask);
-        rejectThread.setDaemon(true);
-        rejectThread.start();
+        AppExecutors.getInstance().executerIO(rejectTask);
     }
 
     private void editSelectedEncaissements() {
@@ -664,7 +667,7 @@ public class EncaissementListController implements Initializable {
                     AlertUtil.showInfoAlert("Suppression réussie",
                             "Encaissements supprimés",
                             encaissements.size() + " encaissement(s) supprimé(s) avec succès.");
-                    loadData();
+                    refresh();
                 });
             }
 
@@ -679,9 +682,7 @@ public class EncaissementListController implements Initializable {
             }
         };
 
-        Thread deleteThread = new Thread(deleteTask);
-        deleteThread.setDaemon(true);
-        deleteThread.start();
+        AppExecutors.getInstance().executerIO(deleteTask);
     }
 
     private void validateSelectedEncaissements() {
@@ -725,78 +726,75 @@ public class EncaissementListController implements Initializable {
     }
 
     private void performBatchValidation(List<EncaissementViewModel> encaissements) {
-        Task<Void> batchTask = new Task<Void>() {
-            @Override
-            protected Void call() throws Exception {
-                String currentUser = authService.getCurrentUser().getUsername(); // AJOUTÉ
-                for (EncaissementViewModel encaissement : encaissements) {
-                    encaissementService.validerEncaissement(encaissement.getId(), currentUser); // CORRIGÉ
-                }
-                return null;
-            }
-
-            @Override
-            protected void succeeded() {
-                Platform.runLater(() -> {
-                    AlertUtil.showSuccessAlert("Validation réussie",
-                            "Encaissements validés",
-                            encaissements.size() + " encaissement(s) validé(s) avec succès.");
-                    loadData();
-                });
-            }
-
-            @Override
-            protected void failed() {
-                Platform.runLater(() -> {
-                    logger.error("Erreur lors de la validation en lot", getException());
-                    AlertUtil.showErrorAlert("Erreur de validation",
-                            "Impossible de valider tous les encaissements",
-                            "Une erreur technique s'est produite.");
-                });
-            }
-        };
+        performBatchStatusChange(encaissements, true);
+    }
 
-        Thread batchThread = new Thread(batchTask);
-        batchThread.setDaemon(true);
-        batchThread.start();
+    private void performBatchRejection(List<EncaissementViewModel> encaissements) {
+        performBatchStatusChange(encaissements, false);
     }
 
+    /**
+     * Validation ou rejet du lot en une seule opération ; le compte rendu
+     * détaille les encaissements non traités
+     */
+    private void performBatchStatusChange(List<EncaissementViewModel> encaissements, boolean validation) {
+        List<Long> ids = encaissements.stream()
+                .map(EncaissementViewModel::getId)
+                .collect(Collectors.toList());
 
-    private void performBatchRejection(List<EncaissementViewModel> encaissements) {
-        Task<Void> batchTask = new Task<Void>() {
+        Task<ResultatOperationLot> batchTask = new Task<ResultatOperationLot>() {
             @Override
-            protected Void call() throws Exception {
-                String currentUser = authService.getCurrentUser().getUsername(); // AJOUTÉ
-                for (EncaissementViewModel encaissement : encaissements) {
-                    encaissementService.rejeterEncaissement(encaissement.getId(), currentUser); // CORRIGÉ
-                }
-                return null;
+            protected ResultatOperationLot call() throws Exception {
+                String currentUser = authService.getCurrentUser().getUsername();
+                return validation
+                        ? encaissementService.validerEncaissements(ids, currentUser)
+                        : encaissementService.rejeterEncaissements(ids, currentUser);
             }
 
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
-                    AlertUtil.showSuccessAlert("Rejet réussi",
-                            "Encaissements rejetés",
-                            encaissements.size() + " encaissement(s) rejeté(s) avec succès.");
-                    loadData();
+                    ResultatOperationLot resultat = getValue();
+                    String action = validation ? "validé(s)" : "rejeté(s)";
+                    String message = resultat.getNombreEffectues() + " encaissement(s) " + action + " avec succès.";
+
+                    if (resultat.estComplet()) {
+                        AlertUtil.showSuccessAlert(validation ? "Validation réussie" : "Rejet réussi",
+                                validation ? "Encaissements validés" : "Encaissements rejetés", message);
+                    } else {
+                        AlertUtil.showWarningAlert(validation ? "Validation partielle" : "Rejet partiel",
+                                resultat.getEchecs().size() + " encaissement(s) non traité(s)",
+                                message + "\n" + decrireEchecs(resultat));
+                    }
+                    refresh();
                 });
             }
 
             @Override
             protected void failed() {
                 Platform.runLater(() -> {
-                    logger.error("Erreur lors du rejet en lot", getException());
-                    AlertUtil.showErrorAlert("Erreur de rejet",
-                            "Impossible de rejeter tous les encaissements",
-                            "Une erreur technique s'est produite.");
+                    logger.error(validation ? "Erreur lors de la validation en lot" : "Erreur lors du rejet en lot",
+                            getException());
+                    AlertUtil.showErrorAlert(validation ? "Erreur de validation" : "Erreur de rejet",
+                            validation ? "Impossible de valider les encaissements" : "Impossible de rejeter les encaissements",
+                            "Une erreur technique s'est produite. Aucun encaissement n'a été modifié.");
                 });
             }
         };
 
-        Thread batchThread = new Thread(batchTask);
-        batchThread.setDaemon(true);
-        batchThread.start();
+        AppExecutors.getInstance().executerIO(batchTask);
+    }
+
+    private String decrireEchecs(ResultatOperationLot resultat) {
+        Map<Long, String> references = encaissementsTableView.getItems().stream()
+                .collect(Collectors.toMap(EncaissementViewModel::getId, EncaissementViewModel::getReference, (a, b) -> a));
+
+        List<ResultatOperationLot.IssueElement> echecs = resultat.getEchecs();
+        String details = echecs.stream()
+                .limit(10)
+                .map(e -> "- " + references.getOrDefault(e.id(), "#" + e.id()) + " : " + e.motif())
+                .collect(Collectors.joining("\n"));
+        return echecs.size() > 10 ? details + "\n... et " + (echecs.size() - 10) + " autre(s)" : details;
     }
 
     private void printSelectedEncaissements() {
@@ -933,6 +931,7 @@ public class EncaissementListController implements Initializable {
     }
 
     public void refresh() {
+        chargeurListe.invalider();
         loadData();
     }
 
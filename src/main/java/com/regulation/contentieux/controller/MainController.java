@@ -2,6 +2,7 @@ package com.regulation.contentieux.controller;
 
 import com.regulation.contentieux.dao.AgentDAO;
 import com.regulation.contentieux.service.AgentService;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.transformation.FilteredList;
 import javafx.concurrent.Task;
@@ -28,6 +29,10 @@ import com.regulation.contentieux.model.enums.RoleUtilisateur;
 
 import com.regulation.contentieux.service.MandatService;
 import com.regulation.contentieux.service.AuthenticationService;
+import com.regulation.contentieux.service.AppExecutors;
+import com.regulation.contentieux.service.ImportService;
+import com.regulation.contentieux.service.PlanRepartition;
+import com.regulation.contentieux.service.RegleRepartitionService;
 import com.regulation.contentieux.util.StageManager;
 import com.regulation.contentieux.util.AlertUtil;
 
@@ -758,17 +763,321 @@ public class MainController implements Initializable {
             MenuItem rolesSpeciaux = new MenuItem("Attribution DD/DG");
             rolesSpeciaux.setOnAction(e -> showRolesSpeciauxManagement());
 
+            MenuItem reglesRepartition = new MenuItem("Règles de répartition");
+            reglesRepartition.setOnAction(e -> showReglesRepartitionManagement());
+
+            MenuItem importDonnees = new MenuItem("Import de données (Excel/CSV)...");
+            importDonnees.setOnAction(e -> showImportDialog());
+
             if (menuAdministration.getItems().isEmpty()) {
                 menuAdministration.getItems().addAll(
                         gestionUtilisateurs,
                         referentiel,
                         new SeparatorMenuItem(),
-                        rolesSpeciaux
+                        rolesSpeciaux,
+                        reglesRepartition,
+                        new SeparatorMenuItem(),
+                        importDonnees
                 );
             }
         }
     }
 
+    /**
+     * Import en masse de contrevenants ou d'affaires ; les lignes refusées
+     * peuvent être enregistrées en CSV pour correction
+     */
+    private void showImportDialog() {
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Import de données");
+        dialog.setHeaderText("Import d'un fichier Excel (.xlsx) ou CSV");
+        dialog.setResizable(true);
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        if (contentPane != null && contentPane.getScene() != null) {
+            dialog.initOwner(contentPane.getScene().getWindow());
+        }
+
+        VBox content = new VBox(12);
+        content.setPadding(new Insets(20));
+        content.setPrefWidth(560);
+
+        ComboBox<ImportService.TypeImport> typeCombo = new ComboBox<>(
+                FXCollections.observableArrayList(ImportService.TypeImport.values()));
+        typeCombo.setValue(ImportService.TypeImport.AFFAIRES);
+        typeCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(ImportService.TypeImport type) {
+                return type != null ? type.getLibelle() : "";
+            }
+
+            @Override
+            public ImportService.TypeImport fromString(String texte) {
+                return null;
+            }
+        });
+
+        Label colonnesLabel = new Label();
+        colonnesLabel.setWrapText(true);
+        colonnesLabel.setStyle("-fx-text-fill: #666;");
+        Runnable majColonnes = () -> colonnesLabel.setText("Colonnes obligatoires : "
+                + String.join(", ", typeCombo.getValue().getColonnesObligatoires())
+                + "\nColonnes optionnelles : " + String.join(", ", typeCombo.getValue().getColonnesOptionnelles()));
+        typeCombo.valueProperty().addListener((obs, ancien, nouveau) -> majColonnes.run());
+        majColonnes.run();
+
+        final java.io.File[] fichier = {null};
+        Label fichierLabel = new Label("Aucun fichier sélectionné");
+        Button choisirButton = new Button("Choisir un fichier...");
+        Button importerButton = new Button("Importer");
+        importerButton.setDisable(true);
+        choisirButton.setOnAction(e -> {
+            javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
+            chooser.setTitle("Fichier à importer");
+            chooser.getExtensionFilters().addAll(
+                    new javafx.stage.FileChooser.ExtensionFilter("Excel ou CSV", "*.xlsx", "*.csv", "*.txt"));
+            java.io.File choisi = chooser.showOpenDialog(dialog.getDialogPane().getScene().getWindow());
+            if (choisi != null) {
+                fichier[0] = choisi;
+                fichierLabel.setText(choisi.getName());
+                importerButton.setDisable(false);
+            }
+        });
+
+        ProgressIndicator progression = new ProgressIndicator();
+        progression.setVisible(false);
+        progression.setPrefSize(24, 24);
+        Label etatLabel = new Label();
+        etatLabel.setWrapText(true);
+        Button erreursButton = new Button("Enregistrer les erreurs (CSV)...");
+        erreursButton.setVisible(false);
+
+        final ImportService.RapportImport[] dernierRapport = {null};
+        erreursButton.setOnAction(e -> {
+            javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
+            chooser.setTitle("Enregistrer les lignes refusées");
+            chooser.setInitialFileName("erreurs_import_" + LocalDateTime.now()
+                    .format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv");
+            chooser.getExtensionFilters().add(new javafx.stage.FileChooser.ExtensionFilter("CSV", "*.csv"));
+            java.io.File destination = chooser.showSaveDialog(dialog.getDialogPane().getScene().getWindow());
+            if (destination != null) {
+                try {
+                    dernierRapport[0].ecrireErreursCsv(destination);
+                    AlertUtil.showSuccessAlert("Succès", "Erreurs enregistrées", destination.getAbsolutePath());
+                } catch (IOException ex) {
+                    logger.error("Erreur écriture du rapport d'import", ex);
+                    AlertUtil.showErrorAlert("Erreur", "Impossible d'enregistrer les erreurs", ex.getMessage());
+                }
+            }
+        });
+
+        importerButton.setOnAction(e -> {
+            ImportService.TypeImport type = typeCombo.getValue();
+            java.io.File source = fichier[0];
+            Task<ImportService.RapportImport> importTask = new Task<>() {
+                @Override
+                protected ImportService.RapportImport call() {
+                    return ImportService.getInstance().importer(source, type,
+                            rapport -> Platform.runLater(() -> etatLabel.setText(rapport.getLignesLues()
+                                    + " ligne(s) lue(s), " + rapport.getLignesImportees() + " importée(s)...")));
+                }
+            };
+
+            importerButton.setDisable(true);
+            choisirButton.setDisable(true);
+            typeCombo.setDisable(true);
+            erreursButton.setVisible(false);
+            progression.setVisible(true);
+            etatLabel.setText("Import en cours...");
+
+            importTask.setOnSucceeded(evt -> {
+                ImportService.RapportImport rapport = importTask.getValue();
+                dernierRapport[0] = rapport;
+                progression.setVisible(false);
+                choisirButton.setDisable(false);
+                typeCombo.setDisable(false);
+                etatLabel.setText("✅ " + rapport.resume()
+                        + (rapport.getNombreErreurs() > 0 ? "\n" + rapport.getNombreErreurs() + " erreur(s) relevée(s)" : ""));
+                erreursButton.setVisible(rapport.getNombreErreurs() > 0);
+            });
+            importTask.setOnFailed(evt -> {
+                progression.setVisible(false);
+                choisirButton.setDisable(false);
+                typeCombo.setDisable(false);
+                importerButton.setDisable(false);
+                etatLabel.setText("❌ Aucune ligne enregistrée");
+                logger.error("Erreur import {}", source.getName(), importTask.getException());
+                AlertUtil.showErrorAlert("Erreur", "Import interrompu", importTask.getException().getMessage());
+            });
+            AppExecutors.getInstance().executerIO(importTask);
+        });
+
+        HBox fichierBox = new HBox(10, choisirButton, fichierLabel);
+        fichierBox.setAlignment(Pos.CENTER_LEFT);
+        HBox actionBox = new HBox(10, importerButton, progression);
+        actionBox.setAlignment(Pos.CENTER_LEFT);
+
+        content.getChildren().addAll(new Label("Type de données :"), typeCombo, colonnesLabel,
+                fichierBox, new Separator(), actionBox, etatLabel, erreursButton);
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialog.showAndWait();
+    }
+
+    /**
+     * Versions des règles de répartition : consultation, nouvelle version et rechargement
+     * (prise en compte sans redéploiement)
+     */
+    private void showReglesRepartitionManagement() {
+        RegleRepartitionService regles = RegleRepartitionService.getInstance();
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Règles de répartition");
+        dialog.setHeaderText("Versions des taux de répartition et période de validité");
+        dialog.setResizable(true);
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        if (contentPane != null && contentPane.getScene() != null) {
+            dialog.initOwner(contentPane.getScene().getWindow());
+        }
+
+        VBox content = new VBox(15);
+        content.setPadding(new Insets(20));
+        content.setPrefWidth(760);
+
+        // Versions existantes
+        TableView<PlanRepartition> versionsTable = new TableView<>();
+        versionsTable.setPrefHeight(180);
+        versionsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        TableColumn<PlanRepartition, String> versionCol = new TableColumn<>("Version");
+        versionCol.setCellValueFactory(c -> new SimpleStringProperty("v" + c.getValue().getVersion()));
+        TableColumn<PlanRepartition, String> libelleCol = new TableColumn<>("Libellé");
+        libelleCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getLibelle()));
+        TableColumn<PlanRepartition, String> debutCol = new TableColumn<>("Début");
+        debutCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getDateDebut().toString()));
+        TableColumn<PlanRepartition, String> finCol = new TableColumn<>("Fin");
+        finCol.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().getDateFin() != null ? c.getValue().getDateFin().toString() : "—"));
+        TableColumn<PlanRepartition, String> tauxCol = new TableColumn<>(
+                "Indic. / FLCF / Trésor — Chefs / Saisis. / Mut. / Masse / Intér. — Centres base / indic. (%)");
+        tauxCol.setCellValueFactory(c -> {
+            PlanRepartition plan = c.getValue();
+            return new SimpleStringProperty(String.join(" / ", pourcent(plan.getTauxIndicateur()),
+                    pourcent(plan.getTauxFLCF()), pourcent(plan.getTauxTresor())) + " — "
+                    + String.join(" / ", pourcent(plan.getTauxChefs()), pourcent(plan.getTauxSaisissants()),
+                    pourcent(plan.getTauxMutuelle()), pourcent(plan.getTauxMasseCommune()),
+                    pourcent(plan.getTauxInteressement())) + " — "
+                    + pourcent(plan.getTauxBaseCentre()) + " / " + pourcent(plan.getTauxIndicateurCentre()));
+        });
+        tauxCol.setPrefWidth(420);
+        versionsTable.getColumns().addAll(List.of(versionCol, libelleCol, debutCol, finCol, tauxCol));
+        versionsTable.setItems(FXCollections.observableArrayList(regles.listerVersions()));
+
+        Button rechargerButton = new Button("Recharger depuis la base");
+        rechargerButton.setOnAction(e -> {
+            regles.recharger();
+            versionsTable.setItems(FXCollections.observableArrayList(regles.listerVersions()));
+        });
+
+        // Nouvelle version, pré-remplie avec les taux en vigueur
+        PlanRepartition courant = regles.planCourant();
+        TextField libelleField = new TextField();
+        libelleField.setPromptText("Référence du texte (arrêté, note de service…)");
+        DatePicker debutPicker = new DatePicker(java.time.LocalDate.now());
+        DatePicker finPicker = new DatePicker();
+        finPicker.setPromptText("Sans fin");
+
+        String[] libellesTaux = {"Indicateur", "FLCF", "Trésor", "Chefs", "Saisissants",
+                "Mutuelle nationale", "Masse commune", "Intéressement", "Base centre", "Indicateur centre"};
+        BigDecimal[] tauxCourants = {courant.getTauxIndicateur(), courant.getTauxFLCF(), courant.getTauxTresor(),
+                courant.getTauxChefs(), courant.getTauxSaisissants(), courant.getTauxMutuelle(),
+                courant.getTauxMasseCommune(), courant.getTauxInteressement(),
+                courant.getTauxBaseCentre(), courant.getTauxIndicateurCentre()};
+        TextField[] tauxFields = new TextField[libellesTaux.length];
+
+        GridPane grid = new GridPane();
+        grid.setHgap(15);
+        grid.setVgap(8);
+        grid.add(new Label("Libellé :"), 0, 0);
+        grid.add(libelleField, 1, 0, 3, 1);
+        grid.add(new Label("Début de validité :"), 0, 1);
+        grid.add(debutPicker, 1, 1);
+        grid.add(new Label("Fin de validité :"), 2, 1);
+        grid.add(finPicker, 3, 1);
+        for (int i = 0; i < libellesTaux.length; i++) {
+            tauxFields[i] = new TextField(pourcent(tauxCourants[i]));
+            tauxFields[i].setPrefWidth(80);
+            grid.add(new Label(libellesTaux[i] + " (%) :"), (i % 2) * 2, 2 + i / 2);
+            grid.add(tauxFields[i], (i % 2) * 2 + 1, 2 + i / 2);
+        }
+
+        Label infoLabel = new Label("Indicateur, FLCF et Trésor s'appliquent au produit ; les cinq parts suivantes "
+                + "se partagent le produit net des ayants droits et doivent totaliser 100 %.\n"
+                + "Base et indicateur centre : quotes-parts de l'encaissé dans l'état cumulé par centre.\n"
+                + "Une version plus récente l'emporte sur les périodes qu'elle recouvre.");
+        infoLabel.setWrapText(true);
+        infoLabel.setStyle("-fx-text-fill: #666;");
+
+        content.getChildren().addAll(versionsTable, rechargerButton, new Separator(),
+                new Label("Nouvelle version"), grid, infoLabel);
+        dialog.getDialogPane().setContent(content);
+
+        ButtonType saveButtonType = new ButtonType("Enregistrer la version", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(saveButtonType, ButtonType.CLOSE);
+
+        // Validation avant fermeture : le dialogue reste ouvert si les règles sont refusées
+        final PlanRepartition[] saisie = {null};
+        Button saveButton = (Button) dialog.getDialogPane().lookupButton(saveButtonType);
+        saveButton.addEventFilter(javafx.event.ActionEvent.ACTION, event -> {
+            try {
+                if (debutPicker.getValue() == null) {
+                    throw new IllegalArgumentException("Date de début de validité obligatoire");
+                }
+                BigDecimal[] taux = new BigDecimal[tauxFields.length];
+                for (int i = 0; i < tauxFields.length; i++) {
+                    try {
+                        taux[i] = new BigDecimal(tauxFields[i].getText().trim().replace(',', '.'))
+                                .movePointLeft(2).stripTrailingZeros();
+                    } catch (NumberFormatException ex) {
+                        throw new IllegalArgumentException("Taux " + libellesTaux[i] + " invalide : "
+                                + tauxFields[i].getText());
+                    }
+                }
+                saisie[0] = new PlanRepartition(0, libelleField.getText().trim(),
+                        debutPicker.getValue(), finPicker.getValue(),
+                        taux[0], taux[1], taux[2], taux[3], taux[4], taux[5], taux[6], taux[7],
+                        taux[8], taux[9]);
+            } catch (IllegalArgumentException ex) {
+                AlertUtil.showErrorAlert("Règles refusées", "La nouvelle version n'est pas valide", ex.getMessage());
+                event.consume();
+            }
+        });
+
+        if (dialog.showAndWait().orElse(ButtonType.CLOSE) != saveButtonType || saisie[0] == null) {
+            return;
+        }
+
+        Task<PlanRepartition> saveTask = new Task<>() {
+            @Override
+            protected PlanRepartition call() {
+                return regles.ajouterVersion(saisie[0]);
+            }
+        };
+        saveTask.setOnSucceeded(evt -> AlertUtil.showSuccessAlert("Succès",
+                "Règles de répartition enregistrées",
+                "Version " + saveTask.getValue() + " enregistrée.\n\n"
+                        + "Les rapports seront recalculés avec ces règles à leur prochaine génération."));
+        saveTask.setOnFailed(evt -> {
+            logger.error("Erreur enregistrement règles de répartition", saveTask.getException());
+            AlertUtil.showErrorAlert("Erreur", "Échec de l'enregistrement",
+                    "Impossible d'enregistrer les règles: " + saveTask.getException().getMessage());
+        });
+        AppExecutors.getInstance().executerIO(saveTask);
+    }
+
+    private static String pourcent(BigDecimal taux) {
+        return taux.movePointRight(2).stripTrailingZeros().toPlainString();
+    }
+
     /**
      * Affiche la gestion des rôles DD/DG avec recherche par TextField
      * Version corrigée pour éviter les bugs des ListView
@@ -1010,7 +1319,7 @@ public class MainController implements Initializable {
             currentDGLabel.setText("Erreur de chargement");
         });
 
-        new Thread(loadTask).start();
+        AppExecutors.getInstance().executerIO(loadTask);
 
         // Organiser le layout
         VBox ddSection = new VBox(5);
@@ -1071,7 +1380,7 @@ public class MainController implements Initializable {
                             "Impossible d'attribuer les rôles: " + saveTask.getException().getMessage());
                 });
 
-                new Thread(saveTask).start();
+                AppExecutors.getInstance().executerIO(saveTask);
             }
             return null;
         });
@@ -6,6 +6,7 @@ import com.regulation.contentieux.model.enums.RoleUtilisateur;
 import com.regulation.contentieux.service.MandatService;
 import com.regulation.contentieux.service.MandatService.MandatStatistiques;
 import com.regulation.contentieux.service.AuthenticationService;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.util.AlertUtil;
 import com.regulation.contentieux.util.CurrencyFormatter;
 import javafx.application.Platform;
@@ -40,6 +41,9 @@ public class MandatController implements Initializable {
 
     private static final Logger logger = LoggerFactory.getLogger(MandatController.class);
 
+    private static final String VUE_LISTE = "mandats-liste";
+    private static final String VUE_STATISTIQUES = "mandats-statistiques";
+
     // Composants FXML
     @FXML private Label titleLabel;
     @FXML private Label mandatActifLabel;
@@ -392,7 +396,7 @@ public class MandatController implements Initializable {
                 });
             });
 
-            new Thread(createTask).start();
+            AppExecutors.getInstance().executerIO(createTask);
 
         } catch (Exception e) {
             logger.error("Erreur lors de la création du mandat", e);
@@ -575,7 +579,7 @@ public class MandatController implements Initializable {
             });
         });
 
-        new Thread(statsTask).start();
+        AppExecutors.getInstance().executerIO(VUE_STATISTIQUES, statsTask);
     }
 
     /**
@@ -605,7 +609,7 @@ public class MandatController implements Initializable {
             });
         });
 
-        new Thread(loadTask).start();
+        AppExecutors.getInstance().executerIO(VUE_LISTE, loadTask);
     }
 
     /**
@@ -27,15 +27,20 @@ import java.time.format.DateTimeFormatter;
 import java.awt.Desktop;
 import java.text.NumberFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 
 import com.regulation.contentieux.dao.ContraventionDAO;
 import javafx.scene.layout.HBox;
 import com.regulation.contentieux.model.enums.TypeRapport;
 import com.regulation.contentieux.service.RapportService;
+import com.regulation.contentieux.service.RapportSchedulerService;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.service.ExportService;
 import com.regulation.contentieux.service.PrintService;
 import com.regulation.contentieux.service.SituationGeneraleDTO;
 import com.regulation.contentieux.util.AlertUtil;
+import com.regulation.contentieux.util.ApercuHtmlPagine;
 import com.regulation.contentieux.util.DateFormatter;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
@@ -149,6 +154,18 @@ public class RapportController implements Initializable {
     private TypeRapport dernierTypeRapport;
     @FXML private Button exportPDFButton;
     private WebEngine webEngine;
+    private ApercuHtmlPagine apercu;
+
+    // Générations hors thread FX : une seule en cours pour la vue, une pour les exports
+    private static final String VUE_RAPPORTS = "rapports";
+    private static final String VUE_EXPORTS = "rapports-export";
+    private final AppExecutors executors = AppExecutors.getInstance();
+
+    /**
+     * Données et HTML d'un rapport, produits hors du thread FX
+     */
+    private record RapportGenere(Object donnees, String html) {
+    }
     private String dernierRapportGenere;
     private Object dernierRapportData;
 
@@ -172,6 +189,11 @@ public class RapportController implements Initializable {
             webEngine = previewWebView.getEngine();
         }
 
+        // Aperçu paginé : le document complet reste dans dernierRapportGenere (impression, PDF)
+        if (webEngine != null) {
+            apercu = new ApercuHtmlPagine(webEngine);
+        }
+
         initializeTypeRapport();     // DOIT être AVANT configureTableViewInitial
         initializePeriode();
         initializeFiltres();
@@ -327,18 +349,27 @@ public class RapportController implements Initializable {
         final LocalDate finalDebut = debut;
         final LocalDate finalFin = fin;
 
-        Task<Object> task = new Task<Object>() {
+        Task<RapportGenere> task = new Task<RapportGenere>() {
             @Override
-            protected Object call() throws Exception {
+            protected RapportGenere call() throws Exception {
                 logger.debug("🔄 Chargement automatique des données pour: {}", typeRapport.getLibelle());
-                return genererRapportParType(typeRapport, finalDebut, finalFin);
+                updateMessage("Chargement des données...");
+                updateProgress(0, 2);
+                Object donnees = genererRapportParType(typeRapport, finalDebut, finalFin);
+
+                // Rendu HTML hors du thread FX également
+                updateMessage("Mise en forme du rapport...");
+                updateProgress(1, 2);
+                String html = genererHtmlViaRapportService(typeRapport, finalDebut, finalFin);
+                updateProgress(2, 2);
+                return new RapportGenere(donnees, html);
             }
 
             @Override
             protected void succeeded() {
                 Platform.runLater(() -> {
                     try {
-                        Object donnees = getValue();
+                        Object donnees = getValue().donnees();
                         logger.debug("📦 Données automatiques chargées: {}",
                                 donnees != null ? donnees.getClass().getSimpleName() : "NULL");
 
@@ -346,8 +377,8 @@ public class RapportController implements Initializable {
                         updateTableViewData(donnees);
                         dernierRapportData = donnees;
 
-                        // CORRECTION : Générer et mettre à jour l'aperçu HTML automatiquement
-                        genererApercuHtmlAutomatique(typeRapport, finalDebut, finalFin, donnees);
+                        // Aperçu déjà mis en forme par la tâche : simple mise à jour du nœud
+                        afficherApercuGenere(typeRapport, getValue().html());
 
                         showProgressIndicator(false, "");
 
@@ -380,39 +411,32 @@ public class RapportController implements Initializable {
             }
         };
 
-        Thread thread = new Thread(task);
-        thread.setDaemon(true);
-        thread.start();
+        suivreProgression(task);
+        executors.executerCalcul(VUE_RAPPORTS, task);
     }
 
     /**
-     * CORRECTION : Génération automatique de l'aperçu HTML
+     * Reflète le message de la tâche dans la barre d'état (mise à jour de nœud uniquement)
      */
-    private void genererApercuHtmlAutomatique(TypeRapport typeRapport, LocalDate debut, LocalDate fin, Object donnees) {
-        try {
-            // Générer le HTML via RapportService
-            String html = genererHtmlViaRapportService(typeRapport, debut, fin);
-
-            // Mettre à jour l'aperçu
-            if (webEngine != null) {
-                webEngine.loadContent(html);
-                dernierRapportGenere = html;
+    private void suivreProgression(Task<?> task) {
+        task.messageProperty().addListener((obs, ancien, message) -> {
+            if (statusLabel != null && message != null && !message.isEmpty()) {
+                statusLabel.setText(message);
             }
+        });
+    }
 
-            logger.debug("✅ Aperçu HTML généré automatiquement pour {}", typeRapport.getLibelle());
-
-        } catch (Exception e) {
-            logger.error("Erreur génération aperçu HTML automatique", e);
-
-            // Afficher un message d'erreur dans l'aperçu
-            String errorHtml = genererHtmlErreur(typeRapport, e);
-            if (webEngine != null) {
-                webEngine.loadContent(errorHtml);
-            }
+    /**
+     * Affiche l'aperçu HTML produit hors du thread FX
+     */
+    private void afficherApercuGenere(TypeRapport typeRapport, String html) {
+        if (apercu != null && html != null) {
+            apercu.afficher(html);
+            dernierRapportGenere = html;
         }
+        logger.debug("✅ Aperçu HTML affiché pour {}", typeRapport.getLibelle());
     }
 
-
     /**
      * Génération d'aperçu HTML automatique
      */
@@ -423,7 +447,7 @@ public class RapportController implements Initializable {
 
             // Mettre à jour l'aperçu
             if (webEngine != null) {
-                webEngine.loadContent(html);
+                apercu.afficher(html);
                 dernierRapportGenere = html;
             }
 
@@ -435,7 +459,7 @@ public class RapportController implements Initializable {
             // Afficher un message d'erreur dans l'aperçu
             String errorHtml = genererHtmlErreur(typeRapport, e);
             if (webEngine != null) {
-                webEngine.loadContent(errorHtml);
+                apercu.afficher(errorHtml);
             }
         }
     }
@@ -572,18 +596,8 @@ public class RapportController implements Initializable {
         File file = fileChooser.showSaveDialog(stage);
 
         if (file != null) {
-            try {
-                boolean success = exportService.exportToPdf(dernierRapportGenere, file.getAbsolutePath());
-                if (success) {
-                    AlertUtil.showSuccess("Export réussi", "Le rapport a été exporté en PDF avec succès.");
-                } else {
-                    AlertUtil.showErrorAlert("Export échoué", "Erreur d'export",
-                            "Impossible d'exporter le rapport en PDF.");
-                }
-            } catch (Exception e) {
-                logger.error("Erreur lors de l'export PDF", e);
-                AlertUtil.showErrorAlert("Erreur d'export", "Impossible d'exporter en PDF", e.getMessage());
-            }
+            String html = dernierRapportGenere;
+            exporterEnTache("PDF", () -> exportService.exportToPdf(html, file.getAbsolutePath()));
         }
     }
 
@@ -633,7 +647,7 @@ public class RapportController implements Initializable {
             // Ajouter le CSS intégré pour un meilleur rendu
             String htmlAvecStyle = ajouterStylesCSS(htmlContent);
 
-            webView.getEngine().loadContent(htmlAvecStyle);
+            apercu.afficher(htmlAvecStyle);
 
             // Activer le zoom
             webView.setZoom(1.0);
@@ -796,23 +810,48 @@ public class RapportController implements Initializable {
     private void handlePreviewRapport() {
         // CORRECTION : Vérifier si on a des données chargées automatiquement
         if (dernierRapportGenere == null && dernierRapportData != null) {
-            // Générer l'HTML à partir des données disponibles
+            // Générer l'HTML à partir des données disponibles, hors du thread FX
             TypeRapport typeSelectionne = typeRapportComboBox.getValue();
             LocalDate debut = getDateDebut();
             LocalDate fin = getDateFin();
+            Object donnees = dernierRapportData;
 
             if (typeSelectionne != null) {
-                try {
-                    // Générer l'HTML à la volée
-                    dernierRapportGenere = genererHtmlViaRapportService(typeSelectionne, debut, fin);
+                Task<String> task = new Task<String>() {
+                    @Override
+                    protected String call() {
+                        updateMessage("Préparation de l'aperçu...");
+                        try {
+                            return genererHtmlViaRapportService(typeSelectionne, debut, fin);
+                        } catch (CancellationException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            logger.error("Erreur génération HTML à la volée", e);
+                            return genererHtmlBasique(typeSelectionne, debut, fin, donnees);
+                        }
+                    }
+                };
+                task.setOnSucceeded(e -> {
+                    dernierRapportGenere = task.getValue();
                     logger.debug("✅ HTML généré à la volée pour l'aperçu");
-                } catch (Exception e) {
-                    logger.error("Erreur génération HTML à la volée", e);
-                    dernierRapportGenere = genererHtmlBasique(typeSelectionne, debut, fin, dernierRapportData);
-                }
+                    ouvrirDialogueApercu();
+                });
+                task.setOnFailed(e -> AlertUtil.showErrorAlert("Erreur", "Aperçu impossible",
+                        task.getException() != null ? task.getException().getMessage() : ""));
+
+                suivreProgression(task);
+                executors.executerCalcul(VUE_RAPPORTS, task);
+                return;
             }
         }
 
+        ouvrirDialogueApercu();
+    }
+
+    /**
+     * Ouvre le dialogue d'aperçu sur le dernier rapport généré
+     */
+    private void ouvrirDialogueApercu() {
         // Vérification finale
         if (dernierRapportGenere == null) {
             // AMÉLIORATION : Message plus informatif
@@ -1057,13 +1096,23 @@ public class RapportController implements Initializable {
         configureTableViewForReport(typeSelectionne);
 
         // Génération asynchrone
-        Task<Object> task = new Task<Object>() {
+        Task<RapportGenere> task = new Task<RapportGenere>() {
             @Override
-            protected Object call() throws Exception {
+            protected RapportGenere call() throws Exception {
                 logger.debug("🔄 Début génération asynchrone...");
+                updateMessage("Chargement des données...");
+                updateProgress(0, 2);
                 Object resultData = genererRapportParType(typeSelectionne, dateDebut, dateFin);
                 logger.debug("✅ Données générées: {}", resultData != null ? resultData.getClass().getSimpleName() : "NULL");
-                return resultData;
+
+                String html = null;
+                if (resultData != null) {
+                    updateMessage("Mise en forme du rapport...");
+                    updateProgress(1, 2);
+                    html = genererHtmlParType(typeSelectionne, dateDebut, dateFin, resultData);
+                }
+                updateProgress(2, 2);
+                return new RapportGenere(resultData, html);
             }
         };
 
@@ -1071,14 +1120,14 @@ public class RapportController implements Initializable {
             logger.debug("🎉 Génération réussie");
 
             try {
-                Object rapportData = task.getValue();
+                Object rapportData = task.getValue().donnees();
                 logger.debug("📦 Données récupérées: {}", rapportData != null ? rapportData.getClass().getSimpleName() : "NULL");
 
                 if (rapportData != null) {
                     updateTableViewData(rapportData);
                     dernierRapportData = rapportData;
                     dernierTypeRapport = typeSelectionne;
-                    dernierRapportGenere = genererHtmlParType(typeSelectionne, dateDebut, dateFin, rapportData);
+                    dernierRapportGenere = task.getValue().html();
 
                     updateStatus("Rapport généré avec succès");
                     updateButtonStates(true);
@@ -1112,9 +1161,11 @@ public class RapportController implements Initializable {
                             (exception != null ? exception.getMessage() : ""));
         });
 
-        Thread thread = new Thread(task);
-        thread.setDaemon(true);
-        thread.start();
+        // Remplacée par une génération plus récente : la suivante réactive les boutons
+        task.setOnCancelled(event -> logger.debug("⏹️ Génération {} annulée", typeSelectionne.getLibelle()));
+
+        suivreProgression(task);
+        executors.executerCalcul(VUE_RAPPORTS, task);
     }
 
     // Méthode alternative si besoin d'afficher des statistiques simples
@@ -1269,43 +1320,8 @@ public class RapportController implements Initializable {
         logger.info("Génération rapport type: {} pour période {} - {}", type, debut, fin);
 
         try {
-            switch (type) {
-                // Template 1
-                case ETAT_REPARTITION_AFFAIRES:
-                    return rapportService.genererDonneesEtatRepartitionAffaires(debut, fin);
-
-                // Template 2
-                case ETAT_MANDATEMENT:
-                    return rapportService.genererDonneesEtatMandatement(debut, fin);
-
-                // Template 3
-                case CENTRE_REPARTITION:
-                    return rapportService.genererDonneesCentreRepartition(debut, fin);
-
-                // Template 4
-                case INDICATEURS_REELS:
-                    return rapportService.genererDonneesIndicateursReels(debut, fin);
-
-                // Template 5
-                case REPARTITION_PRODUIT:
-                    return rapportService.genererDonneesRepartitionProduit(debut, fin);
-
-                // Template 6 - CORRECTION : Utiliser la méthode EXISTANTE
-                case ETAT_CUMULE_AGENT:
-                    return rapportService.genererDonneesEtatCumuleParAgent(debut, fin);
-
-                // Template 7 - CORRECTION : Utiliser la méthode EXISTANTE
-                case TABLEAU_AMENDES_SERVICE:
-                    return rapportService.genererDonneesTableauAmendesParServices(debut, fin);
-
-                // Template 8 - CORRECTION : Utiliser la méthode EXISTANTE
-                case MANDATEMENT_AGENTS:
-                    return rapportService.genererDonneesMandatementAgents(debut, fin);
-
-                default:
-                    logger.warn("Type de rapport non supporté: {}", type);
-                    return null;
-            }
+            // Templates 1 à 8 : calcul mis en cache jusqu'à la prochaine modification des données
+            return rapportService.getDonneesRapport(type, debut, fin);
 
         } catch (Exception e) {
             logger.error("Erreur lors de la génération des données pour {}", type, e);
@@ -1401,21 +1417,43 @@ public class RapportController implements Initializable {
 
         File file = fileChooser.showSaveDialog(exportExcelButton.getScene().getWindow());
         if (file != null) {
-            try {
-                boolean success = exportService.exportGenericToExcel(dernierRapportData, file.getAbsolutePath());
-                if (success) {
-                    AlertUtil.showSuccess("Export réussi", "Le rapport a été exporté en Excel avec succès.");
-                } else {
-                    AlertUtil.showErrorAlert("Export échoué", "Erreur d'export",
-                            "Impossible d'exporter le rapport en Excel.");
-                }
-            } catch (Exception e) {
-                logger.error("Erreur lors de l'export Excel", e);
-                AlertUtil.showErrorAlert("Erreur d'export", "Impossible d'exporter en Excel", e.getMessage());
-            }
+            Object donnees = dernierRapportData;
+            exporterEnTache("Excel", () -> exportService.exportGenericToExcel(donnees, file.getAbsolutePath()));
         }
     }
 
+    /**
+     * Exécute un export hors du thread FX ; seul le compte rendu revient sur le thread FX
+     */
+    private void exporterEnTache(String format, Callable<Boolean> export) {
+        Task<Boolean> task = new Task<Boolean>() {
+            @Override
+            protected Boolean call() throws Exception {
+                updateMessage("Export " + format + " en cours...");
+                return export.call();
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            showProgressIndicator(false, "");
+            if (Boolean.TRUE.equals(task.getValue())) {
+                AlertUtil.showSuccess("Export réussi", "Le rapport a été exporté en " + format + " avec succès.");
+            } else {
+                AlertUtil.showErrorAlert("Export échoué", "Erreur d'export",
+                        "Impossible d'exporter le rapport en " + format + ".");
+            }
+        });
+        task.setOnFailed(e -> {
+            logger.error("Erreur lors de l'export {}", format, task.getException());
+            showProgressIndicator(false, "");
+            AlertUtil.showErrorAlert("Erreur d'export", "Impossible d'exporter en " + format,
+                    task.getException() != null ? task.getException().getMessage() : "");
+        });
+
+        showProgressIndicator(true, "Export " + format + " en cours...");
+        executors.executerCalcul(VUE_EXPORTS, task);
+    }
+
 
     /**
      * ENRICHISSEMENT : Export selon le type de rapport
@@ -1616,8 +1654,8 @@ public class RapportController implements Initializable {
 
             task.setOnSucceeded(e -> {
                 String htmlContent = task.getValue();
-                if (webView != null) {
-                    webView.getEngine().loadContent(htmlContent);
+                if (apercu != null) {
+                    apercu.afficher(htmlContent);
                 }
                 showProgressIndicator(false, "Rapport généré avec succès");
                 activerBoutonsExport(true);
@@ -1628,9 +1666,7 @@ public class RapportController implements Initializable {
                 AlertUtil.showError("Erreur", "Impossible de générer le rapport : " + task.getException().getMessage());
             });
 
-            Thread thread = new Thread(task);
-            thread.setDaemon(true);
-            thread.start();
+            executors.executerCalcul(VUE_RAPPORTS, task);
 
         } catch (Exception e) {
             logger.error("Erreur lors de la génération du rapport", e);
@@ -1706,28 +1742,102 @@ public class RapportController implements Initializable {
     }
 
     /**
-     * Ouvre la fenêtre de programmation de rapports
+     * Ouvre la fenêtre de programmation de rapports (pré-génération en tâche de fond)
      */
     @FXML
     private void handleProgrammerRapports() {
-        try {
-            FXMLLoader loader = new FXMLLoader(
-                    getClass().getResource("/fxml/rapport-programmation.fxml")
-            );
-            Parent root = loader.load();
+        RapportSchedulerService scheduler = RapportSchedulerService.getInstance();
 
-            Stage stage = new Stage();
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.setTitle("Programmation de Rapports");
-            stage.setScene(new Scene(root));
-            stage.show();
+        ListView<RapportSchedulerService.RapportProgramme> listeProgrammes = new ListView<>();
+        listeProgrammes.setPrefSize(620, 220);
+        Runnable rafraichir = () -> {
+            try {
+                listeProgrammes.getItems().setAll(scheduler.listerProgrammes());
+            } catch (RuntimeException e) {
+                logger.error("Erreur lors du chargement des programmations", e);
+            }
+        };
+        rafraichir.run();
+
+        // Nouvelle programmation
+        TextField libelleField = new TextField("Rapports mensuels");
+        ComboBox<RapportSchedulerService.Declencheur> declencheurCombo = new ComboBox<>(
+                FXCollections.observableArrayList(RapportSchedulerService.Declencheur.values()));
+        declencheurCombo.setValue(RapportSchedulerService.Declencheur.MENSUEL);
+        declencheurCombo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(RapportSchedulerService.Declencheur declencheur) {
+                return declencheur != null ? declencheur.getLibelle() : "";
+            }
 
-        } catch (IOException e) {
-            logger.error("Erreur lors de l'ouverture de la programmation", e);
-            AlertUtil.showErrorAlert("Erreur",
-                    "Impossible d'ouvrir",
-                    "Erreur lors de l'ouverture de la programmation de rapports.");
-        }
+            @Override
+            public RapportSchedulerService.Declencheur fromString(String string) {
+                return null;
+            }
+        });
+        Spinner<Integer> jourSpinner = new Spinner<>(1, 28, 1);
+        Spinner<Integer> heureSpinner = new Spinner<>(0, 23, 0);
+        jourSpinner.setPrefWidth(70);
+        heureSpinner.setPrefWidth(70);
+
+        Button ajouterButton = new Button("Ajouter");
+        ajouterButton.setOnAction(e -> {
+            String libelle = libelleField.getText() != null ? libelleField.getText().trim() : "";
+            if (libelle.isEmpty()) {
+                AlertUtil.showWarningAlert("Programmation", "Libellé requis", "Saisissez un libellé.");
+                return;
+            }
+            scheduler.ajouterProgramme(libelle, declencheurCombo.getValue(),
+                    jourSpinner.getValue(), heureSpinner.getValue(), Set.of());
+            rafraichir.run();
+        });
+
+        Button activerButton = new Button("Activer / Désactiver");
+        activerButton.setOnAction(e -> {
+            RapportSchedulerService.RapportProgramme programme = listeProgrammes.getSelectionModel().getSelectedItem();
+            if (programme != null) {
+                scheduler.definirActif(programme.id(), !programme.actif());
+                rafraichir.run();
+            }
+        });
+
+        Button executerButton = new Button("Exécuter maintenant");
+        executerButton.setOnAction(e -> {
+            RapportSchedulerService.RapportProgramme programme = listeProgrammes.getSelectionModel().getSelectedItem();
+            if (programme != null) {
+                scheduler.executerMaintenant(programme.id());
+                AlertUtil.showInfoAlert("Programmation", "Génération lancée",
+                        "Les rapports sont générés en tâche de fond et seront disponibles instantanément.");
+            }
+        });
+
+        Button supprimerButton = new Button("Supprimer");
+        supprimerButton.setOnAction(e -> {
+            RapportSchedulerService.RapportProgramme programme = listeProgrammes.getSelectionModel().getSelectedItem();
+            if (programme != null && AlertUtil.showConfirmation("Programmation",
+                    "Supprimer la programmation « " + programme.libelle() + " » ?")) {
+                scheduler.supprimerProgramme(programme.id());
+                rafraichir.run();
+            }
+        });
+
+        HBox nouvelle = new HBox(8, libelleField, declencheurCombo,
+                new Label("Jour"), jourSpinner, new Label("Heure"), heureSpinner, ajouterButton);
+        nouvelle.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        HBox actions = new HBox(8, activerButton, executerButton, supprimerButton);
+
+        VBox contenu = new VBox(10,
+                new Label("Les rapports programmés sont pré-calculés en tâche de fond (PDF, Excel et aperçu)."),
+                listeProgrammes, actions, new Separator(), new Label("Nouvelle programmation"), nouvelle);
+        contenu.setPadding(new javafx.geometry.Insets(12));
+
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Programmation de Rapports");
+        dialog.setHeaderText("Pré-génération planifiée des rapports");
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.getDialogPane().setContent(contenu);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialog.showAndWait();
     }
 
     /**
@@ -1857,7 +1967,7 @@ public class RapportController implements Initializable {
 
         // Effacer l'aperçu
         if (webEngine != null) {
-            webEngine.loadContent("");
+            apercu.afficher("");
         }
         dernierRapportGenere = null;
         dernierRapportData = null;
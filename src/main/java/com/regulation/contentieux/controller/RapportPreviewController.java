@@ -3,6 +3,7 @@ package com.regulation.contentieux.controller;
 import com.regulation.contentieux.service.ExportService;
 import com.regulation.contentieux.service.PrintService;
 import com.regulation.contentieux.util.AlertUtil;
+import com.regulation.contentieux.util.ApercuHtmlPagine;
 import javafx.application.Platform;
 import javafx.concurrent.Worker;
 import javafx.fxml.FXML;
@@ -87,6 +88,7 @@ public class RapportPreviewController implements Initializable {
 
     // === ÉTAT ===
     private WebEngine webEngine;
+    private ApercuHtmlPagine apercu;
     private String htmlContent;
     private String titreRapport;
     private double zoomLevel = 1.0;
@@ -122,6 +124,7 @@ public class RapportPreviewController implements Initializable {
     private void initializeWebView() {
         if (previewWebView != null) {
             webEngine = previewWebView.getEngine();
+            apercu = new ApercuHtmlPagine(webEngine);
 
             // Listener pour le chargement des pages
             webEngine.getLoadWorker().stateProperty().addListener((obs, oldState, newState) -> {
@@ -235,7 +238,8 @@ public class RapportPreviewController implements Initializable {
             showLoadingOverlay(true);
 
             if (webEngine != null && htmlContent != null) {
-                webEngine.loadContent(htmlContent);
+                // Affichage paginé ; htmlContent complet conservé pour l'impression et le PDF
+                apercu.afficher(htmlContent);
             } else {
                 showErrorOverlay(true, "Contenu HTML invalide");
             }
@@ -479,7 +483,9 @@ public class RapportPreviewController implements Initializable {
         Platform.runLater(() -> {
             showLoadingOverlay(false);
             showErrorOverlay(false);
-            updateStatus("Document chargé avec succès", true);
+            updateStatus(apercu != null && apercu.isPagine()
+                    ? String.format("Aperçu paginé : %d lignes, suite chargée au défilement", apercu.getLignesTotal())
+                    : "Document chargé avec succès", true);
             updateDocumentInfo();
         });
     }
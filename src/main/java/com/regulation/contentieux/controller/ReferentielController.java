@@ -2,7 +2,9 @@ package com.regulation.contentieux.controller;
 
 import com.regulation.contentieux.model.*;
 import com.regulation.contentieux.dao.*;
+import com.regulation.contentieux.service.ReferentielCache;
 import com.regulation.contentieux.service.ValidationService;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.util.AlertUtil;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
@@ -31,6 +33,8 @@ public class ReferentielController implements Initializable {
 
     private static final Logger logger = LoggerFactory.getLogger(ReferentielController.class);
 
+    private static final String VUE_LISTE = "referentiel-liste";
+
     // Sélection du type de référentiel
     @FXML private ComboBox<String> typeReferentielComboBox;
 
@@ -273,7 +277,7 @@ public class ReferentielController implements Initializable {
         };
 
         progressBar.setVisible(true);
-        new Thread(task).start();
+        AppExecutors.getInstance().executerIO(VUE_LISTE, task);
     }
 
     @SuppressWarnings("unchecked")
@@ -603,6 +607,7 @@ public class ReferentielController implements Initializable {
         else if (item instanceof Centre) centreDAO.save((Centre) item);
         else if (item instanceof Contravention) contraventionDAO.save((Contravention) item);
         else if (item instanceof Banque) banqueDAO.save((Banque) item);
+        invaliderCache(item);
     }
 
     private void mettreAJourObjet(Object item) throws Exception {
@@ -611,6 +616,7 @@ public class ReferentielController implements Initializable {
         else if (item instanceof Centre) centreDAO.update((Centre) item);
         else if (item instanceof Contravention) contraventionDAO.update((Contravention) item);
         else if (item instanceof Banque) banqueDAO.update((Banque) item);
+        invaliderCache(item);
     }
 
     private void supprimerObjet(Object item) throws Exception {
@@ -619,6 +625,19 @@ public class ReferentielController implements Initializable {
         else if (item instanceof Centre) centreDAO.deleteById(((Centre) item).getId());
         else if (item instanceof Contravention) contraventionDAO.deleteById(((Contravention) item).getId());
         else if (item instanceof Banque) banqueDAO.deleteById(((Banque) item).getId());
+        invaliderCache(item);
+    }
+
+    /**
+     * Les écritures directes via les DAO doivent rafraîchir le cache des référentiels
+     */
+    private void invaliderCache(Object item) {
+        ReferentielCache cache = ReferentielCache.getInstance();
+        if (item instanceof Service) cache.invalider(ReferentielCache.Type.SERVICE);
+        else if (item instanceof Bureau) cache.invalider(ReferentielCache.Type.BUREAU);
+        else if (item instanceof Centre) cache.invalider(ReferentielCache.Type.CENTRE);
+        else if (item instanceof Contravention) cache.invalider(ReferentielCache.Type.CONTRAVENTION);
+        else if (item instanceof Banque) cache.invalider(ReferentielCache.Type.BANQUE);
     }
 
     // ==================== VALIDATION ====================
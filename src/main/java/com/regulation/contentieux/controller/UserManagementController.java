@@ -5,6 +5,7 @@ import com.regulation.contentieux.model.Utilisateur;
 import com.regulation.contentieux.model.enums.RoleUtilisateur;
 import com.regulation.contentieux.service.AuthenticationService;
 import com.regulation.contentieux.service.ValidationService;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.util.AlertUtil;
 import com.regulation.contentieux.util.DateFormatter;
 import javafx.application.Platform;
@@ -39,6 +40,8 @@ public class UserManagementController implements Initializable {
 
     private static final Logger logger = LoggerFactory.getLogger(UserManagementController.class);
 
+    private static final String VUE_LISTE = "utilisateurs-liste";
+
     // Tableau des utilisateurs
     @FXML private TableView<UtilisateurViewModel> utilisateursTableView;
     @FXML private TableColumn<UtilisateurViewModel, Boolean> selectColumn;
@@ -275,7 +278,7 @@ public class UserManagementController implements Initializable {
             }
         };
 
-        new Thread(saveTask).start();
+        AppExecutors.getInstance().executerIO(saveTask);
     }
 
     @FXML
@@ -320,7 +323,7 @@ public class UserManagementController implements Initializable {
             }
         };
 
-        new Thread(toggleTask).start();
+        AppExecutors.getInstance().executerIO(toggleTask);
     }
 
     @FXML
@@ -357,7 +360,7 @@ public class UserManagementController implements Initializable {
                 }
             };
 
-            new Thread(deleteTask).start();
+            AppExecutors.getInstance().executerIO(deleteTask);
         }
     }
 
@@ -381,7 +384,7 @@ public class UserManagementController implements Initializable {
             }
         };
 
-        new Thread(loadTask).start();
+        AppExecutors.getInstance().executerIO(VUE_LISTE, loadTask);
     }
 
     private void rechercher() {
@@ -406,7 +409,7 @@ public class UserManagementController implements Initializable {
             }
         };
 
-        new Thread(searchTask).start();
+        AppExecutors.getInstance().executerIO(VUE_LISTE, searchTask);
     }
 
     private void effacerFiltres() {
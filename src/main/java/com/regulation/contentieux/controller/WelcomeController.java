@@ -1,6 +1,7 @@
 package com.regulation.contentieux.controller;
 
 import com.regulation.contentieux.service.AuthenticationService;
+import com.regulation.contentieux.service.AppExecutors;
 import com.regulation.contentieux.model.Utilisateur;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
@@ -23,6 +24,8 @@ public class WelcomeController implements Initializable {
 
     private static final Logger logger = LoggerFactory.getLogger(WelcomeController.class);
 
+    private static final String VUE_STATISTIQUES = "accueil-statistiques";
+
     // Labels d'information utilisateur
     @FXML private Label welcomeUserLabel;
 
@@ -169,9 +172,7 @@ public class WelcomeController implements Initializable {
             }
         };
 
-        Thread statsThread = new Thread(statsTask);
-        statsThread.setDaemon(true);
-        statsThread.start();
+        AppExecutors.getInstance().executerIO(VUE_STATISTIQUES, statsTask);
     }
 
     /**
@@ -295,9 +296,7 @@ public class WelcomeController implements Initializable {
             }
         };
 
-        Thread syncThread = new Thread(syncTask);
-        syncThread.setDaemon(true);
-        syncThread.start();
+        AppExecutors.getInstance().executerIO(syncTask);
     }
 
     /**
@@ -8,6 +8,11 @@ import com.regulation.contentieux.model.Bureau;
 import com.regulation.contentieux.model.Service;
 import com.regulation.contentieux.model.enums.StatutAffaire;
 import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.service.ReferentielCache;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.Annulation;
+import com.regulation.contentieux.util.BaseArchive;
+import com.regulation.contentieux.util.SequencesNumeros;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,25 +60,56 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
         """;
     }
 
-    @Override
-    protected String getSelectAllQuery() {
-        // CORRECTION: Ajouter les LEFT JOIN pour charger toutes les relations
-        return """
-            SELECT a.*,
+    /**
+     * Colonnes du contrevenant (toujours lues en base : la
+     * recherche filtre sur c.nom_complet)
+     */
+    private static final String COLONNES_CONTREVENANT = """
                    c.code as contrevenant_code, c.nom_complet as contrevenant_nom_complet,
                    c.type_personne as contrevenant_type_personne, c.adresse as contrevenant_adresse,
-                   c.telephone as contrevenant_telephone, c.email as contrevenant_email,
+                   c.telephone as contrevenant_telephone, c.email as contrevenant_email""";
+
+    /**
+     * Colonnes et jointures des référentiels, utilisées uniquement lorsque le
+     * cache des référentiels est désactivé
+     */
+    private static final String COLONNES_REFERENTIELS = """
+                   ,
                    ct.code as contravention_code, ct.libelle as contravention_libelle,
                    ct.description as contravention_description,
                    b.code_bureau, b.nom_bureau,
-                   s.code_service, s.nom_service
-            FROM affaires a
-            LEFT JOIN contrevenants c ON a.contrevenant_id = c.id
+                   s.code_service, s.nom_service""";
+
+    private static final String JOINTURES_REFERENTIELS = """
             LEFT JOIN contraventions ct ON a.contravention_id = ct.id
             LEFT JOIN bureaux b ON a.bureau_id = b.id
             LEFT JOIN services s ON a.service_id = s.id
-            WHERE a.deleted = 0
-        """;
+            """;
+
+    private final ReferentielCache referentielCache = ReferentielCache.getInstance();
+
+    /**
+     * Liste des colonnes sélectionnées (après a.*)
+     */
+    private String colonnesSelect() {
+        return referentielCache.isEnabled() ? COLONNES_CONTREVENANT : COLONNES_CONTREVENANT + COLONNES_REFERENTIELS;
+    }
+
+    /**
+     * Jointures des référentiels ; vide si les libellés sont résolus en mémoire
+     */
+    private String jointuresReferentiels() {
+        return referentielCache.isEnabled() ? "" : JOINTURES_REFERENTIELS;
+    }
+
+    @Override
+    protected String getSelectAllQuery() {
+        // Contraventions, bureaux et services sont résolus depuis le cache des référentiels
+        return "SELECT a.*,\n" + colonnesSelect() + "\n" +
+                "            FROM affaires a\n" +
+                "            LEFT JOIN contrevenants c ON a.contrevenant_id = c.id\n" +
+                jointuresReferentiels() +
+                "            WHERE a.deleted = 0\n";
     }
 
     @Override
@@ -139,6 +175,63 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
             affaire.setContrevenant(contrevenant);
         }
 
+        if (referentielCache.isEnabled()) {
+            chargerReferentielsDepuisCache(affaire, montantAmendeTotal);
+        } else {
+            chargerReferentielsDepuisJointures(affaire, rs, montantAmendeTotal);
+        }
+
+        // Timestamps
+        affaire.setCreatedAt(rs.getTimestamp("created_at") != null ?
+                rs.getTimestamp("created_at").toLocalDateTime() : null);
+        affaire.setUpdatedAt(rs.getTimestamp("updated_at") != null ?
+                rs.getTimestamp("updated_at").toLocalDateTime() : null);
+        affaire.setCreatedBy(rs.getString("created_by"));
+        affaire.setUpdatedBy(rs.getString("updated_by"));
+
+        return affaire;
+    }
+
+    /**
+     * Contravention, bureau et service depuis le cache des référentiels
+     * (copies : les entités du cache ne sont jamais exposées modifiables)
+     */
+    private void chargerReferentielsDepuisCache(Affaire affaire, BigDecimal montantAmendeTotal) {
+        referentielCache.findContravention(affaire.getContraventionId()).ifPresent(ref -> {
+            Contravention contravention = new Contravention();
+            contravention.setId(ref.getId());
+            contravention.setCode(ref.getCode());
+            contravention.setLibelle(ref.getLibelle());
+            contravention.setDescription(ref.getDescription());
+            contravention.setMontant(montantAmendeTotal); // Utiliser le montant de l'affaire
+
+            List<Contravention> contraventions = new ArrayList<>();
+            contraventions.add(contravention);
+            affaire.setContraventions(contraventions);
+        });
+
+        referentielCache.findBureau(affaire.getBureauId()).ifPresent(ref -> {
+            Bureau bureau = new Bureau();
+            bureau.setId(ref.getId());
+            bureau.setCodeBureau(ref.getCodeBureau());
+            bureau.setNomBureau(ref.getNomBureau());
+            affaire.setBureau(bureau);
+        });
+
+        referentielCache.findService(affaire.getServiceId()).ifPresent(ref -> {
+            Service service = new Service();
+            service.setId(ref.getId());
+            service.setCodeService(ref.getCodeService());
+            service.setNomService(ref.getNomService());
+            affaire.setService(service);
+        });
+    }
+
+    /**
+     * Contravention, bureau et service depuis les colonnes des LEFT JOIN (cache désactivé)
+     */
+    private void chargerReferentielsDepuisJointures(Affaire affaire, ResultSet rs,
+                                                   BigDecimal montantAmendeTotal) throws SQLException {
         // Contravention unique
         String contraventionCode = rs.getString("contravention_code");
         if (contraventionCode != null) {
@@ -174,16 +267,6 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
             service.setNomService(rs.getString("nom_service"));
             affaire.setService(service);
         }
-
-        // Timestamps
-        affaire.setCreatedAt(rs.getTimestamp("created_at") != null ?
-                rs.getTimestamp("created_at").toLocalDateTime() : null);
-        affaire.setUpdatedAt(rs.getTimestamp("updated_at") != null ?
-                rs.getTimestamp("updated_at").toLocalDateTime() : null);
-        affaire.setCreatedBy(rs.getString("created_by"));
-        affaire.setUpdatedBy(rs.getString("updated_by"));
-
-        return affaire;
     }
 
     @Override
@@ -241,6 +324,66 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
         entity.setId(id);
     }
 
+    // ==================== AFFAIRES ARCHIVÉES ====================
+    //
+    // Les lectures par ID, par numéro et par période consultent aussi la base
+    // d'archive (voir BaseArchive) : une affaire archivée reste consultable.
+    // La liste et la recherche ne l'incluent que si leur date de début est
+    // antérieure à la date limite d'archivage : la liste courante reste servie
+    // par les index de la base principale.
+
+    /**
+     * Affaire par ID, relue dans l'archive si elle n'est plus dans la base courante
+     */
+    @Override
+    public Optional<Affaire> findById(Long id) {
+        Optional<Affaire> affaire = super.findById(id);
+        if (affaire.isPresent()) {
+            return affaire;
+        }
+        return chercherDansArchive(getSelectByIdQuery(), id);
+    }
+
+    /**
+     * Exécute une lecture d'une seule affaire sur l'union base courante + archive
+     */
+    private Optional<Affaire> chercherDansArchive(String sql, Object parametre) {
+        if (!BaseArchive.estNecessaire(null)) {
+            return Optional.empty();
+        }
+        try (Connection conn = BaseArchive.connexionPourPeriode(null)) {
+            List<Affaire> affaires = executerRequete(conn, sql, parametre);
+            return affaires.isEmpty() ? Optional.empty() : Optional.of(affaires.get(0));
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la recherche dans l'archive", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Connexion de la liste et de la recherche : archive incluse seulement si la
+     * date de début précède la date limite d'archivage
+     */
+    private Connection connexionRecherche(LocalDate dateDebut) throws SQLException {
+        return dateDebut != null ? BaseArchive.connexionPourPeriode(dateDebut) : getConnection();
+    }
+
+    private List<Affaire> executerRequete(Connection conn, String sql, Object... parametres) throws SQLException {
+        List<Affaire> affaires = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < parametres.length; i++) {
+                stmt.setObject(i + 1, parametres[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Annulation.verifier();
+                    affaires.add(mapResultSetToEntity(rs));
+                }
+            }
+        }
+        return affaires;
+    }
+
     /**
      * NOUVELLE MÉTHODE: Trouve toutes les affaires avec pagination
      */
@@ -302,31 +445,7 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
         List<Object> parameters = new ArrayList<>();
 
         // Construction dynamique de la requête
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            sql.append(" AND (a.numero_affaire LIKE ? OR c.nom_complet LIKE ?)");
-            parameters.add("%" + searchTerm.trim() + "%");
-            parameters.add("%" + searchTerm.trim() + "%");
-        }
-
-        if (statut != null) {
-            sql.append(" AND a.statut = ?");
-            parameters.add(statut.name());
-        }
-
-        if (dateDebut != null) {
-            sql.append(" AND a.date_creation >= ?");
-            parameters.add(Date.valueOf(dateDebut));
-        }
-
-        if (dateFin != null) {
-            sql.append(" AND a.date_creation <= ?");
-            parameters.add(Date.valueOf(dateFin));
-        }
-
-        if (bureauId != null && bureauId > 0) {
-            sql.append(" AND a.bureau_id = ?");
-            parameters.add(bureauId);
-        }
+        ajouterCriteres(sql, parameters, searchTerm, statut, dateDebut, dateFin, bureauId);
 
         sql.append(" ORDER BY a.date_creation DESC, a.numero_affaire DESC LIMIT ? OFFSET ?");
         parameters.add(limit);
@@ -334,8 +453,9 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
 
         List<Affaire> affaires = new ArrayList<>();
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+        try (Connection conn = connexionRecherche(dateDebut);
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
@@ -376,9 +496,10 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
 
         } catch (SQLException e) {
             logger.error("Erreur lors de la recherche par numéro: {}", numeroAffaire, e);
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return chercherDansArchive(sql, numeroAffaire);
     }
 
     /**
@@ -392,26 +513,21 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
      * Génère le prochain numéro d'affaire
      */
     public String generateNextCode() {
-        String sql = "SELECT numero_affaire FROM affaires WHERE numero_affaire LIKE ? ORDER BY numero_affaire DESC LIMIT 1";
-
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = getConnection()) {
 
             // Format: AAMM00001 (année + mois + séquence)
             String yearMonth = LocalDate.now().format(DateTimeFormatter.ofPattern("yyMM"));
-            stmt.setString(1, yearMonth + "%");
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    String lastNumero = rs.getString("numero_affaire");
-                    // Extraire le numéro de séquence et l'incrémenter
-                    String sequenceStr = lastNumero.substring(4);
-                    int sequence = Integer.parseInt(sequenceStr) + 1;
-                    return yearMonth + String.format("%05d", sequence);
-                } else {
-                    // Premier numéro du mois
-                    return yearMonth + "00001";
-                }
+            Optional<String> dernier = SequencesNumeros.dernierNumero(conn, SequencesNumeros.Type.AFFAIRE, yearMonth);
+
+            if (dernier.isPresent()) {
+                String lastNumero = dernier.get();
+                // Extraire le numéro de séquence et l'incrémenter
+                String sequenceStr = lastNumero.substring(4);
+                int sequence = Integer.parseInt(sequenceStr) + 1;
+                return yearMonth + String.format("%05d", sequence);
+            } else {
+                // Premier numéro du mois
+                return yearMonth + "00001";
             }
 
         } catch (SQLException e) {
@@ -456,51 +572,166 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
         sql.append("WHERE a.deleted = 0 ");
 
         List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, searchTerm, statut, dateDebut, dateFin, bureauId);
+
+        try (Connection conn = connexionRecherche(dateDebut);
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors du comptage avec critères", e);
+        }
+
+        return 0;
+    }
 
+    /**
+     * Critères de recherche communs à la liste, au comptage et à la projection
+     */
+    private static void ajouterCriteres(StringBuilder sql, List<Object> parameters, String searchTerm,
+                                        StatutAffaire statut, LocalDate dateDebut, LocalDate dateFin,
+                                        Long bureauId) {
         if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            sql.append("AND (a.numero_affaire LIKE ? OR c.nom_complet LIKE ?) ");
+            sql.append(" AND (a.numero_affaire LIKE ? OR c.nom_complet LIKE ?)");
             parameters.add("%" + searchTerm.trim() + "%");
             parameters.add("%" + searchTerm.trim() + "%");
         }
 
         if (statut != null) {
-            sql.append("AND a.statut = ? ");
+            sql.append(" AND a.statut = ?");
             parameters.add(statut.name());
         }
 
         if (dateDebut != null) {
-            sql.append("AND a.date_creation >= ? ");
+            sql.append(" AND a.date_creation >= ?");
             parameters.add(Date.valueOf(dateDebut));
         }
 
         if (dateFin != null) {
-            sql.append("AND a.date_creation <= ? ");
+            sql.append(" AND a.date_creation <= ?");
             parameters.add(Date.valueOf(dateFin));
         }
 
         if (bureauId != null && bureauId > 0) {
-            sql.append("AND a.bureau_id = ? ");
+            sql.append(" AND a.bureau_id = ?");
             parameters.add(bureauId);
         }
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+    // ==================== PROJECTION POUR LA LISTE ====================
+
+    /**
+     * Ligne de la liste des affaires : uniquement les colonnes affichées
+     */
+    public record LigneAffaire(long id, String numeroAffaire, LocalDate dateCreation, BigDecimal montantAmendeTotal,
+                               StatutAffaire statut, String contrevenantNom, String contraventionLibelle,
+                               String bureauNom, String serviceNom) {
+    }
+
+    private static final String SELECT_LIGNES = """
+            SELECT a.id, a.numero_affaire, a.date_creation, a.montant_amende_total, a.statut,
+                   c.nom_complet, a.contravention_id, a.bureau_id, a.service_id""";
+
+    private static final String COLONNES_LIGNES_REFERENTIELS = """
+            ,
+                   ct.libelle, b.nom_bureau, s.nom_service""";
+
+    /**
+     * Page de la liste des affaires, sans construire les entités ni leurs objets liés
+     *
+     * Mêmes critères et même ordre que {@link #searchAffaires}. Les libellés des
+     * référentiels viennent du cache quand il est actif, sinon des jointures.
+     */
+    public List<LigneAffaire> findLignesListe(String searchTerm, StatutAffaire statut,
+                                              LocalDate dateDebut, LocalDate dateFin,
+                                              Long bureauId, int offset, int limit) {
+        boolean viaCache = referentielCache.isEnabled();
+        StringBuilder sql = new StringBuilder(SELECT_LIGNES)
+                .append(viaCache ? "" : COLONNES_LIGNES_REFERENTIELS)
+                .append("\n            FROM affaires a\n")
+                .append("            LEFT JOIN contrevenants c ON a.contrevenant_id = c.id\n")
+                .append(viaCache ? "" : JOINTURES_REFERENTIELS)
+                .append("            WHERE a.deleted = 0");
+        List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, searchTerm, statut, dateDebut, dateFin, bureauId);
+        sql.append(" ORDER BY a.date_creation DESC, a.numero_affaire DESC LIMIT ? OFFSET ?");
+        parameters.add(limit);
+        parameters.add(offset);
+
+        List<LigneAffaire> lignes = new ArrayList<>(Math.min(limit, 1000));
+
+        try (Connection conn = connexionRecherche(dateDebut);
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
             }
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
+                while (rs.next()) {
+                    lignes.add(mapLigne(rs, viaCache));
                 }
             }
 
         } catch (SQLException e) {
-            logger.error("Erreur lors du comptage avec critères", e);
+            logger.error("Erreur lors du chargement de la liste des affaires", e);
+            throw new RuntimeException("Erreur lors de la recherche", e);
         }
 
-        return 0;
+        return lignes;
+    }
+
+    private LigneAffaire mapLigne(ResultSet rs, boolean viaCache) throws SQLException {
+        Date dateCreation = rs.getDate(3);
+        BigDecimal montant = rs.getBigDecimal(4);
+        String statut = rs.getString(5);
+
+        String contraventionLibelle;
+        String bureauNom;
+        String serviceNom;
+        if (viaCache) {
+            contraventionLibelle = referentielCache.findContravention(rs.getLong(7))
+                    .map(Contravention::getLibelle).orElse(null);
+            bureauNom = referentielCache.findBureau(rs.getLong(8)).map(Bureau::getNomBureau).orElse(null);
+            serviceNom = referentielCache.findService(rs.getLong(9)).map(Service::getNomService).orElse(null);
+        } else {
+            contraventionLibelle = rs.getString(10);
+            bureauNom = rs.getString(11);
+            serviceNom = rs.getString(12);
+        }
+
+        return new LigneAffaire(
+                rs.getLong(1),
+                rs.getString(2),
+                dateCreation != null ? dateCreation.toLocalDate() : null,
+                montant != null ? montant : BigDecimal.ZERO,
+                statutDepuis(statut),
+                rs.getString(6),
+                contraventionLibelle,
+                bureauNom,
+                serviceNom);
+    }
+
+    private static StatutAffaire statutDepuis(String valeur) {
+        if (valeur == null) {
+            return StatutAffaire.OUVERTE;
+        }
+        try {
+            return StatutAffaire.valueOf(valeur);
+        } catch (IllegalArgumentException e) {
+            return StatutAffaire.OUVERTE;
+        }
     }
 
     /**
@@ -513,7 +744,7 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
 
         List<Affaire> affaires = new ArrayList<>();
 
-        try (Connection conn = getConnection();
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setDate(1, Date.valueOf(dateDebut));
@@ -580,7 +811,7 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
 
         List<Affaire> affaires = new ArrayList<>();
 
-        try (Connection conn = getConnection();
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, serviceId);
@@ -605,24 +836,88 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
     }
 
     /**
-     * Trouve les affaires avec encaissements validés pour une période
+     * Agrégat des affaires d'une période pour un couple (service, bureau)
      */
-    public List<Affaire> findAffairesWithEncaissementsByPeriod(LocalDate dateDebut, LocalDate dateFin) {
+    public record AgregatAmendes(Long serviceId, Long bureauId, int nombreAffaires,
+                                 BigDecimal montantTotal, BigDecimal montantEncaisse) {
+    }
+
+    /**
+     * Compte et cumule en une requête les affaires créées sur la période, par service et bureau
+     * (montant des amendes et encaissements validés sur la même période) ; les cumuls par
+     * service, bureau ou centre se déduisent de ce grain sans nouvelle requête
+     */
+    public List<AgregatAmendes> agregerAmendesParServiceEtBureau(LocalDate dateDebut, LocalDate dateFin) {
         String sql = """
-            SELECT DISTINCT a.*,
-                   c.code as contrevenant_code, c.nom_complet as contrevenant_nom_complet,
-                   c.type_personne as contrevenant_type_personne, c.adresse as contrevenant_adresse,
-                   c.telephone as contrevenant_telephone, c.email as contrevenant_email,
-                   ct.code as contravention_code, ct.libelle as contravention_libelle,
-                   ct.description as contravention_description,
-                   b.code_bureau, b.nom_bureau,
-                   s.code_service, s.nom_service
+            SELECT a.service_id, a.bureau_id,
+                   COUNT(*) AS nombre_affaires,
+                   IFNULL(SUM(a.montant_amende_total), 0) AS montant_total,
+                   IFNULL(SUM((SELECT SUM(e.montant_encaisse) FROM encaissements e
+                               WHERE e.affaire_id = a.id AND e.statut = 'VALIDE'
+                                 AND e.date_encaissement BETWEEN ? AND ?)), 0) AS montant_encaisse
             FROM affaires a
-            INNER JOIN encaissements e ON a.id = e.affaire_id
-            LEFT JOIN contrevenants c ON a.contrevenant_id = c.id
-            LEFT JOIN contraventions ct ON a.contravention_id = ct.id
-            LEFT JOIN bureaux b ON a.bureau_id = b.id
-            LEFT JOIN services s ON a.service_id = s.id
+            WHERE a.deleted = 0
+              AND a.date_creation >= ?
+              AND a.date_creation <= ?
+            GROUP BY a.service_id, a.bureau_id
+        """;
+
+        List<AgregatAmendes> agregats = new ArrayList<>();
+
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(dateDebut));
+            stmt.setDate(2, Date.valueOf(dateFin));
+            stmt.setDate(3, Date.valueOf(dateDebut));
+            stmt.setDate(4, Date.valueOf(dateFin));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long serviceId = rs.getLong("service_id");
+                    Long service = rs.wasNull() ? null : serviceId;
+                    long bureauId = rs.getLong("bureau_id");
+                    Long bureau = rs.wasNull() ? null : bureauId;
+                    agregats.add(new AgregatAmendes(service, bureau, rs.getInt("nombre_affaires"),
+                            rs.getBigDecimal("montant_total"),
+                            rs.getBigDecimal("montant_encaisse")));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors de l'agrégation des amendes par service", e);
+            throw new RuntimeException("Erreur lors de l'agrégation des amendes", e);
+        }
+
+        return agregats;
+    }
+
+    /**
+     * Trouve en une requête toutes les affaires ayant au moins un encaissement sur la période
+     * (chargement groupé pour les rapports, évite un findById par encaissement)
+     */
+    public List<Affaire> findAffairesEncaisseesParPeriode(LocalDate dateDebut, LocalDate dateFin) {
+        String sql = getSelectAllQuery() + """
+              AND a.id IN (SELECT e.affaire_id FROM encaissements e
+                           WHERE e.date_encaissement BETWEEN ? AND ?)
+            """;
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut)) {
+            return executerRequete(conn, sql, Date.valueOf(dateDebut), Date.valueOf(dateFin));
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la recherche des affaires encaissées", e);
+            throw new RuntimeException("Erreur lors de la recherche", e);
+        }
+    }
+
+    /**
+     * Trouve les affaires avec encaissements validés pour une période
+     */
+    public List<Affaire> findAffairesWithEncaissementsByPeriod(LocalDate dateDebut, LocalDate dateFin) {
+        String sql = "SELECT DISTINCT a.*,\n" + colonnesSelect() + "\n" +
+                "            FROM affaires a\n" +
+                "            INNER JOIN encaissements e ON a.id = e.affaire_id\n" +
+                "            LEFT JOIN contrevenants c ON a.contrevenant_id = c.id\n" +
+                jointuresReferentiels() + """
             WHERE e.date_encaissement BETWEEN ? AND ?
               AND e.statut = 'VALIDE'
               AND a.deleted = 0
@@ -631,7 +926,7 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
 
         List<Affaire> affaires = new ArrayList<>();
 
-        try (Connection conn = getConnection();
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setDate(1, Date.valueOf(dateDebut));
@@ -673,6 +968,7 @@ public class AffaireDAO extends AbstractSQLiteDAO<Affaire, Long> {
 
             int updated = stmt.executeUpdate();
             if (updated > 0) {
+                DataVersion.signalerEcriture("affaires");
                 logger.info("Montant encaissé mis à jour pour l'affaire {}: {}",
                         affaireId, montantEncaisse);
             }
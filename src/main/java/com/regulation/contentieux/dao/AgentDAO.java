@@ -2,14 +2,19 @@ package com.regulation.contentieux.dao;
 
 import com.regulation.contentieux.dao.impl.AbstractSQLiteDAO;
 import com.regulation.contentieux.model.Agent;
-import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.TransactionManager;
+import com.regulation.contentieux.util.Annulation;
+import com.regulation.contentieux.util.DataVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -41,7 +46,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, roleSpecial);
@@ -79,7 +84,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
 
         List<Agent> agents = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -110,7 +115,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
             WHERE agent_id = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, agentId);
@@ -141,7 +146,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
             WHERE agent_id = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, agentId);
@@ -179,7 +184,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
 
         Connection conn = null;
         try {
-            conn = DatabaseConfig.getSQLiteConnection();
+            conn = TransactionManager.getConnection();
             conn.setAutoCommit(false);
 
             // Supprimer l'ancien agent qui avait ce rôle
@@ -202,6 +207,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
             }
 
             conn.commit();
+            DataVersion.signalerEcriture("roles_speciaux");
             logger.info("Rôle spécial {} assigné à l'agent {}", roleSpecial, agentId);
             return true;
 
@@ -245,7 +251,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
         WHERE aa.affaire_id = ? AND aa.role_sur_affaire = 'Chef'
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sqlChefs)) {
 
             stmt.setLong(1, affaireId);
@@ -427,7 +433,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
             WHERE code_agent = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeAgent);
@@ -458,7 +464,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
 
         List<Agent> agents = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -487,7 +493,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
 
         List<Agent> agents = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, serviceId);
@@ -510,43 +516,22 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
     public List<Agent> searchAgents(String nomOuPrenom, String grade, Long serviceId,
                                     Boolean actif, int offset, int limit) {
         StringBuilder sql = new StringBuilder();
-        sql.append("SELECT id, code_agent, nom, prenom, grade, service_id, actif, ");
-        sql.append("created_at, updated_at ");
-        sql.append("FROM agents WHERE 1=1 ");
+        sql.append("SELECT ag.id, ag.code_agent, ag.nom, ag.prenom, ag.grade, ag.service_id, ag.actif, ");
+        sql.append("ag.created_at, ag.updated_at ");
+        sql.append("FROM agents ag WHERE 1=1 ");
 
         List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, nomOuPrenom, grade, serviceId, actif);
 
-        if (nomOuPrenom != null && !nomOuPrenom.trim().isEmpty()) {
-            sql.append("AND (nom LIKE ? OR prenom LIKE ? OR code_agent LIKE ?) ");
-            String searchPattern = "%" + nomOuPrenom.trim() + "%";
-            parameters.add(searchPattern);
-            parameters.add(searchPattern);
-            parameters.add(searchPattern);
-        }
-
-        if (grade != null && !grade.trim().isEmpty()) {
-            sql.append("AND grade LIKE ? ");
-            parameters.add("%" + grade.trim() + "%");
-        }
-
-        if (serviceId != null) {
-            sql.append("AND service_id = ? ");
-            parameters.add(serviceId);
-        }
-
-        if (actif != null) {
-            sql.append("AND actif = ? ");
-            parameters.add(actif ? 1 : 0);
-        }
-
-        sql.append("ORDER BY nom ASC, prenom ASC LIMIT ? OFFSET ?");
+        sql.append("ORDER BY ag.nom ASC, ag.prenom ASC LIMIT ? OFFSET ?");
         parameters.add(limit);
         parameters.add(offset);
 
         List<Agent> agents = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+        try (Connection conn = TransactionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
@@ -570,12 +555,38 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
      */
     public long countSearchAgents(String nomOuPrenom, String grade, Long serviceId, Boolean actif) {
         StringBuilder sql = new StringBuilder();
-        sql.append("SELECT COUNT(*) FROM agents WHERE 1=1 ");
+        sql.append("SELECT COUNT(*) FROM agents ag WHERE 1=1 ");
 
         List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, nomOuPrenom, grade, serviceId, actif);
+
+        try (Connection conn = TransactionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors du comptage des agents", e);
+        }
+
+        return 0;
+    }
 
+    /**
+     * Critères de recherche communs à la liste, au comptage et à la projection
+     */
+    private static void ajouterCriteres(StringBuilder sql, List<Object> parameters, String nomOuPrenom,
+                                        String grade, Long serviceId, Boolean actif) {
         if (nomOuPrenom != null && !nomOuPrenom.trim().isEmpty()) {
-            sql.append("AND (nom LIKE ? OR prenom LIKE ? OR code_agent LIKE ?) ");
+            sql.append("AND (ag.nom LIKE ? OR ag.prenom LIKE ? OR ag.code_agent LIKE ?) ");
             String searchPattern = "%" + nomOuPrenom.trim() + "%";
             parameters.add(searchPattern);
             parameters.add(searchPattern);
@@ -583,37 +594,88 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
         }
 
         if (grade != null && !grade.trim().isEmpty()) {
-            sql.append("AND grade LIKE ? ");
+            sql.append("AND ag.grade LIKE ? ");
             parameters.add("%" + grade.trim() + "%");
         }
 
         if (serviceId != null) {
-            sql.append("AND service_id = ? ");
+            sql.append("AND ag.service_id = ? ");
             parameters.add(serviceId);
         }
 
         if (actif != null) {
-            sql.append("AND actif = ? ");
+            sql.append("AND ag.actif = ? ");
             parameters.add(actif ? 1 : 0);
         }
+    }
+
+    // ==================== PROJECTION POUR LA LISTE ====================
+
+    /**
+     * Ligne de la liste des agents : uniquement les colonnes affichées
+     */
+    public record LigneAgent(long id, String codeAgent, String nom, String prenom, String grade,
+                             Long serviceId, String serviceNom, boolean actif, LocalDateTime createdAt,
+                             String roleSpecial) {
+    }
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+    /**
+     * Page de la liste des agents avec le nom du service et le rôle spécial,
+     * en une seule requête (au lieu d'un {@link #getRoleSpecial} par ligne)
+     *
+     * Mêmes critères et même ordre que {@link #searchAgents}.
+     */
+    public List<LigneAgent> findLignesListe(String nomOuPrenom, String grade, Long serviceId,
+                                            Boolean actif, int offset, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT ag.id, ag.code_agent, ag.nom, ag.prenom, ag.grade, ag.service_id, s.nom_service,
+                       ag.actif, ag.created_at,
+                       (SELECT r.role_nom FROM roles_speciaux r WHERE r.agent_id = ag.id LIMIT 1)
+                FROM agents ag
+                LEFT JOIN services s ON ag.service_id = s.id
+                WHERE 1=1
+                """);
+        List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, nomOuPrenom, grade, serviceId, actif);
+        sql.append("ORDER BY ag.nom ASC, ag.prenom ASC LIMIT ? OFFSET ?");
+        parameters.add(limit);
+        parameters.add(offset);
+
+        List<LigneAgent> lignes = new ArrayList<>(Math.min(limit, 1000));
+
+        try (Connection conn = TransactionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
             }
 
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getLong(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long idService = rs.getLong(6);
+                    Long ligneServiceId = rs.wasNull() ? null : idService;
+                    Timestamp createdAt = rs.getTimestamp(9);
+                    lignes.add(new LigneAgent(
+                            rs.getLong(1),
+                            rs.getString(2),
+                            rs.getString(3),
+                            rs.getString(4),
+                            rs.getString(5),
+                            ligneServiceId,
+                            rs.getString(7),
+                            rs.getBoolean(8),
+                            createdAt != null ? createdAt.toLocalDateTime() : null,
+                            rs.getString(10)));
+                }
             }
 
         } catch (SQLException e) {
-            logger.error("Erreur lors du comptage des agents", e);
+            logger.error("Erreur lors du chargement de la liste des agents", e);
+            throw new RuntimeException("Erreur lors de la recherche", e);
         }
 
-        return 0;
+        return lignes;
     }
 
     /**
@@ -629,7 +691,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, prefix + "%");
@@ -668,7 +730,7 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
     public boolean existsByCodeAgent(String codeAgent) {
         String sql = "SELECT 1 FROM agents WHERE code_agent = ? LIMIT 1";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeAgent);
@@ -687,11 +749,14 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
     public boolean deactivateAgent(Long agentId) {
         String sql = "UPDATE agents SET actif = 0, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, agentId);
             int rowsUpdated = stmt.executeUpdate();
+            if (rowsUpdated > 0) {
+                DataVersion.signalerEcriture("agents");
+            }
             return rowsUpdated > 0;
 
         } catch (SQLException e) {
@@ -706,11 +771,14 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
     public boolean reactivateAgent(Long agentId) {
         String sql = "UPDATE agents SET actif = 1, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, agentId);
             int rowsUpdated = stmt.executeUpdate();
+            if (rowsUpdated > 0) {
+                DataVersion.signalerEcriture("agents");
+            }
             return rowsUpdated > 0;
 
         } catch (SQLException e) {
@@ -718,4 +786,37 @@ public class AgentDAO extends AbstractSQLiteDAO<Agent, Long> {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Agents existants parmi les identifiants, avec l'indication d'un rattachement
+     * à au moins une affaire (une requête par lot de {@link #TAILLE_LOT_IN})
+     */
+    public Map<Long, Boolean> findRattachementsAffaires(Collection<Long> ids) {
+        Map<Long, Boolean> rattachements = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return rattachements;
+        }
+
+        try (Connection conn = TransactionManager.getConnection()) {
+            for (List<Long> lot : decouperEnLots(ids)) {
+                String sql = "SELECT a.id, EXISTS (SELECT 1 FROM affaire_acteurs aa WHERE aa.agent_id = a.id) AS rattache " +
+                        "FROM agents a WHERE a.id IN (" + marqueurs(lot.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int index = 1;
+                    for (Long id : lot) {
+                        stmt.setLong(index++, id);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            rattachements.put(rs.getLong("id"), rs.getInt("rattache") != 0);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la vérification des agents", e);
+            throw new RuntimeException("Erreur lors de la vérification des agents", e);
+        }
+        return rattachements;
+    }
+}
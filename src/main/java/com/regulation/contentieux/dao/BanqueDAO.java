@@ -2,7 +2,7 @@ package com.regulation.contentieux.dao;
 
 import com.regulation.contentieux.dao.impl.AbstractSQLiteDAO;
 import com.regulation.contentieux.model.Banque;
-import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -129,7 +129,7 @@ public class BanqueDAO extends AbstractSQLiteDAO<Banque, Long> {
             WHERE code_banque = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeBanque);
@@ -171,7 +171,7 @@ public class BanqueDAO extends AbstractSQLiteDAO<Banque, Long> {
 
         List<Banque> banques = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parameters.size(); i++) {
@@ -205,7 +205,7 @@ public class BanqueDAO extends AbstractSQLiteDAO<Banque, Long> {
     public boolean existsByCodeBanque(String codeBanque) {
         String sql = "SELECT 1 FROM banques WHERE code_banque = ? LIMIT 1";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeBanque);
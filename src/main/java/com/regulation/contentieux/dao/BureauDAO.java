@@ -3,7 +3,7 @@ package com.regulation.contentieux.dao;
 import com.regulation.contentieux.dao.impl.AbstractSQLiteDAO;
 import com.regulation.contentieux.model.Bureau;
 import com.regulation.contentieux.model.Service;
-import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -146,7 +146,7 @@ public class BureauDAO extends AbstractSQLiteDAO<Bureau, Long> {
             WHERE code_bureau = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeBureau);
@@ -189,7 +189,7 @@ public class BureauDAO extends AbstractSQLiteDAO<Bureau, Long> {
 
         List<Bureau> bureaux = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parameters.size(); i++) {
@@ -222,7 +222,7 @@ public class BureauDAO extends AbstractSQLiteDAO<Bureau, Long> {
 
         List<Bureau> bureaux = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             ResultSet rs = stmt.executeQuery();
@@ -261,7 +261,7 @@ public class BureauDAO extends AbstractSQLiteDAO<Bureau, Long> {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, prefix + "%");
@@ -308,7 +308,7 @@ public class BureauDAO extends AbstractSQLiteDAO<Bureau, Long> {
     public boolean existsByCodeBureau(String codeBureau) {
         String sql = "SELECT 1 FROM bureaux WHERE code_bureau = ? LIMIT 1";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeBureau);
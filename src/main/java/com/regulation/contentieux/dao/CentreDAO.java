@@ -2,7 +2,7 @@ package com.regulation.contentieux.dao;
 
 import com.regulation.contentieux.dao.impl.AbstractSQLiteDAO;
 import com.regulation.contentieux.model.Centre;
-import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -124,7 +124,7 @@ public class CentreDAO extends AbstractSQLiteDAO<Centre, Long> {
     public boolean existsByCodeCentre(String codeCentre) {
         String sql = "SELECT COUNT(*) FROM centres WHERE code_centre = ?";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeCentre);
@@ -153,7 +153,7 @@ public class CentreDAO extends AbstractSQLiteDAO<Centre, Long> {
             WHERE code_centre = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeCentre);
@@ -200,7 +200,7 @@ public class CentreDAO extends AbstractSQLiteDAO<Centre, Long> {
 
         List<Centre> centres = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parameters.size(); i++) {
@@ -239,7 +239,7 @@ public class CentreDAO extends AbstractSQLiteDAO<Centre, Long> {
             parameters.add(searchPattern);
         }
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parameters.size(); i++) {
@@ -271,7 +271,7 @@ public class CentreDAO extends AbstractSQLiteDAO<Centre, Long> {
 
         List<Centre> centres = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             ResultSet rs = stmt.executeQuery();
@@ -7,7 +7,7 @@ import java.math.BigDecimal;
 
 import com.regulation.contentieux.dao.impl.AbstractSQLiteDAO;
 import com.regulation.contentieux.model.Contravention;
-import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -133,7 +133,7 @@ public class ContraventionDAO extends AbstractSQLiteDAO<Contravention, Long> {
             WHERE code = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, code);
@@ -175,7 +175,7 @@ public class ContraventionDAO extends AbstractSQLiteDAO<Contravention, Long> {
 
         List<Contravention> contraventions = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parameters.size(); i++) {
@@ -216,7 +216,7 @@ public class ContraventionDAO extends AbstractSQLiteDAO<Contravention, Long> {
 
         List<Contravention> contraventions = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, affaireId);
@@ -251,7 +251,7 @@ public class ContraventionDAO extends AbstractSQLiteDAO<Contravention, Long> {
             parameters.add(searchPattern);
         }
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parameters.size(); i++) {
@@ -290,7 +290,7 @@ public class ContraventionDAO extends AbstractSQLiteDAO<Contravention, Long> {
 
         List<Contravention> contraventions = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             ResultSet rs = stmt.executeQuery();
@@ -319,7 +319,7 @@ public class ContraventionDAO extends AbstractSQLiteDAO<Contravention, Long> {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, prefix + "%");
@@ -357,7 +357,7 @@ public class ContraventionDAO extends AbstractSQLiteDAO<Contravention, Long> {
         String sql = "SELECT * FROM contraventions ORDER BY libelle";
         List<Contravention> contraventions = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -377,7 +377,7 @@ public class ContraventionDAO extends AbstractSQLiteDAO<Contravention, Long> {
     public boolean existsByCode(String code) {
         String sql = "SELECT 1 FROM contraventions WHERE code = ? LIMIT 1";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, code);
@@ -2,7 +2,8 @@ package com.regulation.contentieux.dao;
 
 import com.regulation.contentieux.dao.impl.AbstractSQLiteDAO;
 import com.regulation.contentieux.model.Contrevenant;
-import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.TransactionManager;
+import com.regulation.contentieux.util.Annulation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -148,7 +149,7 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
             WHERE code = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, code);
@@ -179,7 +180,7 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
 
         List<Contrevenant> contrevenants = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, typePersonne);
@@ -200,7 +201,7 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
         String sql = getSelectAllQuery() + " WHERE actif = 1";
         List<Contrevenant> contrevenants = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -225,18 +226,7 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
         sql.append("FROM contrevenants WHERE 1=1 ");
 
         List<Object> parameters = new ArrayList<>();
-
-        if (nomOuCode != null && !nomOuCode.trim().isEmpty()) {
-            sql.append("AND (nom_complet LIKE ? OR code LIKE ?) ");
-            String searchPattern = "%" + nomOuCode.trim() + "%";
-            parameters.add(searchPattern);
-            parameters.add(searchPattern);
-        }
-
-        if (typePersonne != null && !typePersonne.trim().isEmpty()) {
-            sql.append("AND type_personne = ? ");
-            parameters.add(typePersonne);
-        }
+        ajouterCriteres(sql, parameters, nomOuCode, typePersonne);
 
         sql.append("ORDER BY created_at DESC LIMIT ? OFFSET ?");
         parameters.add(limit);
@@ -244,8 +234,9 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
 
         List<Contrevenant> contrevenants = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+        try (Connection conn = TransactionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
@@ -272,7 +263,33 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
         sql.append("SELECT COUNT(*) FROM contrevenants WHERE 1=1 ");
 
         List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, nomOuCode, typePersonne);
+
+        try (Connection conn = TransactionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors du comptage des contrevenants", e);
+        }
+
+        return 0;
+    }
 
+    /**
+     * Critères de recherche communs à la liste, au comptage et à la projection
+     */
+    private static void ajouterCriteres(StringBuilder sql, List<Object> parameters,
+                                        String nomOuCode, String typePersonne) {
         if (nomOuCode != null && !nomOuCode.trim().isEmpty()) {
             sql.append("AND (nom_complet LIKE ? OR code LIKE ?) ");
             String searchPattern = "%" + nomOuCode.trim() + "%";
@@ -284,24 +301,66 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
             sql.append("AND type_personne = ? ");
             parameters.add(typePersonne);
         }
+    }
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+    // ==================== PROJECTION POUR LA LISTE ====================
+
+    /**
+     * Ligne de la liste des contrevenants : uniquement les colonnes affichées
+     */
+    public record LigneContrevenant(long id, String code, String nomComplet, String typePersonne,
+                                    String telephone, String email, String adresse,
+                                    LocalDateTime createdAt) {
+    }
+
+    /**
+     * Page de la liste des contrevenants, sans construire les entités
+     *
+     * Mêmes critères et même ordre que {@link #searchContrevenants}.
+     */
+    public List<LigneContrevenant> findLignesListe(String nomOuCode, String typePersonne, int offset, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, code, nom_complet, type_personne, telephone, email, adresse, created_at
+                FROM contrevenants
+                WHERE 1=1
+                """);
+        List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, nomOuCode, typePersonne);
+        sql.append("ORDER BY created_at DESC LIMIT ? OFFSET ?");
+        parameters.add(limit);
+        parameters.add(offset);
+
+        List<LigneContrevenant> lignes = new ArrayList<>(Math.min(limit, 1000));
+
+        try (Connection conn = TransactionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
             }
 
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getLong(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp createdAt = rs.getTimestamp(8);
+                    lignes.add(new LigneContrevenant(
+                            rs.getLong(1),
+                            rs.getString(2),
+                            rs.getString(3),
+                            rs.getString(4),
+                            rs.getString(5),
+                            rs.getString(6),
+                            rs.getString(7),
+                            createdAt != null ? createdAt.toLocalDateTime() : null));
+                }
             }
 
         } catch (SQLException e) {
-            logger.error("Erreur lors du comptage des contrevenants", e);
+            logger.error("Erreur lors du chargement de la liste des contrevenants", e);
+            throw new RuntimeException("Erreur lors de la recherche", e);
         }
 
-        return 0;
+        return lignes;
     }
 
     /**
@@ -320,7 +379,7 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, prefix + "%");
@@ -366,7 +425,7 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
     public boolean existsByCode(String code) {
         String sql = "SELECT 1 FROM contrevenants WHERE code = ? LIMIT 1";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, code);
@@ -387,7 +446,7 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
 
         List<Contrevenant> contrevenants = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, limit);
@@ -428,7 +487,7 @@ public class ContrevenantDAO extends AbstractSQLiteDAO<Contrevenant, Long> {
     public long countByTypePersonne(String typePersonne) {
         String sql = "SELECT COUNT(*) FROM contrevenants WHERE type_personne = ?";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, typePersonne);
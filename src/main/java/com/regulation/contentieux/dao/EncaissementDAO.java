@@ -7,8 +7,11 @@ import com.regulation.contentieux.model.Affaire;
 import com.regulation.contentieux.model.Mandat;
 import com.regulation.contentieux.model.enums.ModeReglement;
 import com.regulation.contentieux.model.enums.StatutEncaissement;
-import com.regulation.contentieux.config.DatabaseConfig;
 import com.regulation.contentieux.service.MandatService;
+import com.regulation.contentieux.util.Annulation;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.SequencesNumeros;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,7 +21,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter; // AJOUT DE L'IMPORT MANQUANT
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -346,17 +352,8 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
      * Vérifie si une référence existe déjà
      */
     public boolean existsByReference(String reference) {
-        String sql = "SELECT COUNT(*) FROM encaissements WHERE numero_encaissement = ?";
-
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, reference);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
+        try (Connection conn = getConnection()) {
+            return SequencesNumeros.existe(conn, SequencesNumeros.Type.ENCAISSEMENT, reference);
 
         } catch (SQLException e) {
             logger.error("Erreur lors de la vérification d'existence de la référence", e);
@@ -442,24 +439,13 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
         String expectedPrefix = yearMonth + "R";
         logger.debug("🔍 Préfixe attendu pour ce mois: {}", expectedPrefix);
 
-        // CORRECTION : Rechercher le VRAI dernier numéro séquentiel
-        String sql = """
-        SELECT numero_encaissement 
-        FROM encaissements
-        WHERE numero_encaissement LIKE ?
-        AND LENGTH(numero_encaissement) = 10
-        ORDER BY CAST(SUBSTR(numero_encaissement, 6) AS INTEGER) DESC
-        LIMIT 1
-    """;
-
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // CORRECTION : Rechercher le VRAI dernier numéro séquentiel (index période/séquence)
+        try (Connection conn = TransactionManager.getConnection()) {
 
-            stmt.setString(1, expectedPrefix + "%");
-            ResultSet rs = stmt.executeQuery();
+            Optional<String> dernier = SequencesNumeros.dernierNumero(conn, SequencesNumeros.Type.ENCAISSEMENT, yearMonth);
 
-            if (rs.next()) {
-                String lastNumero = rs.getString("numero_encaissement");
+            if (dernier.isPresent()) {
+                String lastNumero = dernier.get();
                 logger.debug("🔍 Dernier numéro trouvé: {}", lastNumero);
 
                 // Vérifier que le format est correct
@@ -512,20 +498,14 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
     private String findNextAvailableNumero(String prefix, int startNumber) {
         logger.warn("🔍 Recherche du prochain numéro disponible à partir de {}", startNumber);
 
-        String checkSql = "SELECT 1 FROM encaissements WHERE numero_encaissement = ?";
-
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(checkSql)) {
+        try (Connection conn = TransactionManager.getConnection()) {
 
             for (int i = startNumber; i <= 99999; i++) {
                 String testNumero = prefix + String.format("%05d", i);
-                stmt.setString(1, testNumero);
 
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (!rs.next()) {
-                        logger.info("✅ Numéro disponible trouvé: {}", testNumero);
-                        return testNumero;
-                    }
+                if (!SequencesNumeros.existe(conn, SequencesNumeros.Type.ENCAISSEMENT, testNumero)) {
+                    logger.info("✅ Numéro disponible trouvé: {}", testNumero);
+                    return testNumero;
                 }
             }
 
@@ -550,7 +530,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
         WHERE numero_encaissement LIKE ?
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(countSql)) {
 
             stmt.setString(1, prefix + "%");
@@ -603,7 +583,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
         LocalDate now = LocalDate.now();
         String currentPrefix = now.format(DateTimeFormatter.ofPattern("yyMM")) + "R";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, currentPrefix + "%");
@@ -739,7 +719,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
                 WHERE reference LIKE ?
             """;
 
-            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+            try (Connection conn = TransactionManager.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(checkSql)) {
 
                 stmt.setString(1, expectedPrefix + "%");
@@ -776,7 +756,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, prefix + "%");
@@ -814,7 +794,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
             LIMIT 100
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -918,6 +898,9 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
             stmt.setLong(4, encaissementId);
 
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                DataVersion.signalerEcriture("encaissements");
+            }
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -926,6 +909,85 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
         }
     }
 
+    /**
+     * Statuts d'un ensemble d'encaissements, une requête par lot de {@link #TAILLE_LOT_IN}
+     *
+     * Les identifiants inexistants sont absents de la map ; un statut non
+     * renseigné vaut EN_ATTENTE (valeur par défaut de la colonne).
+     */
+    public Map<Long, StatutEncaissement> findStatutsByIds(Collection<Long> ids) {
+        Map<Long, StatutEncaissement> statuts = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return statuts;
+        }
+
+        try (Connection conn = getConnection()) {
+            for (List<Long> lot : decouperEnLots(ids)) {
+                String sql = "SELECT id, statut FROM encaissements WHERE id IN (" + marqueurs(lot.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int index = 1;
+                    for (Long id : lot) {
+                        stmt.setLong(index++, id);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            String statut = rs.getString("statut");
+                            statuts.put(rs.getLong("id"), statut != null
+                                    ? StatutEncaissement.valueOf(statut) : StatutEncaissement.EN_ATTENTE);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la lecture des statuts d'encaissements", e);
+            throw new RuntimeException("Erreur lors de la lecture des statuts d'encaissements", e);
+        }
+        return statuts;
+    }
+
+    /**
+     * Met à jour le statut d'un lot d'encaissements par UPDATE ... WHERE id IN (...)
+     *
+     * Seuls les encaissements encore au statut attendu sont modifiés. À appeler
+     * dans une transaction pour que tous les lots soient validés ensemble.
+     *
+     * @return le nombre d'encaissements modifiés
+     */
+    public int updateStatutEnLot(Collection<Long> ids, StatutEncaissement statutAttendu,
+                                 StatutEncaissement nouveauStatut, String updatedBy) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        int total = 0;
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+        try (Connection conn = getConnection()) {
+            for (List<Long> lot : decouperEnLots(ids)) {
+                String sql = "UPDATE encaissements SET statut = ?, updated_by = ?, updated_at = ? " +
+                        "WHERE COALESCE(statut, 'EN_ATTENTE') = ? AND id IN (" + marqueurs(lot.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, nouveauStatut.name());
+                    stmt.setString(2, updatedBy);
+                    stmt.setTimestamp(3, maintenant);
+                    stmt.setString(4, statutAttendu.name());
+                    int index = 5;
+                    for (Long id : lot) {
+                        stmt.setLong(index++, id);
+                    }
+                    total += stmt.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la mise à jour du statut en lot", e);
+            throw new RuntimeException("Erreur lors de la mise à jour du statut en lot", e);
+        }
+
+        if (total > 0) {
+            DataVersion.signalerEcriture("encaissements");
+        }
+        return total;
+    }
+
     /**
      * CORRECTION : Recherche d'encaissements avec critères multiples
      */
@@ -942,31 +1004,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
                         "WHERE 1=1 ");
 
         List<Object> parameters = new ArrayList<>();
-
-        if (reference != null && !reference.trim().isEmpty()) {
-            sql.append("AND e.numero_encaissement LIKE ? ");
-            parameters.add("%" + reference.trim() + "%");
-        }
-
-        if (modeReglement != null) {
-            sql.append("AND e.mode_reglement = ? ");
-            parameters.add(modeReglement.name());
-        }
-
-        if (dateDebut != null) {
-            sql.append("AND e.date_encaissement >= ? ");
-            parameters.add(Date.valueOf(dateDebut));
-        }
-
-        if (dateFin != null) {
-            sql.append("AND e.date_encaissement <= ? ");
-            parameters.add(Date.valueOf(dateFin));
-        }
-
-        if (affaireId != null) {
-            sql.append("AND e.affaire_id = ? ");
-            parameters.add(affaireId);
-        }
+        ajouterCriteres(sql, parameters, reference, modeReglement, dateDebut, dateFin, affaireId);
 
         sql.append("ORDER BY e.date_encaissement DESC LIMIT ? OFFSET ?");
         parameters.add(limit);
@@ -975,7 +1013,8 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
         List<Encaissement> encaissements = new ArrayList<>();
 
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
@@ -1001,52 +1040,150 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
                                          ModeReglement modeReglement, LocalDate dateDebut,
                                          LocalDate dateFin, Long affaireId) {
         StringBuilder sql = new StringBuilder(
-                "SELECT COUNT(*) FROM encaissements WHERE 1=1 ");
+                "SELECT COUNT(*) FROM encaissements e WHERE 1=1 ");
 
         List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, reference, modeReglement, dateDebut, dateFin, affaireId);
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
 
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors du comptage des encaissements", e);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Critères de recherche communs à la liste, au comptage et à la projection
+     */
+    private static void ajouterCriteres(StringBuilder sql, List<Object> parameters, String reference,
+                                        ModeReglement modeReglement, LocalDate dateDebut,
+                                        LocalDate dateFin, Long affaireId) {
         if (reference != null && !reference.trim().isEmpty()) {
-            sql.append("AND numero_encaissement LIKE ? ");
+            sql.append("AND e.numero_encaissement LIKE ? ");
             parameters.add("%" + reference.trim() + "%");
         }
 
         if (modeReglement != null) {
-            sql.append("AND mode_reglement = ? ");
+            sql.append("AND e.mode_reglement = ? ");
             parameters.add(modeReglement.name());
         }
 
         if (dateDebut != null) {
-            sql.append("AND date_encaissement >= ? ");
+            sql.append("AND e.date_encaissement >= ? ");
             parameters.add(Date.valueOf(dateDebut));
         }
 
         if (dateFin != null) {
-            sql.append("AND date_encaissement <= ? ");
+            sql.append("AND e.date_encaissement <= ? ");
             parameters.add(Date.valueOf(dateFin));
         }
 
         if (affaireId != null) {
-            sql.append("AND affaire_id = ? ");
+            sql.append("AND e.affaire_id = ? ");
             parameters.add(affaireId);
         }
+    }
+
+    // ==================== PROJECTION POUR LA LISTE ====================
+
+    /**
+     * Ligne de la liste des encaissements : uniquement les colonnes affichées
+     */
+    public record LigneEncaissement(long id, String reference, Long affaireId, String numeroAffaire,
+                                    BigDecimal montantEncaisse, LocalDate dateEncaissement,
+                                    ModeReglement modeReglement, Long banqueId, String banqueNom,
+                                    LocalDateTime createdAt) {
+    }
+
+    /**
+     * Page de la liste des encaissements, sans construire les entités ni leurs objets liés
+     *
+     * Mêmes critères et même ordre que {@link #searchEncaissements}.
+     */
+    public List<LigneEncaissement> findLignesListe(String reference, ModeReglement modeReglement,
+                                                   LocalDate dateDebut, LocalDate dateFin,
+                                                   Long affaireId, int offset, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT e.id, e.numero_encaissement, e.affaire_id, a.numero_affaire, e.montant_encaisse,
+                       e.date_encaissement, e.mode_reglement, e.banque_id, b.nom_banque, e.created_at
+                FROM encaissements e
+                LEFT JOIN affaires a ON e.affaire_id = a.id
+                LEFT JOIN banques b ON e.banque_id = b.id
+                WHERE 1=1
+                """);
+        List<Object> parameters = new ArrayList<>();
+        ajouterCriteres(sql, parameters, reference, modeReglement, dateDebut, dateFin, affaireId);
+        sql.append("ORDER BY e.date_encaissement DESC LIMIT ? OFFSET ?");
+        parameters.add(limit);
+        parameters.add(offset);
+
+        List<LigneEncaissement> lignes = new ArrayList<>(Math.min(limit, 1000));
 
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+             PreparedStatement stmt = conn.prepareStatement(sql.toString());
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             for (int i = 0; i < parameters.size(); i++) {
                 stmt.setObject(i + 1, parameters.get(i));
             }
 
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getLong(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lignes.add(mapLigne(rs));
+                }
             }
 
         } catch (SQLException e) {
-            logger.error("Erreur lors du comptage des encaissements", e);
+            logger.error("Erreur lors du chargement de la liste des encaissements", e);
+            throw new RuntimeException("Erreur lors de la recherche", e);
         }
 
-        return 0;
+        return lignes;
+    }
+
+    private LigneEncaissement mapLigne(ResultSet rs) throws SQLException {
+        long affaireId = rs.getLong(3);
+        boolean avecAffaire = !rs.wasNull();
+        BigDecimal montant = rs.getBigDecimal(5);
+        Date dateEncaissement = rs.getDate(6);
+        String mode = rs.getString(7);
+        long banqueId = rs.getLong(8);
+        boolean avecBanque = !rs.wasNull();
+        Timestamp createdAt = rs.getTimestamp(10);
+
+        ModeReglement modeReglement = null;
+        if (mode != null) {
+            try {
+                modeReglement = ModeReglement.valueOf(normaliserModeReglement(mode));
+            } catch (IllegalArgumentException e) {
+                modeReglement = ModeReglement.ESPECES;
+            }
+        }
+
+        return new LigneEncaissement(
+                rs.getLong(1),
+                rs.getString(2),
+                avecAffaire ? affaireId : null,
+                rs.getString(4),
+                montant != null ? montant : BigDecimal.ZERO,
+                dateEncaissement != null ? dateEncaissement.toLocalDate() : null,
+                modeReglement,
+                avecBanque ? banqueId : null,
+                rs.getString(9),
+                createdAt != null ? createdAt.toLocalDateTime() : null);
     }
 
     /**
@@ -1062,7 +1199,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
         """;
         List<Encaissement> encaissements = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, statut.name());
@@ -1091,7 +1228,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
             sql = "SELECT COALESCE(SUM(montant_encaisse), 0) as total FROM encaissements WHERE date_encaissement BETWEEN ? AND ? AND statut = ?";
         }
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             if (debut == null && fin == null) {
@@ -1139,6 +1276,7 @@ public class EncaissementDAO extends AbstractSQLiteDAO<Encaissement, Long> {
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
+                Annulation.verifier();
                 encaissements.add(mapResultSetToEntity(rs));
             }
 
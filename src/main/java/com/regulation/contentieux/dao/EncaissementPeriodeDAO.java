@@ -0,0 +1,103 @@
+package com.regulation.contentieux.dao;
+
+import com.regulation.contentieux.util.Annulation;
+import com.regulation.contentieux.util.BaseArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lecture en flux des encaissements validés d'une période avec leur affaire
+ *
+ * Une seule requête jointe (encaissement, affaire, contrevenant, présence d'un
+ * indicateur) produit des lignes compactes : les rapports qui ne présentent
+ * que les montants globaux n'ont plus besoin de recharger chaque affaire ni
+ * d'interroger affaire_acteurs encaissement par encaissement.
+ *
+ * Une période antérieure à la date limite d'archivage est lue aussi dans
+ * la base d'archive (voir {@link BaseArchive}).
+ */
+public class EncaissementPeriodeDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(EncaissementPeriodeDAO.class);
+
+    private static final String SELECT_PERIODE_SQL = """
+        SELECT e.id, e.numero_encaissement, e.date_encaissement, e.montant_encaisse,
+               a.id AS affaire_id, a.numero_affaire, a.contravention_id,
+               c.nom_complet AS contrevenant_nom,
+               EXISTS (SELECT 1 FROM affaire_acteurs aa
+                       WHERE aa.affaire_id = a.id AND aa.role_sur_affaire = 'INDICATEUR') AS indicateur_existe
+        FROM encaissements e
+        INNER JOIN affaires a ON e.affaire_id = a.id AND a.deleted = 0
+        LEFT JOIN contrevenants c ON a.contrevenant_id = c.id
+        WHERE e.date_encaissement BETWEEN ? AND ?
+        AND e.statut = 'VALIDE'
+        ORDER BY e.date_encaissement
+    """;
+
+    /**
+     * Encaissement validé de la période et informations utiles de son affaire
+     */
+    public record LigneEncaissementPeriode(long encaissementId, String numeroEncaissement,
+                                           LocalDate dateEncaissement, BigDecimal montantEncaisse,
+                                           long affaireId, String numeroAffaire, Long contraventionId,
+                                           String nomContrevenant, boolean indicateurExiste) {
+    }
+
+    /**
+     * Parcourt les lignes de la période sans les conserver en mémoire
+     */
+    public void parcourir(LocalDate dateDebut, LocalDate dateFin, Consumer<LigneEncaissementPeriode> consommateur) {
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PERIODE_SQL)) {
+
+            stmt.setDate(1, Date.valueOf(dateDebut));
+            stmt.setDate(2, Date.valueOf(dateFin));
+            stmt.setFetchSize(500);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Annulation.verifier();
+                    consommateur.accept(mapLigne(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la lecture des encaissements de la période", e);
+            throw new RuntimeException("Erreur lors de la lecture des encaissements de la période", e);
+        }
+    }
+
+    /**
+     * Toutes les lignes de la période, triées par date d'encaissement
+     */
+    public List<LigneEncaissementPeriode> charger(LocalDate dateDebut, LocalDate dateFin) {
+        List<LigneEncaissementPeriode> lignes = new ArrayList<>();
+        parcourir(dateDebut, dateFin, lignes::add);
+        return lignes;
+    }
+
+    private LigneEncaissementPeriode mapLigne(ResultSet rs) throws SQLException {
+        Date date = rs.getDate("date_encaissement");
+        BigDecimal montant = rs.getBigDecimal("montant_encaisse");
+        long contraventionId = rs.getLong("contravention_id");
+        Long contravention = rs.wasNull() ? null : contraventionId;
+
+        return new LigneEncaissementPeriode(
+                rs.getLong("id"),
+                rs.getString("numero_encaissement"),
+                date != null ? date.toLocalDate() : null,
+                montant != null ? montant : BigDecimal.ZERO,
+                rs.getLong("affaire_id"),
+                rs.getString("numero_affaire"),
+                contravention,
+                rs.getString("contrevenant_nom"),
+                rs.getInt("indicateur_existe") != 0);
+    }
+}
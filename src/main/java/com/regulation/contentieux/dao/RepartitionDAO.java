@@ -1,7 +1,8 @@
 package com.regulation.contentieux.dao;
 
-import com.regulation.contentieux.config.DatabaseConfig;
 import com.regulation.contentieux.model.RepartitionResultat;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,7 +34,7 @@ public class RepartitionDAO {
             ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setLong(1, repartition.getEncaissement().getId());
@@ -51,6 +52,7 @@ public class RepartitionDAO {
             stmt.setTimestamp(13, Timestamp.valueOf(LocalDateTime.now()));
 
             int rowsAffected = stmt.executeUpdate();
+            DataVersion.signalerEcriture("repartition_resultats");
 
             if (rowsAffected > 0) {
                 try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
@@ -79,7 +81,7 @@ public class RepartitionDAO {
             ) VALUES (?, ?, ?, ?, ?)
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, repartitionId);
@@ -89,6 +91,7 @@ public class RepartitionDAO {
             stmt.setString(5, part.getDescription());
 
             stmt.executeUpdate();
+            DataVersion.signalerEcriture("repartition_parts_individuelles");
             logger.debug("Part individuelle sauvegardée pour l'agent {}", part.getAgent().getId());
 
         } catch (SQLException e) {
@@ -108,7 +111,7 @@ public class RepartitionDAO {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, encaissementId);
@@ -3,7 +3,7 @@ package com.regulation.contentieux.dao;
 import com.regulation.contentieux.dao.impl.AbstractSQLiteDAO;
 import com.regulation.contentieux.model.Service;
 import com.regulation.contentieux.model.Centre;
-import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -128,7 +128,7 @@ public class ServiceDAO extends AbstractSQLiteDAO<Service, Long> {
     public boolean existsByCodeService(String codeService) {
         String sql = "SELECT 1 FROM services WHERE code_service = ? LIMIT 1";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeService);
@@ -153,7 +153,7 @@ public class ServiceDAO extends AbstractSQLiteDAO<Service, Long> {
             WHERE code_service = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, codeService);
@@ -196,7 +196,7 @@ public class ServiceDAO extends AbstractSQLiteDAO<Service, Long> {
 
         List<Service> services = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parameters.size(); i++) {
@@ -239,7 +239,7 @@ public class ServiceDAO extends AbstractSQLiteDAO<Service, Long> {
             parameters.add(searchPattern);
         }
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < parameters.size(); i++) {
@@ -278,7 +278,7 @@ public class ServiceDAO extends AbstractSQLiteDAO<Service, Long> {
 
         List<Service> services = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             ResultSet rs = stmt.executeQuery();
@@ -334,7 +334,7 @@ public class ServiceDAO extends AbstractSQLiteDAO<Service, Long> {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, prefix + "%");
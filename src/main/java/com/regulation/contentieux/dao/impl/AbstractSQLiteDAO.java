@@ -1,12 +1,17 @@
 package com.regulation.contentieux.dao.impl;
 
-import com.regulation.contentieux.config.DatabaseConfig;
 import com.regulation.contentieux.dao.BaseDAO;
+import com.regulation.contentieux.util.Annulation;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +26,11 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+    /**
+     * Nombre maximal d'identifiants par clause IN (limite de paramètres SQLite)
+     */
+    protected static final int TAILLE_LOT_IN = 500;
+
     /**
      * Retourne le nom de la table
      */
@@ -77,10 +87,10 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
     protected abstract void setEntityId(T entity, ID id);
 
     /**
-     * Obtient une connexion à la base de données
+     * Obtient une connexion à la base de données (celle de la transaction en cours s'il y en a une)
      */
     protected Connection getConnection() throws SQLException {
-        return DatabaseConfig.getSQLiteConnection();
+        return TransactionManager.getConnection();
     }
 
     @Override
@@ -109,6 +119,7 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
             }
 
             logger.debug("Entité sauvegardée avec succès: {}", entity);
+            DataVersion.signalerEcriture(getTableName());
             return entity;
 
         } catch (SQLException e) {
@@ -133,6 +144,7 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
             }
 
             logger.debug("Entité mise à jour avec succès: {}", entity);
+            DataVersion.signalerEcriture(getTableName());
             return entity;
 
         } catch (SQLException e) {
@@ -156,6 +168,7 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
                 logger.warn("Aucune entité trouvée avec l'ID: {}", id);
             } else {
                 logger.debug("Entité supprimée avec l'ID: {}", id);
+                DataVersion.signalerEcriture(getTableName());
             }
 
         } catch (SQLException e) {
@@ -209,7 +222,8 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
         List<T> entities = new ArrayList<>();
 
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt)) {
 
             stmt.setInt(1, limit);
             stmt.setInt(2, offset);
@@ -236,6 +250,7 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
 
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
+             Annulation.Surveillance surveillance = Annulation.surveiller(stmt);
              ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
@@ -328,6 +343,7 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
 
             int deletedRows = stmt.executeUpdate();
             logger.info("Supprimé {} entités de la table {}", deletedRows, getTableName());
+            DataVersion.signalerEcriture(getTableName());
 
         } catch (SQLException e) {
             logger.error("Erreur lors de la suppression de toutes les entités", e);
@@ -341,20 +357,22 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
             return;
         }
 
-        String sql = "DELETE FROM " + getTableName() +
-                " WHERE " + getIdColumnName() + " IN (" +
-                String.join(",", ids.stream().map(id -> "?").toArray(String[]::new)) + ")";
-
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            int index = 1;
-            for (ID id : ids) {
-                stmt.setObject(index++, id);
+        try (Connection conn = getConnection()) {
+            int deletedRows = 0;
+            for (List<ID> lot : decouperEnLots(ids)) {
+                String sql = "DELETE FROM " + getTableName() +
+                        " WHERE " + getIdColumnName() + " IN (" + marqueurs(lot.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int index = 1;
+                    for (ID id : lot) {
+                        stmt.setObject(index++, id);
+                    }
+                    deletedRows += stmt.executeUpdate();
+                }
             }
 
-            int deletedRows = stmt.executeUpdate();
             logger.debug("Supprimé {} entités", deletedRows);
+            DataVersion.signalerEcriture(getTableName());
 
         } catch (SQLException e) {
             logger.error("Erreur lors de la suppression multiple", e);
@@ -362,6 +380,25 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
         }
     }
 
+    /**
+     * Découpe des identifiants distincts en lots de {@link #TAILLE_LOT_IN} pour les clauses IN
+     */
+    protected static <E> List<List<E>> decouperEnLots(Collection<E> ids) {
+        List<E> distincts = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<E>> lots = new ArrayList<>();
+        for (int i = 0; i < distincts.size(); i += TAILLE_LOT_IN) {
+            lots.add(distincts.subList(i, Math.min(i + TAILLE_LOT_IN, distincts.size())));
+        }
+        return lots;
+    }
+
+    /**
+     * Marqueurs "?, ?, ..." d'une clause IN
+     */
+    protected static String marqueurs(int nombre) {
+        return String.join(", ", Collections.nCopies(nombre, "?"));
+    }
+
     /**
      * Méthode utilitaire pour exécuter une requête personnalisée
      */
@@ -377,6 +414,7 @@ public abstract class AbstractSQLiteDAO<T, ID> implements BaseDAO<T, ID> {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
+                    Annulation.verifier();
                     results.add(mapResultSetToEntity(rs));
                 }
             }
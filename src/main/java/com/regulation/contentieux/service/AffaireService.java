@@ -6,7 +6,6 @@ import java.util.Objects;
 
 import java.util.List;
 import java.math.BigDecimal;
-import com.regulation.contentieux.config.DatabaseConfig;
 import com.regulation.contentieux.model.Contravention;
 
 import com.regulation.contentieux.controller.AffaireFormController;
@@ -15,6 +14,7 @@ import com.regulation.contentieux.model.*;
 import com.regulation.contentieux.model.enums.*;
 import com.regulation.contentieux.exception.BusinessException;
 import com.regulation.contentieux.util.TransactionManager;
+import com.regulation.contentieux.util.DataVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +23,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -43,6 +44,7 @@ public class AffaireService {
     private final MandatService mandatService;
     private final ValidationService validationService;
     private final AuthenticationService authService;
+    private final AuditService auditService;
 
     // ENRICHISSEMENT : Gestionnaire de transactions pour garantir l'atomicité
     private final TransactionManager transactionManager;
@@ -56,6 +58,7 @@ public class AffaireService {
         this.mandatService = MandatService.getInstance();
         this.validationService = ValidationService.getInstance();
         this.authService = AuthenticationService.getInstance();
+        this.auditService = AuditService.getInstance();
         this.transactionManager = TransactionManager.getInstance();
     }
 
@@ -189,6 +192,12 @@ public class AffaireService {
                 logger.info("✅ Affaire {} créée avec succès avec encaissement {}",
                         numeroAffaire, numeroEncaissement);
 
+                // Audit, écrit après le commit
+                auditService.enregistrer(AuditService.CREATION, "AFFAIRE", affaireSaved.getId(),
+                        null, etatAudit(affaireSaved));
+                auditService.enregistrer(AuditService.CREATION, "ENCAISSEMENT", encaissementSaved.getId(),
+                        null, EncaissementService.etatAudit(encaissementSaved));
+
                 // Recharger l'affaire complète
                 return affaireDAO.findById(affaireSaved.getId())
                         .orElse(affaireSaved);
@@ -208,7 +217,7 @@ public class AffaireService {
     public Affaire saveAffaireWithContraventions(Affaire affaire, List<Contravention> contraventions, List<BigDecimal> montants) {
         Connection conn = null;
         try {
-            conn = DatabaseConfig.getSQLiteConnection();
+            conn = TransactionManager.getConnection();
             conn.setAutoCommit(false);
 
             // CORRECTION IMPORTANTE : Calculer et définir le montant total AVANT de sauvegarder
@@ -302,6 +311,7 @@ public class AffaireService {
                             pstmt.addBatch();
                         }
                         pstmt.executeBatch();
+                        DataVersion.signalerEcriture("affaire_contraventions");
                         logger.info("✅ Relations affaire-contraventions sauvegardées");
                     }
                 } else {
@@ -313,6 +323,8 @@ public class AffaireService {
             }
 
             conn.commit();
+            auditService.enregistrer(AuditService.CREATION, "AFFAIRE", savedAffaire.getId(),
+                    null, etatAudit(savedAffaire));
             return savedAffaire;
 
         } catch (Exception e) {
@@ -353,7 +365,7 @@ public class AffaireService {
         ORDER BY c.code
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, affaireId);
@@ -426,7 +438,7 @@ public class AffaireService {
         VALUES (?, ?, ?, ?, ?)
     """;
 
-        try (var conn = com.regulation.contentieux.config.DatabaseConfig.getSQLiteConnection();
+        try (var conn = TransactionManager.getConnection();
              var stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, acteur.getAffaireId());
@@ -436,6 +448,7 @@ public class AffaireService {
             stmt.setTimestamp(5, java.sql.Timestamp.valueOf(LocalDateTime.now()));
 
             stmt.executeUpdate();
+            DataVersion.signalerEcriture("affaire_acteurs");
             logger.debug("Acteur ajouté à l'affaire: {} - {}", acteur.getAgentId(), roleNormalise);
 
         } catch (Exception e) {
@@ -510,7 +523,26 @@ public class AffaireService {
         affaire.setUpdatedAt(LocalDateTime.now());
         affaire.setUpdatedBy(authService.getCurrentUser().getLogin());
 
-        return affaireDAO.update(affaire);
+        Affaire updated = affaireDAO.update(affaire);
+        auditService.enregistrer(AuditService.MODIFICATION, "AFFAIRE", affaire.getId(),
+                etatAudit(existing.get()), etatAudit(updated));
+        return updated;
+    }
+
+    /**
+     * Champs de l'affaire tracés par l'audit
+     */
+    private static Map<String, Object> etatAudit(Affaire affaire) {
+        return AuditService.etat(
+                "numero", affaire.getNumeroAffaire(),
+                "statut", affaire.getStatut(),
+                "montantAmendeTotal", affaire.getMontantAmendeTotal(),
+                "dateCreation", affaire.getDateCreation(),
+                "contrevenantId", affaire.getContrevenantId(),
+                "contraventionId", affaire.getContraventionId(),
+                "bureauId", affaire.getBureauId(),
+                "serviceId", affaire.getServiceId(),
+                "observations", affaire.getObservations());
     }
 
     /**
@@ -553,6 +585,8 @@ public class AffaireService {
 
             // Sauvegarder l'encaissement
             Encaissement saved = encaissementDAO.save(encaissement);
+            auditService.enregistrer(AuditService.CREATION, "ENCAISSEMENT", saved.getId(),
+                    null, EncaissementService.etatAudit(saved));
 
             // Calculer les répartitions
             RepartitionResultat repartition = repartitionService.calculerRepartition(saved, affaire);
@@ -561,10 +595,13 @@ public class AffaireService {
             // Vérifier si l'affaire est maintenant soldée
             BigDecimal nouveauTotal = totalEncaisse.add(encaissement.getMontantEncaisse());
             if (nouveauTotal.compareTo(affaire.getMontantAmendeTotal()) >= 0) {
+                StatutAffaire statutPrecedent = affaire.getStatut();
                 affaire.setStatut(StatutAffaire.CLOSE);
                 affaire.setUpdatedAt(LocalDateTime.now());
                 affaire.setUpdatedBy(authService.getCurrentUser().getLogin());
                 affaireDAO.update(affaire);
+                auditService.enregistrer(AuditService.CHANGEMENT_STATUT, "AFFAIRE", affaireId,
+                        AuditService.etat("statut", statutPrecedent), AuditService.etat("statut", StatutAffaire.CLOSE));
                 logger.info("✅ Affaire {} soldée après ce paiement", affaire.getNumeroAffaire());
             }
 
@@ -2,11 +2,15 @@ package com.regulation.contentieux.service;
 
 import com.regulation.contentieux.dao.AgentDAO;
 import com.regulation.contentieux.model.Agent;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -95,6 +99,7 @@ public class AgentService {
 
         // Sauvegarde
         Agent saved = agentDAO.save(agent);
+        HierarchieOrganisationnelleService.invaliderArbre();
         logger.info("Nouvel agent créé: {} - {} {}", saved.getCodeAgent(), saved.getPrenom(), saved.getNom());
 
         return saved;
@@ -129,6 +134,7 @@ public class AgentService {
 
         // Mise à jour
         Agent updated = agentDAO.update(agent);
+        HierarchieOrganisationnelleService.invaliderArbre();
         logger.info("Agent mis à jour: {} - {} {}", updated.getCodeAgent(), updated.getPrenom(), updated.getNom());
 
         return updated;
@@ -145,10 +151,49 @@ public class AgentService {
 
         // TODO: Vérifier s'il y a des affaires liées avant suppression
         agentDAO.deleteById(id);
+        HierarchieOrganisationnelleService.invaliderArbre();
         logger.info("Agent supprimé: {} - {} {}", agent.get().getCodeAgent(),
                 agent.get().getPrenom(), agent.get().getNom());
     }
 
+    /**
+     * Supprime un lot d'agents en une transaction
+     *
+     * Existence et rattachement à des affaires sont contrôlés par une requête
+     * par lot ; les agents intervenant sur une affaire sont conservés.
+     */
+    public ResultatOperationLot deleteAgents(Collection<Long> ids) {
+        ResultatOperationLot resultat = new ResultatOperationLot();
+        if (ids == null || ids.isEmpty()) {
+            return resultat;
+        }
+
+        TransactionManager.getInstance().executeInTransaction(() -> {
+            Map<Long, Boolean> rattachements = agentDAO.findRattachementsAffaires(ids);
+
+            List<Long> supprimables = new ArrayList<>();
+            for (Long id : new LinkedHashSet<>(ids)) {
+                Boolean rattache = rattachements.get(id);
+                if (rattache == null) {
+                    resultat.introuvable(id);
+                } else if (rattache) {
+                    resultat.refuse(id, "Agent intervenant sur au moins une affaire");
+                } else {
+                    supprimables.add(id);
+                }
+            }
+
+            agentDAO.deleteAllById(supprimables);
+            supprimables.forEach(resultat::effectue);
+        });
+
+        if (resultat.getNombreEffectues() > 0) {
+            HierarchieOrganisationnelleService.invaliderArbre();
+        }
+        logger.info("Suppression d'agents en lot: {}", resultat);
+        return resultat;
+    }
+
     /**
      * Active/désactive un agent
      */
@@ -162,6 +207,7 @@ public class AgentService {
         agent.setActif(!agent.isActif());
 
         agentDAO.update(agent);
+        HierarchieOrganisationnelleService.invaliderArbre();
         logger.info("Agent {} {}: {} {}",
                 agent.getCodeAgent(),
                 agent.isActif() ? "activé" : "désactivé",
@@ -0,0 +1,264 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.util.Annulation;
+import javafx.concurrent.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exécuteurs partagés de l'application : tout travail lancé depuis les
+ * contrôleurs passe par ici plutôt que par un {@code new Thread(task)}
+ *
+ * - E/S base de données : un thread virtuel par tâche (threads "db-io-N"),
+ *   le nombre de connexions simultanées reste borné par le pool de connexions
+ * - Calcul (rapports, exports) : pool de threads plateforme borné par
+ *   performance.maxThreads, file de performance.queueSize (threads "calcul-N") ;
+ *   remplace l'ancien RapportExecutionService, dont les clés
+ *   reports.execution.threads et reports.execution.queueSize ne sont plus lues
+ * - Une seule tâche en cours par vue : une nouvelle soumission pour la même
+ *   vue annule la précédente, qui s'arrête d'elle-même au prochain
+ *   {@link Annulation#verifier()} ; ses gestionnaires onSucceeded ne sont pas appelés.
+ *   Jamais d'interruption du thread : une connexion du pool n'est pas coupée
+ *   en pleine requête et un résultat annulé n'entre pas dans {@link RapportCache}
+ * - Métriques par exécuteur : profondeur de file, tâches en cours, latence
+ *   d'attente et durée d'exécution
+ */
+public class AppExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppExecutors.class);
+    private static AppExecutors instance;
+
+    // Au-delà, l'attente avant exécution est signalée dans les logs
+    private static final long SEUIL_ATTENTE_MS = 1_000;
+
+    private final ExecutorService executeurIO;
+    private final ThreadPoolExecutor executeurCalcul;
+    private final Compteurs compteursIO = new Compteurs("db-io");
+    private final Compteurs compteursCalcul = new Compteurs("calcul");
+    private final Map<String, Task<?>> enCoursParVue = new ConcurrentHashMap<>();
+    private final AtomicInteger compteurThreads = new AtomicInteger();
+
+    private AppExecutors() {
+        ConfigurationService config = ConfigurationService.getInstance();
+        int threads = Math.max(1, Integer.parseInt(config.getProperty("performance.maxThreads", "4").trim()));
+        int file = Math.max(1, Integer.parseInt(config.getProperty("performance.queueSize", "64").trim()));
+
+        this.executeurIO = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("db-io-", 1).factory());
+        this.executeurCalcul = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(file), this::creerThreadCalcul, new ThreadPoolExecutor.AbortPolicy());
+        this.executeurCalcul.allowCoreThreadTimeOut(true);
+
+        logger.info("🧵 Exécuteurs initialisés : E/S sur threads virtuels, calcul sur {} threads (file de {})",
+                threads, file);
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    // ==================== SOUMISSION ====================
+
+    /**
+     * Exécute une tâche d'accès aux données (lecture ou écriture) sur un thread virtuel
+     */
+    public <T> Task<T> executerIO(Task<T> tache) {
+        soumettre(executeurIO, compteursIO, null, tache);
+        return tache;
+    }
+
+    /**
+     * Exécute un chargement pour la vue ; le chargement précédent de la même vue est annulé
+     *
+     * Les gestionnaires du Task doivent être positionnés avant l'appel.
+     */
+    public <T> Task<T> executerIO(String vue, Task<T> tache) {
+        remplacer(vue, tache);
+        soumettre(executeurIO, compteursIO, vue, tache);
+        return tache;
+    }
+
+    /**
+     * Exécute un traitement de calcul (génération de rapport, export) sur le pool borné
+     */
+    public <T> Task<T> executerCalcul(Task<T> tache) {
+        soumettre(executeurCalcul, compteursCalcul, null, tache);
+        return tache;
+    }
+
+    /**
+     * Exécute un traitement de calcul pour la vue ; le traitement précédent de la même vue est annulé
+     */
+    public <T> Task<T> executerCalcul(String vue, Task<T> tache) {
+        remplacer(vue, tache);
+        soumettre(executeurCalcul, compteursCalcul, vue, tache);
+        return tache;
+    }
+
+    /**
+     * Annule la tâche en cours de la vue, s'il y en a une
+     */
+    public void annuler(String vue) {
+        Task<?> tache = enCoursParVue.remove(vue);
+        if (tache != null) {
+            tache.cancel(false);
+        }
+    }
+
+    /**
+     * Vrai si une tâche est en cours pour la vue
+     */
+    public boolean estEnCours(String vue) {
+        Task<?> tache = enCoursParVue.get(vue);
+        return tache != null && !tache.isDone();
+    }
+
+    private void remplacer(String vue, Task<?> tache) {
+        Task<?> precedente = enCoursParVue.put(vue, tache);
+        if (precedente != null && precedente != tache && !precedente.isDone()) {
+            precedente.cancel(false);
+            logger.debug("⏹️ Tâche précédente annulée pour la vue {}", vue);
+        }
+    }
+
+    private void soumettre(ExecutorService executeur, Compteurs compteurs, String vue, Task<?> tache) {
+        long soumission = System.nanoTime();
+        compteurs.soumission();
+        try {
+            executeur.execute(() -> {
+                long debut = System.nanoTime();
+                compteurs.debut(debut - soumission, vue);
+                try {
+                    if (!tache.isCancelled()) {
+                        Annulation.executer(tache::isCancelled, tache);
+                    }
+                } finally {
+                    compteurs.fin(System.nanoTime() - debut, tache.isCancelled());
+                    if (vue != null) {
+                        enCoursParVue.remove(vue, tache);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compteurs.rejet();
+            if (vue != null) {
+                enCoursParVue.remove(vue, tache);
+            }
+            logger.warn("⚠️ Exécuteur {} saturé, tâche refusée{}", compteurs.nom,
+                    vue != null ? " pour la vue " + vue : "");
+            tache.cancel(false);
+        }
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    /**
+     * Instantané des métriques d'un exécuteur
+     *
+     * @param enFile Tâches soumises et pas encore démarrées
+     */
+    public record Metriques(String executeur, long soumises, long enFile, long enCours, long terminees,
+                            long annulees, long rejetees, double attenteMoyenneMs, long attenteMaxMs,
+                            double executionMoyenneMs) {
+
+        @Override
+        public String toString() {
+            return String.format("%s : %d soumises, %d en file, %d en cours, %d terminées (%d annulées, %d refusées), "
+                            + "attente moy. %.1f ms / max %d ms, exécution moy. %.1f ms",
+                    executeur, soumises, enFile, enCours, terminees, annulees, rejetees,
+                    attenteMoyenneMs, attenteMaxMs, executionMoyenneMs);
+        }
+    }
+
+    public List<Metriques> getMetriques() {
+        return List.of(compteursIO.instantane(), compteursCalcul.instantane());
+    }
+
+    /**
+     * Compteurs d'un exécuteur, mis à jour sans verrou depuis les threads de travail
+     */
+    private static final class Compteurs {
+        private final String nom;
+        private final LongAdder soumises = new LongAdder();
+        private final LongAdder demarrees = new LongAdder();
+        private final LongAdder terminees = new LongAdder();
+        private final LongAdder annulees = new LongAdder();
+        private final LongAdder rejetees = new LongAdder();
+        private final LongAdder attenteTotaleNanos = new LongAdder();
+        private final LongAdder executionTotaleNanos = new LongAdder();
+        private final AtomicLong attenteMaxNanos = new AtomicLong();
+
+        Compteurs(String nom) {
+            this.nom = nom;
+        }
+
+        void soumission() {
+            soumises.increment();
+        }
+
+        void debut(long attenteNanos, String vue) {
+            demarrees.increment();
+            attenteTotaleNanos.add(attenteNanos);
+            attenteMaxNanos.accumulateAndGet(attenteNanos, Math::max);
+            long attenteMs = attenteNanos / 1_000_000;
+            if (attenteMs > SEUIL_ATTENTE_MS) {
+                logger.warn("🐢 Tâche {} démarrée après {} ms d'attente{}", nom, attenteMs,
+                        vue != null ? " (vue " + vue + ")" : "");
+            }
+        }
+
+        void fin(long executionNanos, boolean annulee) {
+            terminees.increment();
+            executionTotaleNanos.add(executionNanos);
+            if (annulee) {
+                annulees.increment();
+            }
+        }
+
+        void rejet() {
+            rejetees.increment();
+        }
+
+        Metriques instantane() {
+            long nbSoumises = soumises.sum();
+            long nbRejetees = rejetees.sum();
+            long nbDemarrees = demarrees.sum();
+            long nbTerminees = terminees.sum();
+            return new Metriques(nom, nbSoumises,
+                    Math.max(0, nbSoumises - nbRejetees - nbDemarrees),
+                    Math.max(0, nbDemarrees - nbTerminees),
+                    nbTerminees, annulees.sum(), nbRejetees,
+                    nbDemarrees > 0 ? attenteTotaleNanos.sum() / 1e6 / nbDemarrees : 0,
+                    attenteMaxNanos.get() / 1_000_000,
+                    nbTerminees > 0 ? executionTotaleNanos.sum() / 1e6 / nbTerminees : 0);
+        }
+    }
+
+    // ==================== CYCLE DE VIE ====================
+
+    /**
+     * Annule les tâches de vues en cours et arrête les exécuteurs
+     */
+    public void arreter() {
+        enCoursParVue.values().forEach(tache -> tache.cancel(false));
+        enCoursParVue.clear();
+        executeurCalcul.shutdown();
+        executeurIO.shutdown();
+        getMetriques().forEach(metriques -> logger.info("📊 {}", metriques));
+    }
+
+    private Thread creerThreadCalcul(Runnable runnable) {
+        Thread thread = new Thread(runnable, "calcul-" + compteurThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
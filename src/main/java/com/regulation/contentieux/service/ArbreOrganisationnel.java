@@ -0,0 +1,342 @@
+package com.regulation.contentieux.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Arbre organisationnel immuable : centre → services → agents, centre → bureaux
+ *
+ * Construit en trois requêtes (centres, services et bureaux, agents), puis
+ * consulté sans accès base :
+ * - index par ID de chaque niveau
+ * - rattachements parent en temps constant (centre d'un service, d'un bureau,
+ *   d'un agent ; service d'un agent)
+ * - agrégations hiérarchiques (remontée de valeurs vers le niveau parent)
+ *
+ * Conformément au cahier des charges, services et bureaux sont au même
+ * niveau sous le centre ; les agents sont rattachés à un service.
+ */
+public final class ArbreOrganisationnel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArbreOrganisationnel.class);
+
+    public record NoeudCentre(long id, String code, String nom, boolean actif,
+                              List<NoeudService> services, List<NoeudBureau> bureaux) {
+    }
+
+    public record NoeudService(long id, String code, String nom, Long centreId, boolean actif,
+                               List<NoeudAgent> agents) {
+    }
+
+    public record NoeudBureau(long id, String code, String nom, Long centreId, boolean actif) {
+    }
+
+    public record NoeudAgent(long id, String code, String nomComplet, Long serviceId, boolean actif) {
+    }
+
+    private final long versionReferentiels;
+    private final List<NoeudCentre> centres;
+    private final Map<Long, NoeudCentre> centresParId;
+    private final Map<Long, NoeudService> servicesParId;
+    private final Map<Long, NoeudBureau> bureauxParId;
+    private final Map<Long, NoeudAgent> agentsParId;
+
+    // Éléments dont le parent déclaré n'existe pas
+    private final List<NoeudService> servicesOrphelins;
+    private final List<NoeudBureau> bureauxOrphelins;
+    private final List<NoeudAgent> agentsOrphelins;
+
+    private ArbreOrganisationnel(long versionReferentiels,
+                                 List<NoeudCentre> centres,
+                                 Map<Long, NoeudService> servicesParId,
+                                 Map<Long, NoeudBureau> bureauxParId,
+                                 Map<Long, NoeudAgent> agentsParId,
+                                 List<NoeudService> servicesOrphelins,
+                                 List<NoeudBureau> bureauxOrphelins,
+                                 List<NoeudAgent> agentsOrphelins) {
+        this.versionReferentiels = versionReferentiels;
+        this.centres = List.copyOf(centres);
+        Map<Long, NoeudCentre> index = new HashMap<>();
+        for (NoeudCentre centre : centres) {
+            index.put(centre.id(), centre);
+        }
+        this.centresParId = Collections.unmodifiableMap(index);
+        this.servicesParId = Collections.unmodifiableMap(servicesParId);
+        this.bureauxParId = Collections.unmodifiableMap(bureauxParId);
+        this.agentsParId = Collections.unmodifiableMap(agentsParId);
+        this.servicesOrphelins = List.copyOf(servicesOrphelins);
+        this.bureauxOrphelins = List.copyOf(bureauxOrphelins);
+        this.agentsOrphelins = List.copyOf(agentsOrphelins);
+    }
+
+    /**
+     * Construit l'arbre en trois requêtes
+     *
+     * @param versionReferentiels Version du cache des référentiels au moment du chargement
+     */
+    static ArbreOrganisationnel charger(Connection conn, long versionReferentiels) throws SQLException {
+        long debut = System.nanoTime();
+
+        // 1. Centres
+        Map<Long, NoeudCentreBuilder> centres = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT id, code_centre, nom_centre, actif FROM centres ORDER BY code_centre")) {
+            while (rs.next()) {
+                NoeudCentreBuilder centre = new NoeudCentreBuilder(
+                        rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4) == 1);
+                centres.put(centre.id, centre);
+            }
+        }
+
+        // 2. Services et bureaux (même niveau sous le centre)
+        List<ServiceBuilder> services = new ArrayList<>();
+        Map<Long, NoeudBureau> bureauxParId = new HashMap<>();
+        List<NoeudBureau> bureauxOrphelins = new ArrayList<>();
+        String sqlServicesBureaux = """
+            SELECT 'S' AS niveau, id, code_service AS code, nom_service AS nom, centre_id, actif FROM services
+            UNION ALL
+            SELECT 'B' AS niveau, id, code_bureau AS code, nom_bureau AS nom, centre_id, actif FROM bureaux
+            ORDER BY niveau, code
+        """;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sqlServicesBureaux)) {
+            while (rs.next()) {
+                long id = rs.getLong(2);
+                String code = rs.getString(3);
+                String nom = rs.getString(4);
+                long centreId = rs.getLong(5);
+                Long parent = rs.wasNull() ? null : centreId;
+                boolean actif = rs.getInt(6) == 1;
+
+                if ("S".equals(rs.getString(1))) {
+                    services.add(new ServiceBuilder(id, code, nom, parent, actif));
+                } else {
+                    NoeudBureau bureau = new NoeudBureau(id, code, nom, parent, actif);
+                    bureauxParId.put(id, bureau);
+                    if (parent != null && centres.containsKey(parent)) {
+                        centres.get(parent).bureaux.add(bureau);
+                    } else if (parent != null) {
+                        bureauxOrphelins.add(bureau);
+                    }
+                }
+            }
+        }
+
+        // 3. Agents
+        Map<Long, ServiceBuilder> servicesBuilders = new HashMap<>();
+        for (ServiceBuilder service : services) {
+            servicesBuilders.put(service.id, service);
+        }
+        Map<Long, NoeudAgent> agentsParId = new HashMap<>();
+        List<NoeudAgent> agentsOrphelins = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT id, code_agent, nom, prenom, service_id, actif FROM agents ORDER BY nom, prenom")) {
+            while (rs.next()) {
+                long serviceId = rs.getLong(5);
+                Long parent = rs.wasNull() ? null : serviceId;
+                String prenom = rs.getString(4);
+                NoeudAgent agent = new NoeudAgent(rs.getLong(1), rs.getString(2),
+                        prenom != null ? rs.getString(3) + " " + prenom : rs.getString(3),
+                        parent, rs.getInt(6) == 1);
+                agentsParId.put(agent.id(), agent);
+                if (parent != null && servicesBuilders.containsKey(parent)) {
+                    servicesBuilders.get(parent).agents.add(agent);
+                } else if (parent != null) {
+                    agentsOrphelins.add(agent);
+                }
+            }
+        }
+
+        // Assemblage ascendant : les nœuds sont figés une fois leurs enfants connus
+        Map<Long, NoeudService> servicesParId = new HashMap<>();
+        List<NoeudService> servicesOrphelins = new ArrayList<>();
+        for (ServiceBuilder builder : services) {
+            NoeudService service = new NoeudService(builder.id, builder.code, builder.nom,
+                    builder.centreId, builder.actif, List.copyOf(builder.agents));
+            servicesParId.put(service.id(), service);
+            if (builder.centreId != null && centres.containsKey(builder.centreId)) {
+                centres.get(builder.centreId).services.add(service);
+            } else if (builder.centreId != null) {
+                servicesOrphelins.add(service);
+            }
+        }
+
+        List<NoeudCentre> noeudsCentres = new ArrayList<>(centres.size());
+        for (NoeudCentreBuilder builder : centres.values()) {
+            noeudsCentres.add(new NoeudCentre(builder.id, builder.code, builder.nom, builder.actif,
+                    List.copyOf(builder.services), List.copyOf(builder.bureaux)));
+        }
+
+        ArbreOrganisationnel arbre = new ArbreOrganisationnel(versionReferentiels, noeudsCentres,
+                servicesParId, bureauxParId, agentsParId, servicesOrphelins, bureauxOrphelins, agentsOrphelins);
+
+        logger.debug("🌳 Arbre organisationnel chargé : {} centres, {} services, {} bureaux, {} agents en {} ms",
+                noeudsCentres.size(), servicesParId.size(), bureauxParId.size(), agentsParId.size(),
+                (System.nanoTime() - debut) / 1_000_000);
+        return arbre;
+    }
+
+    // ==================== NAVIGATION ====================
+
+    long getVersionReferentiels() {
+        return versionReferentiels;
+    }
+
+    public List<NoeudCentre> getCentres() {
+        return centres;
+    }
+
+    public Optional<NoeudCentre> getCentre(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(centresParId.get(id));
+    }
+
+    public Optional<NoeudService> getService(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(servicesParId.get(id));
+    }
+
+    public Optional<NoeudBureau> getBureau(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(bureauxParId.get(id));
+    }
+
+    public Optional<NoeudAgent> getAgent(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(agentsParId.get(id));
+    }
+
+    public Collection<NoeudService> getServices() {
+        return servicesParId.values();
+    }
+
+    public Collection<NoeudBureau> getBureaux() {
+        return bureauxParId.values();
+    }
+
+    public Collection<NoeudAgent> getAgents() {
+        return agentsParId.values();
+    }
+
+    /**
+     * Centre propriétaire d'un service
+     */
+    public Optional<NoeudCentre> getCentreDuService(Long serviceId) {
+        return getService(serviceId).flatMap(service -> getCentre(service.centreId()));
+    }
+
+    /**
+     * Centre propriétaire d'un bureau
+     */
+    public Optional<NoeudCentre> getCentreDuBureau(Long bureauId) {
+        return getBureau(bureauId).flatMap(bureau -> getCentre(bureau.centreId()));
+    }
+
+    /**
+     * Service d'affectation d'un agent
+     */
+    public Optional<NoeudService> getServiceDeLAgent(Long agentId) {
+        return getAgent(agentId).flatMap(agent -> getService(agent.serviceId()));
+    }
+
+    /**
+     * Centre d'un agent (via son service)
+     */
+    public Optional<NoeudCentre> getCentreDeLAgent(Long agentId) {
+        return getServiceDeLAgent(agentId).flatMap(service -> getCentre(service.centreId()));
+    }
+
+    public List<NoeudService> getServicesOrphelins() {
+        return servicesOrphelins;
+    }
+
+    public List<NoeudBureau> getBureauxOrphelins() {
+        return bureauxOrphelins;
+    }
+
+    public List<NoeudAgent> getAgentsOrphelins() {
+        return agentsOrphelins;
+    }
+
+    // ==================== AGRÉGATIONS HIÉRARCHIQUES ====================
+
+    /**
+     * Remonte des valeurs par service vers leur centre ; les services sans
+     * centre connu sont ignorés
+     */
+    public <V> Map<Long, V> cumulerServicesParCentre(Map<Long, V> valeursParService, BinaryOperator<V> fusion) {
+        return cumuler(valeursParService, id -> getService(id).map(NoeudService::centreId).orElse(null), fusion);
+    }
+
+    /**
+     * Remonte des valeurs par bureau vers leur centre
+     */
+    public <V> Map<Long, V> cumulerBureauxParCentre(Map<Long, V> valeursParBureau, BinaryOperator<V> fusion) {
+        return cumuler(valeursParBureau, id -> getBureau(id).map(NoeudBureau::centreId).orElse(null), fusion);
+    }
+
+    /**
+     * Remonte des valeurs par agent vers leur service
+     */
+    public <V> Map<Long, V> cumulerAgentsParService(Map<Long, V> valeursParAgent, BinaryOperator<V> fusion) {
+        return cumuler(valeursParAgent, id -> getAgent(id).map(NoeudAgent::serviceId).orElse(null), fusion);
+    }
+
+    /**
+     * Remonte des valeurs par agent directement vers leur centre
+     */
+    public <V> Map<Long, V> cumulerAgentsParCentre(Map<Long, V> valeursParAgent, BinaryOperator<V> fusion) {
+        return cumulerServicesParCentre(cumulerAgentsParService(valeursParAgent, fusion), fusion);
+    }
+
+    private static <V> Map<Long, V> cumuler(Map<Long, V> valeurs,
+                                            Function<Long, Long> parent,
+                                            BinaryOperator<V> fusion) {
+        Map<Long, V> resultat = new LinkedHashMap<>();
+        for (Map.Entry<Long, V> entry : valeurs.entrySet()) {
+            Long parentId = parent.apply(entry.getKey());
+            if (parentId != null && entry.getValue() != null) {
+                resultat.merge(parentId, entry.getValue(), fusion);
+            }
+        }
+        return resultat;
+    }
+
+    // ==================== CONSTRUCTION ====================
+
+    private static final class NoeudCentreBuilder {
+        final long id;
+        final String code;
+        final String nom;
+        final boolean actif;
+        final List<NoeudService> services = new ArrayList<>();
+        final List<NoeudBureau> bureaux = new ArrayList<>();
+
+        NoeudCentreBuilder(long id, String code, String nom, boolean actif) {
+            this.id = id;
+            this.code = code;
+            this.nom = nom;
+            this.actif = actif;
+        }
+    }
+
+    private static final class ServiceBuilder {
+        final long id;
+        final String code;
+        final String nom;
+        final Long centreId;
+        final boolean actif;
+        final List<NoeudAgent> agents = new ArrayList<>();
+
+        ServiceBuilder(long id, String code, String nom, Long centreId, boolean actif) {
+            this.id = id;
+            this.code = code;
+            this.nom = nom;
+            this.centreId = centreId;
+            this.actif = actif;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.BaseArchive;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.WriteActivityMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Archivage des affaires clôturées anciennes
+ *
+ * - Éligibles : affaires CLOSE ou SOLDEE créées avant la date limite
+ *   (premier jour du mois, archive.horizonMois mois avant aujourd'hui) et
+ *   dont aucun encaissement n'est daté de la date limite ou après
+ * - Déplacées avec leurs encaissements, acteurs, contraventions, centres et
+ *   répartitions vers la base d'archive ({@link BaseArchive}), par lots
+ *   de archive.batchSize affaires
+ * - Copie puis suppression, en deux transactions : en mode WAL, une
+ *   transaction sur deux fichiers attachés n'est pas atomique. La copie est
+ *   validée dans l'archive avant toute suppression de la base courante ; un
+ *   lot interrompu entre les deux est recopié au passage suivant, la copie
+ *   rejouée remplaçant la précédente (ni perte ni doublon). Entre les deux
+ *   transactions, les lectures sur l'union ignorent la copie archivée d'une
+ *   ligne encore présente dans la base courante
+ * - Exécution quotidienne sur un thread de fond de priorité minimale,
+ *   uniquement lorsque l'interface n'écrit pas (voir {@link WriteActivityMonitor})
+ *
+ * La date limite n'est enregistrée qu'une fois tous les lots passés : les
+ * lectures de périodes antérieures consultent alors aussi l'archive.
+ */
+public class ArchivageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchivageService.class);
+    private static ArchivageService instance;
+
+    private static final long STARTUP_DELAY_MINUTES = 10;
+    private static final long ATTENTE_CALME_MAX_MS = 60_000;
+
+    private static final String LOT = "(SELECT id FROM temp.lot_archivage)";
+    private static final String ENCAISSEMENTS_DU_LOT =
+            "(SELECT id FROM main.encaissements WHERE affaire_id IN " + LOT + ")";
+
+    /**
+     * Table déplacée avec les affaires
+     *
+     * @param selection Condition des lignes du lot (sur la table, sous-requêtes sur main)
+     * @param index     Colonnes indexées dans l'archive, pour les jointures des lectures
+     */
+    private record TableArchivee(String nom, String selection, String... index) {
+    }
+
+    // Parents d'abord : copie dans cet ordre, suppression dans l'ordre inverse
+    private static final List<TableArchivee> TABLES = List.of(
+            new TableArchivee("affaires", "id IN " + LOT, "id", "date_creation"),
+            new TableArchivee("encaissements", "affaire_id IN " + LOT, "id", "affaire_id", "date_encaissement"),
+            new TableArchivee("affaire_acteurs", "affaire_id IN " + LOT, "affaire_id", "agent_id"),
+            new TableArchivee("affaire_contraventions", "affaire_id IN " + LOT, "affaire_id"),
+            new TableArchivee("affaires_centres", "affaire_id IN " + LOT, "affaire_id"),
+            new TableArchivee("repartition_resultats", "encaissement_id IN " + ENCAISSEMENTS_DU_LOT,
+                    "id", "encaissement_id"),
+            new TableArchivee("repartition_details", "repartition_resultat_id IN "
+                    + "(SELECT id FROM main.repartition_resultats WHERE encaissement_id IN "
+                    + ENCAISSEMENTS_DU_LOT + ")", "repartition_resultat_id")
+    );
+
+    private static final String SELECT_ELIGIBLES_SQL = """
+        SELECT a.id FROM main.affaires a
+        WHERE a.statut IN ('CLOSE', 'SOLDEE')
+          AND a.date_creation < ?
+          AND NOT EXISTS (SELECT 1 FROM main.encaissements e
+                          WHERE e.affaire_id = a.id AND e.date_encaissement >= ?)
+        LIMIT ?
+    """;
+
+    private final boolean enabled;
+    private final int horizonMois;
+    private final int tailleLot;
+    private final long intervalleHeures;
+    private final long quietMillis;
+
+    private ScheduledExecutorService executor;
+    private final Object verrouArchivage = new Object();
+    private volatile boolean enCours = false;
+
+    private ArchivageService() {
+        ConfigurationService config = ConfigurationService.getInstance();
+        this.enabled = Boolean.parseBoolean(config.getProperty("archive.enabled", "true").trim());
+        this.horizonMois = Math.max(1, Integer.parseInt(config.getProperty("archive.horizonMois", "36").trim()));
+        this.tailleLot = Math.max(1, Integer.parseInt(config.getProperty("archive.batchSize", "200").trim()));
+        this.intervalleHeures = Math.max(1, Long.parseLong(config.getProperty("archive.checkInterval", "24").trim()));
+        this.quietMillis = Long.parseLong(config.getProperty("archive.quietMillis", "10000").trim());
+    }
+
+    public static synchronized ArchivageService getInstance() {
+        if (instance == null) {
+            instance = new ArchivageService();
+        }
+        return instance;
+    }
+
+    /**
+     * Planifie l'archivage quotidien
+     */
+    public synchronized void start() {
+        if (!enabled) {
+            logger.info("ℹ️ Archivage des affaires désactivé (archive.enabled=false)");
+            return;
+        }
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "archivage");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::executerCycle, STARTUP_DELAY_MINUTES,
+                TimeUnit.HOURS.toMinutes(intervalleHeures), TimeUnit.MINUTES);
+
+        logger.info("🗄️ Archivage planifié (affaires clôturées de plus de {} mois, toutes les {} h)",
+                horizonMois, intervalleHeures);
+    }
+
+    /**
+     * Arrête la planification ; un lot en cours est interrompu et annulé
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public boolean isEnCours() {
+        return enCours;
+    }
+
+    /**
+     * Date limite d'archivage à ce jour
+     */
+    public LocalDate calculerDateLimite() {
+        return LocalDate.now().minusMonths(horizonMois).withDayOfMonth(1);
+    }
+
+    private void executerCycle() {
+        try {
+            archiver(calculerDateLimite());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("❌ Erreur lors de l'archivage des affaires", e);
+        }
+    }
+
+    // ==================== ARCHIVAGE ====================
+
+    /**
+     * Déplace vers l'archive les affaires éligibles pour la date limite
+     *
+     * @return Nombre d'affaires archivées
+     */
+    public int archiver(LocalDate limite) throws SQLException, InterruptedException {
+        synchronized (verrouArchivage) {
+            return archiverAvant(limite);
+        }
+    }
+
+    private int archiverAvant(LocalDate limite) throws SQLException, InterruptedException {
+        Optional<LocalDate> precedente = BaseArchive.getDateLimite();
+        if (precedente.isPresent() && !limite.isAfter(precedente.get())) {
+            logger.debug("Archivage déjà à jour (date limite {})", precedente.get());
+            return 0;
+        }
+
+        enCours = true;
+        long debut = System.currentTimeMillis();
+        int total = 0;
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            BaseArchive.attacher(conn);
+            try {
+                List<TableArchivee> tables = preparerSchema(conn);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TEMP TABLE IF NOT EXISTS lot_archivage (id INTEGER PRIMARY KEY)");
+                }
+
+                while (true) {
+                    if (!WriteActivityMonitor.awaitQuiet(quietMillis, ATTENTE_CALME_MAX_MS)) {
+                        logger.debug("Archivage reporté : écritures en cours");
+                        continue;
+                    }
+                    int deplacees = archiverLot(conn, tables, limite);
+                    total += deplacees;
+                    if (deplacees < tailleLot) {
+                        break;
+                    }
+                }
+
+                conn.setAutoCommit(false);
+                try {
+                    BaseArchive.definirDateLimite(conn, limite);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("DROP TABLE IF EXISTS temp.lot_archivage");
+                }
+                BaseArchive.detacher(conn);
+                enCours = false;
+            }
+        }
+
+        if (total > 0) {
+            DataVersion.incrementer();
+            AuditService.getInstance().enregistrer(null, "ARCHIVAGE", "AFFAIRE", null, null,
+                    AuditService.etat("affaires", total, "dateLimite", limite));
+        }
+        logger.info("🗄️ {} affaire(s) archivée(s) avant le {} en {} ms", total, limite,
+                System.currentTimeMillis() - debut);
+        return total;
+    }
+
+    /**
+     * Un lot : sélection des affaires, copie validée dans l'archive, puis
+     * suppression de la base courante dans une seconde transaction
+     *
+     * @return Nombre d'affaires du lot
+     */
+    private int archiverLot(Connection conn, List<TableArchivee> tables, LocalDate limite) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            // 1. Sélection et copie : seule l'archive est modifiée
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM temp.lot_archivage");
+            }
+            int nombre;
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO temp.lot_archivage (id) " + SELECT_ELIGIBLES_SQL)) {
+                stmt.setDate(1, Date.valueOf(limite));
+                stmt.setDate(2, Date.valueOf(limite));
+                stmt.setInt(3, tailleLot);
+                nombre = stmt.executeUpdate();
+            }
+            if (nombre == 0) {
+                conn.commit();
+                return 0;
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                for (TableArchivee table : tables) {
+                    String colonnes = String.join(", ", colonnesDeclarees(conn, "main", table.nom()).keySet());
+                    stmt.executeUpdate("DELETE FROM " + BaseArchive.ALIAS + "." + table.nom()
+                            + " WHERE " + table.selection());
+                    stmt.executeUpdate("INSERT INTO " + BaseArchive.ALIAS + "." + table.nom() + " (" + colonnes + ")"
+                            + " SELECT " + colonnes + " FROM main." + table.nom() + " WHERE " + table.selection());
+                }
+            }
+            conn.commit();
+
+            // 2. Suppression : seule la base courante est modifiée
+            try (Statement stmt = conn.createStatement()) {
+                long derniereSuppression = derniereSuppressionJournalisee(stmt);
+                for (int i = tables.size() - 1; i >= 0; i--) {
+                    TableArchivee table = tables.get(i);
+                    stmt.executeUpdate("DELETE FROM main." + table.nom() + " WHERE " + table.selection());
+                }
+                // Lignes archivées, pas supprimées : MySQL les conserve
+                stmt.executeUpdate("DELETE FROM main.sync_suppressions WHERE id > " + derniereSuppression);
+            }
+            conn.commit();
+
+            logger.debug("🗄️ Lot de {} affaire(s) archivé", nombre);
+            return nombre;
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static long derniereSuppressionJournalisee(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM main.sync_suppressions")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Crée dans l'archive les tables manquantes et leurs colonnes (types
+     * déclarés, sans contraintes) ; renvoie les tables présentes dans la base courante
+     */
+    private List<TableArchivee> preparerSchema(Connection conn) throws SQLException {
+        List<TableArchivee> presentes = new ArrayList<>();
+        try (Statement stmt = conn.createStatement()) {
+            for (TableArchivee table : TABLES) {
+                Map<String, String> colonnes = colonnesDeclarees(conn, "main", table.nom());
+                if (colonnes.isEmpty()) {
+                    logger.debug("Table {} absente : non archivée", table.nom());
+                    continue;
+                }
+                presentes.add(table);
+
+                Set<String> archivees = new HashSet<>();
+                colonnesDeclarees(conn, BaseArchive.ALIAS, table.nom())
+                        .keySet().forEach(nom -> archivees.add(nom.toLowerCase(Locale.ROOT)));
+
+                if (archivees.isEmpty()) {
+                    List<String> definitions = new ArrayList<>();
+                    colonnes.forEach((nom, type) -> definitions.add(nom + " " + type));
+                    stmt.execute("CREATE TABLE " + BaseArchive.ALIAS + "." + table.nom()
+                            + " (" + String.join(", ", definitions) + ")");
+                } else {
+                    for (Map.Entry<String, String> colonne : colonnes.entrySet()) {
+                        if (!archivees.contains(colonne.getKey().toLowerCase(Locale.ROOT))) {
+                            stmt.execute("ALTER TABLE " + BaseArchive.ALIAS + "." + table.nom()
+                                    + " ADD COLUMN " + colonne.getKey() + " " + colonne.getValue());
+                        }
+                    }
+                }
+
+                for (String index : table.index()) {
+                    if (colonnes.containsKey(index)) {
+                        stmt.execute("CREATE INDEX IF NOT EXISTS " + BaseArchive.ALIAS + ".idx_" + table.nom()
+                                + "_" + index + " ON " + table.nom() + "(" + index + ")");
+                    }
+                }
+            }
+        }
+        BaseArchive.invaliderSchema();
+        return presentes;
+    }
+
+    /**
+     * Colonnes déclarées et leur type (PRAGMA table_info omet les colonnes générées)
+     */
+    private static Map<String, String> colonnesDeclarees(Connection conn, String base, String table)
+            throws SQLException {
+        Map<String, String> colonnes = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + base + ".table_info(" + table + ")")) {
+            while (rs.next()) {
+                colonnes.put(rs.getString("name"), rs.getString("type"));
+            }
+        }
+        return colonnes;
+    }
+}
@@ -0,0 +1,546 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.model.Utilisateur;
+import com.regulation.contentieux.util.TransactionManager;
+import com.regulation.contentieux.util.WriteActivityMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'audit en écriture différée vers logs_activites
+ *
+ * - {@link #enregistrer} ne fait qu'ajouter l'événement à une file sans verrou
+ *   bornée (audit.queueCapacity) : aucun accès base dans le traitement appelant
+ * - Un thread de fond ("audit-writer") vide la file par lots
+ *   (audit.batchSize) dans une transaction, au plus tard toutes les
+ *   audit.flushInterval ms ; il cède la place aux écritures de l'interface
+ *   (voir {@link WriteActivityMonitor}) tant que la file reste à moitié vide
+ * - Base occupée ou indisponible : le lot part dans le fichier de débordement
+ *   (audit.spillFile), synchronisé sur disque et rejoué au cycle suivant
+ * - File pleine : l'appelant écrit lui-même son événement dans ce fichier
+ * - Événement émis pendant une transaction : retenu jusqu'au commit, abandonné
+ *   au rollback (voir {@link #terminerTransaction(boolean)})
+ *
+ * Chaque événement écrit est aussi tracé par le logger
+ * com.regulation.contentieux.audit (fichier -audit.log).
+ */
+public class AuditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+    private static final Logger journal = LoggerFactory.getLogger("com.regulation.contentieux.audit");
+    private static AuditService instance;
+
+    private static final ThreadLocal<List<EvenementAudit>> enTransaction = new ThreadLocal<>();
+
+    // Événements retenus pendant une transaction : libérés au commit, abandonnés au rollback
+    static {
+        TransactionManager.surFinTransaction(AuditService::terminerTransaction);
+    }
+
+    private static final String INSERT_SQL = """
+        INSERT INTO logs_activites
+        (utilisateur_id, action, entite, entite_id, anciennes_valeurs, nouvelles_valeurs, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    private static final String NUL = "\\N";
+
+    // Actions tracées
+    public static final String CREATION = "CREATION";
+    public static final String MODIFICATION = "MODIFICATION";
+    public static final String SUPPRESSION = "SUPPRESSION";
+    public static final String CHANGEMENT_STATUT = "CHANGEMENT_STATUT";
+    public static final String CONNEXION = "CONNEXION";
+    public static final String ECHEC_CONNEXION = "ECHEC_CONNEXION";
+    public static final String DECONNEXION = "DECONNEXION";
+    public static final String CHANGEMENT_MOT_DE_PASSE = "CHANGEMENT_MOT_DE_PASSE";
+    public static final String REINITIALISATION_MOT_DE_PASSE = "REINITIALISATION_MOT_DE_PASSE";
+
+    private final boolean enabled;
+    private final int capacite;
+    private final int tailleLot;
+    private final long intervalleNanos;
+    private final Path fichierDebordement;
+    private final Path fichierReprise;
+
+    private final ConcurrentLinkedQueue<EvenementAudit> file = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger taille = new AtomicInteger();
+    private final Object verrouFichier = new Object();
+    private final Thread redacteur;
+    private volatile boolean actif = true;
+
+    private final LongAdder recus = new LongAdder();
+    private final LongAdder ecrits = new LongAdder();
+    private final LongAdder deverses = new LongAdder();
+    private final LongAdder repris = new LongAdder();
+
+    /**
+     * Événement d'audit
+     *
+     * Les états avant / après sont des instantanés de valeurs immuables ;
+     * seuls les champs modifiés sont conservés, au moment de l'écriture.
+     *
+     * @param avant État avant l'opération (null pour une création)
+     * @param apres État après l'opération (null pour une suppression)
+     */
+    public record EvenementAudit(LocalDateTime date, Long utilisateurId, String utilisateur, String action,
+                                 String entite, Long entiteId, Map<String, Object> avant,
+                                 Map<String, Object> apres) {
+
+        LigneAudit versLigne() {
+            return new LigneAudit(date, utilisateurId, utilisateur, action, entite, entiteId,
+                    differences(avant, apres), differences(apres, avant));
+        }
+    }
+
+    /**
+     * Ligne prête à l'insertion (et au fichier de débordement)
+     */
+    private record LigneAudit(LocalDateTime date, Long utilisateurId, String utilisateur, String action,
+                              String entite, Long entiteId, String anciennesValeurs, String nouvellesValeurs) {
+    }
+
+    private AuditService() {
+        ConfigurationService config = ConfigurationService.getInstance();
+        this.enabled = Boolean.parseBoolean(config.getProperty("audit.enabled", "true").trim());
+        this.capacite = Math.max(1, Integer.parseInt(config.getProperty("audit.queueCapacity", "10000").trim()));
+        this.tailleLot = Math.max(1, Integer.parseInt(config.getProperty("audit.batchSize", "200").trim()));
+        this.intervalleNanos = TimeUnit.MILLISECONDS.toNanos(
+                Math.max(10, Long.parseLong(config.getProperty("audit.flushInterval", "500").trim())));
+        this.fichierDebordement = Path.of(config.getProperty("audit.spillFile", "data/audit-en-attente.log").trim());
+        this.fichierReprise = fichierDebordement.resolveSibling(fichierDebordement.getFileName() + ".reprise");
+
+        this.redacteur = new Thread(this::boucler, "audit-writer");
+        this.redacteur.setDaemon(true);
+        if (enabled) {
+            this.redacteur.start();
+            logger.info("📝 Audit différé démarré (file de {}, lots de {})", capacite, tailleLot);
+        }
+    }
+
+    public static synchronized AuditService getInstance() {
+        if (instance == null) {
+            instance = new AuditService();
+        }
+        return instance;
+    }
+
+    // ==================== ENREGISTREMENT ====================
+
+    /**
+     * Trace une opération de l'utilisateur connecté
+     */
+    public void enregistrer(String action, String entite, Long entiteId,
+                            Map<String, Object> avant, Map<String, Object> apres) {
+        Utilisateur utilisateur = AuthenticationService.getInstance().getCurrentUser();
+        enregistrer(utilisateur, action, entite, entiteId, avant, apres);
+    }
+
+    /**
+     * Trace une opération pour un utilisateur donné (connexion, déconnexion)
+     */
+    public void enregistrer(Utilisateur utilisateur, String action, String entite, Long entiteId,
+                            Map<String, Object> avant, Map<String, Object> apres) {
+        if (!enabled) {
+            return;
+        }
+        EvenementAudit evenement = new EvenementAudit(LocalDateTime.now(),
+                utilisateur != null ? utilisateur.getId() : null,
+                utilisateur != null ? utilisateur.getLogin() : "SYSTEM",
+                action, entite, entiteId, avant, apres);
+
+        if (TransactionManager.isInTransaction()) {
+            List<EvenementAudit> retenus = enTransaction.get();
+            if (retenus == null) {
+                retenus = new ArrayList<>();
+                enTransaction.set(retenus);
+            }
+            retenus.add(evenement);
+            return;
+        }
+        soumettre(evenement);
+    }
+
+    /**
+     * Fin de la transaction principale du thread : les événements retenus
+     * sont mis en file si elle a été validée, abandonnés sinon
+     */
+    private static void terminerTransaction(boolean validee) {
+        List<EvenementAudit> retenus = enTransaction.get();
+        if (retenus == null) {
+            return;
+        }
+        enTransaction.remove();
+        if (validee) {
+            AuditService service = getInstance();
+            retenus.forEach(service::soumettre);
+        } else {
+            logger.debug("Transaction annulée : {} événement(s) d'audit abandonné(s)", retenus.size());
+        }
+    }
+
+    private void soumettre(EvenementAudit evenement) {
+        recus.increment();
+        if (!actif || taille.incrementAndGet() > capacite) {
+            if (actif) {
+                taille.decrementAndGet();
+                LockSupport.unpark(redacteur);
+            }
+            // File pleine (ou service arrêté) : l'appelant écrit lui-même sur disque
+            deverser(List.of(evenement.versLigne()));
+            return;
+        }
+        file.offer(evenement);
+        if (taille.get() >= tailleLot) {
+            LockSupport.unpark(redacteur);
+        }
+    }
+
+    /**
+     * État d'une entité pour l'audit, dans l'ordre des paires (nom, valeur) ;
+     * les valeurs nulles sont admises
+     */
+    public static Map<String, Object> etat(Object... nomsEtValeurs) {
+        Map<String, Object> etat = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < nomsEtValeurs.length; i += 2) {
+            etat.put(String.valueOf(nomsEtValeurs[i]), nomsEtValeurs[i + 1]);
+        }
+        return etat;
+    }
+
+    // ==================== ÉCRITURE ====================
+
+    private void boucler() {
+        reprendreDebordement();
+        while (actif) {
+            if (taille.get() < tailleLot) {
+                LockSupport.parkNanos(this, intervalleNanos);
+            }
+            if (!actif) {
+                break;
+            }
+            // Écriture de l'interface en cours : l'audit attend tant que la file le permet
+            // (sans attente, la boucle tournerait à vide dès que la file dépasse un lot)
+            if (WriteActivityMonitor.getActiveWrites() > 0 && taille.get() < capacite / 2) {
+                LockSupport.parkNanos(this, intervalleNanos);
+                continue;
+            }
+            try {
+                if (vider() && Files.exists(fichierDebordement)) {
+                    reprendreDebordement();
+                }
+            } catch (RuntimeException e) {
+                logger.error("❌ Erreur du rédacteur d'audit", e);
+            }
+        }
+        vider();
+    }
+
+    /**
+     * Vide la file par lots
+     *
+     * @return false si un lot a dû être écrit dans le fichier de débordement
+     */
+    private boolean vider() {
+        List<LigneAudit> lot = new ArrayList<>(tailleLot);
+        while (true) {
+            lot.clear();
+            EvenementAudit evenement;
+            while (lot.size() < tailleLot && (evenement = file.poll()) != null) {
+                taille.decrementAndGet();
+                lot.add(evenement.versLigne());
+            }
+            if (lot.isEmpty()) {
+                return true;
+            }
+            if (!inserer(lot)) {
+                deverser(lot);
+                return false;
+            }
+            ecrits.add(lot.size());
+        }
+    }
+
+    private boolean inserer(List<LigneAudit> lignes) {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                for (LigneAudit ligne : lignes) {
+                    lier(stmt, ligne);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("⚠️ Lot d'audit non écrit ({} événements) : {}", lignes.size(), e.getMessage());
+            return false;
+        }
+
+        for (LigneAudit ligne : lignes) {
+            journal.info("{} | {} | {} {}#{} | avant={} | après={}", ligne.date(), ligne.utilisateur(),
+                    ligne.action(), ligne.entite(), ligne.entiteId(), ligne.anciennesValeurs(),
+                    ligne.nouvellesValeurs());
+        }
+        return true;
+    }
+
+    private static void lier(PreparedStatement stmt, LigneAudit ligne) throws SQLException {
+        if (ligne.utilisateurId() != null) {
+            stmt.setLong(1, ligne.utilisateurId());
+        } else {
+            stmt.setNull(1, Types.INTEGER);
+        }
+        stmt.setString(2, ligne.action());
+        stmt.setString(3, ligne.entite());
+        if (ligne.entiteId() != null) {
+            stmt.setLong(4, ligne.entiteId());
+        } else {
+            stmt.setNull(4, Types.INTEGER);
+        }
+        stmt.setString(5, ligne.anciennesValeurs());
+        stmt.setString(6, ligne.nouvellesValeurs());
+        stmt.setTimestamp(7, Timestamp.valueOf(ligne.date()));
+    }
+
+    // ==================== DÉBORDEMENT ====================
+
+    /**
+     * Ajoute les lignes au fichier de débordement et force l'écriture sur disque
+     */
+    private void deverser(Collection<LigneAudit> lignes) {
+        synchronized (verrouFichier) {
+            try {
+                Path dossier = fichierDebordement.toAbsolutePath().getParent();
+                if (dossier != null) {
+                    Files.createDirectories(dossier);
+                }
+                try (FileOutputStream sortie = new FileOutputStream(fichierDebordement.toFile(), true)) {
+                    Writer writer = new OutputStreamWriter(sortie, StandardCharsets.UTF_8);
+                    for (LigneAudit ligne : lignes) {
+                        writer.write(serialiser(ligne));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                    sortie.getFD().sync();
+                }
+                deverses.add(lignes.size());
+            } catch (IOException e) {
+                logger.error("❌ Événements d'audit perdus ({}) : fichier {} inaccessible",
+                        lignes.size(), fichierDebordement, e);
+            }
+        }
+    }
+
+    /**
+     * Rejoue le fichier de débordement en une transaction
+     *
+     * Le fichier est d'abord renommé : les débordements survenant pendant la
+     * reprise repartent dans un nouveau fichier. Une reprise interrompue est
+     * terminée au cycle suivant.
+     */
+    private void reprendreDebordement() {
+        try {
+            synchronized (verrouFichier) {
+                if (!Files.exists(fichierReprise)) {
+                    if (!Files.exists(fichierDebordement)) {
+                        return;
+                    }
+                    Files.move(fichierDebordement, fichierReprise);
+                }
+            }
+
+            List<LigneAudit> lignes = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(fichierReprise, StandardCharsets.UTF_8)) {
+                String texte;
+                while ((texte = reader.readLine()) != null) {
+                    LigneAudit ligne = deserialiser(texte);
+                    if (ligne != null) {
+                        lignes.add(ligne);
+                    }
+                }
+            }
+
+            if (lignes.isEmpty() || inserer(lignes)) {
+                Files.delete(fichierReprise);
+                repris.add(lignes.size());
+                if (!lignes.isEmpty()) {
+                    logger.info("📝 {} événement(s) d'audit repris du fichier de débordement", lignes.size());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("⚠️ Reprise du fichier d'audit impossible : {}", e.getMessage());
+        }
+    }
+
+    private static String serialiser(LigneAudit ligne) {
+        StringJoiner champs = new StringJoiner("\t");
+        champs.add(echapper(ligne.date().toString()));
+        champs.add(echapper(ligne.utilisateurId() != null ? ligne.utilisateurId().toString() : null));
+        champs.add(echapper(ligne.utilisateur()));
+        champs.add(echapper(ligne.action()));
+        champs.add(echapper(ligne.entite()));
+        champs.add(echapper(ligne.entiteId() != null ? ligne.entiteId().toString() : null));
+        champs.add(echapper(ligne.anciennesValeurs()));
+        champs.add(echapper(ligne.nouvellesValeurs()));
+        return champs.toString();
+    }
+
+    private static LigneAudit deserialiser(String texte) {
+        String[] champs = texte.split("\t", -1);
+        if (champs.length != 8) {
+            logger.warn("⚠️ Ligne d'audit illisible ignorée : {}", texte);
+            return null;
+        }
+        try {
+            String utilisateurId = restituer(champs[1]);
+            String entiteId = restituer(champs[5]);
+            return new LigneAudit(LocalDateTime.parse(restituer(champs[0])),
+                    utilisateurId != null ? Long.valueOf(utilisateurId) : null,
+                    restituer(champs[2]), restituer(champs[3]), restituer(champs[4]),
+                    entiteId != null ? Long.valueOf(entiteId) : null,
+                    restituer(champs[6]), restituer(champs[7]));
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Ligne d'audit illisible ignorée : {}", texte);
+            return null;
+        }
+    }
+
+    private static String echapper(String valeur) {
+        if (valeur == null) {
+            return NUL;
+        }
+        return valeur.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String restituer(String champ) {
+        if (NUL.equals(champ)) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(champ.length());
+        for (int i = 0; i < champ.length(); i++) {
+            char c = champ.charAt(i);
+            if (c == '\\' && i + 1 < champ.length()) {
+                char suivant = champ.charAt(++i);
+                sb.append(switch (suivant) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> suivant;
+                });
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // ==================== DIFFÉRENCES ====================
+
+    /**
+     * Valeurs de l'état qui diffèrent de l'autre état ({champ=valeur, ...}),
+     * ou null s'il n'y en a aucune
+     */
+    private static String differences(Map<String, Object> etat, Map<String, Object> autre) {
+        if (etat == null || etat.isEmpty()) {
+            return null;
+        }
+        StringJoiner sj = new StringJoiner(", ", "{", "}");
+        int nombre = 0;
+        for (Map.Entry<String, Object> champ : etat.entrySet()) {
+            if (autre != null && autre.containsKey(champ.getKey())
+                    && egales(champ.getValue(), autre.get(champ.getKey()))) {
+                continue;
+            }
+            sj.add(champ.getKey() + "=" + champ.getValue());
+            nombre++;
+        }
+        return nombre > 0 ? sj.toString() : null;
+    }
+
+    private static boolean egales(Object a, Object b) {
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+
+    // ==================== CYCLE DE VIE ====================
+
+    /**
+     * Écrit les événements en file et arrête le rédacteur ; les événements
+     * suivants vont directement dans le fichier de débordement
+     */
+    public void arreter() {
+        if (!enabled || !actif) {
+            return;
+        }
+        actif = false;
+        LockSupport.unpark(redacteur);
+        try {
+            redacteur.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Rédacteur bloqué : le reste de la file est conservé sur disque
+        List<LigneAudit> restants = new ArrayList<>();
+        EvenementAudit evenement;
+        while ((evenement = file.poll()) != null) {
+            taille.decrementAndGet();
+            restants.add(evenement.versLigne());
+        }
+        if (!restants.isEmpty()) {
+            deverser(restants);
+        }
+        logger.info("📊 Audit : {}", getMetriques());
+    }
+
+    /**
+     * Nombre d'événements mis en file ou débordés depuis le démarrage
+     */
+    long getEvenementsRecus() {
+        return recus.sum();
+    }
+
+    /**
+     * Compteurs du journal d'audit
+     */
+    public String getMetriques() {
+        return String.format("%d reçus, %d en file, %d écrits, %d débordés sur disque, %d repris",
+                recus.sum(), taille.get(), ecrits.sum(), deverses.sum(), repris.sum());
+    }
+}
@@ -47,6 +47,7 @@ public class AuthenticationService {
 
             if (optUser.isEmpty()) {
                 logger.warn("Utilisateur non trouvé: {}", login);
+                auditerEchec(null, login, "Utilisateur inconnu");
                 return false;
             }
 
@@ -55,6 +56,7 @@ public class AuthenticationService {
             // Vérifier si l'utilisateur est actif
             if (!utilisateur.isActif()) {
                 logger.warn("Tentative de connexion avec un compte désactivé: {}", login);
+                auditerEchec(utilisateur, login, "Compte désactivé");
                 return false;
             }
 
@@ -70,10 +72,13 @@ public class AuthenticationService {
                 // Stocker l'utilisateur courant
                 this.currentUser = utilisateur;
 
+                AuditService.getInstance().enregistrer(utilisateur, AuditService.CONNEXION, "UTILISATEUR",
+                        utilisateur.getId(), null, null);
                 logger.info("Connexion réussie pour: {}", login);
                 return true;
             } else {
                 logger.warn("Mot de passe incorrect pour: {}", login);
+                auditerEchec(utilisateur, login, "Mot de passe incorrect");
                 return false;
             }
 
@@ -83,12 +88,23 @@ public class AuthenticationService {
         }
     }
 
+    /**
+     * Trace une tentative de connexion refusée
+     */
+    private void auditerEchec(Utilisateur utilisateur, String login, String motif) {
+        AuditService.getInstance().enregistrer(utilisateur, AuditService.ECHEC_CONNEXION, "UTILISATEUR",
+                utilisateur != null ? utilisateur.getId() : null, null,
+                AuditService.etat("login", login, "motif", motif));
+    }
+
     /**
      * Déconnecte l'utilisateur courant
      */
     public void logout() {
         if (currentUser != null) {
             logger.info("Déconnexion de l'utilisateur: {}", currentUser.getLogin());
+            AuditService.getInstance().enregistrer(currentUser, AuditService.DECONNEXION, "UTILISATEUR",
+                    currentUser.getId(), null, null);
             currentUser = null;
         }
     }
@@ -162,6 +178,8 @@ public class AuthenticationService {
             // Sauvegarder
             utilisateurDAO.update(currentUser);
 
+            AuditService.getInstance().enregistrer(currentUser, AuditService.CHANGEMENT_MOT_DE_PASSE, "UTILISATEUR",
+                    currentUser.getId(), null, null);
             logger.info("Mot de passe changé avec succès pour: {}", currentUser.getLogin());
             return true;
 
@@ -195,6 +213,8 @@ public class AuthenticationService {
 
             // Sauvegarder
             Utilisateur savedUser = utilisateurDAO.save(newUser);
+            AuditService.getInstance().enregistrer(AuditService.CREATION, "UTILISATEUR", savedUser.getId(), null,
+                    AuditService.etat("login", login, "nom", nom, "prenom", prenom, "role", role));
             logger.info("Utilisateur créé avec succès: {}", login);
 
             return savedUser;
@@ -232,6 +252,8 @@ public class AuthenticationService {
 
             utilisateurDAO.update(utilisateur);
 
+            AuditService.getInstance().enregistrer(AuditService.REINITIALISATION_MOT_DE_PASSE, "UTILISATEUR",
+                    utilisateur.getId(), null, AuditService.etat("login", login));
             logger.info("Mot de passe réinitialisé pour: {}", login);
             return true;
 
@@ -279,6 +301,7 @@ public class AuthenticationService {
 
             if (optUser.isEmpty()) {
                 logger.warn("Utilisateur non trouvé: {}", login);
+                auditerEchec(null, login, "Utilisateur inconnu");
                 return AuthenticationResult.failure("Identifiants incorrects");
             }
 
@@ -286,6 +309,7 @@ public class AuthenticationService {
 
             if (!utilisateur.isActif()) {
                 logger.warn("Tentative de connexion avec un compte désactivé: {}", login);
+                auditerEchec(utilisateur, login, "Compte désactivé");
                 return AuthenticationResult.failure("Compte désactivé");
             }
 
@@ -297,10 +321,13 @@ public class AuthenticationService {
                 utilisateurDAO.update(utilisateur);
                 this.currentUser = utilisateur;
 
+                AuditService.getInstance().enregistrer(utilisateur, AuditService.CONNEXION, "UTILISATEUR",
+                        utilisateur.getId(), null, null);
                 logger.info("Connexion réussie pour: {}", login);
                 return AuthenticationResult.success(utilisateur);
             } else {
                 logger.warn("Mot de passe incorrect pour: {}", login);
+                auditerEchec(utilisateur, login, "Mot de passe incorrect");
                 return AuthenticationResult.failure("Identifiants incorrects");
             }
 
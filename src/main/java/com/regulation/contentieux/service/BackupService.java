@@ -1,6 +1,7 @@
 package com.regulation.contentieux.service;
 
 import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.BaseArchive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +30,7 @@ public class BackupService {
     private static final String BACKUP_DIRECTORY = System.getProperty("user.home") + "/Documents/Sauvegardes_Contentieux";
     private static final String BACKUP_EXTENSION = ".backup.zip";
     private static final DateTimeFormatter BACKUP_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final String ENTREE_ARCHIVE = "archive.db";
 
     public BackupService() {
         this.executorService = Executors.newFixedThreadPool(2);
@@ -204,6 +206,9 @@ public class BackupService {
             // Sauvegarde de la base de données SQLite
             sauvegarderBaseDeDonnees(zos);
 
+            // Affaires archivées : absentes de la base courante
+            sauvegarderArchive(zos);
+
             // Sauvegarde des fichiers de configuration
             sauvegarderFichiersConfiguration(zos);
 
@@ -247,6 +252,33 @@ public class BackupService {
         }
     }
 
+    /**
+     * Sauvegarde la base d'archive ({@link BaseArchive}) : copie cohérente
+     * obtenue par VACUUM INTO, même si un archivage est en cours
+     */
+    private void sauvegarderArchive(ZipOutputStream zos) throws Exception {
+        Path archive = BaseArchive.getChemin().toAbsolutePath();
+        if (!Files.exists(archive)) {
+            return;
+        }
+
+        Path copie = Files.createTempFile("archive_sauvegarde", ".db");
+        Files.delete(copie);
+        try {
+            try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + archive);
+                 PreparedStatement stmt = conn.prepareStatement("VACUUM INTO ?")) {
+                stmt.setString(1, copie.toString());
+                stmt.execute();
+            }
+
+            zos.putNextEntry(new ZipEntry(ENTREE_ARCHIVE));
+            Files.copy(copie, zos);
+            zos.closeEntry();
+        } finally {
+            Files.deleteIfExists(copie);
+        }
+    }
+
     /**
      * Exporte la base SQLite vers SQL
      */
@@ -305,8 +337,21 @@ public class BackupService {
     private String obtenirDonneesTable(Connection conn, String tableName) throws SQLException {
         StringBuilder donnees = new StringBuilder();
 
+        // Colonnes déclarées seulement : table_info omet les colonnes générées,
+        // qu'un INSERT ne peut pas renseigner
+        List<String> colonnes = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tableName + ")")) {
+            while (rs.next()) {
+                colonnes.add(rs.getString("name"));
+            }
+        }
+        if (colonnes.isEmpty()) {
+            return "";
+        }
+
         try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM " + tableName)) {
+             ResultSet rs = stmt.executeQuery("SELECT " + String.join(", ", colonnes) + " FROM " + tableName)) {
 
             ResultSetMetaData metaData = rs.getMetaData();
             int columnCount = metaData.getColumnCount();
@@ -504,12 +549,16 @@ public class BackupService {
                 if ("database_export.sql".equals(entry.getName())) {
                     // Restauration de la base de données
                     restaurerBaseDeDonnees(zis);
+                } else if (ENTREE_ARCHIVE.equals(entry.getName())) {
+                    // Restauration de la base d'archive
+                    restaurerArchive(zis);
                 } else if (entry.getName().startsWith("config/")) {
                     // Restauration des fichiers de configuration
                     restaurerFichierConfiguration(zis, entry);
                 }
             }
         }
+        BaseArchive.oublierDateLimite();
     }
 
     /**
@@ -547,6 +596,29 @@ public class BackupService {
         }
     }
 
+    /**
+     * Remplace la base d'archive par celle de la sauvegarde
+     */
+    private void restaurerArchive(ZipInputStream zis) throws Exception {
+        if (ArchivageService.getInstance().isEnCours()) {
+            throw new IllegalStateException("Archivage en cours : restauration de l'archive impossible");
+        }
+
+        Path archive = BaseArchive.getChemin().toAbsolutePath();
+        Files.createDirectories(archive.getParent());
+        Path temporaire = archive.resolveSibling(archive.getFileName() + ".restauration");
+        Files.copy(zis, temporaire, StandardCopyOption.REPLACE_EXISTING);
+
+        // Journaux de l'ancienne archive : ils ne s'appliquent pas à la copie restaurée
+        Files.deleteIfExists(archive.resolveSibling(archive.getFileName() + "-wal"));
+        Files.deleteIfExists(archive.resolveSibling(archive.getFileName() + "-shm"));
+        Files.deleteIfExists(archive.resolveSibling(archive.getFileName() + "-journal"));
+        Files.move(temporaire, archive, StandardCopyOption.REPLACE_EXISTING);
+
+        BaseArchive.invaliderSchema();
+        logger.info("Base d'archive restaurée: {}", archive);
+    }
+
     /**
      * Restaure un fichier de configuration
      */
@@ -20,6 +20,7 @@ public class BanqueService {
     private static final Logger logger = LoggerFactory.getLogger(BanqueService.class);
 
     private final BanqueDAO banqueDAO;
+    private final ReferentielCache referentielCache = ReferentielCache.getInstance();
     private final ValidationService validationService;
 
     public BanqueService() {
@@ -33,7 +34,7 @@ public class BanqueService {
      */
     public List<Banque> getAllBanques() {
         logger.debug("Récupération de toutes les banques");
-        return banqueDAO.findAll();
+        return referentielCache.getBanques();
     }
 
     /**
@@ -44,8 +45,7 @@ public class BanqueService {
      */
     public List<Banque> getAllBanques(int page, int pageSize) {
         logger.debug("Récupération des banques - page: {}, taille: {}", page, pageSize);
-        int offset = (page - 1) * pageSize;
-        return banqueDAO.findAll(); // TODO: Implémenter la pagination dans le DAO si nécessaire
+        return ReferentielCache.page(referentielCache.getBanques(), page, pageSize);
     }
 
     /**
@@ -54,7 +54,7 @@ public class BanqueService {
      */
     public List<Banque> getAllBanquesActives() {
         logger.debug("Récupération des banques actives");
-        return banqueDAO.findAllActive();
+        return referentielCache.getBanquesActives();
     }
 
     /**
@@ -67,7 +67,7 @@ public class BanqueService {
             logger.warn("Tentative de recherche avec un ID null");
             return Optional.empty();
         }
-        return banqueDAO.findById(id);
+        return referentielCache.findBanque(id);
     }
 
     /**
@@ -121,6 +121,7 @@ public class BanqueService {
         }
 
         Banque saved = banqueDAO.save(banque);
+        referentielCache.invalider(ReferentielCache.Type.BANQUE);
         logger.info("Banque créée avec succès - ID: {}, Code: {}", saved.getId(), saved.getCodeBanque());
 
         return saved;
@@ -175,6 +176,7 @@ public class BanqueService {
         }
 
         Banque updated = banqueDAO.update(banque);
+        referentielCache.invalider(ReferentielCache.Type.BANQUE);
         logger.info("Banque mise à jour avec succès - Code: {}", updated.getCodeBanque());
 
         return updated;
@@ -195,6 +197,7 @@ public class BanqueService {
         // TODO: Vérifier s'il y a des encaissements liés avant suppression
 
         banqueDAO.deleteById(id);
+        referentielCache.invalider(ReferentielCache.Type.BANQUE);
         logger.info("Banque supprimée: {} - {}", banque.get().getCodeBanque(), banque.get().getNomBanque());
     }
 
@@ -213,6 +216,7 @@ public class BanqueService {
         banque.setActif(actif);
 
         banqueDAO.update(banque);
+        referentielCache.invalider(ReferentielCache.Type.BANQUE);
         logger.info("Banque {} {}: {}",
                 banque.getCodeBanque(),
                 actif ? "activée" : "désactivée",
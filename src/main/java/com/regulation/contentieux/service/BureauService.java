@@ -21,6 +21,7 @@ public class BureauService {
     private static final Logger logger = LoggerFactory.getLogger(BureauService.class);
 
     private final BureauDAO bureauDAO;
+    private final ReferentielCache referentielCache = ReferentielCache.getInstance();
     private final ValidationService validationService;
 
     public BureauService() {
@@ -34,7 +35,7 @@ public class BureauService {
      */
     public List<Bureau> getAllBureaux() {
         logger.debug("Récupération de tous les bureaux");
-        return bureauDAO.findAll();
+        return referentielCache.getBureaux();
     }
 
     /**
@@ -45,8 +46,7 @@ public class BureauService {
      */
     public List<Bureau> getAllBureaux(int page, int pageSize) {
         logger.debug("Récupération des bureaux - page: {}, taille: {}", page, pageSize);
-        int offset = (page - 1) * pageSize;
-        return bureauDAO.findAll(); // TODO: Implémenter la pagination dans le DAO si nécessaire
+        return ReferentielCache.page(referentielCache.getBureaux(), page, pageSize);
     }
 
     /**
@@ -55,7 +55,7 @@ public class BureauService {
      */
     public List<Bureau> getAllBureauxActifs() {
         logger.debug("Récupération des bureaux actifs");
-        return bureauDAO.findAllActive();
+        return referentielCache.getBureauxActifs();
     }
 
     /**
@@ -81,7 +81,7 @@ public class BureauService {
             logger.warn("Tentative de recherche avec un ID null");
             return Optional.empty();
         }
-        return bureauDAO.findById(id);
+        return referentielCache.findBureau(id);
     }
 
     /**
@@ -120,6 +120,7 @@ public class BureauService {
         }
 
         Bureau saved = bureauDAO.save(bureau);
+        referentielCache.invalider(ReferentielCache.Type.BUREAU);
         logger.info("Bureau créé avec succès - ID: {}, Code: {}", saved.getId(), saved.getCodeBureau());
 
         return saved;
@@ -159,6 +160,7 @@ public class BureauService {
         }
 
         Bureau updated = bureauDAO.update(bureau);
+        referentielCache.invalider(ReferentielCache.Type.BUREAU);
         logger.info("Bureau mis à jour avec succès - Code: {}", updated.getCodeBureau());
 
         return updated;
@@ -179,6 +181,7 @@ public class BureauService {
         // TODO: Vérifier s'il y a des agents liés avant suppression
 
         bureauDAO.deleteById(id);
+        referentielCache.invalider(ReferentielCache.Type.BUREAU);
         logger.info("Bureau supprimé: {} - {}", bureau.get().getCodeBureau(), bureau.get().getNomBureau());
     }
 
@@ -197,6 +200,7 @@ public class BureauService {
         bureau.setActif(actif);
 
         bureauDAO.update(bureau);
+        referentielCache.invalider(ReferentielCache.Type.BUREAU);
         logger.info("Bureau {} {}: {}",
                 bureau.getCodeBureau(),
                 actif ? "activé" : "désactivé",
@@ -0,0 +1,67 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.util.MontantFixe.Taux;
+
+import java.math.BigDecimal;
+
+/**
+ * Noyau de calcul de la répartition sur des montants entiers (long)
+ *
+ * Reproduit à l'identique le calcul BigDecimal de {@link RepartitionService}
+ * (multiplications arrondies HALF_UP à l'unité, soustractions exactes) sans
+ * allocation intermédiaire. Immuable : une instance peut être partagée entre
+ * threads. Les dépassements de capacité lèvent une ArithmeticException.
+ */
+public final class CalculateurRepartition {
+
+    /**
+     * Montants d'une répartition, en FCFA
+     */
+    public record MontantsRepartition(long produitDisponible, long partIndicateur, long produitNet,
+                                      long partFLCF, long partTresor, long produitNetAyantsDroits,
+                                      long partChefs, long partSaisissants, long partMutuelle,
+                                      long partMasseCommune, long partInteressement) {
+    }
+
+    private final Taux tauxIndicateur;
+    private final Taux tauxFLCF;
+    private final Taux tauxTresor;
+    private final Taux tauxChefs;
+    private final Taux tauxSaisissants;
+    private final Taux tauxMutuelle;
+    private final Taux tauxMasseCommune;
+    private final Taux tauxInteressement;
+
+    public CalculateurRepartition(BigDecimal tauxIndicateur, BigDecimal tauxFLCF, BigDecimal tauxTresor,
+                                  BigDecimal tauxChefs, BigDecimal tauxSaisissants, BigDecimal tauxMutuelle,
+                                  BigDecimal tauxMasseCommune, BigDecimal tauxInteressement) {
+        this.tauxIndicateur = Taux.de(tauxIndicateur);
+        this.tauxFLCF = Taux.de(tauxFLCF);
+        this.tauxTresor = Taux.de(tauxTresor);
+        this.tauxChefs = Taux.de(tauxChefs);
+        this.tauxSaisissants = Taux.de(tauxSaisissants);
+        this.tauxMutuelle = Taux.de(tauxMutuelle);
+        this.tauxMasseCommune = Taux.de(tauxMasseCommune);
+        this.tauxInteressement = Taux.de(tauxInteressement);
+    }
+
+    /**
+     * Répartition niveaux 1 et 2 d'un montant encaissé entier
+     */
+    public MontantsRepartition calculer(long montantEncaisse, boolean indicateurExiste) {
+        long partIndicateur = indicateurExiste ? tauxIndicateur.appliquer(montantEncaisse) : 0L;
+        long produitNet = Math.subtractExact(montantEncaisse, partIndicateur);
+
+        long partFLCF = tauxFLCF.appliquer(produitNet);
+        long partTresor = tauxTresor.appliquer(produitNet);
+        long produitNetAyantsDroits = Math.subtractExact(Math.subtractExact(produitNet, partFLCF), partTresor);
+
+        return new MontantsRepartition(montantEncaisse, partIndicateur, produitNet,
+                partFLCF, partTresor, produitNetAyantsDroits,
+                tauxChefs.appliquer(produitNetAyantsDroits),
+                tauxSaisissants.appliquer(produitNetAyantsDroits),
+                tauxMutuelle.appliquer(produitNetAyantsDroits),
+                tauxMasseCommune.appliquer(produitNetAyantsDroits),
+                tauxInteressement.appliquer(produitNetAyantsDroits));
+    }
+}
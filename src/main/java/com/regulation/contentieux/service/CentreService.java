@@ -21,6 +21,7 @@ public class CentreService {
     private static final Logger logger = LoggerFactory.getLogger(CentreService.class);
 
     private final CentreDAO centreDAO;
+    private final ReferentielCache referentielCache = ReferentielCache.getInstance();
     private final ValidationService validationService;
 
     public CentreService() {
@@ -34,7 +35,7 @@ public class CentreService {
      */
     public List<Centre> getAllCentres() {
         logger.debug("Récupération de tous les centres");
-        return centreDAO.findAll();
+        return referentielCache.getCentres();
     }
 
     /**
@@ -45,8 +46,7 @@ public class CentreService {
      */
     public List<Centre> getAllCentres(int page, int pageSize) {
         logger.debug("Récupération des centres - page: {}, taille: {}", page, pageSize);
-        int offset = (page - 1) * pageSize;
-        return centreDAO.findAll(); // TODO: Implémenter la pagination dans le DAO si nécessaire
+        return ReferentielCache.page(referentielCache.getCentres(), page, pageSize);
     }
 
     /**
@@ -55,7 +55,7 @@ public class CentreService {
      */
     public List<Centre> getAllCentresActifs() {
         logger.debug("Récupération des centres actifs");
-        return centreDAO.findAllActive();
+        return referentielCache.getCentresActifs();
     }
 
     /**
@@ -68,7 +68,7 @@ public class CentreService {
             logger.warn("Tentative de recherche avec un ID null");
             return Optional.empty();
         }
-        return centreDAO.findById(id);
+        return referentielCache.findCentre(id);
     }
 
     /**
@@ -107,6 +107,7 @@ public class CentreService {
         }
 
         Centre saved = centreDAO.save(centre);
+        referentielCache.invalider(ReferentielCache.Type.CENTRE);
         logger.info("Centre créé avec succès - ID: {}, Code: {}", saved.getId(), saved.getCodeCentre());
 
         return saved;
@@ -146,6 +147,7 @@ public class CentreService {
         }
 
         Centre updated = centreDAO.update(centre);
+        referentielCache.invalider(ReferentielCache.Type.CENTRE);
         logger.info("Centre mis à jour avec succès - Code: {}", updated.getCodeCentre());
 
         return updated;
@@ -166,6 +168,7 @@ public class CentreService {
         // TODO: Vérifier s'il y a des services liés avant suppression
 
         centreDAO.deleteById(id);
+        referentielCache.invalider(ReferentielCache.Type.CENTRE);
         logger.info("Centre supprimé: {} - {}", centre.get().getCodeCentre(), centre.get().getNomCentre());
     }
 
@@ -184,6 +187,7 @@ public class CentreService {
         centre.setActif(actif);
 
         centreDAO.update(centre);
+        referentielCache.invalider(ReferentielCache.Type.CENTRE);
         logger.info("Centre {} {}: {}",
                 centre.getCodeCentre(),
                 actif ? "activé" : "désactivé",
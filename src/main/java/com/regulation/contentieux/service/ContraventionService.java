@@ -17,6 +17,7 @@ public class ContraventionService {
     private static final Logger logger = LoggerFactory.getLogger(ContraventionService.class);
 
     private final ContraventionDAO contraventionDAO;
+    private final ReferentielCache referentielCache = ReferentielCache.getInstance();
     private final ValidationService validationService;
 
     public ContraventionService() {
@@ -43,7 +44,7 @@ public class ContraventionService {
      * Trouve une contravention par son ID
      */
     public Optional<Contravention> findById(Long id) {
-        return contraventionDAO.findById(id);
+        return referentielCache.findContravention(id);
     }
 
     /**
@@ -74,6 +75,7 @@ public class ContraventionService {
 
         // Sauvegarde
         Contravention savedContravention = contraventionDAO.save(contravention);
+        referentielCache.invalider(ReferentielCache.Type.CONTRAVENTION);
         logger.info("Contravention créée: {} - {}", savedContravention.getCode(), savedContravention.getLibelle());
 
         return savedContravention;
@@ -99,6 +101,7 @@ public class ContraventionService {
 
         // Mise à jour
         Contravention updatedContravention = contraventionDAO.update(contravention);
+        referentielCache.invalider(ReferentielCache.Type.CONTRAVENTION);
         logger.info("Contravention mise à jour: {} - {}", updatedContravention.getCode(), updatedContravention.getLibelle());
 
         return updatedContravention;
@@ -116,6 +119,7 @@ public class ContraventionService {
         // TODO: Vérifier s'il y a des affaires liées avant suppression
         // Pour l'instant, suppression directe
         contraventionDAO.deleteById(id);
+        referentielCache.invalider(ReferentielCache.Type.CONTRAVENTION);
         logger.info("Contravention supprimée: {} - {}", contravention.get().getCode(), contravention.get().getLibelle());
     }
 
@@ -132,6 +136,7 @@ public class ContraventionService {
         contravention.setActif(!contravention.isActif());
 
         contraventionDAO.update(contravention);
+        referentielCache.invalider(ReferentielCache.Type.CONTRAVENTION);
         logger.info("Contravention {} {}: {}",
                 contravention.getCode(),
                 contravention.isActif() ? "activée" : "désactivée",
@@ -152,7 +157,7 @@ public class ContraventionService {
      * @return Liste de toutes les contraventions
      */
     public List<Contravention> getAllContraventions() {
-        return getAllContraventions(1, Integer.MAX_VALUE);
+        return referentielCache.getContraventions();
     }
 
     /**
@@ -166,7 +171,7 @@ public class ContraventionService {
      * Obtient les contraventions actives pour les ComboBox
      */
     public List<Contravention> getActiveContraventions() {
-        return contraventionDAO.findAllActive();
+        return referentielCache.getContraventionsActives();
     }
 
     /**
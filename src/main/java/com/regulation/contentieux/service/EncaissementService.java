@@ -6,12 +6,18 @@ import com.regulation.contentieux.model.Encaissement;
 import com.regulation.contentieux.model.Affaire;
 import com.regulation.contentieux.model.enums.ModeReglement;
 import com.regulation.contentieux.model.enums.StatutEncaissement;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -26,12 +32,21 @@ public class EncaissementService {
     private final AffaireDAO affaireDAO;
     private final ValidationService validationService;
     private final NumerotationService numerotationService;
+    private final AuditService auditService;
 
     public EncaissementService() {
-        this.encaissementDAO = new EncaissementDAO();
+        this(new EncaissementDAO());
+    }
+
+    /**
+     * DAO fourni par l'appelant (tests des opérations en lot)
+     */
+    EncaissementService(EncaissementDAO encaissementDAO) {
+        this.encaissementDAO = encaissementDAO;
         this.affaireDAO = new AffaireDAO();
         this.validationService = ValidationService.getInstance();
         this.numerotationService = NumerotationService.getInstance();
+        this.auditService = AuditService.getInstance();
     }
 
     /**
@@ -97,6 +112,7 @@ public class EncaissementService {
 
         // Sauvegarde
         Encaissement saved = encaissementDAO.save(encaissement);
+        auditService.enregistrer(AuditService.CREATION, "ENCAISSEMENT", saved.getId(), null, etatAudit(saved));
         logger.info("Nouvel encaissement créé: {} - {} pour l'affaire {}",
                 saved.getReference(),
                 saved.getModeReglementLibelle(),
@@ -140,6 +156,8 @@ public class EncaissementService {
 
         // Mise à jour
         Encaissement updated = encaissementDAO.update(encaissement);
+        auditService.enregistrer(AuditService.MODIFICATION, "ENCAISSEMENT", updated.getId(),
+                etatAudit(existing.get()), etatAudit(updated));
         logger.info("Encaissement mis à jour: {} - {}",
                 updated.getReference(), updated.getModeReglementLibelle());
 
@@ -164,6 +182,7 @@ public class EncaissementService {
         boolean result = encaissementDAO.updateStatut(encaissementId, StatutEncaissement.VALIDE, validatedBy);
 
         if (result) {
+            auditChangementStatut(encaissementId, encaissement.getStatut(), StatutEncaissement.VALIDE);
             logger.info("Encaissement validé: {} par {}", encaissement.getReference(), validatedBy);
         }
 
@@ -188,12 +207,84 @@ public class EncaissementService {
         boolean result = encaissementDAO.updateStatut(encaissementId, StatutEncaissement.REJETE, rejectedBy);
 
         if (result) {
+            auditChangementStatut(encaissementId, encaissement.getStatut(), StatutEncaissement.REJETE);
             logger.info("Encaissement rejeté: {} par {}", encaissement.getReference(), rejectedBy);
         }
 
         return result;
     }
 
+    /**
+     * Valide un lot d'encaissements en une transaction
+     *
+     * Les statuts sont contrôlés par une requête par lot, puis les encaissements
+     * en attente sont validés par UPDATE ... WHERE id IN (...).
+     */
+    public ResultatOperationLot validerEncaissements(Collection<Long> encaissementIds, String validatedBy) {
+        return changerStatutEnLot(encaissementIds, StatutEncaissement.VALIDE, validatedBy);
+    }
+
+    /**
+     * Rejette un lot d'encaissements en une transaction
+     */
+    public ResultatOperationLot rejeterEncaissements(Collection<Long> encaissementIds, String rejectedBy) {
+        return changerStatutEnLot(encaissementIds, StatutEncaissement.REJETE, rejectedBy);
+    }
+
+    private ResultatOperationLot changerStatutEnLot(Collection<Long> ids, StatutEncaissement nouveauStatut,
+                                                    String utilisateur) {
+        ResultatOperationLot resultat = new ResultatOperationLot();
+        if (ids == null || ids.isEmpty()) {
+            return resultat;
+        }
+
+        long debut = System.currentTimeMillis();
+        TransactionManager.getInstance().executeInTransaction(() -> {
+            Map<Long, StatutEncaissement> statuts = encaissementDAO.findStatutsByIds(ids);
+
+            List<Long> eligibles = new ArrayList<>();
+            for (Long id : new LinkedHashSet<>(ids)) {
+                StatutEncaissement statut = statuts.get(id);
+                if (statut == null) {
+                    resultat.introuvable(id);
+                } else if (statut != StatutEncaissement.EN_ATTENTE) {
+                    resultat.refuse(id, "Statut " + statut.getLibelle() + " : l'encaissement ne peut plus être modifié");
+                } else {
+                    eligibles.add(id);
+                }
+            }
+
+            int modifies = encaissementDAO.updateStatutEnLot(eligibles, StatutEncaissement.EN_ATTENTE,
+                    nouveauStatut, utilisateur);
+            if (modifies < eligibles.size()) {
+                // Statut changé ou encaissement supprimé entre la lecture et la mise à jour :
+                // relire les non modifiés pour ne pas les compter ni les auditer
+                int attendus = eligibles.size();
+                Map<Long, StatutEncaissement> apres = encaissementDAO.findStatutsByIds(eligibles);
+                Iterator<Long> it = eligibles.iterator();
+                while (it.hasNext()) {
+                    Long id = it.next();
+                    StatutEncaissement statut = apres.get(id);
+                    if (statut == null) {
+                        resultat.introuvable(id);
+                        it.remove();
+                    } else if (statut != nouveauStatut) {
+                        resultat.refuse(id, "Statut " + statut.getLibelle() + " : modifié pendant l'opération");
+                        it.remove();
+                    }
+                }
+                logger.warn("⚠️ {} encaissement(s) modifié(s) sur {} éligible(s), {} écarté(s) après relecture",
+                        modifies, attendus, attendus - eligibles.size());
+            }
+            eligibles.forEach(resultat::effectue);
+            eligibles.forEach(id -> auditChangementStatut(id, StatutEncaissement.EN_ATTENTE, nouveauStatut));
+        });
+
+        logger.info("Encaissements passés au statut {} par {}: {} en {} ms", nouveauStatut, utilisateur,
+                resultat, System.currentTimeMillis() - debut);
+        return resultat;
+    }
+
     /**
      * Annule un encaissement
      */
@@ -212,6 +303,7 @@ public class EncaissementService {
         boolean result = encaissementDAO.updateStatut(encaissementId, StatutEncaissement.ANNULE, cancelledBy);
 
         if (result) {
+            auditChangementStatut(encaissementId, encaissement.getStatut(), StatutEncaissement.ANNULE);
             logger.info("Encaissement annulé: {} par {}", encaissement.getReference(), cancelledBy);
         }
 
@@ -233,10 +325,32 @@ public class EncaissementService {
         }
 
         encaissementDAO.deleteById(id);
+        auditService.enregistrer(AuditService.SUPPRESSION, "ENCAISSEMENT", id, etatAudit(encaissement.get()), null);
         logger.info("Encaissement supprimé: {} - {}",
                 encaissement.get().getReference(), encaissement.get().getModeReglementLibelle());
     }
 
+    private void auditChangementStatut(Long encaissementId, StatutEncaissement avant, StatutEncaissement apres) {
+        auditService.enregistrer(AuditService.CHANGEMENT_STATUT, "ENCAISSEMENT", encaissementId,
+                AuditService.etat("statut", avant), AuditService.etat("statut", apres));
+    }
+
+    /**
+     * Champs de l'encaissement tracés par l'audit
+     */
+    static Map<String, Object> etatAudit(Encaissement encaissement) {
+        return AuditService.etat(
+                "reference", encaissement.getReference(),
+                "affaireId", encaissement.getAffaireId(),
+                "montantEncaisse", encaissement.getMontantEncaisse(),
+                "dateEncaissement", encaissement.getDateEncaissement(),
+                "modeReglement", encaissement.getModeReglement(),
+                "numeroPiece", encaissement.getNumeroPiece(),
+                "banqueId", encaissement.getBanqueId(),
+                "statut", encaissement.getStatut(),
+                "observations", encaissement.getObservations());
+    }
+
     /**
      * Liste tous les encaissements avec pagination
      */
@@ -33,6 +33,7 @@ import org.apache.poi.ss.usermodel.*;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Service d'export des rapports en différents formats
@@ -820,31 +821,45 @@ public class ExportService {
             // En-têtes de colonnes
             Row headerRow = sheet.createRow(rowNum++);
             createHeaderCell(headerRow, 0, "Service", headerStyle);
-            createHeaderCell(headerRow, 1, "Nombre d'affaires", headerStyle);
-            createHeaderCell(headerRow, 2, "Montant total", headerStyle);
-            createHeaderCell(headerRow, 3, "Observations", headerStyle);
+            createHeaderCell(headerRow, 1, "Centre", headerStyle);
+            createHeaderCell(headerRow, 2, "Nombre d'affaires", headerStyle);
+            createHeaderCell(headerRow, 3, "Montant total", headerStyle);
+            createHeaderCell(headerRow, 4, "Encaissé", headerStyle);
+            createHeaderCell(headerRow, 5, "Reste dû", headerStyle);
+            createHeaderCell(headerRow, 6, "Observations", headerStyle);
 
             // Données
             for (ServiceAmendeDTO service : tableau.getServices()) {
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(service.getNomService());
-                row.createCell(1).setCellValue(service.getNombreAffaires());
-                createMontantCell(row, 2, service.getMontantTotal(), montantStyle);
-                row.createCell(3).setCellValue(service.getObservations() != null ?
+                row.createCell(1).setCellValue(service.getNomCentre() != null ? service.getNomCentre() : "");
+                row.createCell(2).setCellValue(service.getNombreAffaires());
+                createMontantCell(row, 3, service.getMontantTotal(), montantStyle);
+                createMontantCell(row, 4, service.getMontantEncaisse(), montantStyle);
+                createMontantCell(row, 5, service.getMontantRestantDu(), montantStyle);
+                row.createCell(6).setCellValue(service.getObservations() != null ?
                         service.getObservations() : "");
             }
 
             // Total
             rowNum++; // Ligne vide
-            Row totalRow = sheet.createRow(rowNum);
+            Row totalRow = sheet.createRow(rowNum++);
             totalRow.createCell(0).setCellValue("TOTAL");
             totalRow.getCell(0).setCellStyle(totalStyle);
-            totalRow.createCell(1).setCellValue(tableau.getTotalAffaires());
-            totalRow.getCell(1).setCellStyle(totalStyle);
-            createMontantCell(totalRow, 2, tableau.getTotalMontant(), totalStyle);
+            totalRow.createCell(2).setCellValue(tableau.getTotalAffaires());
+            totalRow.getCell(2).setCellStyle(totalStyle);
+            createMontantCell(totalRow, 3, tableau.getTotalMontant(), totalStyle);
+            createMontantCell(totalRow, 4, tableau.getMontantTotalEncaisse(), totalStyle);
+            createMontantCell(totalRow, 5, tableau.getMontantRestantDu(), totalStyle);
+
+            // Cumuls par bureau et par centre
+            rowNum = ecrireTotauxGroupes(sheet, rowNum + 1, "Bureau",
+                    TableauAmendesParServicesDTO.enLignes(tableau.getTotauxParBureau()), headerStyle, montantStyle);
+            ecrireTotauxGroupes(sheet, rowNum + 1, "Centre",
+                    TableauAmendesParServicesDTO.enLignes(tableau.getTotauxParCentre()), headerStyle, montantStyle);
 
             // Auto-dimensionner les colonnes
-            for (int i = 0; i < 4; i++) {
+            for (int i = 0; i < 7; i++) {
                 sheet.autoSizeColumn(i);
             }
 
@@ -862,12 +877,48 @@ public class ExportService {
         }
     }
 
+    /**
+     * Écrit un bloc (libellé, montant) ; retourne la ligne suivante
+     */
+    private int ecrireTotauxGroupes(Sheet sheet, int rowNum, String entete,
+                                    List<TotalGroupeDTO> lignes,
+                                    CellStyle headerStyle, CellStyle montantStyle) {
+        if (lignes.isEmpty()) {
+            return rowNum;
+        }
+        Row headerRow = sheet.createRow(rowNum++);
+        createHeaderCell(headerRow, 0, entete, headerStyle);
+        createHeaderCell(headerRow, 1, "Montant total", headerStyle);
+        for (TotalGroupeDTO ligne : lignes) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(ligne.getLibelle());
+            createMontantCell(row, 1, ligne.getMontant(), montantStyle);
+        }
+        return rowNum;
+    }
+
     /**
      * Export générique en Excel
      */
     public boolean exportGenericToExcel(Object data, String outputPath) {
-        // TODO: Implémenter l'export générique
-        logger.warn("Export générique non encore implémenté");
+        // Aiguillage vers l'export spécifique au type de rapport
+        if (data instanceof RapportRepartitionDTO rapport) {
+            return exportRepartitionToExcel(rapport, outputPath);
+        } else if (data instanceof SituationGeneraleDTO situation) {
+            return exportSituationToExcel(situation, outputPath);
+        } else if (data instanceof RapportService.CentreRepartitionDTO rapport) {
+            return exportCentreRepartitionToExcel(rapport, outputPath);
+        } else if (data instanceof RapportService.IndicateursReelsDTO rapport) {
+            return exportIndicateursReelsToExcel(rapport, outputPath);
+        } else if (data instanceof RapportService.RepartitionProduitDTO rapport) {
+            return exportRepartitionProduitToExcel(rapport, outputPath);
+        } else if (data instanceof RapportService.EtatCumuleAgentDTO rapport) {
+            return exportEtatCumuleAgentToExcel(rapport, outputPath);
+        } else if (data instanceof TableauAmendesParServicesDTO tableau) {
+            return exportTableauAmendesToExcel(tableau, outputPath);
+        }
+
+        logger.warn("Export Excel non disponible pour {}", data != null ? data.getClass().getSimpleName() : "null");
         return false;
     }
 
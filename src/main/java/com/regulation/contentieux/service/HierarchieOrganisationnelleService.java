@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service pour valider et gérer la hiérarchie Centre/Service/Bureau
@@ -19,6 +20,41 @@ public class HierarchieOrganisationnelleService {
 
     private static final Logger logger = LoggerFactory.getLogger(HierarchieOrganisationnelleService.class);
 
+    // Arbre partagé, reconstruit lorsque les référentiels changent
+    private static final AtomicReference<ArbreOrganisationnel> arbreCourant = new AtomicReference<>();
+
+    /**
+     * Arbre organisationnel courant, rechargé si les référentiels ont changé
+     * depuis sa construction
+     */
+    public ArbreOrganisationnel getArbre() {
+        long version = ReferentielCache.getInstance().getVersion();
+        ArbreOrganisationnel arbre = arbreCourant.get();
+        if (arbre != null && arbre.getVersionReferentiels() == version) {
+            return arbre;
+        }
+
+        synchronized (arbreCourant) {
+            arbre = arbreCourant.get();
+            if (arbre == null || arbre.getVersionReferentiels() != version) {
+                try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+                    arbre = ArbreOrganisationnel.charger(conn, version);
+                    arbreCourant.set(arbre);
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erreur lors du chargement de l'arbre organisationnel", e);
+                }
+            }
+            return arbre;
+        }
+    }
+
+    /**
+     * Force la reconstruction de l'arbre au prochain accès (ex. : affectation d'agents)
+     */
+    public static void invaliderArbre() {
+        arbreCourant.set(null);
+    }
+
     /**
      * Valide la cohérence de la hiérarchie complète
      */
@@ -27,25 +63,32 @@ public class HierarchieOrganisationnelleService {
 
         ValidationResult result = new ValidationResult();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+        try {
+            ArbreOrganisationnel arbre = getArbre();
+
             // 1. Vérifier l'intégrité référentielle
-            verifierIntegriteReferentielle(conn, result);
+            verifierIntegriteReferentielle(arbre, result);
 
             // 2. Vérifier qu'il n'y a pas de hiérarchie incorrecte
-            verifierAbsenceHierarchieIncorrecte(conn, result);
+            verifierAbsenceHierarchieIncorrecte(arbre, result);
 
             // 3. Vérifier les doublons
-            verifierDoublons(conn, result);
+            verifierDoublons(arbre, result);
 
             // 4. Vérifier la cohérence des affectations
-            verifierCoherenceAffectations(conn, result);
+            try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+                verifierCoherenceAffectations(conn, arbre, result);
+            }
 
             // 5. Générer le rapport de hiérarchie
-            genererRapportHierarchie(conn, result);
+            genererRapportHierarchie(arbre, result);
 
         } catch (SQLException e) {
             logger.error("Erreur lors de la validation", e);
             result.addError("Erreur SQL: " + e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Erreur lors de la validation", e);
+            result.addError("Erreur: " + e.getMessage());
         }
 
         // Résumé
@@ -62,65 +105,31 @@ public class HierarchieOrganisationnelleService {
     /**
      * Vérifie l'intégrité référentielle
      */
-    private void verifierIntegriteReferentielle(Connection conn, ValidationResult result) throws SQLException {
+    private void verifierIntegriteReferentielle(ArbreOrganisationnel arbre, ValidationResult result) {
         logger.info("🔍 Vérification de l'intégrité référentielle...");
 
         // Services sans centre
-        String sqlServicesOrphelins = """
-            SELECT s.* FROM services s
-            LEFT JOIN centres c ON s.centre_id = c.id
-            WHERE s.centre_id IS NOT NULL AND c.id IS NULL
-        """;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sqlServicesOrphelins)) {
-
-            while (rs.next()) {
-                String message = String.format("Service orphelin: %s (centre_id=%d inexistant)",
-                        rs.getString("nom_service"), rs.getLong("centre_id"));
-                result.addError(message);
-                logger.error("❌ {}", message);
-            }
+        for (ArbreOrganisationnel.NoeudService service : arbre.getServicesOrphelins()) {
+            String message = String.format("Service orphelin: %s (centre_id=%d inexistant)",
+                    service.nom(), service.centreId());
+            result.addError(message);
+            logger.error("❌ {}", message);
         }
 
         // Bureaux sans centre
-        String sqlBureauxOrphelins = """
-            SELECT b.* FROM bureaux b
-            LEFT JOIN centres c ON b.centre_id = c.id
-            WHERE b.centre_id IS NOT NULL AND c.id IS NULL
-        """;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sqlBureauxOrphelins)) {
-
-            while (rs.next()) {
-                String message = String.format("Bureau orphelin: %s (centre_id=%d inexistant)",
-                        rs.getString("nom_bureau"), rs.getLong("centre_id"));
-                result.addError(message);
-                logger.error("❌ {}", message);
-            }
+        for (ArbreOrganisationnel.NoeudBureau bureau : arbre.getBureauxOrphelins()) {
+            String message = String.format("Bureau orphelin: %s (centre_id=%d inexistant)",
+                    bureau.nom(), bureau.centreId());
+            result.addError(message);
+            logger.error("❌ {}", message);
         }
 
         // Agents sans service
-        String sqlAgentsOrphelins = """
-            SELECT a.* FROM agents a
-            LEFT JOIN services s ON a.service_id = s.id
-            WHERE a.service_id IS NOT NULL AND s.id IS NULL
-        """;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sqlAgentsOrphelins)) {
-
-            int count = 0;
-            while (rs.next()) {
-                count++;
-            }
-
-            if (count > 0) {
-                String message = String.format("%d agents avec service_id invalide", count);
-                result.addWarning(message);
-                logger.warn("⚠️ {}", message);
-            }
+        int count = arbre.getAgentsOrphelins().size();
+        if (count > 0) {
+            String message = String.format("%d agents avec service_id invalide", count);
+            result.addWarning(message);
+            logger.warn("⚠️ {}", message);
         }
     }
 
@@ -128,26 +137,21 @@ public class HierarchieOrganisationnelleService {
      * Vérifie qu'il n'y a pas de hiérarchie incorrecte
      * (ex: un service qui aurait un bureau comme parent, ce qui est impossible)
      */
-    private void verifierAbsenceHierarchieIncorrecte(Connection conn, ValidationResult result) throws SQLException {
+    private void verifierAbsenceHierarchieIncorrecte(ArbreOrganisationnel arbre, ValidationResult result) {
         logger.info("🔍 Vérification de l'absence de hiérarchie incorrecte...");
 
         // Dans notre modèle, Services et Bureaux sont au même niveau sous Centre
         // Il ne devrait pas y avoir de relation directe entre Service et Bureau
 
         // Vérifier que les services n'ont que des centres comme parents
-        String sql = """
-            SELECT COUNT(*) as count FROM services 
-            WHERE centre_id IS NULL AND actif = 1
-        """;
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next() && rs.getInt("count") > 0) {
-                String message = rs.getInt("count") + " services actifs sans centre";
-                result.addWarning(message);
-                logger.warn("⚠️ {}", message);
-            }
+        long sansCentre = arbre.getServices().stream()
+                .filter(service -> service.actif() && service.centreId() == null)
+                .count();
+
+        if (sansCentre > 0) {
+            String message = sansCentre + " services actifs sans centre";
+            result.addWarning(message);
+            logger.warn("⚠️ {}", message);
         }
 
         logger.info("✅ Pas de hiérarchie incorrecte détectée");
@@ -156,71 +160,74 @@ public class HierarchieOrganisationnelleService {
     /**
      * Vérifie les doublons de codes
      */
-    private void verifierDoublons(Connection conn, ValidationResult result) throws SQLException {
+    private void verifierDoublons(ArbreOrganisationnel arbre, ValidationResult result) {
         logger.info("🔍 Vérification des doublons...");
 
         // Doublons de codes centres
-        verifierDoublonsTable(conn, "centres", "code_centre", result);
+        verifierDoublonsTable("centres",
+                arbre.getCentres().stream().map(ArbreOrganisationnel.NoeudCentre::code).toList(), result);
 
         // Doublons de codes services
-        verifierDoublonsTable(conn, "services", "code_service", result);
+        verifierDoublonsTable("services",
+                arbre.getServices().stream().map(ArbreOrganisationnel.NoeudService::code).toList(), result);
 
         // Doublons de codes bureaux
-        verifierDoublonsTable(conn, "bureaux", "code_bureau", result);
+        verifierDoublonsTable("bureaux",
+                arbre.getBureaux().stream().map(ArbreOrganisationnel.NoeudBureau::code).toList(), result);
     }
 
-    private void verifierDoublonsTable(Connection conn, String table, String codeColumn,
-                                       ValidationResult result) throws SQLException {
-        String sql = String.format("""
-            SELECT %s, COUNT(*) as count 
-            FROM %s 
-            GROUP BY %s 
-            HAVING COUNT(*) > 1
-        """, codeColumn, table, codeColumn);
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    private void verifierDoublonsTable(String table, List<String> codes, ValidationResult result) {
+        Map<String, Integer> occurrences = new TreeMap<>();
+        for (String code : codes) {
+            if (code != null) {
+                occurrences.merge(code, 1, Integer::sum);
+            }
+        }
 
-            while (rs.next()) {
+        occurrences.forEach((code, count) -> {
+            if (count > 1) {
                 String message = String.format("Code en double dans %s: %s (%d occurrences)",
-                        table, rs.getString(codeColumn), rs.getInt("count"));
+                        table, code, count);
                 result.addError(message);
                 logger.error("❌ {}", message);
             }
-        }
+        });
     }
 
     /**
      * Vérifie la cohérence des affectations
      */
-    private void verifierCoherenceAffectations(Connection conn, ValidationResult result) throws SQLException {
+    private void verifierCoherenceAffectations(Connection conn, ArbreOrganisationnel arbre,
+                                               ValidationResult result) throws SQLException {
         logger.info("🔍 Vérification de la cohérence des affectations...");
 
-        // Affaires avec bureau ET service du même centre ?
+        // Affaires avec bureau ET service du même centre ? Les centres sont résolus dans l'arbre
         String sql = """
-            SELECT a.numero_affaire, 
-                   s.nom_service, s.centre_id as service_centre,
-                   b.nom_bureau, b.centre_id as bureau_centre
-            FROM affaires a
-            LEFT JOIN services s ON a.service_id = s.id
-            LEFT JOIN bureaux b ON a.bureau_id = b.id
-            WHERE a.service_id IS NOT NULL 
-              AND a.bureau_id IS NOT NULL
-              AND s.centre_id != b.centre_id
+            SELECT numero_affaire, service_id, bureau_id
+            FROM affaires
+            WHERE service_id IS NOT NULL
+              AND bureau_id IS NOT NULL
         """;
 
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                String message = String.format(
-                        "Affaire %s: Service et Bureau de centres différents (%s != %s)",
-                        rs.getString("numero_affaire"),
-                        rs.getString("service_centre"),
-                        rs.getString("bureau_centre")
-                );
-                result.addError(message);
-                logger.error("❌ {}", message);
+                Long serviceCentre = arbre.getService(rs.getLong("service_id"))
+                        .map(ArbreOrganisationnel.NoeudService::centreId).orElse(null);
+                Long bureauCentre = arbre.getBureau(rs.getLong("bureau_id"))
+                        .map(ArbreOrganisationnel.NoeudBureau::centreId).orElse(null);
+
+                if (serviceCentre != null && bureauCentre != null && !serviceCentre.equals(bureauCentre)) {
+                    String message = String.format(
+                            "Affaire %s: Service et Bureau de centres différents (%s != %s)",
+                            rs.getString("numero_affaire"),
+                            serviceCentre,
+                            bureauCentre
+                    );
+                    result.addError(message);
+                    logger.error("❌ {}", message);
+                }
             }
         }
     }
@@ -228,65 +235,44 @@ public class HierarchieOrganisationnelleService {
     /**
      * Génère un rapport de la hiérarchie
      */
-    private void genererRapportHierarchie(Connection conn, ValidationResult result) throws SQLException {
+    private void genererRapportHierarchie(ArbreOrganisationnel arbre, ValidationResult result) {
         logger.info("📊 Génération du rapport de hiérarchie...");
 
         StringBuilder rapport = new StringBuilder();
         rapport.append("\n=== STRUCTURE HIÉRARCHIQUE ===\n");
 
-        // Récupérer tous les centres
-        String sqlCentres = "SELECT * FROM centres WHERE actif = 1 ORDER BY code_centre";
+        for (ArbreOrganisationnel.NoeudCentre centre : arbre.getCentres()) {
+            if (!centre.actif()) {
+                continue;
+            }
 
-        try (Statement stmt = conn.createStatement();
-             ResultSet rsCentres = stmt.executeQuery(sqlCentres)) {
-
-            while (rsCentres.next()) {
-                Long centreId = rsCentres.getLong("id");
-                String codeCentre = rsCentres.getString("code_centre");
-                String nomCentre = rsCentres.getString("nom_centre");
-
-                rapport.append(String.format("\n📍 CENTRE: %s - %s\n", codeCentre, nomCentre));
-
-                // Services du centre
-                rapport.append("   📋 Services:\n");
-                String sqlServices = "SELECT * FROM services WHERE centre_id = ? AND actif = 1";
-                try (PreparedStatement pstmt = conn.prepareStatement(sqlServices)) {
-                    pstmt.setLong(1, centreId);
-                    ResultSet rsServices = pstmt.executeQuery();
-
-                    int serviceCount = 0;
-                    while (rsServices.next()) {
-                        rapport.append(String.format("      - %s: %s\n",
-                                rsServices.getString("code_service"),
-                                rsServices.getString("nom_service")));
-                        serviceCount++;
-                    }
-
-                    if (serviceCount == 0) {
-                        rapport.append("      (Aucun service)\n");
-                    }
+            rapport.append(String.format("\n📍 CENTRE: %s - %s\n", centre.code(), centre.nom()));
+
+            // Services du centre
+            rapport.append("   📋 Services:\n");
+            int serviceCount = 0;
+            for (ArbreOrganisationnel.NoeudService service : centre.services()) {
+                if (service.actif()) {
+                    rapport.append(String.format("      - %s: %s\n", service.code(), service.nom()));
+                    serviceCount++;
                 }
+            }
+            if (serviceCount == 0) {
+                rapport.append("      (Aucun service)\n");
+            }
 
-                // Bureaux du centre
-                rapport.append("   🏢 Bureaux:\n");
-                String sqlBureaux = "SELECT * FROM bureaux WHERE centre_id = ? AND actif = 1";
-                try (PreparedStatement pstmt = conn.prepareStatement(sqlBureaux)) {
-                    pstmt.setLong(1, centreId);
-                    ResultSet rsBureaux = pstmt.executeQuery();
-
-                    int bureauCount = 0;
-                    while (rsBureaux.next()) {
-                        rapport.append(String.format("      - %s: %s\n",
-                                rsBureaux.getString("code_bureau"),
-                                rsBureaux.getString("nom_bureau")));
-                        bureauCount++;
-                    }
-
-                    if (bureauCount == 0) {
-                        rapport.append("      (Aucun bureau)\n");
-                    }
+            // Bureaux du centre
+            rapport.append("   🏢 Bureaux:\n");
+            int bureauCount = 0;
+            for (ArbreOrganisationnel.NoeudBureau bureau : centre.bureaux()) {
+                if (bureau.actif()) {
+                    rapport.append(String.format("      - %s: %s\n", bureau.code(), bureau.nom()));
+                    bureauCount++;
                 }
             }
+            if (bureauCount == 0) {
+                rapport.append("      (Aucun bureau)\n");
+            }
         }
 
         result.setRapportHierarchie(rapport.toString());
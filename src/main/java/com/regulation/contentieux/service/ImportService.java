@@ -0,0 +1,735 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.model.enums.StatutAffaire;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.LecteurTabulaire;
+import com.regulation.contentieux.util.LegacyMigrationPipeline;
+import com.regulation.contentieux.util.WriteActivityMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.*;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Import en masse de fichiers Excel (.xlsx) et CSV
+ *
+ * Pipeline en flux, sans charger le fichier en mémoire :
+ * 1. lecture ligne par ligne ({@link LecteurTabulaire} : SAX pour xlsx, automate pour csv)
+ * 2. validation des valeurs avec les règles de {@link ValidationService}
+ * 3. résolution des codes (contrevenants, contraventions, agents) via des
+ *    index code → id préchargés, sans requête par ligne
+ * 4. écriture par lots de requêtes préparées, dans une seule transaction :
+ *    un import interrompu n'enregistre rien et peut être relancé tel quel
+ *
+ * Chaque ligne refusée est consignée dans le {@link RapportImport} avec son
+ * numéro, la colonne en cause et le motif ; le rapport s'exporte en CSV.
+ *
+ * Paramètres : import.allowedFormats, import.maxFileSize, import.validateData
+ */
+public class ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+    private static ImportService instance;
+
+    private static final int TAILLE_LOT = 1_000;
+    private static final int INTERVALLE_PROGRESSION = 10_000;
+
+    private static final DateTimeFormatter FORMAT_DATE_FR = DateTimeFormatter.ofPattern("d/M/yyyy");
+    private static final DateTimeFormatter FORMAT_DATE_TIRETS = DateTimeFormatter.ofPattern("d-M-yyyy");
+
+    /**
+     * Types de fichiers importables et leurs colonnes (en-têtes normalisés :
+     * minuscules, sans accents, espaces remplacés par _)
+     */
+    public enum TypeImport {
+        CONTREVENANTS("Contrevenants",
+                List.of("code", "nom_complet"),
+                List.of("type_personne", "adresse", "telephone", "email")),
+        AFFAIRES("Affaires",
+                List.of("numero_affaire", "date_creation", "code_contrevenant", "code_contravention", "montant_amende"),
+                List.of("statut", "code_chef", "code_saisissant"));
+
+        private final String libelle;
+        private final List<String> colonnesObligatoires;
+        private final List<String> colonnesOptionnelles;
+
+        TypeImport(String libelle, List<String> colonnesObligatoires, List<String> colonnesOptionnelles) {
+            this.libelle = libelle;
+            this.colonnesObligatoires = colonnesObligatoires;
+            this.colonnesOptionnelles = colonnesOptionnelles;
+        }
+
+        public String getLibelle() { return libelle; }
+        public List<String> getColonnesObligatoires() { return colonnesObligatoires; }
+        public List<String> getColonnesOptionnelles() { return colonnesOptionnelles; }
+    }
+
+    private final ValidationService validationService = ValidationService.getInstance();
+    private final Set<String> formatsAutorises;
+    private final long tailleMaxOctets;
+    private final boolean validerDonnees;
+
+    private ImportService() {
+        ConfigurationService config = ConfigurationService.getInstance();
+        this.formatsAutorises = new HashSet<>();
+        for (String format : config.getProperty("import.allowedFormats", "EXCEL,CSV").split(",")) {
+            if (!format.isBlank()) {
+                formatsAutorises.add(format.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        this.tailleMaxOctets = parseTaille(config.getProperty("import.maxFileSize", "10MB"));
+        this.validerDonnees = Boolean.parseBoolean(config.getProperty("import.validateData", "true").trim());
+    }
+
+    public static synchronized ImportService getInstance() {
+        if (instance == null) {
+            instance = new ImportService();
+        }
+        return instance;
+    }
+
+    public RapportImport importer(File fichier, TypeImport type) {
+        return importer(fichier, type, rapport -> { });
+    }
+
+    /**
+     * Importe le fichier ; les lignes valides sont enregistrées, les autres consignées dans le rapport
+     *
+     * @param progression Appelé périodiquement pendant l'import, puis à la fin
+     */
+    public RapportImport importer(File fichier, TypeImport type, Consumer<RapportImport> progression) {
+        verifierFichier(fichier);
+
+        RapportImport rapport = new RapportImport(type, fichier.getName());
+        logger.info("📥 Import {} depuis {} ({} octets)", type.getLibelle(), fichier.getName(), fichier.length());
+
+        WriteActivityMonitor.beginWrite();
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                TraitementLignes traitement = type == TypeImport.CONTREVENANTS
+                        ? new ImportContrevenants(conn, rapport)
+                        : new ImportAffaires(conn, rapport);
+
+                LecteurTabulaire.pour(fichier).parcourir(fichier, (numero, valeurs) -> {
+                    try {
+                        if (!traitement.aEnTete()) {
+                            traitement.lireEnTete(valeurs);
+                            return;
+                        }
+                        rapport.lignesLues++;
+                        traitement.traiter(numero, valeurs);
+                        if (rapport.lignesLues % INTERVALLE_PROGRESSION == 0) {
+                            progression.accept(rapport);
+                        }
+                    } catch (SQLException e) {
+                        throw new ErreurEcriture(e);
+                    }
+                });
+
+                if (!traitement.aEnTete()) {
+                    throw new IllegalArgumentException("Le fichier est vide");
+                }
+                traitement.terminer();
+                conn.commit();
+
+            } catch (ErreurEcriture e) {
+                conn.rollback();
+                throw e.getCause();
+            } catch (IOException | SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (IOException | SQLException e) {
+            logger.error("❌ Import {} interrompu: {}", fichier.getName(), e.getMessage(), e);
+            throw new RuntimeException("Import interrompu: " + e.getMessage(), e);
+        } finally {
+            WriteActivityMonitor.endWrite();
+        }
+
+        rapport.terminer();
+        if (rapport.lignesImportees > 0) {
+            DataVersion.incrementer();
+        }
+        progression.accept(rapport);
+        logger.info("✅ Import {} terminé : {}", fichier.getName(), rapport.resume());
+        return rapport;
+    }
+
+    private void verifierFichier(File fichier) {
+        if (fichier == null || !fichier.isFile()) {
+            throw new IllegalArgumentException("Fichier introuvable: " + fichier);
+        }
+        String nom = fichier.getName().toLowerCase(Locale.ROOT);
+        String format = nom.endsWith(".xlsx") ? "EXCEL" : nom.endsWith(".csv") || nom.endsWith(".txt") ? "CSV" : null;
+        if (format == null || !formatsAutorises.contains(format)) {
+            throw new IllegalArgumentException("Format non autorisé pour l'import: " + fichier.getName()
+                    + " (formats autorisés : " + formatsAutorises + ")");
+        }
+        if (tailleMaxOctets > 0 && fichier.length() > tailleMaxOctets) {
+            throw new IllegalArgumentException("Fichier trop volumineux: " + fichier.length()
+                    + " octets (maximum " + tailleMaxOctets + ")");
+        }
+    }
+
+    // ==================== TRAITEMENTS PAR TYPE ====================
+
+    /**
+     * Validation, résolution et écriture des lignes d'un type d'import
+     */
+    private abstract class TraitementLignes {
+
+        protected final Connection conn;
+        protected final RapportImport rapport;
+        private final TypeImport type;
+        private Map<String, Integer> colonnes;
+
+        TraitementLignes(Connection conn, RapportImport rapport, TypeImport type) {
+            this.conn = conn;
+            this.rapport = rapport;
+            this.type = type;
+        }
+
+        boolean aEnTete() {
+            return colonnes != null;
+        }
+
+        void lireEnTete(String[] valeurs) {
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < valeurs.length; i++) {
+                if (valeurs[i] != null) {
+                    index.putIfAbsent(normaliserEnTete(valeurs[i]), i);
+                }
+            }
+            List<String> manquantes = type.getColonnesObligatoires().stream()
+                    .filter(colonne -> !index.containsKey(colonne))
+                    .toList();
+            if (!manquantes.isEmpty()) {
+                throw new IllegalArgumentException("Colonnes obligatoires absentes : " + manquantes
+                        + " (attendues : " + type.getColonnesObligatoires() + ", optionnelles : "
+                        + type.getColonnesOptionnelles() + ")");
+            }
+            colonnes = index;
+        }
+
+        /**
+         * Valeur d'une colonne, sans espaces superflus ; null si vide ou absente
+         */
+        protected String valeur(String[] valeurs, String colonne) {
+            Integer index = colonnes.get(colonne);
+            if (index == null || index >= valeurs.length || valeurs[index] == null) {
+                return null;
+            }
+            String valeur = valeurs[index].strip();
+            return valeur.isEmpty() ? null : valeur;
+        }
+
+        /**
+         * Valeur obligatoire ; consigne l'erreur et retourne null si absente
+         */
+        protected String obligatoire(long ligne, String[] valeurs, String colonne) {
+            String valeur = valeur(valeurs, colonne);
+            if (valeur == null) {
+                rapport.erreur(ligne, colonne, null, "Valeur obligatoire");
+            }
+            return valeur;
+        }
+
+        abstract void traiter(long ligne, String[] valeurs) throws SQLException;
+
+        abstract void vider() throws SQLException;
+
+        void terminer() throws SQLException {
+            vider();
+        }
+    }
+
+    private final class ImportContrevenants extends TraitementLignes {
+
+        private static final String INSERT_SQL = """
+            INSERT INTO contrevenants (code, nom_complet, type_personne, adresse, telephone, email)
+            VALUES (?, ?, ?, ?, ?, ?)
+        """;
+
+        private final Set<String> codesConnus;
+        private final EcrivainLots ecrivain;
+
+        ImportContrevenants(Connection conn, RapportImport rapport) throws SQLException {
+            super(conn, rapport, TypeImport.CONTREVENANTS);
+            this.codesConnus = new HashSet<>(LegacyMigrationPipeline.chargerIndex(conn,
+                    "SELECT UPPER(code), id FROM contrevenants").keySet());
+            this.ecrivain = new EcrivainLots(conn, INSERT_SQL, rapport);
+        }
+
+        @Override
+        void traiter(long ligne, String[] valeurs) throws SQLException {
+            String code = obligatoire(ligne, valeurs, "code");
+            String nom = obligatoire(ligne, valeurs, "nom_complet");
+            if (code == null || nom == null) {
+                return;
+            }
+            code = code.toUpperCase(Locale.ROOT);
+
+            String type = valeur(valeurs, "type_personne");
+            String adresse = valeur(valeurs, "adresse");
+            String telephone = valeur(valeurs, "telephone");
+            String email = valeur(valeurs, "email");
+
+            // Validation
+            if (type != null) {
+                type = type.toUpperCase(Locale.ROOT);
+                if (!type.equals("PHYSIQUE") && !type.equals("MORALE")) {
+                    rapport.erreur(ligne, "type_personne", type, "Valeur attendue : PHYSIQUE ou MORALE");
+                    return;
+                }
+            }
+            if (validerDonnees) {
+                if (!validationService.isValidCode(code)) {
+                    rapport.erreur(ligne, "code", code, "Code invalide (2 à 20 lettres ou chiffres)");
+                    return;
+                }
+                if (!validationService.isValidString(nom, 2, 200)) {
+                    rapport.erreur(ligne, "nom_complet", nom, "Nom invalide (2 à 200 caractères)");
+                    return;
+                }
+                if (email != null && !validationService.isValidEmail(email)) {
+                    rapport.erreur(ligne, "email", email, "Adresse e-mail invalide");
+                    return;
+                }
+                if (telephone != null && !validationService.isValidTelephone(telephone)) {
+                    rapport.erreur(ligne, "telephone", telephone, "Numéro de téléphone invalide");
+                    return;
+                }
+                nom = validationService.normalizeText(nom);
+            }
+
+            // Résolution : unicité du code (base et fichier)
+            if (!codesConnus.add(code)) {
+                rapport.erreur(ligne, "code", code, "Code contrevenant déjà existant");
+                return;
+            }
+
+            ecrivain.ajouter(ligne, code, nom, type, adresse, telephone, email);
+            if (ecrivain.estPlein()) {
+                vider();
+            }
+        }
+
+        @Override
+        void vider() throws SQLException {
+            rapport.lignesImportees += ecrivain.vider();
+        }
+    }
+
+    private final class ImportAffaires extends TraitementLignes {
+
+        private static final String INSERT_AFFAIRE_SQL = """
+            INSERT INTO affaires (numero_affaire, date_creation, montant_amende_total, statut,
+                                  contrevenant_id, contravention_id, created_at, updated_at, created_by, updated_by)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        // L'id de l'affaire est retrouvé par son numéro (index unique), après l'écriture du lot d'affaires
+        private static final String INSERT_ACTEUR_SQL = """
+            INSERT OR IGNORE INTO affaire_acteurs (affaire_id, agent_id, role_sur_affaire, assigned_by)
+            SELECT id, ?, ?, ? FROM affaires WHERE numero_affaire = ?
+        """;
+
+        private final Map<String, Long> contrevenants;
+        private final Map<String, Long> contraventions;
+        private final Map<String, Long> agents;
+        private final Set<String> numerosConnus;
+        private final EcrivainLots affaires;
+        private final EcrivainLots acteurs;
+        private final String utilisateur;
+        private final Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+
+        ImportAffaires(Connection conn, RapportImport rapport) throws SQLException {
+            super(conn, rapport, TypeImport.AFFAIRES);
+            this.contrevenants = LegacyMigrationPipeline.chargerIndex(conn,
+                    "SELECT UPPER(code), id FROM contrevenants");
+            this.contraventions = LegacyMigrationPipeline.chargerIndex(conn,
+                    "SELECT UPPER(code), id FROM contraventions");
+            this.agents = LegacyMigrationPipeline.chargerIndex(conn,
+                    "SELECT UPPER(code_agent), id FROM agents");
+            this.numerosConnus = new HashSet<>(LegacyMigrationPipeline.chargerIndex(conn,
+                    "SELECT numero_affaire, id FROM affaires").keySet());
+            this.affaires = new EcrivainLots(conn, INSERT_AFFAIRE_SQL, rapport);
+            this.acteurs = new EcrivainLots(conn, INSERT_ACTEUR_SQL, rapport);
+            this.utilisateur = AuthenticationService.getInstance().getCurrentUsername();
+
+            logger.debug("Index préchargés : {} contrevenants, {} contraventions, {} agents, {} affaires",
+                    contrevenants.size(), contraventions.size(), agents.size(), numerosConnus.size());
+        }
+
+        @Override
+        void traiter(long ligne, String[] valeurs) throws SQLException {
+            String numero = obligatoire(ligne, valeurs, "numero_affaire");
+            String dateTexte = obligatoire(ligne, valeurs, "date_creation");
+            String codeContrevenant = obligatoire(ligne, valeurs, "code_contrevenant");
+            String codeContravention = obligatoire(ligne, valeurs, "code_contravention");
+            String montantTexte = obligatoire(ligne, valeurs, "montant_amende");
+            if (numero == null || dateTexte == null || codeContrevenant == null
+                    || codeContravention == null || montantTexte == null) {
+                return;
+            }
+
+            // Validation
+            LocalDate date = parseDate(dateTexte);
+            if (date == null) {
+                rapport.erreur(ligne, "date_creation", dateTexte, "Date invalide (attendu : aaaa-mm-jj ou jj/mm/aaaa)");
+                return;
+            }
+            BigDecimal montant = parseMontant(montantTexte);
+            if (montant == null || !validationService.isValidMontant(montant)) {
+                rapport.erreur(ligne, "montant_amende", montantTexte, "Montant invalide");
+                return;
+            }
+            StatutAffaire statut = StatutAffaire.EN_COURS;
+            String statutTexte = valeur(valeurs, "statut");
+            if (statutTexte != null) {
+                try {
+                    statut = StatutAffaire.valueOf(statutTexte.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    rapport.erreur(ligne, "statut", statutTexte, "Statut inconnu");
+                    return;
+                }
+            }
+            if (validerDonnees) {
+                if (!validationService.isValidNumeroAffaire(numero)) {
+                    rapport.erreur(ligne, "numero_affaire", numero, "Format du numéro d'affaire invalide (attendu : YYMMNNNNN)");
+                    return;
+                }
+                if (!validationService.isValidDate(date)) {
+                    rapport.erreur(ligne, "date_creation", dateTexte, "La date de création ne peut pas être dans le futur");
+                    return;
+                }
+            }
+
+            // Résolution des références
+            Long contrevenantId = contrevenants.get(codeContrevenant.toUpperCase(Locale.ROOT));
+            if (contrevenantId == null) {
+                rapport.erreur(ligne, "code_contrevenant", codeContrevenant, "Contrevenant inconnu");
+                return;
+            }
+            Long contraventionId = contraventions.get(codeContravention.toUpperCase(Locale.ROOT));
+            if (contraventionId == null) {
+                rapport.erreur(ligne, "code_contravention", codeContravention, "Contravention inconnue");
+                return;
+            }
+            Long chefId = resoudreAgent(ligne, valeurs, "code_chef");
+            Long saisissantId = resoudreAgent(ligne, valeurs, "code_saisissant");
+            if (chefId == null && valeur(valeurs, "code_chef") != null
+                    || saisissantId == null && valeur(valeurs, "code_saisissant") != null) {
+                return;
+            }
+            if (!numerosConnus.add(numero)) {
+                rapport.erreur(ligne, "numero_affaire", numero, "Numéro d'affaire déjà existant");
+                return;
+            }
+
+            // Écriture
+            affaires.ajouter(ligne, numero, java.sql.Date.valueOf(date), montant, statut.name(), contrevenantId,
+                    contraventionId, maintenant, maintenant, utilisateur, utilisateur);
+            if (chefId != null) {
+                acteurs.ajouter(ligne, chefId, "CHEF", utilisateur, numero);
+            }
+            if (saisissantId != null) {
+                acteurs.ajouter(ligne, saisissantId, "SAISISSANT", utilisateur, numero);
+            }
+            if (affaires.estPlein()) {
+                vider();
+            }
+        }
+
+        private Long resoudreAgent(long ligne, String[] valeurs, String colonne) {
+            String code = valeur(valeurs, colonne);
+            if (code == null) {
+                return null;
+            }
+            Long id = agents.get(code.toUpperCase(Locale.ROOT));
+            if (id == null) {
+                rapport.erreur(ligne, colonne, code, "Agent inconnu");
+            }
+            return id;
+        }
+
+        @Override
+        void vider() throws SQLException {
+            rapport.lignesImportees += affaires.vider();
+            // Les acteurs référencent les affaires du lot, écrites juste avant
+            acteurs.vider();
+        }
+    }
+
+    // ==================== ÉCRITURE PAR LOTS ====================
+
+    /**
+     * Lot de lignes à insérer avec une requête préparée
+     *
+     * Les paramètres du lot sont conservés (au plus {@link #TAILLE_LOT} lignes) :
+     * si le lot échoue, il est annulé jusqu'au point de sauvegarde puis rejoué
+     * ligne par ligne pour isoler les lignes refusées par la base.
+     */
+    private static final class EcrivainLots {
+
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final RapportImport rapport;
+        private final List<Object[]> parametres = new ArrayList<>(TAILLE_LOT);
+        private final List<Long> lignes = new ArrayList<>(TAILLE_LOT);
+
+        EcrivainLots(Connection conn, String sql, RapportImport rapport) throws SQLException {
+            this.conn = conn;
+            this.stmt = conn.prepareStatement(sql);
+            this.rapport = rapport;
+        }
+
+        void ajouter(long ligne, Object... valeurs) {
+            parametres.add(valeurs);
+            lignes.add(ligne);
+        }
+
+        boolean estPlein() {
+            return parametres.size() >= TAILLE_LOT;
+        }
+
+        /**
+         * Écrit le lot en attente
+         *
+         * @return le nombre de lignes écrites
+         */
+        int vider() throws SQLException {
+            if (parametres.isEmpty()) {
+                return 0;
+            }
+
+            int ecrites;
+            Savepoint pointLot = conn.setSavepoint();
+            try {
+                for (Object[] valeurs : parametres) {
+                    lier(valeurs);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.releaseSavepoint(pointLot);
+                ecrites = parametres.size();
+            } catch (SQLException e) {
+                stmt.clearBatch();
+                conn.rollback(pointLot);
+                logger.debug("Lot refusé ({}), écriture ligne par ligne", e.getMessage());
+                ecrites = rejouer();
+            }
+
+            parametres.clear();
+            lignes.clear();
+            return ecrites;
+        }
+
+        private int rejouer() throws SQLException {
+            int ecrites = 0;
+            for (int i = 0; i < parametres.size(); i++) {
+                Savepoint pointLigne = conn.setSavepoint();
+                try {
+                    lier(parametres.get(i));
+                    stmt.executeUpdate();
+                    conn.releaseSavepoint(pointLigne);
+                    ecrites++;
+                } catch (SQLException e) {
+                    conn.rollback(pointLigne);
+                    rapport.erreur(lignes.get(i), null, null, "Enregistrement refusé par la base: " + e.getMessage());
+                }
+            }
+            return ecrites;
+        }
+
+        private void lier(Object[] valeurs) throws SQLException {
+            for (int i = 0; i < valeurs.length; i++) {
+                stmt.setObject(i + 1, valeurs[i]);
+            }
+        }
+    }
+
+    // ==================== RAPPORT ====================
+
+    /**
+     * Rapport d'import : volumes et erreurs ligne par ligne
+     */
+    public static class RapportImport {
+        private static final int MAX_ERREURS_DETAILLEES = 10_000;
+
+        private final TypeImport type;
+        private final String fichier;
+        private final long debut = System.nanoTime();
+        private long dureeMillis = -1;
+
+        private long lignesLues = 0;
+        private long lignesImportees = 0;
+        private long nombreErreurs = 0;
+        private final Set<Long> lignesEnErreur = new HashSet<>();
+        private final List<ErreurLigne> erreurs = new ArrayList<>();
+
+        /**
+         * Erreur sur une ligne du fichier
+         *
+         * @param colonne Colonne en cause, null si l'erreur porte sur toute la ligne
+         */
+        public record ErreurLigne(long ligne, String colonne, String valeur, String motif) {
+        }
+
+        RapportImport(TypeImport type, String fichier) {
+            this.type = type;
+            this.fichier = fichier;
+        }
+
+        synchronized void erreur(long ligne, String colonne, String valeur, String motif) {
+            nombreErreurs++;
+            if (erreurs.size() < MAX_ERREURS_DETAILLEES) {
+                erreurs.add(new ErreurLigne(ligne, colonne, valeur, motif));
+                lignesEnErreur.add(ligne);
+            }
+        }
+
+        void terminer() {
+            dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+        }
+
+        public TypeImport getType() { return type; }
+        public String getFichier() { return fichier; }
+        public long getLignesLues() { return lignesLues; }
+        public long getLignesImportees() { return lignesImportees; }
+        public long getLignesRejetees() { return lignesLues - lignesImportees; }
+        public synchronized long getNombreErreurs() { return nombreErreurs; }
+        public synchronized List<ErreurLigne> getErreurs() { return new ArrayList<>(erreurs); }
+
+        public long getDureeMillis() {
+            return dureeMillis >= 0 ? dureeMillis : (System.nanoTime() - debut) / 1_000_000;
+        }
+
+        public String resume() {
+            return String.format("%d lues, %d importées, %d rejetées en %d ms (%.0f lignes/s)",
+                    lignesLues, lignesImportees, getLignesRejetees(), getDureeMillis(),
+                    lignesLues * 1000.0 / Math.max(1L, getDureeMillis()));
+        }
+
+        /**
+         * Écrit les erreurs détaillées au format CSV (séparateur ;, UTF-8)
+         */
+        public synchronized void ecrireErreursCsv(File destination) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(destination.toPath(), StandardCharsets.UTF_8)) {
+                writer.write("ligne;colonne;valeur;motif");
+                writer.newLine();
+                for (ErreurLigne erreur : erreurs) {
+                    writer.write(erreur.ligne() + ";" + champCsv(erreur.colonne()) + ";"
+                            + champCsv(erreur.valeur()) + ";" + champCsv(erreur.motif()));
+                    writer.newLine();
+                }
+                if (nombreErreurs > erreurs.size()) {
+                    writer.write(";;;" + champCsv((nombreErreurs - erreurs.size()) + " erreur(s) supplémentaire(s) non détaillée(s)"));
+                    writer.newLine();
+                }
+            }
+        }
+
+        private static String champCsv(String valeur) {
+            if (valeur == null) {
+                return "";
+            }
+            if (valeur.indexOf(';') >= 0 || valeur.indexOf('"') >= 0 || valeur.indexOf('\n') >= 0) {
+                return '"' + valeur.replace("\"", "\"\"") + '"';
+            }
+            return valeur;
+        }
+    }
+
+    // ==================== UTILITAIRES ====================
+
+    /**
+     * Erreur SQL levée depuis le consommateur de lignes du lecteur
+     */
+    private static final class ErreurEcriture extends RuntimeException {
+        ErreurEcriture(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+
+    static String normaliserEnTete(String entete) {
+        String sansAccents = Normalizer.normalize(entete.strip(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return sansAccents.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", "_")
+                .replaceAll("^_+|_+$", "");
+    }
+
+    static LocalDate parseDate(String texte) {
+        String valeur = texte.strip();
+        // Date et heure : ne garder que la date
+        int espace = valeur.indexOf(' ');
+        if (espace > 0) {
+            valeur = valeur.substring(0, espace);
+        }
+        int t = valeur.indexOf('T');
+        if (t > 0) {
+            valeur = valeur.substring(0, t);
+        }
+        for (DateTimeFormatter format : List.of(DateTimeFormatter.ISO_LOCAL_DATE, FORMAT_DATE_FR, FORMAT_DATE_TIRETS)) {
+            try {
+                return LocalDate.parse(valeur, format);
+            } catch (DateTimeParseException e) {
+                // format suivant
+            }
+        }
+        return null;
+    }
+
+    static BigDecimal parseMontant(String texte) {
+        String valeur = texte.replace(" ", "").replace(" ", "").replace(" ", "")
+                .replace("FCFA", "").replace(',', '.');
+        try {
+            return new BigDecimal(valeur);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static long parseTaille(String texte) {
+        String valeur = texte.trim().toUpperCase(Locale.ROOT);
+        long multiplicateur = 1;
+        if (valeur.endsWith("GB") || valeur.endsWith("GO")) {
+            multiplicateur = 1024L * 1024 * 1024;
+        } else if (valeur.endsWith("MB") || valeur.endsWith("MO")) {
+            multiplicateur = 1024L * 1024;
+        } else if (valeur.endsWith("KB") || valeur.endsWith("KO")) {
+            multiplicateur = 1024L;
+        }
+        String nombre = valeur.replaceAll("[^0-9.]", "");
+        try {
+            return (long) (Double.parseDouble(nombre) * multiplicateur);
+        } catch (NumberFormatException e) {
+            logger.warn("import.maxFileSize invalide: {}, aucune limite appliquée", texte);
+            return 0;
+        }
+    }
+}
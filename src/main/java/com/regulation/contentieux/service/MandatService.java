@@ -1,10 +1,12 @@
 package com.regulation.contentieux.service;
 
-import com.regulation.contentieux.config.DatabaseConfig;
 import com.regulation.contentieux.exception.BusinessException;
 import com.regulation.contentieux.model.Mandat;
 import com.regulation.contentieux.model.enums.RoleUtilisateur;
 import com.regulation.contentieux.model.enums.StatutMandat;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.SequencesNumeros;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.sql.Date;
@@ -152,7 +154,7 @@ public class MandatService {
         )
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setDate(1, Date.valueOf(dateDebut));
@@ -183,21 +185,13 @@ public class MandatService {
     private String genererNumeroMandatPourDate(LocalDate date) {
         String prefixe = date.format(DateTimeFormatter.ofPattern(FORMAT_PATTERN)); // yyMM'M'
 
-        String sql = """
-        SELECT numero_mandat FROM mandats 
-        WHERE numero_mandat LIKE ? 
-        ORDER BY numero_mandat DESC 
-        LIMIT 1
-    """;
+        try (Connection conn = TransactionManager.getConnection()) {
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Optional<String> dernier = SequencesNumeros.dernierNumero(conn, SequencesNumeros.Type.MANDAT,
+                    SequencesNumeros.periode(date));
 
-            stmt.setString(1, prefixe + "%");
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                String dernierNumero = rs.getString("numero_mandat");
+            if (dernier.isPresent()) {
+                String dernierNumero = dernier.get();
                 return genererProchainNumero(dernierNumero, prefixe);
             } else {
                 // Premier mandat du mois
@@ -266,7 +260,7 @@ public class MandatService {
     private boolean existeMandatActifEnBase() {
         String sql = "SELECT COUNT(*) FROM mandats WHERE actif = 1 OR statut = 'ACTIF'";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             ResultSet rs = stmt.executeQuery();
@@ -329,7 +323,7 @@ public class MandatService {
         String sql = "UPDATE mandats SET actif = 0, statut = 'EN_ATTENTE', updated_at = CURRENT_TIMESTAMP";
         String sqlActivate = "UPDATE mandats SET actif = 1, statut = 'ACTIF', updated_at = CURRENT_TIMESTAMP WHERE numero_mandat = ?";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+        try (Connection conn = TransactionManager.getConnection()) {
             conn.setAutoCommit(false);
 
             try {
@@ -345,6 +339,7 @@ public class MandatService {
                 }
 
                 conn.commit();
+                DataVersion.signalerEcriture("mandats");
 
                 // Mettre à jour le mandat actif en mémoire
                 mandat.setActif(true);
@@ -433,7 +428,7 @@ public class MandatService {
         WHERE id = ?
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, nouveauNumero);
@@ -447,6 +442,7 @@ public class MandatService {
             if (updated == 0) {
                 throw new BusinessException("Impossible de modifier le mandat");
             }
+            DataVersion.signalerEcriture("mandats");
 
             // Mettre à jour l'objet
             mandat.setNumeroMandat(nouveauNumero);
@@ -482,7 +478,7 @@ public class MandatService {
         )
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, mandatIdExclu);
@@ -547,18 +543,23 @@ public class MandatService {
             WHERE numero_mandat = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, mandatActif.getNumeroMandat());
             stmt.executeUpdate();
+            DataVersion.signalerEcriture("mandats");
 
+            Mandat mandatCloture = mandatActif;
             mandatActif.setStatut(StatutMandat.CLOTURE);
             mandatActif.setActif(false);
             mandatActif = null;
 
             logger.info("✅ Mandat clôturé avec succès");
 
+            // Pré-génération des rapports de la période du mandat
+            RapportSchedulerService.getInstance().declencherClotureMandat(mandatCloture);
+
         } catch (SQLException e) {
             logger.error("Erreur lors de la clôture du mandat", e);
             throw new RuntimeException("Impossible de clôturer le mandat", e);
@@ -583,7 +584,7 @@ public class MandatService {
 
         sql.append(" ORDER BY numero_mandat DESC");
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             int paramIndex = 1;
@@ -628,7 +629,7 @@ public class MandatService {
             )
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, numeroMandat);
@@ -663,21 +664,12 @@ public class MandatService {
         logger.debug("🔍 Génération mandat pour période : {}", prefixe);
 
         // Rechercher le dernier mandat du mois
-        String sql = """
-        SELECT numero_mandat FROM mandats
-        WHERE numero_mandat LIKE ?
-        ORDER BY numero_mandat DESC
-        LIMIT 1
-    """;
-
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = TransactionManager.getConnection()) {
 
-            stmt.setString(1, prefixe + "%");
-            ResultSet rs = stmt.executeQuery();
+            Optional<String> dernier = SequencesNumeros.dernierNumero(conn, SequencesNumeros.Type.MANDAT, yearMonth);
 
-            if (rs.next()) {
-                String lastMandat = rs.getString("numero_mandat");
+            if (dernier.isPresent()) {
+                String lastMandat = dernier.get();
                 return genererProchainNumero(lastMandat, prefixe);
             } else {
                 // Premier mandat du mois
@@ -735,7 +727,7 @@ public class MandatService {
             LIMIT 1
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -761,7 +753,7 @@ public class MandatService {
             VALUES (?, ?, ?, ?, ?, ?, ?, ?)
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, mandat.getNumeroMandat());
@@ -774,6 +766,7 @@ public class MandatService {
             stmt.setString(8, mandat.getCreatedBy());
 
             stmt.executeUpdate();
+            DataVersion.signalerEcriture("mandats");
 
         } catch (SQLException e) {
             logger.error("Erreur lors de la sauvegarde du mandat", e);
@@ -796,7 +789,7 @@ public class MandatService {
             )
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, numeroMandat);
@@ -819,7 +812,7 @@ public class MandatService {
     private Optional<Mandat> findByNumero(String numeroMandat) {
         String sql = "SELECT * FROM mandats WHERE numero_mandat = ?";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, numeroMandat);
@@ -1,13 +1,15 @@
 package com.regulation.contentieux.service;
 
-import com.regulation.contentieux.config.DatabaseConfig;
 import com.regulation.contentieux.exception.BusinessException;
+import com.regulation.contentieux.util.SequencesNumeros;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -60,23 +62,13 @@ public class NumerotationService {
 
             logger.debug("🔢 Génération numéro affaire pour période: {}", yearMonth);
 
-            // Rechercher le dernier numéro du mois en cours
-            String sql = """
-                SELECT numero_affaire 
-                FROM affaires 
-                WHERE numero_affaire LIKE ? 
-                ORDER BY numero_affaire DESC 
-                LIMIT 1
-            """;
+            // Rechercher le dernier numéro du mois en cours (index période/séquence)
+            try (Connection conn = TransactionManager.getConnection()) {
 
-            try (Connection conn = DatabaseConfig.getSQLiteConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Optional<String> dernier = SequencesNumeros.dernierNumero(conn, SequencesNumeros.Type.AFFAIRE, yearMonth);
 
-                stmt.setString(1, yearMonth + "%");
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    String lastNumero = rs.getString("numero_affaire");
+                if (dernier.isPresent()) {
+                    String lastNumero = dernier.get();
                     return genererProchainNumeroAffaire(lastNumero, yearMonth);
                 } else {
                     // Premier numéro du mois
@@ -143,22 +135,12 @@ public class NumerotationService {
             logger.debug("🔢 Génération numéro encaissement pour période: {}", prefixe);
 
             // CORRECTION : Utiliser numero_encaissement au lieu de reference
-            String sql = """
-                SELECT numero_encaissement 
-                FROM encaissements 
-                WHERE numero_encaissement LIKE ? 
-                ORDER BY numero_encaissement DESC 
-                LIMIT 1
-            """;
-
-            try (Connection conn = DatabaseConfig.getSQLiteConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, prefixe + "%");
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    String lastReference = rs.getString("numero_encaissement");
+            try (Connection conn = TransactionManager.getConnection()) {
+
+                Optional<String> dernier = SequencesNumeros.dernierNumero(conn, SequencesNumeros.Type.ENCAISSEMENT, yearMonth);
+
+                if (dernier.isPresent()) {
+                    String lastReference = dernier.get();
                     return genererProchainNumeroEncaissement(lastReference, prefixe);
                 } else {
                     // Premier encaissement du mois
@@ -223,22 +205,12 @@ public class NumerotationService {
 
             logger.debug("🔢 Génération numéro mandat pour période: {}", prefixe);
 
-            String sql = """
-                SELECT numero_mandat 
-                FROM mandats 
-                WHERE numero_mandat LIKE ? 
-                ORDER BY numero_mandat DESC 
-                LIMIT 1
-            """;
-
-            try (Connection conn = DatabaseConfig.getSQLiteConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = TransactionManager.getConnection()) {
 
-                stmt.setString(1, prefixe + "%");
-                ResultSet rs = stmt.executeQuery();
+                Optional<String> dernier = SequencesNumeros.dernierNumero(conn, SequencesNumeros.Type.MANDAT, yearMonth);
 
-                if (rs.next()) {
-                    String lastNumero = rs.getString("numero_mandat");
+                if (dernier.isPresent()) {
+                    String lastNumero = dernier.get();
                     return genererProchainNumeroMandat(lastNumero, prefixe);
                 } else {
                     // Premier mandat du mois
@@ -315,7 +287,7 @@ public class NumerotationService {
             ORDER BY numero_affaire
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -369,7 +341,7 @@ public class NumerotationService {
             ORDER BY numero_encaissement
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -422,7 +394,7 @@ public class NumerotationService {
             ORDER BY numero_mandat
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -491,7 +463,7 @@ public class NumerotationService {
             WHERE numero_affaire REGEXP '^[0-9]{9}$'
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -523,7 +495,7 @@ public class NumerotationService {
             WHERE numero_encaissement REGEXP '^[0-9]{4}R[0-9]{5}$'
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -554,7 +526,7 @@ public class NumerotationService {
             WHERE numero_mandat REGEXP '^[0-9]{4}M[0-9]{4}$'
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
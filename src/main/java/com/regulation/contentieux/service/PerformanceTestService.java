@@ -3,6 +3,8 @@ package com.regulation.contentieux.service;
 import com.regulation.contentieux.dao.*;
 import com.regulation.contentieux.model.*;
 import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.model.enums.StatutEncaissement;
+import com.regulation.contentieux.util.AuditPlansRequetes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,6 +79,9 @@ public class PerformanceTestService {
             // 6. Test de calculs de répartition
             report.setRepartitionTest(testerCalculsRepartition());
 
+            // 7. Audit des plans d'exécution
+            report.setPlansTest(testerPlansRequetes());
+
             report.setEndTime(LocalDateTime.now());
             report.calculateOverallResult();
 
@@ -396,6 +401,91 @@ public class PerformanceTestService {
         }
     }
 
+    /**
+     * Audit des plans d'exécution des requêtes DAO (EXPLAIN QUERY PLAN)
+     * Critère : aucun parcours complet de table hors recherche libre
+     */
+    public TestResult testerPlansRequetes() {
+        logger.info("🧭 Audit des plans d'exécution...");
+
+        try {
+            long startTime = System.currentTimeMillis();
+
+            List<AuditPlansRequetes.PlanRequete> plans = AuditPlansRequetes.auditer(capturerRequetesScenario());
+            List<AuditPlansRequetes.PlanRequete> anomalies = plans.stream()
+                    .filter(AuditPlansRequetes.PlanRequete::anomalie)
+                    .toList();
+            long trisTemporaires = plans.stream().filter(AuditPlansRequetes.PlanRequete::triTemporaire).count();
+
+            long duration = System.currentTimeMillis() - startTime;
+
+            TestResult result = new TestResult();
+            result.setTestName("Plans d'exécution");
+            result.setDuration(duration);
+            result.setRecordCount(plans.size());
+            result.setSuccess(anomalies.isEmpty());
+            result.setCriterion("Aucun parcours complet hors recherche libre");
+            result.setDetails(String.format("Parcours complets: %d %s, tris temporaires: %d",
+                    anomalies.size(),
+                    anomalies.stream().flatMap(p -> p.parcoursComplets().stream()).distinct().toList(),
+                    trisTemporaires));
+
+            if (result.isSuccess()) {
+                logger.info("✅ Audit des plans RÉUSSI: {} requêtes", plans.size());
+            } else {
+                logger.warn("❌ Audit des plans ÉCHOUÉ: {} parcours complets", anomalies.size());
+                anomalies.forEach(p -> logger.warn("   {} -> {}", p.parcoursComplets(), p.sql()));
+            }
+
+            return result;
+
+        } catch (Exception e) {
+            logger.error("❌ Erreur lors de l'audit des plans", e);
+            TestResult errorResult = new TestResult();
+            errorResult.setTestName("Plans d'exécution");
+            errorResult.setSuccess(false);
+            errorResult.setErrorMessage(e.getMessage());
+            return errorResult;
+        }
+    }
+
+    /**
+     * Joue les accès DAO des écrans et des rapports et relève les requêtes
+     * préparées ; un appel en échec n'interrompt pas le relevé
+     */
+    public Set<String> capturerRequetesScenario() {
+        LocalDate debut = LocalDate.now().minusMonths(1);
+        LocalDate fin = LocalDate.now();
+
+        List<Runnable> appels = List.of(
+                () -> affaireDAO.findLignesListe(null, null, null, null, null, 0, 50),
+                () -> affaireDAO.findLignesListe("2025", null, debut, fin, null, 0, 50),
+                () -> affaireDAO.countSearchAffaires(null, null, null, null, null),
+                () -> affaireDAO.findByPeriod(debut, fin),
+                () -> encaissementDAO.findLignesListe(null, null, debut, fin, null, 0, 50),
+                () -> encaissementDAO.findByAffaireId(1L),
+                () -> encaissementDAO.findByPeriodAndStatut(debut, fin, StatutEncaissement.VALIDE),
+                () -> agentDAO.findLignesListe(null, null, null, null, 0, 50),
+                () -> agentDAO.findChefsWithDDDG(1L),
+                () -> contrevenantDAO.findLignesListe(null, null, 0, 50),
+                () -> MandatService.getInstance().getStatistiques(""),
+                () -> rapportService.genererSituationGenerale(debut, fin),
+                () -> rapportService.genererDonneesEtatCumuleParAgent(debut, fin),
+                () -> rapportService.genererDonneesMandatementAgents(debut, fin),
+                () -> rapportService.genererDonneesTableauAmendesParServices(debut, fin)
+        );
+
+        return AuditPlansRequetes.capturer(() -> {
+            for (Runnable appel : appels) {
+                try {
+                    appel.run();
+                } catch (Exception e) {
+                    logger.debug("Appel du scénario d'audit en échec: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
     // ==================== MÉTHODES UTILITAIRES ====================
 
     /**
@@ -435,6 +525,7 @@ public class PerformanceTestService {
         private TestResult numerotationTest;
         private TestResult rechercheTest;
         private TestResult repartitionTest;
+        private TestResult plansTest;
         private TestResult overallResult;
         private String errorMessage;
 
@@ -444,7 +535,7 @@ public class PerformanceTestService {
 
             List<TestResult> tests = Arrays.asList(
                     chargementTest, concurrenceTest, rapportsTest,
-                    numerotationTest, rechercheTest, repartitionTest
+                    numerotationTest, rechercheTest, repartitionTest, plansTest
             );
 
             boolean allSuccess = tests.stream()
@@ -488,6 +579,9 @@ public class PerformanceTestService {
         public TestResult getRepartitionTest() { return repartitionTest; }
         public void setRepartitionTest(TestResult repartitionTest) { this.repartitionTest = repartitionTest; }
 
+        public TestResult getPlansTest() { return plansTest; }
+        public void setPlansTest(TestResult plansTest) { this.plansTest = plansTest; }
+
         public TestResult getOverallResult() { return overallResult; }
         public void setOverallResult(TestResult overallResult) { this.overallResult = overallResult; }
 
@@ -503,7 +597,7 @@ public class PerformanceTestService {
 
             List<TestResult> tests = Arrays.asList(
                     chargementTest, concurrenceTest, rapportsTest,
-                    numerotationTest, rechercheTest, repartitionTest
+                    numerotationTest, rechercheTest, repartitionTest, plansTest
             );
 
             for (TestResult test : tests) {
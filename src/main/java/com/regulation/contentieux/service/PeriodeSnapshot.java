@@ -0,0 +1,226 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.dao.AffaireDAO;
+import com.regulation.contentieux.dao.EncaissementDAO;
+import com.regulation.contentieux.dao.EncaissementPeriodeDAO;
+import com.regulation.contentieux.dao.EncaissementPeriodeDAO.LigneEncaissementPeriode;
+import com.regulation.contentieux.model.Affaire;
+import com.regulation.contentieux.model.Bureau;
+import com.regulation.contentieux.model.Contravention;
+import com.regulation.contentieux.model.Contrevenant;
+import com.regulation.contentieux.model.Encaissement;
+import com.regulation.contentieux.model.Service;
+import com.regulation.contentieux.util.DataVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Instantané en mémoire des données d'une période, partagé par plusieurs rapports
+ *
+ * - Encaissements de la période chargés une seule fois
+ * - Affaires concernées chargées en une requête et indexées par ID
+ * - Lignes compactes encaissement + affaire chargées à la première demande
+ * - Partagé par des générateurs parallèles : les entités conservées ne sortent
+ *   jamais de l'instantané, chaque lecture reçoit ses propres copies
+ *
+ * La version des données est relevée avant le chargement : un résultat calculé
+ * sur un instantané devenu périmé n'est jamais conservé par {@link RapportCache}.
+ */
+public final class PeriodeSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeriodeSnapshot.class);
+
+    private final LocalDate dateDebut;
+    private final LocalDate dateFin;
+    private final long version;
+    private final List<Encaissement> encaissements;
+    private final Map<Long, Affaire> affairesParId;
+    private volatile List<LigneEncaissementPeriode> lignes;
+
+    private PeriodeSnapshot(LocalDate dateDebut, LocalDate dateFin, long version,
+                            List<Encaissement> encaissements, Map<Long, Affaire> affairesParId) {
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.version = version;
+        this.encaissements = encaissements;
+        this.affairesParId = affairesParId;
+    }
+
+    /**
+     * Charge les données de la période : deux requêtes au total
+     */
+    public static PeriodeSnapshot charger(LocalDate dateDebut, LocalDate dateFin) {
+        long debut = System.nanoTime();
+        long version = DataVersion.getVersion();
+
+        List<Encaissement> encaissements = new EncaissementDAO().findByPeriod(dateDebut, dateFin);
+        List<Affaire> affaires = new AffaireDAO().findAffairesEncaisseesParPeriode(dateDebut, dateFin);
+
+        Map<Long, Affaire> parId = new HashMap<>(affaires.size() * 2);
+        for (Affaire affaire : affaires) {
+            parId.put(affaire.getId(), affaire);
+        }
+
+        logger.info("📦 Instantané {} → {} : {} encaissements, {} affaires en {} ms",
+                dateDebut, dateFin, encaissements.size(), parId.size(), (System.nanoTime() - debut) / 1_000_000);
+
+        return new PeriodeSnapshot(dateDebut, dateFin, version,
+                Collections.unmodifiableList(encaissements), Collections.unmodifiableMap(parId));
+    }
+
+    /**
+     * Vrai si l'instantané correspond exactement à la période demandée
+     */
+    public boolean couvre(LocalDate debut, LocalDate fin) {
+        return dateDebut.equals(debut) && dateFin.equals(fin);
+    }
+
+    /**
+     * Vrai si aucune écriture n'a eu lieu depuis le chargement
+     */
+    public boolean estAJour() {
+        return version == DataVersion.getVersion();
+    }
+
+    public LocalDate getDateDebut() {
+        return dateDebut;
+    }
+
+    public LocalDate getDateFin() {
+        return dateFin;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Copies des encaissements de la période, propres à l'appelant
+     */
+    public List<Encaissement> getEncaissements() {
+        List<Encaissement> copies = new ArrayList<>(encaissements.size());
+        for (Encaissement encaissement : encaissements) {
+            copies.add(copier(encaissement));
+        }
+        return copies;
+    }
+
+    /**
+     * Lignes encaissement + affaire de la période (requête unique, mémorisée)
+     */
+    public List<LigneEncaissementPeriode> getLignes() {
+        List<LigneEncaissementPeriode> resultat = lignes;
+        if (resultat == null) {
+            synchronized (this) {
+                resultat = lignes;
+                if (resultat == null) {
+                    resultat = Collections.unmodifiableList(new EncaissementPeriodeDAO().charger(dateDebut, dateFin));
+                    lignes = resultat;
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Copie de l'affaire complète d'un encaissement de la période, null si hors instantané
+     */
+    public Affaire getAffaire(Long affaireId) {
+        Affaire affaire = affaireId != null ? affairesParId.get(affaireId) : null;
+        return affaire != null ? copier(affaire) : null;
+    }
+
+    // Copies des champs renseignés par EncaissementDAO et AffaireDAO
+
+    private static Encaissement copier(Encaissement source) {
+        Encaissement copie = new Encaissement();
+        copie.setId(source.getId());
+        copie.setReference(source.getReference());
+        copie.setDateEncaissement(source.getDateEncaissement());
+        copie.setMontantEncaisse(source.getMontantEncaisse());
+        copie.setModeReglement(source.getModeReglement());
+        copie.setNumeroPiece(source.getNumeroPiece());
+        copie.setBanque(source.getBanque());
+        copie.setBanqueId(source.getBanqueId());
+        copie.setObservations(source.getObservations());
+        copie.setStatut(source.getStatut());
+        copie.setCreatedBy(source.getCreatedBy());
+        copie.setCreatedAt(source.getCreatedAt());
+        copie.setUpdatedBy(source.getUpdatedBy());
+        copie.setUpdatedAt(source.getUpdatedAt());
+        copie.setValidatedBy(source.getValidatedBy());
+        copie.setValidatedAt(source.getValidatedAt());
+        if (source.getAffaire() != null) {
+            copie.setAffaire(copier(source.getAffaire()));
+        }
+        return copie;
+    }
+
+    private static Affaire copier(Affaire source) {
+        Affaire copie = new Affaire();
+        copie.setId(source.getId());
+        copie.setNumeroAffaire(source.getNumeroAffaire());
+        copie.setDateCreation(source.getDateCreation());
+        copie.setDateConstatation(source.getDateConstatation());
+        copie.setLieuConstatation(source.getLieuConstatation());
+        copie.setDescription(source.getDescription());
+        copie.setMontantTotal(source.getMontantTotal());
+        copie.setMontantEncaisse(source.getMontantEncaisse());
+        copie.setMontantAmendeTotal(source.getMontantAmendeTotal());
+        copie.setStatut(source.getStatut());
+        copie.setObservations(source.getObservations());
+        copie.setCreatedBy(source.getCreatedBy());
+        copie.setCreatedAt(source.getCreatedAt());
+        copie.setUpdatedBy(source.getUpdatedBy());
+        copie.setUpdatedAt(source.getUpdatedAt());
+
+        if (source.getContrevenant() != null) {
+            Contrevenant contrevenant = new Contrevenant();
+            contrevenant.setId(source.getContrevenant().getId());
+            contrevenant.setCode(source.getContrevenant().getCode());
+            contrevenant.setTypePersonne(source.getContrevenant().getTypePersonne());
+            contrevenant.setNomComplet(source.getContrevenant().getNomComplet());
+            contrevenant.setAdresse(source.getContrevenant().getAdresse());
+            contrevenant.setTelephone(source.getContrevenant().getTelephone());
+            contrevenant.setEmail(source.getContrevenant().getEmail());
+            copie.setContrevenant(contrevenant);
+        }
+        if (source.getBureau() != null) {
+            Bureau bureau = new Bureau();
+            bureau.setId(source.getBureau().getId());
+            bureau.setCodeBureau(source.getBureau().getCodeBureau());
+            bureau.setNomBureau(source.getBureau().getNomBureau());
+            copie.setBureau(bureau);
+        }
+        if (source.getService() != null) {
+            Service service = new Service();
+            service.setId(source.getService().getId());
+            service.setCodeService(source.getService().getCodeService());
+            service.setNomService(source.getService().getNomService());
+            copie.setService(service);
+        }
+        if (source.getContraventions() != null) {
+            List<Contravention> contraventions = new ArrayList<>(source.getContraventions().size());
+            for (Contravention origine : source.getContraventions()) {
+                Contravention contravention = new Contravention();
+                contravention.setId(origine.getId());
+                contravention.setCode(origine.getCode());
+                contravention.setLibelle(origine.getLibelle());
+                contravention.setDescription(origine.getDescription());
+                contravention.setMontant(origine.getMontant());
+                contraventions.add(contravention);
+            }
+            copie.setContraventions(contraventions);
+        }
+
+        // Après les relations : leurs setters recopient l'ID de l'entité liée
+        copie.setContrevenantId(source.getContrevenantId());
+        copie.setContraventionId(source.getContraventionId());
+        copie.setBureauId(source.getBureauId());
+        copie.setServiceId(source.getServiceId());
+        return copie;
+    }
+}
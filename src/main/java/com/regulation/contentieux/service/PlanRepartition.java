@@ -0,0 +1,119 @@
+package com.regulation.contentieux.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Version compilée et immuable d'un jeu de règles de répartition
+ *
+ * Les taux sont convertis une fois pour toutes en fractions exactes pour le
+ * {@link CalculateurRepartition} ; une instance est partagée par tous les
+ * calculs de sa période de validité.
+ *
+ * Les quotes-parts des centres (base et indicateur) alimentent l'état cumulé
+ * par centre de répartition ; elles s'appliquent au montant encaissé.
+ */
+public final class PlanRepartition {
+
+    private final int version;
+    private final String libelle;
+    private final LocalDate dateDebut;
+    private final LocalDate dateFin;
+
+    private final BigDecimal tauxIndicateur;
+    private final BigDecimal tauxFLCF;
+    private final BigDecimal tauxTresor;
+    private final BigDecimal tauxChefs;
+    private final BigDecimal tauxSaisissants;
+    private final BigDecimal tauxMutuelle;
+    private final BigDecimal tauxMasseCommune;
+    private final BigDecimal tauxInteressement;
+
+    private final BigDecimal tauxBaseCentre;
+    private final BigDecimal tauxIndicateurCentre;
+
+    private final CalculateurRepartition calculateur;
+
+    public PlanRepartition(int version, String libelle, LocalDate dateDebut, LocalDate dateFin,
+                           BigDecimal tauxIndicateur, BigDecimal tauxFLCF, BigDecimal tauxTresor,
+                           BigDecimal tauxChefs, BigDecimal tauxSaisissants, BigDecimal tauxMutuelle,
+                           BigDecimal tauxMasseCommune, BigDecimal tauxInteressement,
+                           BigDecimal tauxBaseCentre, BigDecimal tauxIndicateurCentre) {
+        this.version = version;
+        this.libelle = libelle;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.tauxIndicateur = tauxIndicateur;
+        this.tauxFLCF = tauxFLCF;
+        this.tauxTresor = tauxTresor;
+        this.tauxChefs = tauxChefs;
+        this.tauxSaisissants = tauxSaisissants;
+        this.tauxMutuelle = tauxMutuelle;
+        this.tauxMasseCommune = tauxMasseCommune;
+        this.tauxInteressement = tauxInteressement;
+        this.tauxBaseCentre = tauxBaseCentre;
+        this.tauxIndicateurCentre = tauxIndicateurCentre;
+
+        valider();
+        this.calculateur = new CalculateurRepartition(tauxIndicateur, tauxFLCF, tauxTresor, tauxChefs,
+                tauxSaisissants, tauxMutuelle, tauxMasseCommune, tauxInteressement);
+    }
+
+    /**
+     * Vrai si la date est dans la période de validité (bornes incluses, fin ouverte si null)
+     */
+    public boolean couvre(LocalDate date) {
+        return !date.isBefore(dateDebut) && (dateFin == null || !date.isAfter(dateFin));
+    }
+
+    private void valider() {
+        if (dateDebut == null) {
+            throw new IllegalArgumentException("Date de début de validité obligatoire");
+        }
+        if (dateFin != null && dateFin.isBefore(dateDebut)) {
+            throw new IllegalArgumentException("La date de fin précède la date de début");
+        }
+        for (BigDecimal taux : new BigDecimal[]{tauxIndicateur, tauxFLCF, tauxTresor, tauxChefs,
+                tauxSaisissants, tauxMutuelle, tauxMasseCommune, tauxInteressement,
+                tauxBaseCentre, tauxIndicateurCentre}) {
+            if (taux == null || taux.signum() < 0 || taux.compareTo(BigDecimal.ONE) > 0) {
+                throw new IllegalArgumentException("Taux hors de [0, 1]: " + taux);
+            }
+        }
+        if (tauxFLCF.add(tauxTresor).compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("FLCF + Trésor dépasse 100%");
+        }
+        BigDecimal niveau2 = tauxChefs.add(tauxSaisissants).add(tauxMutuelle)
+                .add(tauxMasseCommune).add(tauxInteressement);
+        if (niveau2.compareTo(BigDecimal.ONE) != 0) {
+            throw new IllegalArgumentException("Les taux du niveau 2 doivent totaliser 100% (" + niveau2 + ")");
+        }
+        if (tauxBaseCentre.add(tauxIndicateurCentre).compareTo(BigDecimal.ONE) > 0) {
+            throw new IllegalArgumentException("Base + indicateur des centres dépasse 100%");
+        }
+    }
+
+    public CalculateurRepartition getCalculateur() { return calculateur; }
+
+    public int getVersion() { return version; }
+    public String getLibelle() { return libelle; }
+    public LocalDate getDateDebut() { return dateDebut; }
+    public LocalDate getDateFin() { return dateFin; }
+
+    public BigDecimal getTauxIndicateur() { return tauxIndicateur; }
+    public BigDecimal getTauxFLCF() { return tauxFLCF; }
+    public BigDecimal getTauxTresor() { return tauxTresor; }
+    public BigDecimal getTauxChefs() { return tauxChefs; }
+    public BigDecimal getTauxSaisissants() { return tauxSaisissants; }
+    public BigDecimal getTauxMutuelle() { return tauxMutuelle; }
+    public BigDecimal getTauxMasseCommune() { return tauxMasseCommune; }
+    public BigDecimal getTauxInteressement() { return tauxInteressement; }
+    public BigDecimal getTauxBaseCentre() { return tauxBaseCentre; }
+    public BigDecimal getTauxIndicateurCentre() { return tauxIndicateurCentre; }
+
+    @Override
+    public String toString() {
+        return "v" + version + " " + (libelle != null ? libelle : "") + " (" + dateDebut + " → "
+                + (dateFin != null ? dateFin : "…") + ")";
+    }
+}
@@ -0,0 +1,342 @@
+package com.regulation.contentieux.service;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.regulation.contentieux.model.Centre;
+import com.regulation.contentieux.model.enums.TypeRapport;
+import com.regulation.contentieux.util.Annulation;
+import com.regulation.contentieux.util.DataVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache des rapports calculés : données (DTO) et HTML rendu
+ *
+ * - Clé : type de rapport, période et version des données ({@link DataVersion})
+ * - Une écriture sur une table lue par les rapports change la version :
+ *   les entrées antérieures ne sont plus jamais servies et sont purgées
+ * - Les données sont conservées sérialisées : chaque appelant reçoit sa propre
+ *   copie du DTO et peut la trier ou la compléter sans altérer le cache
+ * - Éviction LRU bornée en nombre d'entrées et en octets réellement conservés
+ * - Calculs concurrents d'une même clé mutualisés (un seul calcul par clé)
+ */
+public class RapportCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RapportCache.class);
+    private static RapportCache instance;
+
+    // Sérialisation champ à champ des DTO (getters calculés ignorés)
+    private static final ObjectMapper COPIEUR = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .annotationIntrospector(new CopieIntrospector())
+            .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    /**
+     * Les annotations Jackson des modèles visent l'export JSON (parents ignorés,
+     * dates à la seconde) ; la copie les ignore et omet seulement les listes
+     * d'enfants des modèles, cycliques et jamais lues par les rapports
+     */
+    private static final class CopieIntrospector extends JacksonAnnotationIntrospector {
+
+        @Override
+        public boolean hasIgnoreMarker(AnnotatedMember membre) {
+            return membre.getDeclaringClass().getPackageName().equals(Centre.class.getPackageName())
+                    && Collection.class.isAssignableFrom(membre.getRawType());
+        }
+
+        @Override
+        public JsonFormat.Value findFormat(Annotated annotated) {
+            return JsonFormat.Value.empty();
+        }
+    }
+
+    public record Cle(TypeRapport type, LocalDate dateDebut, LocalDate dateFin, long version) {
+    }
+
+    private static final class Entree {
+        final Class<?> classe;
+        final byte[] donnees;
+        volatile String html;
+
+        Entree(Class<?> classe, byte[] donnees) {
+            this.classe = classe;
+            this.donnees = donnees;
+        }
+
+        /**
+         * Sérialise le DTO ; null s'il n'est pas copiable (jamais mis en cache)
+         */
+        static Entree de(Object donnees) {
+            try {
+                return new Entree(donnees.getClass(), COPIEUR.writeValueAsBytes(donnees));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("⚠️ Données {} non copiables, rapport non mis en cache : {}",
+                        donnees.getClass().getSimpleName(), e.getMessage());
+                return null;
+            }
+        }
+
+        Object copie() {
+            try {
+                return COPIEUR.readValue(donnees, classe);
+            } catch (IOException e) {
+                throw new RuntimeException("Copie des données en cache impossible : " + classe.getSimpleName(), e);
+            }
+        }
+
+        long taille() {
+            String rendu = html;
+            return donnees.length + (rendu != null ? 2L * rendu.length() : 0L);
+        }
+    }
+
+    /**
+     * Entrée lue et données propres à l'appelant : l'instance qu'il vient de
+     * calculer, sinon une copie désérialisée à la demande
+     */
+    private record Lecture(Entree entree, Object calculees) {
+
+        Object donnees() {
+            return calculees != null || entree == null ? calculees : entree.copie();
+        }
+    }
+
+    private final int maxEntrees;
+    private final long maxOctets;
+
+    // Ordre d'accès : la première entrée est la moins récemment utilisée
+    private final LinkedHashMap<Cle, Entree> entrees = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<Cle, CompletableFuture<Entree>> calculsEnCours = new ConcurrentHashMap<>();
+    private long octetsUtilises = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    private RapportCache() {
+        ConfigurationService config = ConfigurationService.getInstance();
+        this.maxEntrees = Math.max(1, Integer.parseInt(config.getProperty("reports.cache.maxEntries", "32").trim()));
+        this.maxOctets = Math.max(1, Long.parseLong(config.getProperty("reports.cache.maxMegabytes", "64").trim())) * 1024 * 1024;
+    }
+
+    public static synchronized RapportCache getInstance() {
+        if (instance == null) {
+            instance = new RapportCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Données du rapport, calculées au plus une fois par version des données
+     */
+    public Object getDonnees(TypeRapport type, LocalDate debut, LocalDate fin, Supplier<Object> generateur) {
+        return getDonnees(type, debut, fin, DataVersion.getVersion(), generateur);
+    }
+
+    /**
+     * Données du rapport pour une version des données donnée (ex. : instantané de période) ;
+     * un résultat d'une version dépassée est retourné mais jamais conservé.
+     * L'objet retourné appartient à l'appelant.
+     */
+    public Object getDonnees(TypeRapport type, LocalDate debut, LocalDate fin, long version,
+                             Supplier<Object> generateur) {
+        return lire(new Cle(type, debut, fin, version), generateur).donnees();
+    }
+
+    /**
+     * HTML du rapport, rendu au plus une fois à partir des données en cache
+     */
+    public String getHtml(TypeRapport type, LocalDate debut, LocalDate fin,
+                          Supplier<Object> generateur, Function<Object, String> rendu) {
+        return getHtml(type, debut, fin, DataVersion.getVersion(), generateur, rendu);
+    }
+
+    /**
+     * HTML du rapport pour une version des données donnée
+     */
+    public String getHtml(TypeRapport type, LocalDate debut, LocalDate fin, long version,
+                          Supplier<Object> generateur, Function<Object, String> rendu) {
+        Cle cle = new Cle(type, debut, fin, version);
+        Lecture lecture = lire(cle, generateur);
+        Entree entree = lecture.entree();
+        if (entree == null) {
+            return rendu.apply(lecture.calculees());
+        }
+
+        String html = entree.html;
+        if (html == null) {
+            synchronized (entree) {
+                html = entree.html;
+                if (html == null) {
+                    html = rendu.apply(lecture.donnees());
+                    synchronized (this) {
+                        // L'entrée a grossi : réévaluer la mémoire occupée
+                        entree.html = html;
+                        if (entrees.get(cle) == entree) {
+                            octetsUtilises += 2L * html.length();
+                            evincer();
+                        }
+                    }
+                }
+            }
+        }
+        return html;
+    }
+
+    /**
+     * HTML déjà rendu et en cache pour cette version, sans déclencher de calcul
+     */
+    public synchronized Optional<String> getHtmlEnCache(TypeRapport type, LocalDate debut, LocalDate fin, long version) {
+        Entree entree = entrees.get(new Cle(type, debut, fin, version));
+        if (entree == null || entree.html == null) {
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(entree.html);
+    }
+
+    /**
+     * Vide le cache
+     */
+    public synchronized void vider() {
+        entrees.clear();
+        octetsUtilises = 0;
+        logger.debug("🗑️ Cache des rapports vidé");
+    }
+
+    public synchronized int getNombreEntrees() {
+        return entrees.size();
+    }
+
+    public synchronized long getOctetsUtilises() {
+        return octetsUtilises;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // ==================== INTERNES ====================
+
+    private Lecture lire(Cle cle, Supplier<Object> generateur) {
+        synchronized (this) {
+            Entree entree = entrees.get(cle);
+            if (entree != null) {
+                hits++;
+                return new Lecture(entree, null);
+            }
+            misses++;
+        }
+
+        CompletableFuture<Entree> calcul = new CompletableFuture<>();
+        CompletableFuture<Entree> existant = calculsEnCours.putIfAbsent(cle, calcul);
+        if (existant != null) {
+            // Même rapport en cours de calcul sur un autre thread : attendre son résultat
+            try {
+                Entree entree = attendre(existant);
+                // Résultat vide ou non copiable : non partageable, calculé pour cet appelant
+                return entree != null ? new Lecture(entree, null) : new Lecture(null, generateur.get());
+            } catch (CancellationException e) {
+                if (Annulation.estAnnule()) {
+                    throw e;
+                }
+                // Calcul abandonné par le demandeur initial : le reprendre pour cet appelant
+                return lire(cle, generateur);
+            }
+        }
+
+        try {
+            long debut = System.nanoTime();
+            Object donnees = generateur.get();
+            // Résultat d'une génération annulée : potentiellement partiel, jamais conservé
+            Annulation.verifier();
+            logger.debug("📊 Rapport {} {} → {} calculé en {} ms (version {})", cle.type(),
+                    cle.dateDebut(), cle.dateFin(), (System.nanoTime() - debut) / 1_000_000, cle.version());
+
+            // Sérialisé avant de rendre la main : le cache ne partage jamais l'instance calculée
+            Entree entree = donnees != null ? Entree.de(donnees) : null;
+
+            // Un résultat vide ou calculé pendant une écriture n'est pas conservé
+            if (entree != null && cle.version() == DataVersion.getVersion()) {
+                stocker(cle, entree);
+            }
+            calcul.complete(entree);
+            return new Lecture(entree, donnees);
+        } catch (RuntimeException e) {
+            calcul.completeExceptionally(e);
+            throw e;
+        } finally {
+            calculsEnCours.remove(cle, calcul);
+        }
+    }
+
+    private synchronized void stocker(Cle cle, Entree entree) {
+        // Les entrées d'une version antérieure ne seront plus jamais demandées
+        Iterator<Map.Entry<Cle, Entree>> it = entrees.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Cle, Entree> e = it.next();
+            if (e.getKey().version() < cle.version()) {
+                octetsUtilises -= e.getValue().taille();
+                it.remove();
+            }
+        }
+
+        Entree precedente = entrees.put(cle, entree);
+        if (precedente != null) {
+            octetsUtilises -= precedente.taille();
+        }
+        octetsUtilises += entree.taille();
+        evincer();
+    }
+
+    private void evincer() {
+        Iterator<Map.Entry<Cle, Entree>> it = entrees.entrySet().iterator();
+        while ((entrees.size() > maxEntrees || octetsUtilises > maxOctets) && entrees.size() > 1 && it.hasNext()) {
+            Map.Entry<Cle, Entree> lru = it.next();
+            octetsUtilises -= lru.getValue().taille();
+            it.remove();
+            logger.debug("♻️ Rapport évincé du cache: {}", lru.getKey());
+        }
+    }
+
+    private static Entree attendre(CompletableFuture<Entree> calcul) {
+        try {
+            return calcul.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Attente du rapport interrompue");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
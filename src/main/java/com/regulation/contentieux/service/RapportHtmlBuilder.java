@@ -45,53 +45,24 @@ public class RapportHtmlBuilder {
         logger.info("🔨 Construction HTML pour {}", type);
 
         try {
-            Object data = null;
-            String templateName = "";
-
-            switch (type) {
-                case ETAT_REPARTITION_AFFAIRES:
-                    data = rapportService.genererDonneesEtatRepartitionAffaires(dateDebut, dateFin);
-                    templateName = "template1_repartition_affaires";
-                    break;
-
-                case ETAT_MANDATEMENT:
-                    data = rapportService.genererDonneesEtatMandatement(dateDebut, dateFin); // <-- Avec "Donnees" et "Etat"
-                    templateName = "template2_mandatement";
-                    break;
-
-                case CENTRE_REPARTITION:
-                    data = rapportService.genererDonneesCentreRepartition(dateDebut, dateFin);
-                    templateName = "template3_centre_repartition";
-                    break;
-
-                case INDICATEURS_REELS:
-                    data = rapportService.genererDonneesIndicateursReels(dateDebut, dateFin);
-                    templateName = "template4_indicateurs_reels";
-                    break;
-
-                case REPARTITION_PRODUIT:
-                    data = rapportService.genererDonneesRepartitionProduit(dateDebut, dateFin);
-                    templateName = "template5_repartition_produit";
-                    break;
-
-                case ETAT_CUMULE_AGENT:
-                    data = rapportService.genererDonneesEtatCumuleParAgent(dateDebut, dateFin); // <-- genererDonneesCumuleParAgent
-                    templateName = "template6_cumule_agent";
-                    break;
-
-                case TABLEAU_AMENDES_SERVICE:
-                    data = rapportService.genererTableauAmendesParServices(dateDebut, dateFin); // <-- genererTableauAmendesParServices
-                    templateName = "template7_amendes_services";
-                    break;
-
-                case MANDATEMENT_AGENTS:
-                    data = rapportService.genererDonneesMandatementAgents(dateDebut, dateFin);
-                    templateName = "template8_mandatement_agents";
-                    break;
-
-                default:
-                    logger.error("Type de rapport non géré: {}", type);
-                    return "<html><body><h1>Type de rapport non supporté</h1></body></html>";
+            return buildHtml(type, dateDebut, dateFin, getDataForType(type, dateDebut, dateFin));
+        } catch (Exception e) {
+            logger.error("❌ Erreur génération HTML pour {}", type, e);
+            return generateErrorHtml(type, dateDebut, dateFin, e);
+        }
+    }
+
+    /**
+     * Génère le HTML à partir de données déjà calculées (aucun accès base)
+     *
+     * @param data DTO retourné par la méthode genererDonnees* correspondant au type
+     */
+    public String buildHtml(TypeRapport type, LocalDate dateDebut, LocalDate dateFin, Object data) {
+        try {
+            String templateName = getTemplateName(type);
+            if (templateName == null) {
+                logger.error("Type de rapport non géré: {}", type);
+                return "<html><body><h1>Type de rapport non supporté</h1></body></html>";
             }
 
             if (data == null) {
@@ -119,6 +90,23 @@ public class RapportHtmlBuilder {
         }
     }
 
+    /**
+     * Nom du template HTML associé au type de rapport
+     */
+    private String getTemplateName(TypeRapport type) {
+        return switch (type) {
+            case ETAT_REPARTITION_AFFAIRES -> "template1_repartition_affaires";
+            case ETAT_MANDATEMENT -> "template2_mandatement";
+            case CENTRE_REPARTITION -> "template3_centre_repartition";
+            case INDICATEURS_REELS -> "template4_indicateurs_reels";
+            case REPARTITION_PRODUIT -> "template5_repartition_produit";
+            case ETAT_CUMULE_AGENT -> "template6_cumule_agent";
+            case TABLEAU_AMENDES_SERVICE -> "template7_amendes_service";
+            case MANDATEMENT_AGENTS -> "template8_mandatement_agents";
+            default -> null;
+        };
+    }
+
     /**
      * Récupère les données selon le type de rapport
      */
@@ -250,6 +238,10 @@ public class RapportHtmlBuilder {
             context.put("nombreServices", amendes.getServices() != null ? amendes.getServices().size() : 0);
             context.put("totalGeneral", amendes.getTotalGeneral());
             context.put("nombreTotalAffaires", amendes.getNombreTotalAffaires());
+            context.put("montantTotalEncaisse", amendes.getMontantTotalEncaisse());
+            context.put("montantRestantDu", amendes.getMontantRestantDu());
+            context.put("totauxParBureau", RapportService.TableauAmendesParServicesDTO.enLignes(amendes.getTotauxParBureau()));
+            context.put("totauxParCentre", RapportService.TableauAmendesParServicesDTO.enLignes(amendes.getTotauxParCentre()));
         }
 
         // Ajouter une variable de vérification
@@ -0,0 +1,243 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.model.enums.TypeRapport;
+import com.regulation.contentieux.util.WriteActivityMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pack de fin de mois : génération des huit rapports d'une même période
+ *
+ * - Les encaissements et affaires de la période sont chargés une seule fois
+ *   dans un {@link PeriodeSnapshot} partagé
+ * - Les générateurs s'exécutent en parallèle sur un pool fork/join
+ *   (parallélisme borné par performance.maxThreads)
+ * - Chaque rapport est écrit en HTML, PDF et XLSX dans reports.outputDirectory
+ *   et conservé dans {@link RapportCache}
+ *
+ * La durée est dominée par les exports PDF, qui se disputent CPU et mémoire :
+ * le gain du parallélisme dépend du poste (performance.maxThreads à ajuster).
+ */
+public class RapportPackService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RapportPackService.class);
+
+    private static final DateTimeFormatter FORMAT_FICHIER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    /**
+     * État d'avancement du pack, publié après chaque rapport terminé
+     */
+    public record Progression(int total, int termines, int echecs, TypeRapport dernier) {
+
+        public double getPourcentage() {
+            return total == 0 ? 1.0 : (double) termines / total;
+        }
+
+        public boolean isTermine() {
+            return termines >= total;
+        }
+    }
+
+    /**
+     * Écouteur de progression ; appelé depuis les threads du pool
+     * (passer par Platform.runLater pour mettre à jour l'interface)
+     */
+    @FunctionalInterface
+    public interface ProgressionListener {
+        void onProgression(Progression progression);
+    }
+
+    /**
+     * Résultat d'un rapport du pack
+     */
+    public record ResultatRapport(TypeRapport type, File html, File pdf, File xlsx, long dureeMillis, String erreur) {
+
+        public boolean isSucces() {
+            return erreur == null;
+        }
+    }
+
+    /**
+     * Résultat du pack complet
+     */
+    public record ResultatPack(LocalDate dateDebut, LocalDate dateFin, Path repertoire,
+                               List<ResultatRapport> rapports, long dureeMillis) {
+
+        public long getNombreEchecs() {
+            return rapports.stream().filter(r -> !r.isSucces()).count();
+        }
+    }
+
+    private final int parallelisme;
+    private final boolean bassePriorite;
+    private final long silenceMillis;
+
+    public RapportPackService() {
+        this(Integer.parseInt(
+                ConfigurationService.getInstance().getProperty("performance.maxThreads", "10").trim()), false, 0);
+    }
+
+    /**
+     * @param parallelisme  Nombre maximal de rapports générés simultanément
+     * @param bassePriorite Threads de priorité minimale (pré-génération en tâche de fond)
+     * @param silenceMillis Si > 0, chaque rapport attend que l'interface n'ait plus écrit
+     *                      depuis ce délai avant de démarrer (voir {@link WriteActivityMonitor})
+     */
+    public RapportPackService(int parallelisme, boolean bassePriorite, long silenceMillis) {
+        this.parallelisme = Math.max(1, Math.min(TypeRapport.values().length, parallelisme));
+        this.bassePriorite = bassePriorite;
+        this.silenceMillis = silenceMillis;
+    }
+
+    /**
+     * Génère les huit rapports de la période
+     */
+    public ResultatPack genererPack(LocalDate dateDebut, LocalDate dateFin, ProgressionListener listener) {
+        return genererPack(dateDebut, dateFin, EnumSet.allOf(TypeRapport.class), listener);
+    }
+
+    /**
+     * Génère les rapports demandés de la période (tous si la sélection est vide)
+     */
+    public ResultatPack genererPack(LocalDate dateDebut, LocalDate dateFin, Set<TypeRapport> typesDemandes,
+                                    ProgressionListener listener) {
+        ProgressionListener ecouteur = listener != null ? listener : p -> { };
+        TypeRapport[] types = (typesDemandes == null || typesDemandes.isEmpty()
+                ? EnumSet.allOf(TypeRapport.class) : EnumSet.copyOf(typesDemandes)).toArray(new TypeRapport[0]);
+        long debut = System.nanoTime();
+        logger.info("🚀 Pack de rapports {} → {} : {} rapport(s) (parallélisme {})",
+                dateDebut, dateFin, types.length, parallelisme);
+
+        Path repertoire = preparerRepertoire(dateDebut, dateFin);
+
+        // Données partagées : chargées une fois avant de lancer les générateurs
+        PeriodeSnapshot snapshot = PeriodeSnapshot.charger(dateDebut, dateFin);
+        ReferentielCache.getInstance().getServices();
+        ReferentielCache.getInstance().getContraventions();
+        new HierarchieOrganisationnelleService().getArbre();
+
+        RapportService rapportService = new RapportService(snapshot);
+        AtomicInteger termines = new AtomicInteger();
+        AtomicInteger echecs = new AtomicInteger();
+        Map<TypeRapport, ResultatRapport> resultats = new ConcurrentHashMap<>();
+
+        ecouteur.onProgression(new Progression(types.length, 0, 0, null));
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelisme, types.length),
+                this::creerThread, null, false);
+        try {
+            List<ForkJoinTask<?>> taches = new ArrayList<>(types.length);
+            for (TypeRapport type : types) {
+                taches.add(pool.submit(() -> {
+                    ResultatRapport resultat = genererRapport(rapportService, type, dateDebut, dateFin, repertoire);
+                    resultats.put(type, resultat);
+                    int echecsCourants = resultat.isSucces() ? echecs.get() : echecs.incrementAndGet();
+                    ecouteur.onProgression(new Progression(types.length, termines.incrementAndGet(), echecsCourants, type));
+                }));
+            }
+            taches.forEach(ForkJoinTask::join);
+        } finally {
+            pool.shutdown();
+        }
+
+        List<ResultatRapport> rapports = new ArrayList<>(types.length);
+        for (TypeRapport type : types) {
+            rapports.add(resultats.get(type));
+        }
+
+        ResultatPack pack = new ResultatPack(dateDebut, dateFin, repertoire, rapports,
+                (System.nanoTime() - debut) / 1_000_000);
+        logger.info("✅ Pack {} → {} terminé en {} ms : {} rapport(s), {} échec(s)", dateDebut, dateFin,
+                pack.dureeMillis(), rapports.size(), pack.getNombreEchecs());
+        return pack;
+    }
+
+    private ResultatRapport genererRapport(RapportService rapportService, TypeRapport type,
+                                           LocalDate dateDebut, LocalDate dateFin, Path repertoire) {
+        long debut = System.nanoTime();
+        try {
+            attendreSilence(type);
+            Object donnees = rapportService.getDonneesRapport(type, dateDebut, dateFin);
+            String html = rapportService.getHtmlRapport(type, dateDebut, dateFin);
+
+            String base = nomFichier(type, dateDebut, dateFin);
+            ExportService exportService = new ExportService();
+
+            File fichierHtml = repertoire.resolve(base + ".html").toFile();
+            Files.writeString(fichierHtml.toPath(), html, StandardCharsets.UTF_8);
+
+            File pdf = repertoire.resolve(base + ".pdf").toFile();
+            if (!exportService.exportToPdf(html, pdf.getAbsolutePath())) {
+                pdf = null;
+            }
+            File xlsx = repertoire.resolve(base + ".xlsx").toFile();
+            if (!exportService.exportGenericToExcel(donnees, xlsx.getAbsolutePath())) {
+                xlsx = null;
+            }
+
+            long duree = (System.nanoTime() - debut) / 1_000_000;
+            logger.debug("📄 {} généré en {} ms", type, duree);
+            return new ResultatRapport(type, fichierHtml, pdf, xlsx, duree, pdf == null ? "Échec de l'export PDF" : null);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResultatRapport(type, null, null, null, (System.nanoTime() - debut) / 1_000_000, "Interrompu");
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Erreur génération {} dans le pack", type, e);
+            return new ResultatRapport(type, null, null, null, (System.nanoTime() - debut) / 1_000_000, e.getMessage());
+        }
+    }
+
+    /**
+     * Pré-génération : cède la place aux écritures de l'interface entre deux rapports
+     */
+    private void attendreSilence(TypeRapport type) throws InterruptedException {
+        if (silenceMillis <= 0) {
+            return;
+        }
+        while (!WriteActivityMonitor.awaitQuiet(silenceMillis, 60_000)) {
+            logger.debug("⏸️ {} en attente : écritures en cours", type);
+        }
+    }
+
+    private ForkJoinWorkerThread creerThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("rapport-pack-" + thread.getPoolIndex());
+        if (bassePriorite) {
+            thread.setPriority(Thread.MIN_PRIORITY);
+        }
+        return thread;
+    }
+
+    private Path preparerRepertoire(LocalDate dateDebut, LocalDate dateFin) {
+        String racine = ConfigurationService.getInstance().getProperty("reports.outputDirectory", "reports/");
+        Path repertoire = Paths.get(racine.trim(),
+                "pack_" + dateDebut.format(FORMAT_FICHIER) + "_" + dateFin.format(FORMAT_FICHIER));
+        try {
+            Files.createDirectories(repertoire);
+        } catch (IOException e) {
+            throw new RuntimeException("Impossible de créer le répertoire " + repertoire, e);
+        }
+        return repertoire;
+    }
+
+    private static String nomFichier(TypeRapport type, LocalDate dateDebut, LocalDate dateFin) {
+        return String.format("%02d_%s_%s_%s", type.getNumeroTemplate(), type.name().toLowerCase(),
+                dateDebut.format(FORMAT_FICHIER), dateFin.format(FORMAT_FICHIER));
+    }
+}
@@ -0,0 +1,223 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.model.enums.TypeRapport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Index des rapports pré-générés sur disque, persisté dans SQLite
+ *
+ * Chaque rapport est associé à une empreinte des données qu'il lit :
+ * - encaissements de la période (volumes, montants, dernière modification)
+ * - compteurs d'écriture des autres tables lues par les rapports (affaires,
+ *   acteurs, mandats, résultats de répartition, référentiels, agents…),
+ *   incrémentés par des déclencheurs SQLite, donc aussi par les écritures
+ *   faites hors de l'application (synchronisation, restauration)
+ * - version des règles de répartition en mémoire
+ *
+ * Un fichier n'est servi que si l'empreinte courante est identique : une
+ * écriture intervenue depuis la génération rend le fichier obsolète, y compris
+ * après un redémarrage.
+ */
+public class RapportPregenereStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RapportPregenereStore.class);
+
+    private static final String CREATE_TABLE_SQL = """
+        CREATE TABLE IF NOT EXISTS rapports_pregeneres (
+            type_rapport TEXT NOT NULL,
+            date_debut DATE NOT NULL,
+            date_fin DATE NOT NULL,
+            empreinte TEXT NOT NULL,
+            chemin_html TEXT,
+            chemin_pdf TEXT,
+            chemin_xlsx TEXT,
+            genere_le DATETIME DEFAULT CURRENT_TIMESTAMP,
+            PRIMARY KEY (type_rapport, date_debut, date_fin)
+        )
+    """;
+
+    private static final String CREATE_VERSIONS_SQL = """
+        CREATE TABLE IF NOT EXISTS rapports_versions_donnees (
+            table_name TEXT PRIMARY KEY,
+            version INTEGER NOT NULL DEFAULT 0
+        )
+    """;
+
+    /**
+     * Tables lues par les rapports, hors encaissements (suivis par période)
+     */
+    static final List<String> TABLES_VERSIONNEES = List.of(
+            "affaires", "affaire_acteurs", "affaire_contraventions", "affaires_centres",
+            "mandats", "repartition_resultats", "repartition_details", "regles_repartition", "roles_speciaux",
+            "agents", "contrevenants", "contraventions", "centres", "services", "bureaux", "banques");
+
+    private static final String EMPREINTE_SQL = """
+        SELECT
+            (SELECT COUNT(*) || ':' || IFNULL(SUM(montant_encaisse), 0) || ':'
+                    || IFNULL(MAX(updated_at), '') || ':' || IFNULL(SUM(statut = 'VALIDE'), 0)
+             FROM encaissements WHERE date_encaissement BETWEEN ? AND ?)
+            || '|' ||
+            (SELECT IFNULL(GROUP_CONCAT(table_name || '=' || version, ','), '')
+             FROM (SELECT table_name, version FROM rapports_versions_donnees ORDER BY table_name))
+    """;
+
+    /**
+     * Emplacement d'un rapport pré-généré
+     */
+    public record RapportPregenere(TypeRapport type, LocalDate dateDebut, LocalDate dateFin,
+                                   String empreinte, String cheminHtml, String cheminPdf, String cheminXlsx) {
+    }
+
+    /**
+     * Empreinte courante des données d'une période
+     */
+    public String calculerEmpreinte(LocalDate dateDebut, LocalDate dateFin) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(EMPREINTE_SQL)) {
+            stmt.setDate(1, Date.valueOf(dateDebut));
+            stmt.setDate(2, Date.valueOf(dateFin));
+            try (ResultSet rs = stmt.executeQuery()) {
+                String donnees = rs.next() ? rs.getString(1) : "";
+                return donnees + "|" + RegleRepartitionService.getInstance().getEmpreinte();
+            }
+        }
+    }
+
+    /**
+     * Enregistre (ou remplace) un rapport pré-généré
+     */
+    public void enregistrer(TypeRapport type, LocalDate dateDebut, LocalDate dateFin, String empreinte,
+                            File html, File pdf, File xlsx) throws SQLException {
+        String sql = """
+            INSERT INTO rapports_pregeneres
+                (type_rapport, date_debut, date_fin, empreinte, chemin_html, chemin_pdf, chemin_xlsx, genere_le)
+            VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT(type_rapport, date_debut, date_fin) DO UPDATE SET
+                empreinte = excluded.empreinte,
+                chemin_html = excluded.chemin_html,
+                chemin_pdf = excluded.chemin_pdf,
+                chemin_xlsx = excluded.chemin_xlsx,
+                genere_le = excluded.genere_le
+        """;
+
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, type.name());
+            stmt.setDate(2, Date.valueOf(dateDebut));
+            stmt.setDate(3, Date.valueOf(dateFin));
+            stmt.setString(4, empreinte);
+            stmt.setString(5, chemin(html));
+            stmt.setString(6, chemin(pdf));
+            stmt.setString(7, chemin(xlsx));
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Rapport pré-généré encore valide pour la période, s'il existe
+     */
+    public Optional<RapportPregenere> trouverValide(TypeRapport type, LocalDate dateDebut, LocalDate dateFin) {
+        try {
+            String sql = """
+                SELECT empreinte, chemin_html, chemin_pdf, chemin_xlsx FROM rapports_pregeneres
+                WHERE type_rapport = ? AND date_debut = ? AND date_fin = ?
+            """;
+
+            RapportPregenere rapport = null;
+            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, type.name());
+                stmt.setDate(2, Date.valueOf(dateDebut));
+                stmt.setDate(3, Date.valueOf(dateFin));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        rapport = new RapportPregenere(type, dateDebut, dateFin, rs.getString(1),
+                                rs.getString(2), rs.getString(3), rs.getString(4));
+                    }
+                }
+            }
+
+            if (rapport == null || !rapport.empreinte().equals(calculerEmpreinte(dateDebut, dateFin))) {
+                return Optional.empty();
+            }
+            return Optional.of(rapport);
+
+        } catch (SQLException e) {
+            logger.warn("⚠️ Index des rapports pré-générés indisponible: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * HTML pré-généré encore valide pour la période, s'il existe
+     */
+    public Optional<String> chargerHtml(TypeRapport type, LocalDate dateDebut, LocalDate dateFin) {
+        Optional<RapportPregenere> rapport = trouverValide(type, dateDebut, dateFin);
+        if (rapport.isEmpty() || rapport.get().cheminHtml() == null) {
+            return Optional.empty();
+        }
+
+        Path fichier = Path.of(rapport.get().cheminHtml());
+        try {
+            String html = Files.readString(fichier, StandardCharsets.UTF_8);
+            logger.debug("📂 Rapport {} {} → {} servi depuis {}", type, dateDebut, dateFin, fichier);
+            return Optional.of(html);
+        } catch (IOException e) {
+            logger.debug("Fichier pré-généré illisible {}: {}", fichier, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String chemin(File fichier) {
+        return fichier != null ? fichier.getAbsolutePath() : null;
+    }
+
+    /**
+     * Crée l'index des rapports pré-générés et les compteurs d'écriture des
+     * tables lues par les rapports, avec leurs déclencheurs
+     * (appelé à l'initialisation du schéma, sur la connexion de {@link DatabaseConfig})
+     */
+    public static void preparerSchema(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+            stmt.execute(CREATE_VERSIONS_SQL);
+        } catch (SQLException e) {
+            logger.warn("⚠️ Index des rapports pré-générés non créé: {}", e.getMessage());
+            return;
+        }
+
+        for (String table : TABLES_VERSIONNEES) {
+            try (Statement stmt = conn.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery(
+                        "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+                    if (!rs.next() || rs.getInt(1) == 0) {
+                        continue;
+                    }
+                }
+                stmt.execute("INSERT OR IGNORE INTO rapports_versions_donnees (table_name, version) VALUES ('"
+                        + table + "', 0)");
+                for (String evenement : List.of("INSERT", "UPDATE", "DELETE")) {
+                    stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_version_"
+                            + evenement.toLowerCase() + " AFTER " + evenement + " ON " + table + " BEGIN"
+                            + " UPDATE rapports_versions_donnees SET version = version + 1"
+                            + " WHERE table_name = '" + table + "';"
+                            + " END");
+                }
+            } catch (SQLException e) {
+                logger.warn("⚠️ Compteur d'écriture non créé pour {}: {}", table, e.getMessage());
+            }
+        }
+    }
+}
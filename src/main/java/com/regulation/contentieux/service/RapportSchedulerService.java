@@ -0,0 +1,491 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.model.Mandat;
+import com.regulation.contentieux.model.enums.TypeRapport;
+import com.regulation.contentieux.util.WriteActivityMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pré-génération planifiée des rapports
+ *
+ * - Programmations persistées dans la table rapports_programmes
+ * - Déclencheurs : mensuel (jour et heure du mois, rapports du mois précédent)
+ *   ou clôture de mandat (rapports de la période du mandat)
+ * - Exécution sur un thread de fond de priorité minimale, uniquement lorsque
+ *   l'interface n'écrit pas (voir {@link WriteActivityMonitor}) : vérifié avant
+ *   chaque programmation et avant chaque rapport d'un pack
+ * - Résultats conservés dans {@link RapportCache} et sur disque
+ *   (voir {@link RapportPregenereStore})
+ *
+ * Une programmation échue pendant que l'application était fermée est
+ * exécutée au premier cycle suivant le démarrage.
+ */
+public class RapportSchedulerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RapportSchedulerService.class);
+    private static RapportSchedulerService instance;
+
+    private static final long STARTUP_DELAY_SECONDS = 30;
+
+    private static final String CREATE_TABLE_SQL = """
+        CREATE TABLE IF NOT EXISTS rapports_programmes (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            libelle TEXT NOT NULL,
+            declencheur TEXT NOT NULL,
+            jour_du_mois INTEGER NOT NULL DEFAULT 1,
+            heure INTEGER NOT NULL DEFAULT 0,
+            types TEXT NOT NULL DEFAULT '',
+            actif INTEGER NOT NULL DEFAULT 1,
+            prochaine_execution TEXT,
+            periode_debut TEXT,
+            periode_fin TEXT,
+            derniere_execution TEXT,
+            dernier_statut TEXT,
+            dernier_message TEXT,
+            created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+        )
+    """;
+
+    /**
+     * Événement déclenchant une programmation
+     */
+    public enum Declencheur {
+        MENSUEL("Mensuel"),
+        CLOTURE_MANDAT("Clôture de mandat");
+
+        private final String libelle;
+
+        Declencheur(String libelle) {
+            this.libelle = libelle;
+        }
+
+        public String getLibelle() {
+            return libelle;
+        }
+    }
+
+    /**
+     * Programmation de pré-génération ; types vide = les huit rapports
+     */
+    public record RapportProgramme(Long id, String libelle, Declencheur declencheur, int jourDuMois, int heure,
+                                   Set<TypeRapport> types, boolean actif, LocalDateTime prochaineExecution,
+                                   LocalDate periodeDebut, LocalDate periodeFin, LocalDateTime derniereExecution,
+                                   String dernierStatut, String dernierMessage) {
+
+        public boolean estEchue(LocalDateTime maintenant) {
+            return actif && prochaineExecution != null && !prochaineExecution.isAfter(maintenant);
+        }
+
+        @Override
+        public String toString() {
+            String quand = declencheur == Declencheur.MENSUEL
+                    ? String.format("le %d du mois à %02dh", jourDuMois, heure)
+                    : "à la clôture du mandat";
+            return String.format("%s%s — %s, %s%s", actif ? "" : "[inactif] ", libelle, quand,
+                    types.isEmpty() ? "tous les rapports" : types.size() + " rapport(s)",
+                    dernierStatut != null ? " — dernier : " + dernierStatut : "");
+        }
+    }
+
+    private final RapportPregenereStore pregenereStore = new RapportPregenereStore();
+    private final boolean enabled;
+    private final long checkIntervalSeconds;
+    private final long quietMillis;
+    private final int parallelisme;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean tableVerifiee = false;
+    private volatile boolean cycleEnCours = false;
+    private volatile RapportPackService.Progression progression = null;
+
+    private RapportSchedulerService() {
+        ConfigurationService config = ConfigurationService.getInstance();
+        this.enabled = Boolean.parseBoolean(config.getProperty("reports.scheduler.enabled", "true").trim());
+        this.checkIntervalSeconds = Math.max(30,
+                Long.parseLong(config.getProperty("reports.scheduler.checkInterval", "300").trim()));
+        this.quietMillis = Long.parseLong(config.getProperty("reports.scheduler.quietMillis", "10000").trim());
+        this.parallelisme = Math.max(1, Integer.parseInt(config.getProperty("reports.scheduler.threads", "2").trim()));
+    }
+
+    public static synchronized RapportSchedulerService getInstance() {
+        if (instance == null) {
+            instance = new RapportSchedulerService();
+        }
+        return instance;
+    }
+
+    /**
+     * Démarre la vérification périodique des programmations
+     */
+    public synchronized void start() {
+        if (!enabled) {
+            logger.info("ℹ️ Pré-génération des rapports désactivée (reports.scheduler.enabled=false)");
+            return;
+        }
+        if (executor != null) {
+            return;
+        }
+
+        try {
+            ensureTable();
+            creerProgrammationsParDefaut();
+        } catch (SQLException e) {
+            logger.error("❌ Table des programmations de rapports indisponible", e);
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rapport-scheduler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::executerCycle, STARTUP_DELAY_SECONDS, checkIntervalSeconds, TimeUnit.SECONDS);
+
+        logger.info("⏱️ Pré-génération des rapports planifiée (vérification toutes les {} s)", checkIntervalSeconds);
+    }
+
+    /**
+     * Arrête le planificateur ; une génération en cours est interrompue
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public boolean isCycleEnCours() {
+        return cycleEnCours;
+    }
+
+    /**
+     * Progression de la génération en cours (null si aucune)
+     */
+    public RapportPackService.Progression getProgression() {
+        return progression;
+    }
+
+    // ==================== PROGRAMMATIONS ====================
+
+    /**
+     * Liste toutes les programmations
+     */
+    public List<RapportProgramme> listerProgrammes() {
+        try {
+            ensureTable();
+            List<RapportProgramme> programmes = new ArrayList<>();
+            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM rapports_programmes ORDER BY id")) {
+                while (rs.next()) {
+                    programmes.add(mapProgramme(rs));
+                }
+            }
+            return programmes;
+        } catch (SQLException e) {
+            logger.error("Erreur lors du chargement des programmations de rapports", e);
+            throw new RuntimeException("Impossible de charger les programmations", e);
+        }
+    }
+
+    /**
+     * Crée une programmation ; une programmation mensuelle prend effet à sa prochaine
+     * échéance (utiliser {@link #executerMaintenant(Long)} pour une exécution immédiate)
+     */
+    public RapportProgramme ajouterProgramme(String libelle, Declencheur declencheur, int jourDuMois, int heure,
+                                             Set<TypeRapport> types) {
+        int jour = Math.max(1, Math.min(31, jourDuMois));
+        int h = Math.max(0, Math.min(23, heure));
+        LocalDateTime prochaine = declencheur == Declencheur.MENSUEL
+                ? prochaineOccurrence(jour, h, LocalDateTime.now()) : null;
+
+        String sql = """
+            INSERT INTO rapports_programmes (libelle, declencheur, jour_du_mois, heure, types, actif, prochaine_execution)
+            VALUES (?, ?, ?, ?, ?, 1, ?)
+        """;
+
+        try {
+            ensureTable();
+            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, libelle);
+                stmt.setString(2, declencheur.name());
+                stmt.setInt(3, jour);
+                stmt.setInt(4, h);
+                stmt.setString(5, typesVersTexte(types));
+                stmt.setString(6, texte(prochaine));
+                stmt.executeUpdate();
+
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    Long id = keys.next() ? keys.getLong(1) : null;
+                    logger.info("📅 Programmation de rapports créée : {} ({})", libelle, declencheur.getLibelle());
+                    return new RapportProgramme(id, libelle, declencheur, jour, h,
+                            types != null ? Set.copyOf(types) : Set.of(), true, prochaine,
+                            null, null, null, null, null);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la création de la programmation", e);
+            throw new RuntimeException("Impossible de créer la programmation", e);
+        }
+    }
+
+    /**
+     * Active ou désactive une programmation
+     */
+    public void definirActif(Long id, boolean actif) {
+        executerMiseAJour("UPDATE rapports_programmes SET actif = ? WHERE id = ?", actif ? 1 : 0, id);
+    }
+
+    /**
+     * Supprime une programmation
+     */
+    public void supprimerProgramme(Long id) {
+        executerMiseAJour("DELETE FROM rapports_programmes WHERE id = ?", id);
+    }
+
+    /**
+     * Rend une programmation immédiatement échue et lance un cycle
+     */
+    public void executerMaintenant(Long id) {
+        executerMiseAJour("UPDATE rapports_programmes SET prochaine_execution = ? WHERE id = ?",
+                texte(LocalDateTime.now()), id);
+        declencherCycle();
+    }
+
+    /**
+     * Déclencheur de clôture de mandat : les programmations concernées deviennent
+     * échues pour la période du mandat (persisté, survit à un redémarrage)
+     */
+    public void declencherClotureMandat(Mandat mandat) {
+        if (mandat == null || mandat.getDateDebut() == null) {
+            return;
+        }
+        LocalDate fin = mandat.getDateFin() != null ? mandat.getDateFin() : LocalDate.now();
+
+        int programmes = executerMiseAJour("""
+                UPDATE rapports_programmes
+                SET periode_debut = ?, periode_fin = ?, prochaine_execution = ?
+                WHERE declencheur = ? AND actif = 1
+                """, mandat.getDateDebut().toString(), fin.toString(), texte(LocalDateTime.now()),
+                Declencheur.CLOTURE_MANDAT.name());
+
+        if (programmes > 0) {
+            logger.info("📅 Clôture du mandat {} : {} programmation(s) de rapports déclenchée(s)",
+                    mandat.getNumeroMandat(), programmes);
+            declencherCycle();
+        }
+    }
+
+    // ==================== EXÉCUTION ====================
+
+    private synchronized void declencherCycle() {
+        if (executor != null) {
+            executor.execute(this::executerCycle);
+        }
+    }
+
+    /**
+     * Cycle : exécute les programmations échues tant que l'interface n'écrit pas
+     */
+    private void executerCycle() {
+        if (cycleEnCours) {
+            return;
+        }
+        cycleEnCours = true;
+        try {
+            LocalDateTime maintenant = LocalDateTime.now();
+            for (RapportProgramme programme : listerProgrammes()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                if (!programme.estEchue(maintenant)) {
+                    continue;
+                }
+                if (WriteActivityMonitor.isBusy(quietMillis)) {
+                    logger.debug("⏸️ Pré-génération reportée (écritures en cours)");
+                    return;
+                }
+                executerProgramme(programme);
+            }
+        } catch (RuntimeException e) {
+            logger.error("❌ Erreur inattendue du cycle de pré-génération", e);
+        } finally {
+            cycleEnCours = false;
+            progression = null;
+        }
+    }
+
+    private void executerProgramme(RapportProgramme programme) {
+        LocalDate debut;
+        LocalDate fin;
+        if (programme.declencheur() == Declencheur.MENSUEL) {
+            YearMonth mois = YearMonth.from(programme.prochaineExecution()).minusMonths(1);
+            debut = mois.atDay(1);
+            fin = mois.atEndOfMonth();
+        } else {
+            debut = programme.periodeDebut();
+            fin = programme.periodeFin();
+        }
+
+        String statut;
+        String message;
+        if (debut == null || fin == null) {
+            statut = "ECHEC";
+            message = "Période indéterminée";
+        } else {
+            logger.info("🗓️ Pré-génération « {} » : {} → {}", programme.libelle(), debut, fin);
+            try {
+                // Empreinte relevée avant le calcul : une écriture concurrente invalide le résultat
+                String empreinte = pregenereStore.calculerEmpreinte(debut, fin);
+
+                RapportPackService.ResultatPack pack = new RapportPackService(parallelisme, true, quietMillis)
+                        .genererPack(debut, fin, programme.types(), p -> progression = p);
+
+                for (RapportPackService.ResultatRapport rapport : pack.rapports()) {
+                    if (rapport.isSucces()) {
+                        pregenereStore.enregistrer(rapport.type(), debut, fin, empreinte,
+                                rapport.html(), rapport.pdf(), rapport.xlsx());
+                    }
+                }
+
+                statut = pack.getNombreEchecs() == 0 ? "SUCCES" : "PARTIEL";
+                message = String.format("%d rapport(s) en %d ms dans %s",
+                        pack.rapports().size() - pack.getNombreEchecs(), pack.dureeMillis(), pack.repertoire());
+            } catch (SQLException | RuntimeException e) {
+                logger.error("❌ Échec de la pré-génération « {} »", programme.libelle(), e);
+                statut = "ECHEC";
+                message = e.getMessage();
+            }
+        }
+
+        LocalDateTime prochaine = programme.declencheur() == Declencheur.MENSUEL
+                ? prochaineOccurrence(programme.jourDuMois(), programme.heure(), LocalDateTime.now())
+                : null;
+
+        executerMiseAJour("""
+                UPDATE rapports_programmes
+                SET derniere_execution = ?, dernier_statut = ?, dernier_message = ?, prochaine_execution = ?
+                WHERE id = ?
+                """, texte(LocalDateTime.now()), statut, message, texte(prochaine), programme.id());
+
+        logger.info("✅ Pré-génération « {} » : {} - {}", programme.libelle(), statut, message);
+    }
+
+    // ==================== INTERNES ====================
+
+    private void creerProgrammationsParDefaut() throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM rapports_programmes")) {
+            if (rs.next() && rs.getLong(1) > 0) {
+                return;
+            }
+        }
+        ajouterProgramme("Rapports mensuels", Declencheur.MENSUEL, 1, 0, Set.of());
+        ajouterProgramme("Rapports de clôture de mandat", Declencheur.CLOTURE_MANDAT, 1, 0, Set.of());
+    }
+
+    /**
+     * Prochaine échéance mensuelle strictement postérieure à la référence
+     */
+    static LocalDateTime prochaineOccurrence(int jourDuMois, int heure, LocalDateTime reference) {
+        LocalDateTime candidate = occurrenceDuMois(YearMonth.from(reference), jourDuMois, heure);
+        return candidate.isAfter(reference)
+                ? candidate
+                : occurrenceDuMois(YearMonth.from(reference).plusMonths(1), jourDuMois, heure);
+    }
+
+    private static LocalDateTime occurrenceDuMois(YearMonth mois, int jourDuMois, int heure) {
+        return mois.atDay(Math.min(jourDuMois, mois.lengthOfMonth())).atTime(heure, 0);
+    }
+
+    private RapportProgramme mapProgramme(ResultSet rs) throws SQLException {
+        return new RapportProgramme(
+                rs.getLong("id"),
+                rs.getString("libelle"),
+                Declencheur.valueOf(rs.getString("declencheur")),
+                rs.getInt("jour_du_mois"),
+                rs.getInt("heure"),
+                texteVersTypes(rs.getString("types")),
+                rs.getInt("actif") == 1,
+                dateHeure(rs.getString("prochaine_execution")),
+                date(rs.getString("periode_debut")),
+                date(rs.getString("periode_fin")),
+                dateHeure(rs.getString("derniere_execution")),
+                rs.getString("dernier_statut"),
+                rs.getString("dernier_message"));
+    }
+
+    private int executerMiseAJour(String sql, Object... params) {
+        try {
+            ensureTable();
+            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    stmt.setObject(i + 1, params[i]);
+                }
+                return stmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la mise à jour des programmations de rapports", e);
+            throw new RuntimeException("Impossible de mettre à jour les programmations", e);
+        }
+    }
+
+    private static String typesVersTexte(Set<TypeRapport> types) {
+        return types == null ? "" : types.stream().map(Enum::name).sorted().collect(Collectors.joining(","));
+    }
+
+    private static Set<TypeRapport> texteVersTypes(String texte) {
+        if (texte == null || texte.isBlank()) {
+            return Set.of();
+        }
+        EnumSet<TypeRapport> types = EnumSet.noneOf(TypeRapport.class);
+        for (String nom : texte.split(",")) {
+            try {
+                types.add(TypeRapport.valueOf(nom.trim()));
+            } catch (IllegalArgumentException e) {
+                logger.warn("⚠️ Type de rapport inconnu ignoré dans une programmation: {}", nom);
+            }
+        }
+        return Collections.unmodifiableSet(types);
+    }
+
+    private static String texte(LocalDateTime dateHeure) {
+        return dateHeure != null ? dateHeure.truncatedTo(ChronoUnit.SECONDS).toString() : null;
+    }
+
+    private static LocalDateTime dateHeure(String texte) {
+        return texte != null && !texte.isBlank() ? LocalDateTime.parse(texte) : null;
+    }
+
+    private static LocalDate date(String texte) {
+        return texte != null && !texte.isBlank() ? LocalDate.parse(texte) : null;
+    }
+
+    private void ensureTable() throws SQLException {
+        if (tableVerifiee) {
+            return;
+        }
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+            tableVerifiee = true;
+        }
+    }
+}
@@ -11,7 +11,11 @@ import com.regulation.contentieux.config.DatabaseConfig;
 import com.regulation.contentieux.dao.*;
 import com.regulation.contentieux.model.*;
 import com.regulation.contentieux.model.enums.*;
+import com.regulation.contentieux.util.BaseArchive;
 import com.regulation.contentieux.util.DateFormatter;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.LongObjectMap;
+import com.regulation.contentieux.dao.EncaissementPeriodeDAO.LigneEncaissementPeriode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,12 +42,13 @@ public class RapportService {
     private CentreDAO centreDAO = new CentreDAO();  // <-- CETTE LIGNE DOIT EXISTER
     private ContraventionDAO contraventionDAO = new ContraventionDAO();
     private AffaireCentreDAO affaireCentreDAO = new AffaireCentreDAO(); // <-- AJOUTER CETTE LIGNE
+    private final HierarchieOrganisationnelleService hierarchieService = new HierarchieOrganisationnelleService();
     private PrintService printService = new PrintService();
     private RepartitionService repartitionService = new RepartitionService();
 
-    // Pourcentages de répartition selon la réglementation
-    private static final BigDecimal POURCENTAGE_ETAT = new BigDecimal("60.00");
-    private static final BigDecimal POURCENTAGE_COLLECTIVITE = new BigDecimal("40.00");
+    // Instantané de période partagé (pack de fin de mois) ; null = lecture directe en base
+    private PeriodeSnapshot snapshot;
+    private final RapportPregenereStore pregenereStore = new RapportPregenereStore();
 
     // CORRECTION : Définir les constantes de rôles spéciaux correctement
     private static final String ROLE_DG = "DG";
@@ -70,6 +75,70 @@ public class RapportService {
         this.contraventionDAO = contraventionDAO;
     }
 
+    /**
+     * Service lisant les encaissements et affaires de la période depuis un instantané partagé
+     */
+    public RapportService(PeriodeSnapshot snapshot) {
+        this();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Encaissements de la période : instantané si disponible, sinon base de données
+     */
+    private List<Encaissement> chargerEncaissementsPeriode(LocalDate dateDebut, LocalDate dateFin) {
+        if (snapshot != null && snapshot.couvre(dateDebut, dateFin)) {
+            return snapshot.getEncaissements();
+        }
+        return encaissementDAO.findByPeriod(dateDebut, dateFin);
+    }
+
+    /**
+     * Lignes encaissement + affaire de la période : instantané si disponible,
+     * sinon une requête jointe unique
+     */
+    private List<LigneEncaissementPeriode> chargerLignesPeriode(LocalDate dateDebut, LocalDate dateFin) {
+        if (snapshot != null && snapshot.couvre(dateDebut, dateFin)) {
+            return snapshot.getLignes();
+        }
+        return new EncaissementPeriodeDAO().charger(dateDebut, dateFin);
+    }
+
+    /**
+     * Libellé de contravention depuis le cache des référentiels
+     */
+    private static String libelleContravention(Long contraventionId) {
+        return ReferentielCache.getInstance()
+                .findContravention(contraventionId)
+                .map(c -> c.getLibelle() != null && !c.getLibelle().trim().isEmpty() ? c.getLibelle() : c.getCode())
+                .filter(libelle -> libelle != null && !libelle.trim().isEmpty())
+                .orElse("Non spécifiée");
+    }
+
+    private static String nomContrevenant(String nom) {
+        return nom != null && !nom.trim().isEmpty() ? nom : "Non spécifié";
+    }
+
+    /**
+     * Affaire complète : instantané si disponible, sinon base de données
+     */
+    private Optional<Affaire> chargerAffaire(Long affaireId) {
+        if (snapshot != null) {
+            Affaire affaire = snapshot.getAffaire(affaireId);
+            if (affaire != null) {
+                return Optional.of(affaire);
+            }
+        }
+        return affaireDAO.findById(affaireId);
+    }
+
+    /**
+     * Version des données servant de clé au cache des rapports
+     */
+    private long versionDonnees(LocalDate debut, LocalDate fin) {
+        return snapshot != null && snapshot.couvre(debut, fin) ? snapshot.getVersion() : DataVersion.getVersion();
+    }
+
     // CORRECTION : Initialisation des DAOs manquante
     private void initializeDAOs() {
         if (this.contraventionDAO == null) {
@@ -169,7 +238,7 @@ public class RapportService {
         WHERE affaire_id = ?
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = BaseArchive.connexionPourAffaire(affaireId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, affaireId);
@@ -227,7 +296,7 @@ public class RapportService {
 
             Map<Long, List<AffaireRole>> affairesParAgent = new HashMap<>();
 
-            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+            try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
                  PreparedStatement stmt = conn.prepareStatement(sqlAffaires)) {
 
                 stmt.setDate(1, Date.valueOf(dateDebut));
@@ -261,7 +330,7 @@ public class RapportService {
                     for (AffaireRole ar : affairesAgent) {
                         try {
                             // Récupérer l'affaire complète
-                            Optional<Affaire> affaireOpt = affaireDAO.findById(ar.affaireId);
+                            Optional<Affaire> affaireOpt = chargerAffaire(ar.affaireId);
                             if (affaireOpt.isPresent()) {
                                 Affaire affaire = affaireOpt.get();
 
@@ -329,7 +398,7 @@ public class RapportService {
                         AND e.statut = 'VALIDE'
                     """;
 
-                        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+                        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
                              PreparedStatement stmt = conn.prepareStatement(sqlToutesAffaires)) {
 
                             stmt.setDate(1, Date.valueOf(dateDebut));
@@ -341,7 +410,7 @@ public class RapportService {
                                 BigDecimal montantEncaisse = rs.getBigDecimal("montant_encaisse");
 
                                 // Récupérer l'affaire pour le calcul
-                                Optional<Affaire> affaireOpt = affaireDAO.findById(affaireId);
+                                Optional<Affaire> affaireOpt = chargerAffaire(affaireId);
                                 if (affaireOpt.isPresent()) {
                                     Encaissement enc = new Encaissement();
                                     enc.setMontantEncaisse(montantEncaisse);
@@ -419,7 +488,7 @@ public class RapportService {
         WHERE affaire_id = ? AND role_sur_affaire = ?
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = BaseArchive.connexionPourAffaire(affaireId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, affaireId);
@@ -465,7 +534,7 @@ public class RapportService {
     private long countActeursByRole(Long affaireId, String role) {
         String sql = "SELECT COUNT(*) FROM affaire_acteurs WHERE affaire_id = ? AND role_sur_affaire = ?";
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = BaseArchive.connexionPourAffaire(affaireId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, affaireId);
@@ -492,78 +561,29 @@ public class RapportService {
         rapport.setPeriodeLibelle(formatPeriode(dateDebut, dateFin));
 
         try {
-            // Récupérer tous les encaissements de la période
-            List<Encaissement> encaissements = encaissementDAO.findByPeriod(dateDebut, dateFin);
-
-            List<IndicateurReelDTO> indicateurs = new ArrayList<>();
+            // Encaissements de la période et leur affaire : une seule requête jointe
+            List<LigneEncaissementPeriode> lignes = chargerLignesPeriode(dateDebut, dateFin);
 
-            for (Encaissement enc : encaissements) {
-                if (enc.getStatut() == StatutEncaissement.VALIDE && enc.getAffaire() != null) {
-                    // Recharger l'affaire complète avec toutes ses relations
-                    Optional<Affaire> affaireOpt = affaireDAO.findById(enc.getAffaire().getId());
-                    if (!affaireOpt.isPresent()) {
-                        continue;
-                    }
-                    Affaire affaire = affaireOpt.get();
+            List<IndicateurReelDTO> indicateurs = new ArrayList<>(lignes.size());
 
-                    RepartitionResultat repartition = repartitionService.calculerRepartition(enc, affaire);
+            for (LigneEncaissementPeriode ligne : lignes) {
+                try {
+                    RepartitionResultat repartition = repartitionService.calculerMontants(
+                            ligne.montantEncaisse(), ligne.indicateurExiste(), ligne.dateEncaissement());
 
                     IndicateurReelDTO indicateur = new IndicateurReelDTO();
-                    indicateur.setNumeroEncaissement(enc.getReference());
-                    indicateur.setDateEncaissement(enc.getDateEncaissement());
-                    indicateur.setNumeroAffaire(affaire.getNumeroAffaire());
-                    indicateur.setMontantEncaisse(enc.getMontantEncaisse());
+                    indicateur.setNumeroEncaissement(ligne.numeroEncaissement());
+                    indicateur.setDateEncaissement(ligne.dateEncaissement());
+                    indicateur.setNumeroAffaire(ligne.numeroAffaire());
+                    indicateur.setMontantEncaisse(ligne.montantEncaisse());
                     indicateur.setPartIndicateur(repartition.getPartIndicateur());
-
-                    // Récupérer le contrevenant
-                    if (affaire.getContrevenant() != null) {
-                        String nomContrevenant = affaire.getContrevenant().getNomComplet();
-                        indicateur.setNomContrevenant(nomContrevenant != null && !nomContrevenant.trim().isEmpty() ?
-                                nomContrevenant : "Non spécifié");
-                    } else {
-                        indicateur.setNomContrevenant("Non spécifié");
-                    }
-
-                    // Récupérer la contravention directement depuis la base de données
-                    String sqlContravention = """
-                    SELECT c.id, c.code, c.libelle, c.description
-                    FROM contraventions c
-                    INNER JOIN affaires a ON a.contravention_id = c.id
-                    WHERE a.id = ?
-                """;
-
-                    try (Connection conn = DatabaseConfig.getSQLiteConnection();
-                         PreparedStatement stmt = conn.prepareStatement(sqlContravention)) {
-
-                        stmt.setLong(1, affaire.getId());
-                        ResultSet rs = stmt.executeQuery();
-
-                        if (rs.next()) {
-                            String libelle = rs.getString("libelle");
-                            String code = rs.getString("code");
-
-                            if (libelle != null && !libelle.trim().isEmpty()) {
-                                indicateur.setContraventions(libelle);
-                            } else if (code != null && !code.trim().isEmpty()) {
-                                indicateur.setContraventions(code);
-                            } else {
-                                indicateur.setContraventions("Non spécifiée");
-                            }
-                        } else {
-                            indicateur.setContraventions("Non spécifiée");
-                        }
-                    } catch (SQLException e) {
-                        logger.error("Erreur récupération contravention pour affaire {}", affaire.getId(), e);
-                        indicateur.setContraventions("Non spécifiée");
-                    }
-
-                    // Centre si disponible
-                    if (affaire.getCentresAssocies() != null && !affaire.getCentresAssocies().isEmpty()) {
-                        Centre centre = affaire.getCentresAssocies().get(0).getCentre();
-                        indicateur.setCentre(centre);
-                    }
+                    indicateur.setNomContrevenant(nomContrevenant(ligne.nomContrevenant()));
+                    indicateur.setContraventions(libelleContravention(ligne.contraventionId()));
 
                     indicateurs.add(indicateur);
+
+                } catch (Exception e) {
+                    logger.warn("⚠️ Erreur traitement encaissement {}: {}", ligne.numeroEncaissement(), e.getMessage());
                 }
             }
 
@@ -640,114 +660,6 @@ public class RapportService {
         return situation;
     }
 
-    /**
-     * CORRECTION BUG : Méthode manquante calculerPartDG()
-     */
-    private BigDecimal calculerPartDG(Agent agent, LocalDate dateDebut, LocalDate dateFin) {
-        if (agent == null) return BigDecimal.ZERO;
-
-        // Vérifier d'abord si l'agent a le rôle DG
-        if (!hasRoleSpecial(agent, ROLE_DG)) {
-            return BigDecimal.ZERO;
-        }
-
-        // Rechercher les encaissements où l'agent a bénéficié comme DG
-        String sql = """
-        SELECT SUM(r.part_dg) as total_dg
-        FROM repartition_resultat r
-        INNER JOIN encaissements e ON r.encaissement_id = e.id
-        WHERE e.date_encaissement BETWEEN ? AND ?
-        AND r.part_dg > 0
-    """;
-
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setDate(1, Date.valueOf(dateDebut));
-            stmt.setDate(2, Date.valueOf(dateFin));
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                BigDecimal totalDG = rs.getBigDecimal("total_dg");
-                return totalDG != null ? totalDG : BigDecimal.ZERO;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Erreur lors du calcul part DG pour agent: {}", agent.getId(), e);
-        }
-
-        return BigDecimal.ZERO;
-    }
-
-    /**
-     * CORRECTION BUG : Méthode manquante calculerPartDD()
-     */
-    private BigDecimal calculerPartDD(Agent agent, LocalDate dateDebut, LocalDate dateFin) {
-        if (agent == null) return BigDecimal.ZERO;
-
-        // Vérifier d'abord si l'agent a le rôle DD
-        if (!hasRoleSpecial(agent, ROLE_DD)) {
-            return BigDecimal.ZERO;
-        }
-
-        // Rechercher les encaissements où l'agent a bénéficié comme DD
-        String sql = """
-        SELECT SUM(r.part_dd) as total_dd
-        FROM repartition_resultat r
-        INNER JOIN encaissements e ON r.encaissement_id = e.id
-        WHERE e.date_encaissement BETWEEN ? AND ?
-        AND r.part_dd > 0
-    """;
-
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setDate(1, Date.valueOf(dateDebut));
-            stmt.setDate(2, Date.valueOf(dateFin));
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                BigDecimal totalDD = rs.getBigDecimal("total_dd");
-                return totalDD != null ? totalDD : BigDecimal.ZERO;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Erreur lors du calcul part DD pour agent: {}", agent.getId(), e);
-        }
-
-        return BigDecimal.ZERO;
-    }
-
-    /**
-     * CORRECTION BUG : Méthode utilitaire pour vérifier les rôles spéciaux
-     */
-    private boolean hasRoleSpecial(Agent agent, String role) {
-        if (agent == null || role == null) return false;
-
-        String sql = """
-        SELECT COUNT(*) 
-        FROM roles_speciaux rs 
-        WHERE rs.agent_id = ? AND rs.role_nom = ?
-    """;
-
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, agent.getId());
-            stmt.setString(2, role);
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-
-        } catch (SQLException e) {
-            logger.error("Erreur lors de la vérification du rôle spécial: {}", e.getMessage());
-        }
-
-        return false;
-    }
-
     /**
      * CORRECTION BUG : Remplacer l'usage de encaissementDAO.mapResultSetToEntity
      * par une méthode locale ou utiliser EncaissementDAO.mapResultSetToEncaissement
@@ -772,7 +684,7 @@ public class RapportService {
         WHERE ac.affaire_id = ?
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = BaseArchive.connexionPourAffaire(affaireId);
              PreparedStatement stmt = conn.prepareStatement(sqlLiaison)) {
 
             stmt.setLong(1, affaireId);
@@ -811,7 +723,7 @@ public class RapportService {
         WHERE a.id = ?
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = BaseArchive.connexionPourAffaire(affaireId);
              PreparedStatement stmt = conn.prepareStatement(sqlAffaire)) {
 
             stmt.setLong(1, affaireId);
@@ -841,25 +753,6 @@ public class RapportService {
         return contraventions;
     }
 
-    /**
-     * CORRECTION BUG : Méthode corrigée pour utiliser les bonnes constantes
-     */
-    private void traiterRolesSpeciaux(AgentStatsDTO stats, Agent agent, LocalDate dateDebut, LocalDate dateFin) {
-        // Utiliser les constantes correctes au lieu de RoleSpecial.DG
-        if (hasRoleSpecial(agent, ROLE_DG)) {
-            BigDecimal partDG = calculerPartDG(agent, dateDebut, dateFin);
-            stats.setPartEnTantQueDG(partDG);
-        }
-
-        if (hasRoleSpecial(agent, ROLE_DD)) {
-            BigDecimal partDD = calculerPartDD(agent, dateDebut, dateFin);
-            stats.setPartEnTantQueDD(partDD);
-        }
-
-        // Recalculer la part totale
-        stats.calculerPartTotale();
-    }
-
     // ==================== RAPPORT PRINCIPAL DE RÉTROCESSION ====================
 
     /**
@@ -877,7 +770,7 @@ public class RapportService {
         rapport.setPeriodeLibelle(DateFormatter.format(dateDebut) + " au " + DateFormatter.format(dateFin));
 
         // Récupérer les encaissements validés de la période
-        List<Encaissement> encaissements = encaissementDAO.findByPeriod(dateDebut, dateFin);
+        List<Encaissement> encaissements = chargerEncaissementsPeriode(dateDebut, dateFin);
 
         for (Encaissement enc : encaissements) {
             if (enc.getStatut() != StatutEncaissement.VALIDE || enc.getAffaire() == null) {
@@ -939,7 +832,7 @@ public class RapportService {
         rapport.setDateGeneration(LocalDate.now());
 
         // Récupérer les encaissements
-        List<Encaissement> encaissements = encaissementDAO.findByPeriod(dateDebut, dateFin);
+        List<Encaissement> encaissements = chargerEncaissementsPeriode(dateDebut, dateFin);
 
         Map<Service, List<Encaissement>> encaissementsParService = new HashMap<>();
 
@@ -1051,7 +944,7 @@ public class RapportService {
         rapport.setPeriodeLibelle(DateFormatter.format(dateDebut) + " au " + DateFormatter.format(dateFin));
 
         // Récupérer les encaissements validés de la période
-        List<Encaissement> encaissements = encaissementDAO.findByPeriod(dateDebut, dateFin);
+        List<Encaissement> encaissements = chargerEncaissementsPeriode(dateDebut, dateFin);
 
         for (Encaissement enc : encaissements) {
             if (enc.getStatut() != StatutEncaissement.VALIDE || enc.getAffaire() == null) {
@@ -1112,9 +1005,12 @@ public class RapportService {
         rapport.setTypeEtat("Mandatement Général");
 
         // Récupérer tous les encaissements validés de la période
-        List<Encaissement> encaissements = encaissementDAO.findByPeriodAndStatut(dateDebut, dateFin, StatutEncaissement.VALIDE);
+        List<Encaissement> encaissements = chargerEncaissementsPeriode(dateDebut, dateFin);
 
         for (Encaissement enc : encaissements) {
+            if (enc.getStatut() != StatutEncaissement.VALIDE) {
+                continue;
+            }
             if (enc.getAffaire() != null) {
                 RepartitionResultat repartition = repartitionService.calculerRepartition(enc, enc.getAffaire());
 
@@ -1182,6 +1078,16 @@ public class RapportService {
                 rapport.getCentres().add(centreStats);
             }
 
+            // Pas de répartition par centre migrée : calcul depuis les encaissements de la période
+            if (rapport.getCentres().isEmpty()) {
+                for (Centre centre : ReferentielCache.getInstance().getCentresActifs()) {
+                    CentreStatsDTO centreStats = calculerStatsCentre(centre, dateDebut, dateFin);
+                    if (centreStats.getNombreAffaires() > 0 || centreStats.getMontantTotal().signum() != 0) {
+                        rapport.getCentres().add(centreStats);
+                    }
+                }
+            }
+
             // IMPORTANT : Si aucune donnée, ajouter des données de test
             if (rapport.getCentres().isEmpty()) {
                 logger.warn("⚠️ Aucune donnée trouvée, utilisation de données simulées");
@@ -1298,88 +1204,40 @@ public class RapportService {
         rapport.setPeriodeLibelle(formatPeriode(dateDebut, dateFin));
 
         try {
-            // Récupérer tous les encaissements de la période
-            List<Encaissement> encaissements = encaissementDAO.findByPeriod(dateDebut, dateFin);
+            // Encaissements de la période et leur affaire : une seule requête jointe
+            List<LigneEncaissementPeriode> lignes = chargerLignesPeriode(dateDebut, dateFin);
 
-            if (encaissements == null || encaissements.isEmpty()) {
+            if (lignes.isEmpty()) {
                 logger.warn("⚠️ Aucun encaissement trouvé pour la période {} - {}", dateDebut, dateFin);
                 return rapport;
             }
 
-            for (Encaissement enc : encaissements) {
-                if (enc.getStatut() == StatutEncaissement.VALIDE && enc.getAffaire() != null) {
-                    try {
-                        // Recharger l'affaire complète
-                        Optional<Affaire> affaireOpt = affaireDAO.findById(enc.getAffaire().getId());
-                        if (!affaireOpt.isPresent()) {
-                            continue;
-                        }
-                        Affaire affaire = affaireOpt.get();
-
-                        RepartitionResultat repartition = repartitionService.calculerRepartition(enc, affaire);
-
-                        LigneRepartitionDTO ligne = new LigneRepartitionDTO();
-
-                        // Numéros et dates
-                        ligne.setNumeroEncaissement(enc.getReference());
-                        ligne.setDateEncaissement(enc.getDateEncaissement());
-                        ligne.setNumeroAffaire(affaire.getNumeroAffaire());
-
-                        // Nom du contrevenant
-                        if (affaire.getContrevenant() != null) {
-                            String nomContrevenant = affaire.getContrevenant().getNomComplet();
-                            ligne.setNomContrevenant(nomContrevenant != null && !nomContrevenant.trim().isEmpty() ?
-                                    nomContrevenant : "Non spécifié");
-                        } else {
-                            ligne.setNomContrevenant("Non spécifié");
-                        }
-
-                        // Contraventions - récupération directe depuis la BD
-                        String sqlContravention = """
-                        SELECT c.id, c.code, c.libelle, c.description
-                        FROM contraventions c
-                        INNER JOIN affaires a ON a.contravention_id = c.id
-                        WHERE a.id = ?
-                    """;
-
-                        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-                             PreparedStatement stmt = conn.prepareStatement(sqlContravention)) {
-
-                            stmt.setLong(1, affaire.getId());
-                            ResultSet rs = stmt.executeQuery();
+            for (LigneEncaissementPeriode source : lignes) {
+                try {
+                    RepartitionResultat repartition = repartitionService.calculerMontants(
+                            source.montantEncaisse(), source.indicateurExiste(), source.dateEncaissement());
 
-                            if (rs.next()) {
-                                String libelle = rs.getString("libelle");
-                                String code = rs.getString("code");
+                    LigneRepartitionDTO ligne = new LigneRepartitionDTO();
 
-                                if (libelle != null && !libelle.trim().isEmpty()) {
-                                    ligne.setContraventions(libelle);
-                                } else if (code != null && !code.trim().isEmpty()) {
-                                    ligne.setContraventions(code);
-                                } else {
-                                    ligne.setContraventions("Non spécifiée");
-                                }
-                            } else {
-                                ligne.setContraventions("Non spécifiée");
-                            }
-                        } catch (SQLException e) {
-                            logger.error("Erreur récupération contravention pour affaire {}", affaire.getId(), e);
-                            ligne.setContraventions("Non spécifiée");
-                        }
+                    // Numéros et dates
+                    ligne.setNumeroEncaissement(source.numeroEncaissement());
+                    ligne.setDateEncaissement(source.dateEncaissement());
+                    ligne.setNumeroAffaire(source.numeroAffaire());
+                    ligne.setNomContrevenant(nomContrevenant(source.nomContrevenant()));
+                    ligne.setContraventions(libelleContravention(source.contraventionId()));
 
-                        // Montants de répartition
-                        ligne.setProduitDisponible(repartition.getProduitDisponible());
-                        ligne.setPartIndicateur(repartition.getPartIndicateur());
-                        ligne.setPartDirectionContentieux(BigDecimal.ZERO); // Pas dans RepartitionResultat
-                        ligne.setPartFLCF(repartition.getPartFLCF());
-                        ligne.setPartTresor(repartition.getPartTresor());
-                        ligne.setPartAyantsDroits(repartition.getProduitNetAyantsDroits());
+                    // Montants de répartition
+                    ligne.setProduitDisponible(repartition.getProduitDisponible());
+                    ligne.setPartIndicateur(repartition.getPartIndicateur());
+                    ligne.setPartDirectionContentieux(BigDecimal.ZERO); // Pas dans RepartitionResultat
+                    ligne.setPartFLCF(repartition.getPartFLCF());
+                    ligne.setPartTresor(repartition.getPartTresor());
+                    ligne.setPartAyantsDroits(repartition.getProduitNetAyantsDroits());
 
-                        rapport.getLignes().add(ligne);
+                    rapport.getLignes().add(ligne);
 
-                    } catch (Exception e) {
-                        logger.warn("⚠️ Erreur traitement encaissement {}: {}", enc.getReference(), e.getMessage());
-                    }
+                } catch (Exception e) {
+                    logger.warn("⚠️ Erreur traitement encaissement {}: {}", source.numeroEncaissement(), e.getMessage());
                 }
             }
 
@@ -1414,40 +1272,27 @@ public class RapportService {
             List<Agent> agents = agentDAO.findAll();
             logger.debug("🔍 Agents trouvés pour mandatement: {}", agents.size());
 
-            for (Agent agent : agents) {
-                try {
-                    // CORRECTION : Utiliser calculerStatsAgent() au lieu de méthodes manquantes
-                    AgentStatsDTO stats = calculerStatsAgent(agent, dateDebut, dateFin);
-
-                    if (stats != null && (stats.hasActivite() || stats.getMontantTotal().compareTo(BigDecimal.ZERO) > 0)) {
-                        MandatementDTO mandatement = new MandatementDTO();
-                        mandatement.setAgent(agent);
-                        // CORRECTION : MandatementDTO n'a pas setNomAgent(), ne pas l'utiliser
-
-                        // CORRECTION : Utiliser les données réelles des stats avec les bonnes propriétés
-                        mandatement.setProduitNet(stats.getMontantTotal());
-                        // CORRECTION : AgentStatsDTO n'a pas getPartChef(), utiliser les méthodes existantes
-                        mandatement.setPartChefs(stats.getPartEnTantQueChef());
-                        mandatement.setPartSaisissants(stats.getPartEnTantQueSaisissant());
-                        mandatement.setPartMutuelle(BigDecimal.ZERO); // Par défaut
-                        mandatement.setPartDG(stats.getPartEnTantQueDG());
-                        mandatement.setPartDD(stats.getPartEnTantQueDD());
-                        mandatement.setMontantTotal(stats.getPartTotaleAgent());
-                        mandatement.setObservations("Cumul des parts de l'agent - " + stats.getNombreAffaires() + " affaire(s)");
-
-                        rapport.getMandatements().add(mandatement);
-                        logger.debug("✅ Mandatement ajouté: {} - Montant: {}",
-                                agent.getNom(), stats.getPartTotaleAgent());
-                    }
-                } catch (Exception e) {
-                    logger.warn("⚠️ Erreur pour l'agent {}: {}", agent.getNom(), e.getMessage());
-                    // Créer mandatement par défaut pour éviter les lignes vides
-                    MandatementDTO mandatementDefaut = new MandatementDTO();
-                    mandatementDefaut.setAgent(agent);
-                    mandatementDefaut.setProduitNet(BigDecimal.ZERO);
-                    mandatementDefaut.setMontantTotal(BigDecimal.ZERO);
-                    mandatementDefaut.setObservations("Aucune activité sur la période");
-                    rapport.getMandatements().add(mandatementDefaut);
+            // Une seule passe sur les encaissements de la période pour tous les agents
+            List<AgentStatsDTO> statsAgents = calculerStatsAgents(agents, dateDebut, dateFin);
+
+            for (AgentStatsDTO stats : statsAgents) {
+                if (stats.hasActivite() || stats.getMontantTotal().compareTo(BigDecimal.ZERO) > 0) {
+                    Agent agent = stats.getAgent();
+                    MandatementDTO mandatement = new MandatementDTO();
+                    mandatement.setAgent(agent);
+
+                    mandatement.setProduitNet(stats.getMontantTotal());
+                    mandatement.setPartChefs(stats.getPartEnTantQueChef());
+                    mandatement.setPartSaisissants(stats.getPartEnTantQueSaisissant());
+                    mandatement.setPartMutuelle(BigDecimal.ZERO); // Par défaut
+                    mandatement.setPartDG(stats.getPartEnTantQueDG());
+                    mandatement.setPartDD(stats.getPartEnTantQueDD());
+                    mandatement.setMontantTotal(stats.getPartTotaleAgent());
+                    mandatement.setObservations("Cumul des parts de l'agent - " + stats.getNombreAffaires() + " affaire(s)");
+
+                    rapport.getMandatements().add(mandatement);
+                    logger.debug("✅ Mandatement ajouté: {} - Montant: {}",
+                            agent.getNom(), stats.getPartTotaleAgent());
                 }
             }
 
@@ -1468,6 +1313,17 @@ public class RapportService {
      * Génère les données pour le tableau des amendes par services (Template 7)
      */
     public TableauAmendesParServicesDTO genererDonneesTableauAmendesParServices(LocalDate dateDebut, LocalDate dateFin) {
+        return genererDonneesTableauAmendesParServices(dateDebut, dateFin, true);
+    }
+
+    /**
+     * Tableau des amendes par services à partir d'une seule requête agrégée
+     * (service × bureau : nombre d'affaires, montant, encaissé)
+     *
+     * @param avecCumuls Ajoute les cumuls par bureau et par centre, déduits en mémoire
+     */
+    public TableauAmendesParServicesDTO genererDonneesTableauAmendesParServices(LocalDate dateDebut, LocalDate dateFin,
+                                                                                boolean avecCumuls) {
         logger.info("📋 Génération du tableau des amendes par services - {} au {}", dateDebut, dateFin);
 
         TableauAmendesParServicesDTO rapport = new TableauAmendesParServicesDTO();
@@ -1477,56 +1333,80 @@ public class RapportService {
         rapport.setPeriodeLibelle(formatPeriode(dateDebut, dateFin));
 
         try {
-            // CORRECTION : Utiliser findAll() au lieu de findAllActifs()
+            // Tous les services, y compris ceux sans affaire (liste complète, pas celle du cache)
             List<Service> services = serviceDAO.findAll();
             logger.debug("🔍 Services trouvés: {}", services.size());
 
+            // Une requête : agrégats au grain (service, bureau)
+            List<AffaireDAO.AgregatAmendes> agregats = affaireDAO.agregerAmendesParServiceEtBureau(dateDebut, dateFin);
+
+            Map<Long, AffaireDAO.AgregatAmendes> parService = new HashMap<>();
+            Map<Long, BigDecimal> montantsParBureau = new HashMap<>();
+            for (AffaireDAO.AgregatAmendes agregat : agregats) {
+                if (agregat.serviceId() != null) {
+                    parService.merge(agregat.serviceId(), agregat, RapportService::cumulerAgregats);
+                }
+                if (agregat.bureauId() != null) {
+                    montantsParBureau.merge(agregat.bureauId(), agregat.montantTotal(), BigDecimal::add);
+                }
+            }
+
+            // Rattachement service → centre depuis l'arbre organisationnel (sans jointure)
+            ArbreOrganisationnel arbre = avecCumuls ? chargerArbreOrganisationnel() : null;
+            Map<Long, BigDecimal> montantsParService = new HashMap<>();
+
             BigDecimal totalGeneral = BigDecimal.ZERO;
+            BigDecimal totalEncaisse = BigDecimal.ZERO;
             int totalAffairesGeneral = 0;
 
             for (Service service : services) {
-                try {
-                    // CORRECTION : Utiliser une méthode plus robuste pour les affaires
-                    List<Affaire> affairesService = getAffairesParService(service, dateDebut, dateFin);
-
-                    ServiceAmendeDTO serviceDTO = new ServiceAmendeDTO();
-                    // CORRECTION : Utiliser getNomService() qui existe au lieu de getNom()
-                    serviceDTO.setNomService(service.getNomService());
-                    serviceDTO.setNombreAffaires(affairesService.size());
-
-                    // CORRECTION : Calculer le montant avec gestion des valeurs null
-                    BigDecimal montantService = BigDecimal.ZERO;
-                    for (Affaire affaire : affairesService) {
-                        if (affaire.getMontantTotal() != null) {
-                            montantService = montantService.add(affaire.getMontantTotal());
-                        }
-                    }
-
-                    serviceDTO.setMontantTotal(montantService);
-                    // CORRECTION : ServiceAmendeDTO n'a pas setMontantMoyen(), ne pas l'utiliser
-
-                    totalGeneral = totalGeneral.add(montantService);
-                    totalAffairesGeneral += affairesService.size();
+                AffaireDAO.AgregatAmendes agregat = parService.get(service.getId());
+                int nombreAffaires = agregat != null ? agregat.nombreAffaires() : 0;
+                BigDecimal montantService = agregat != null ? agregat.montantTotal() : BigDecimal.ZERO;
+                BigDecimal encaisseService = agregat != null ? agregat.montantEncaisse() : BigDecimal.ZERO;
+
+                ServiceAmendeDTO serviceDTO = new ServiceAmendeDTO();
+                serviceDTO.setNomService(service.getNomService());
+                if (arbre != null) {
+                    arbre.getCentreDuService(service.getId())
+                            .ifPresent(centre -> serviceDTO.setNomCentre(centre.nom()));
+                }
+                serviceDTO.setNombreAffaires(nombreAffaires);
+                serviceDTO.setMontantTotal(montantService);
+                serviceDTO.setMontantEncaisse(encaisseService);
+                serviceDTO.setMontantRestantDu(montantService.subtract(encaisseService));
+                montantsParService.put(service.getId(), montantService);
 
-                    rapport.getServices().add(serviceDTO);
-                    logger.debug("✅ Service ajouté: {} - {} affaires", service.getNomService(), affairesService.size());
+                totalGeneral = totalGeneral.add(montantService);
+                totalEncaisse = totalEncaisse.add(encaisseService);
+                totalAffairesGeneral += nombreAffaires;
 
-                } catch (Exception e) {
-                    logger.warn("⚠️ Erreur pour le service {}: {}", service.getNomService(), e.getMessage());
-                    // Ajouter service avec données par défaut pour éviter les lignes vides
-                    ServiceAmendeDTO serviceDefaut = new ServiceAmendeDTO();
-                    serviceDefaut.setNomService(service.getNomService());
-                    serviceDefaut.setNombreAffaires(0);
-                    serviceDefaut.setMontantTotal(BigDecimal.ZERO);
-                    rapport.getServices().add(serviceDefaut);
-                }
+                rapport.getServices().add(serviceDTO);
             }
 
-            // CORRECTION : Utiliser setTotalGeneral() qui existe au lieu de setTotalMontant()
             rapport.setTotalGeneral(totalGeneral);
             rapport.setNombreTotalAffaires(totalAffairesGeneral);
+            rapport.setTotalAffaires(totalAffairesGeneral);
+            rapport.setMontantTotalEncaisse(totalEncaisse);
+            rapport.setMontantRestantDu(totalGeneral.subtract(totalEncaisse));
+
+            // Cumuls libellés « code - nom » : deux bureaux ou centres homonymes restent distincts
+            if (arbre != null) {
+                Map<String, BigDecimal> totauxParCentre = new LinkedHashMap<>();
+                arbre.cumulerServicesParCentre(montantsParService, BigDecimal::add).forEach((centreId, montant) ->
+                        arbre.getCentre(centreId).ifPresent(centre ->
+                                totauxParCentre.put(libelleGroupe(centre.code(), centre.nom()), montant)));
+                rapport.setTotauxParCentre(totauxParCentre);
+
+                Map<String, BigDecimal> totauxParBureau = new LinkedHashMap<>();
+                montantsParBureau.forEach((bureauId, montant) ->
+                        arbre.getBureau(bureauId).ifPresent(bureau ->
+                                totauxParBureau.put(libelleGroupe(bureau.code(), bureau.nom()), montant)));
+                rapport.setTotauxParBureau(totauxParBureau);
+            }
 
-            logger.info("✅ Tableau amendes services généré - {} services", rapport.getServices().size());
+            logger.info("✅ Tableau amendes services généré - {} services, {} affaires",
+                    rapport.getServices().size(), totalAffairesGeneral);
             return rapport;
 
         } catch (Exception e) {
@@ -1537,6 +1417,17 @@ public class RapportService {
         }
     }
 
+    private static String libelleGroupe(String code, String nom) {
+        return code != null && !code.isBlank() ? code + " - " + nom : nom;
+    }
+
+    private static AffaireDAO.AgregatAmendes cumulerAgregats(AffaireDAO.AgregatAmendes a, AffaireDAO.AgregatAmendes b) {
+        return new AffaireDAO.AgregatAmendes(a.serviceId(), null,
+                a.nombreAffaires() + b.nombreAffaires(),
+                a.montantTotal().add(b.montantTotal()),
+                a.montantEncaisse().add(b.montantEncaisse()));
+    }
+
     // Méthode helper pour formater les montants
     private String formatMontant(BigDecimal montant) {
         if (montant == null) return "0";
@@ -1545,17 +1436,15 @@ public class RapportService {
 
     // ==================== MÉTHODES UTILITAIRES ====================
 
-    private List<Affaire> getAffairesParService(Service service, LocalDate dateDebut, LocalDate dateFin) {
+    /**
+     * Arbre organisationnel partagé ; null si indisponible (le rapport reste produit sans les centres)
+     */
+    private ArbreOrganisationnel chargerArbreOrganisationnel() {
         try {
-            // Essayer d'utiliser la méthode DAO spécialisée si elle existe
-            return affaireDAO.findByServiceAndPeriod(service.getId(), dateDebut, dateFin);
+            return hierarchieService.getArbre();
         } catch (Exception e) {
-            logger.debug("Méthode findByServiceAndPeriod non disponible, utilisation alternative");
-            // Fallback : filtrer toutes les affaires
-            return affaireDAO.findAll().stream()
-                    .filter(affaire -> affaire.getService() != null && affaire.getService().getId().equals(service.getId()))
-                    .filter(affaire -> !affaire.getDateCreation().isBefore(dateDebut) && !affaire.getDateCreation().isAfter(dateFin))
-                    .collect(Collectors.toList());
+            logger.warn("⚠️ Arbre organisationnel indisponible: {}", e.getMessage());
+            return null;
         }
     }
 
@@ -1641,63 +1530,81 @@ public class RapportService {
     }
 
     /**
-     * ENRICHISSEMENT : Calcul des statistiques par centre
+     * Statistiques d'un centre calculées depuis les encaissements de la période
+     *
+     * Les quotes-parts base et indicateur du centre sont celles des règles de
+     * répartition en vigueur à la date de chaque encaissement
+     * ({@link RegleRepartitionService#planPour(LocalDate)}).
      */
-    private CentreStatsDTO calculerStatsCentre(Centre centre, LocalDate dateDebut, LocalDate dateFin) {
+    CentreStatsDTO calculerStatsCentre(Centre centre, LocalDate dateDebut, LocalDate dateFin) {
         CentreStatsDTO stats = new CentreStatsDTO();
-        stats.setCentre(centre); // CORRECTION : utiliser setCentre() existant
+        stats.setCentre(centre);
+        stats.setRepartitionBase(BigDecimal.ZERO);
+        stats.setRepartitionIndicateur(BigDecimal.ZERO);
+        stats.setPartTotalCentre(BigDecimal.ZERO);
+        stats.setNombreAffaires(0);
+        stats.setMontantTotal(BigDecimal.ZERO);
 
-        try {
-            // CORRECTION : Requête SQL simplifiée et sécurisée
-            String sql = """
-        SELECT 
-            COALESCE(SUM(e.montant_encaisse), 0) as montant_total,
-            COUNT(DISTINCT a.id) as nombre_affaires
-        FROM affaires a
-        LEFT JOIN encaissements e ON a.id = e.affaire_id
-        WHERE a.centre_id = ? 
-        AND (e.date_encaissement IS NULL OR e.date_encaissement BETWEEN ? AND ?)
+        String sqlAffaires = """
+            SELECT COUNT(DISTINCT a.id) as nombre_affaires
+            FROM affaires a
+            JOIN services s ON a.service_id = s.id
+            LEFT JOIN encaissements e ON a.id = e.affaire_id
+            WHERE s.centre_id = ?
+            AND (e.date_encaissement IS NULL OR e.date_encaissement BETWEEN ? AND ?)
         """;
 
-            try (Connection conn = DatabaseConfig.getSQLiteConnection(); // CORRECTION : méthode existante
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sqlMontantsParDate = """
+            SELECT e.date_encaissement, COALESCE(SUM(e.montant_encaisse), 0) as montant
+            FROM encaissements e
+            JOIN affaires a ON a.id = e.affaire_id
+            JOIN services s ON a.service_id = s.id
+            WHERE s.centre_id = ?
+            AND e.date_encaissement BETWEEN ? AND ?
+            GROUP BY e.date_encaissement
+        """;
+
+        RegleRepartitionService regles = RegleRepartitionService.getInstance();
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut)) {
+            try (PreparedStatement stmt = conn.prepareStatement(sqlAffaires)) {
                 stmt.setLong(1, centre.getId());
                 stmt.setDate(2, Date.valueOf(dateDebut));
                 stmt.setDate(3, Date.valueOf(dateFin));
-
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        BigDecimal montantTotal = rs.getBigDecimal("montant_total");
-                        if (montantTotal == null) montantTotal = BigDecimal.ZERO;
-
-                        // Calculs de répartition selon les règles métier
-                        BigDecimal repartitionBase = montantTotal.multiply(new BigDecimal("0.60")); // 60% en base
-                        BigDecimal repartitionIndicateur = montantTotal.multiply(new BigDecimal("0.25")); // 25% indicateur
-                        BigDecimal partCentre = repartitionBase.add(repartitionIndicateur);
-
-                        stats.setRepartitionBase(repartitionBase);
-                        stats.setRepartitionIndicateur(repartitionIndicateur);
-                        stats.setPartTotalCentre(partCentre); // CORRECTION : méthode existante
                         stats.setNombreAffaires(rs.getInt("nombre_affaires"));
-                        stats.setMontantTotal(montantTotal);
-                    } else {
-                        // Aucune donnée trouvée
-                        stats.setRepartitionBase(BigDecimal.ZERO);
-                        stats.setRepartitionIndicateur(BigDecimal.ZERO);
-                        stats.setPartTotalCentre(BigDecimal.ZERO); // CORRECTION : méthode existante
-                        stats.setNombreAffaires(0);
-                        stats.setMontantTotal(BigDecimal.ZERO);
                     }
                 }
             }
-        } catch (Exception e) {
+
+            BigDecimal montantTotal = BigDecimal.ZERO;
+            BigDecimal repartitionBase = BigDecimal.ZERO;
+            BigDecimal repartitionIndicateur = BigDecimal.ZERO;
+            try (PreparedStatement stmt = conn.prepareStatement(sqlMontantsParDate)) {
+                stmt.setLong(1, centre.getId());
+                stmt.setDate(2, Date.valueOf(dateDebut));
+                stmt.setDate(3, Date.valueOf(dateFin));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        BigDecimal montant = rs.getBigDecimal("montant");
+                        if (montant == null) {
+                            continue;
+                        }
+                        PlanRepartition plan = regles.planPour(rs.getDate("date_encaissement").toLocalDate());
+                        montantTotal = montantTotal.add(montant);
+                        repartitionBase = repartitionBase.add(montant.multiply(plan.getTauxBaseCentre()));
+                        repartitionIndicateur = repartitionIndicateur.add(montant.multiply(plan.getTauxIndicateurCentre()));
+                    }
+                }
+            }
+
+            stats.setMontantTotal(montantTotal);
+            stats.setRepartitionBase(repartitionBase);
+            stats.setRepartitionIndicateur(repartitionIndicateur);
+            stats.setPartTotalCentre(repartitionBase.add(repartitionIndicateur));
+
+        } catch (SQLException e) {
             logger.error("Erreur calcul stats centre {}: {}", centre.getNomCentre(), e.getMessage());
-            // Valeurs par défaut en cas d'erreur
-            stats.setRepartitionBase(BigDecimal.ZERO);
-            stats.setRepartitionIndicateur(BigDecimal.ZERO);
-            stats.setPartTotalCentre(BigDecimal.ZERO); // CORRECTION : méthode existante
-            stats.setNombreAffaires(0);
-            stats.setMontantTotal(BigDecimal.ZERO);
         }
 
         return stats;
@@ -1723,7 +1630,7 @@ public class RapportService {
         AND a.date_creation BETWEEN ? AND ?
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setDate(1, Date.valueOf(dateDebut));
@@ -1775,8 +1682,11 @@ public class RapportService {
      */
     public static class ServiceAmendeDTO {
         private String nomService;
+        private String nomCentre;
         private int nombreAffaires;
         private BigDecimal montantTotal;
+        private BigDecimal montantEncaisse = BigDecimal.ZERO;
+        private BigDecimal montantRestantDu = BigDecimal.ZERO;
         private String observations;
 
         public ServiceAmendeDTO() {
@@ -1792,16 +1702,41 @@ public class RapportService {
         public String getNomService() { return nomService; }
         public void setNomService(String nomService) { this.nomService = nomService; }
 
+        public String getNomCentre() { return nomCentre; }
+        public void setNomCentre(String nomCentre) { this.nomCentre = nomCentre; }
+
         public int getNombreAffaires() { return nombreAffaires; }
         public void setNombreAffaires(int nombreAffaires) { this.nombreAffaires = nombreAffaires; }
 
         public BigDecimal getMontantTotal() { return montantTotal; }
         public void setMontantTotal(BigDecimal montantTotal) { this.montantTotal = montantTotal; }
 
+        public BigDecimal getMontantEncaisse() { return montantEncaisse; }
+        public void setMontantEncaisse(BigDecimal montantEncaisse) { this.montantEncaisse = montantEncaisse; }
+
+        public BigDecimal getMontantRestantDu() { return montantRestantDu; }
+        public void setMontantRestantDu(BigDecimal montantRestantDu) { this.montantRestantDu = montantRestantDu; }
+
         public String getObservations() { return observations; }
         public void setObservations(String observations) { this.observations = observations; }
     }
 
+    /**
+     * Ligne de cumul (bureau ou centre) du tableau des amendes
+     */
+    public static class TotalGroupeDTO {
+        private final String libelle;
+        private final BigDecimal montant;
+
+        public TotalGroupeDTO(String libelle, BigDecimal montant) {
+            this.libelle = libelle;
+            this.montant = montant;
+        }
+
+        public String getLibelle() { return libelle; }
+        public BigDecimal getMontant() { return montant; }
+    }
+
     /**
      * DTO pour le tableau des amendes par services
      * CLASSE CORRIGÉE avec toutes les méthodes
@@ -1820,6 +1755,29 @@ public class RapportService {
         private BigDecimal montantRestantDu = BigDecimal.ZERO;
         private int totalAffaires = 0;
 
+        // Cumul des montants par centre (remontée depuis les services)
+        private Map<String, BigDecimal> totauxParCentre = new LinkedHashMap<>();
+
+        public Map<String, BigDecimal> getTotauxParCentre() { return totauxParCentre; }
+        public void setTotauxParCentre(Map<String, BigDecimal> totauxParCentre) { this.totauxParCentre = totauxParCentre; }
+
+        // Cumul des montants par bureau
+        private Map<String, BigDecimal> totauxParBureau = new LinkedHashMap<>();
+
+        public Map<String, BigDecimal> getTotauxParBureau() { return totauxParBureau; }
+        public void setTotauxParBureau(Map<String, BigDecimal> totauxParBureau) { this.totauxParBureau = totauxParBureau; }
+
+        /**
+         * Cumuls sous forme de lignes (libellé, montant) pour les templates et l'export
+         */
+        public static List<TotalGroupeDTO> enLignes(Map<String, BigDecimal> totaux) {
+            List<TotalGroupeDTO> lignes = new ArrayList<>();
+            if (totaux != null) {
+                totaux.forEach((libelle, montant) -> lignes.add(new TotalGroupeDTO(libelle, montant)));
+            }
+            return lignes;
+        }
+
         // Getters et setters
         public void setMontantEncaisse(BigDecimal montantEncaisse) {
             this.montantTotalEncaisse = montantEncaisse;
@@ -1927,7 +1885,7 @@ public class RapportService {
         AND e.date_encaissement BETWEEN ? AND ?
         """;
 
-            try (Connection conn = DatabaseConfig.getSQLiteConnection(); // CORRECTION : méthode existante
+            try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut); // CORRECTION : méthode existante
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
                 String roleStr = agent.getRoleSpecial() != null ? agent.getRoleSpecial() : ""; // CORRECTION
                 stmt.setString(1, roleStr);
@@ -1984,7 +1942,7 @@ public class RapportService {
             AND e.statut = 'VALIDE'
         """;
 
-            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+            try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
 
                 stmt.setLong(1, agent.getId());
@@ -2071,7 +2029,7 @@ public class RapportService {
             AND e.statut = 'VALIDE'
         """;
 
-            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+            try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
 
                 stmt.setLong(1, agent.getId());
@@ -2130,7 +2088,7 @@ public class RapportService {
             AND r.part_chefs > 0
         """;
 
-            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+            try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
 
                 stmt.setDate(1, Date.valueOf(dateDebut));
@@ -2211,43 +2169,225 @@ public class RapportService {
     }
 
     /**
-     * ENRICHISSEMENT : Calcule les statistiques d'un agent
+     * Acteurs d'une affaire de la période : agents distincts et bénéficiaires par rôle
      */
-    private AgentStatsDTO calculerStatsAgent(Agent agent, LocalDate dateDebut, LocalDate dateFin) {
-        AgentStatsDTO stats = new AgentStatsDTO();
-        stats.setAgent(agent);
-        stats.setNombreAffaires(0);
-        stats.setMontantTotal(BigDecimal.ZERO);
-        stats.setObservations("");
+    private static final class ActeursAffaire {
+        long[] agents = new long[0];
+        final List<Agent> chefs = new ArrayList<>();
+        final List<Agent> saisissants = new ArrayList<>();
+    }
 
-        // Récupérer les affaires où l'agent est impliqué via la table de liaison
-        List<Affaire> affaires = getAffairesByAgentAndPeriod(agent.getId(), dateDebut, dateFin);
+    /**
+     * Cumul d'un agent sur la période
+     */
+    private static final class AccumulateurAgent {
+        int nombreAffaires;
+        BigDecimal montantTotal = BigDecimal.ZERO;
+        boolean roleDG;
+        boolean roleDD;
+    }
 
-        for (Affaire affaire : affaires) {
-            stats.setNombreAffaires(stats.getNombreAffaires() + 1);
+    /**
+     * ENRICHISSEMENT : Calcule les statistiques de tous les agents en une passe
+     *
+     * Chaque encaissement validé de la période n'est réparti qu'une fois et sa
+     * répartition est créditée à tous les acteurs de l'affaire. Les encaissements
+     * viennent du chargeur de période partagé et les acteurs d'une seule requête :
+     * aucune affaire n'est relue encaissement par encaissement. Seules comptent
+     * les affaires créées sur la période ; les parts DG/DD sont des totaux de
+     * période attribués aux titulaires de ces rôles.
+     *
+     * @return Statistiques dans l'ordre de la liste d'agents
+     */
+    private List<AgentStatsDTO> calculerStatsAgents(List<Agent> agents, LocalDate dateDebut, LocalDate dateFin) {
+        LongObjectMap<AccumulateurAgent> parAgent = new LongObjectMap<>(agents.size());
+
+        // 1. Acteurs des affaires créées sur la période (une affaire comptée une fois par agent)
+        LongObjectMap<ActeursAffaire> acteursParAffaire = chargerActeursAffairesPeriode(dateDebut, dateFin);
+        acteursParAffaire.forEach((affaireId, acteurs) -> {
+            for (long agentId : acteurs.agents) {
+                parAgent.computeIfAbsent(agentId, id -> new AccumulateurAgent()).nombreAffaires++;
+            }
+        });
 
-            // Calculer le montant en fonction du rôle
-            List<Encaissement> encaissements = encaissementDAO.findByAffaireId(affaire.getId());
-            for (Encaissement enc : encaissements) {
-                if (enc.getStatut() == StatutEncaissement.VALIDE &&
-                        !enc.getDateEncaissement().isBefore(dateDebut) &&
-                        !enc.getDateEncaissement().isAfter(dateFin)) {
+        // 2. Une seule répartition par encaissement validé, distribuée à tous les acteurs
+        Agent dd = agentDAO.findByRoleSpecial(ROLE_DD).orElse(null);
+        Agent dg = agentDAO.findByRoleSpecial(ROLE_DG).orElse(null);
+        int repartitions = 0;
+        for (LigneEncaissementPeriode ligne : chargerLignesPeriode(dateDebut, dateFin)) {
+            ActeursAffaire acteurs = acteursParAffaire.get(ligne.affaireId());
+            if (acteurs == null) {
+                continue;
+            }
 
-                    RepartitionResultat repartition = repartitionService.calculerRepartition(enc, affaire);
+            RepartitionResultat repartition = repartitionService.calculerMontants(
+                    ligne.montantEncaisse(), ligne.indicateurExiste(), ligne.dateEncaissement());
+            repartitionService.calculerPartsIndividuelles(repartition, acteurs.chefs, acteurs.saisissants, dd, dg);
+            repartitions++;
+            for (long agentId : acteurs.agents) {
+                BigDecimal part = premierePartAgent(repartition, agentId);
+                if (part != null) {
+                    AccumulateurAgent acc = parAgent.get(agentId);
+                    acc.montantTotal = acc.montantTotal.add(part);
+                }
+            }
+        }
 
-                    // Ajouter la part de l'agent selon son rôle
-                    BigDecimal partAgent = getPartAgentFromRepartition(repartition, agent.getId());
-                    if (partAgent != null) {
-                        stats.setMontantTotal(stats.getMontantTotal().add(partAgent));
+        // 3. Rôles spéciaux : totaux de période calculés une seule fois
+        boolean dgPresent = false;
+        boolean ddPresent = false;
+        for (long[] role : chargerRolesSpeciaux()) {
+            AccumulateurAgent acc = parAgent.computeIfAbsent(role[0], id -> new AccumulateurAgent());
+            if (role[1] == 0) {
+                acc.roleDG = true;
+                dgPresent = true;
+            } else {
+                acc.roleDD = true;
+                ddPresent = true;
+            }
+        }
+        BigDecimal totalDG = dgPresent ? sommerPartSpeciale("part_dg", dateDebut, dateFin) : BigDecimal.ZERO;
+        BigDecimal totalDD = ddPresent ? sommerPartSpeciale("part_dd", dateDebut, dateFin) : BigDecimal.ZERO;
+
+        List<AgentStatsDTO> resultats = new ArrayList<>(agents.size());
+        for (Agent agent : agents) {
+            AgentStatsDTO stats = new AgentStatsDTO(agent);
+            AccumulateurAgent acc = agent.getId() != null ? parAgent.get(agent.getId()) : null;
+            if (acc != null) {
+                stats.setNombreAffaires(acc.nombreAffaires);
+                stats.setMontantTotal(acc.montantTotal);
+                if (acc.roleDG) {
+                    stats.setPartEnTantQueDG(totalDG);
+                }
+                if (acc.roleDD) {
+                    stats.setPartEnTantQueDD(totalDD);
+                }
+            }
+            stats.calculerPartTotale();
+            resultats.add(stats);
+        }
+
+        logger.debug("📊 Stats agents : {} affaires, {} répartitions, {} agents actifs",
+                acteursParAffaire.size(), repartitions, parAgent.size());
+        return resultats;
+    }
+
+    /**
+     * Acteurs de chaque affaire non supprimée créée sur la période : agents
+     * distincts, chefs et saisissants
+     */
+    private LongObjectMap<ActeursAffaire> chargerActeursAffairesPeriode(LocalDate dateDebut, LocalDate dateFin) {
+        String sql = """
+            SELECT aa.affaire_id, aa.agent_id, aa.role_sur_affaire, ag.code_agent, ag.nom, ag.prenom
+            FROM affaire_acteurs aa
+            JOIN affaires a ON a.id = aa.affaire_id
+            JOIN agents ag ON ag.id = aa.agent_id
+            WHERE a.date_creation BETWEEN ? AND ?
+            AND a.deleted = false
+        """;
+
+        LongObjectMap<ActeursAffaire> acteursParAffaire = new LongObjectMap<>();
+
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(dateDebut));
+            stmt.setDate(2, Date.valueOf(dateFin));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long affaireId = rs.getLong(1);
+                    long agentId = rs.getLong(2);
+                    ActeursAffaire acteurs = acteursParAffaire.computeIfAbsent(affaireId, id -> new ActeursAffaire());
+                    if (Arrays.stream(acteurs.agents).noneMatch(id -> id == agentId)) {
+                        acteurs.agents = Arrays.copyOf(acteurs.agents, acteurs.agents.length + 1);
+                        acteurs.agents[acteurs.agents.length - 1] = agentId;
+                    }
+
+                    String role = rs.getString(3);
+                    if ("CHEF".equals(role) || "SAISISSANT".equals(role)) {
+                        Agent agent = new Agent();
+                        agent.setId(agentId);
+                        agent.setCodeAgent(rs.getString(4));
+                        agent.setNom(rs.getString(5));
+                        agent.setPrenom(rs.getString(6));
+                        ("CHEF".equals(role) ? acteurs.chefs : acteurs.saisissants).add(agent);
                     }
                 }
             }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors du chargement des acteurs des affaires de la période", e);
         }
 
-        // Traiter les rôles spéciaux
-        traiterRolesSpeciaux(stats, agent, dateDebut, dateFin);
+        return acteursParAffaire;
+    }
 
-        return stats;
+    /**
+     * Titulaires des rôles spéciaux : paires (agent_id, 0 = DG / 1 = DD)
+     */
+    private List<long[]> chargerRolesSpeciaux() {
+        String sql = "SELECT agent_id, role_nom FROM roles_speciaux WHERE role_nom IN (?, ?)";
+        List<long[]> roles = new ArrayList<>();
+
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, ROLE_DG);
+            stmt.setString(2, ROLE_DD);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    roles.add(new long[]{rs.getLong(1), ROLE_DG.equals(rs.getString(2)) ? 0 : 1});
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors de la vérification des rôles spéciaux: {}", e.getMessage());
+        }
+
+        return roles;
+    }
+
+    /**
+     * Total d'une part spéciale (part_dg ou part_dd) des répartitions de la période
+     */
+    private BigDecimal sommerPartSpeciale(String colonne, LocalDate dateDebut, LocalDate dateFin) {
+        String sql = "SELECT SUM(r." + colonne + ") FROM repartition_resultat r " +
+                "INNER JOIN encaissements e ON r.encaissement_id = e.id " +
+                "WHERE e.date_encaissement BETWEEN ? AND ? AND r." + colonne + " > 0";
+
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(dateDebut));
+            stmt.setDate(2, Date.valueOf(dateFin));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    BigDecimal total = rs.getBigDecimal(1);
+                    return total != null ? total : BigDecimal.ZERO;
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Erreur lors du calcul de la part {} de la période", colonne, e);
+        }
+
+        return BigDecimal.ZERO;
+    }
+
+    /**
+     * Part d'un agent dans une répartition (première part individuelle), null si absent
+     */
+    private static BigDecimal premierePartAgent(RepartitionResultat repartition, long agentId) {
+        for (RepartitionResultat.PartIndividuelle part : repartition.getPartsIndividuelles()) {
+            if (part.getAgent() != null && part.getAgent().getId() != null
+                    && part.getAgent().getId() == agentId) {
+                return part.getMontant();
+            }
+        }
+        return null;
     }
 
     /**
@@ -2266,7 +2406,7 @@ public class RapportService {
 
         List<Encaissement> encaissements = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = BaseArchive.connexionPourPeriode(dateDebut);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, service.getId());
@@ -2339,7 +2479,7 @@ public class RapportService {
             WHERE aa.affaire_id = ? AND aa.role_sur_affaire = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = BaseArchive.connexionPourAffaire(affaireId);
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, affaireId);
@@ -2364,58 +2504,6 @@ public class RapportService {
         return agents;
     }
 
-    /**
-     * Récupère les affaires d'un agent pour une période
-     */
-    private List<Affaire> getAffairesByAgentAndPeriod(Long agentId, LocalDate dateDebut, LocalDate dateFin) {
-        List<Affaire> affaires = new ArrayList<>();
-
-        String sql = """
-            SELECT DISTINCT a.* FROM affaires a
-            JOIN affaire_acteurs aa ON a.id = aa.affaire_id
-            WHERE aa.agent_id = ? 
-            AND a.date_creation BETWEEN ? AND ?
-            AND a.deleted = false
-        """;
-
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, agentId);
-            stmt.setDate(2, Date.valueOf(dateDebut));
-            stmt.setDate(3, Date.valueOf(dateFin));
-
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                // Utiliser la méthode findById du DAO pour charger l'affaire complète
-                Long affaireId = rs.getLong("id");
-                affaireDAO.findById(affaireId).ifPresent(affaires::add);
-            }
-
-        } catch (SQLException e) {
-            logger.error("Erreur lors de la récupération des affaires pour l'agent {} sur la période", agentId, e);
-        }
-
-        return affaires;
-    }
-
-    /**
-     * Récupère la part d'un agent depuis une répartition
-     */
-    private BigDecimal getPartAgentFromRepartition(RepartitionResultat repartition, Long agentId) {
-        // Parcourir les parts individuelles
-        for (RepartitionResultat.PartIndividuelle part : repartition.getPartsIndividuelles()) {
-            if (part.getAgent() != null && part.getAgent().getId().equals(agentId)) {
-                return part.getMontant();
-            }
-        }
-
-        // Vérifier aussi les bénéficiaires génériques (DD/DG)
-        // TODO: Implémenter si nécessaire
-
-        return BigDecimal.ZERO;
-    }
-
     // ==================== CLASSES DTO CORRECTEMENT DÉFINIES ====================
 
     /**
@@ -4018,18 +4106,73 @@ public class RapportService {
         return printService.printHtmlContent(htmlContent, "Rapport Contentieux");
     }
 
+    // ==================== RAPPORTS EN CACHE ====================
+
+    /**
+     * Données d'un rapport, calculées au plus une fois par version des données
+     * (voir {@link RapportCache})
+     */
+    public Object getDonneesRapport(TypeRapport type, LocalDate debut, LocalDate fin) {
+        return RapportCache.getInstance().getDonnees(type, debut, fin, versionDonnees(debut, fin),
+                () -> genererDonnees(type, debut, fin));
+    }
+
+    /**
+     * HTML d'un rapport : cache mémoire, puis fichier pré-généré valide, sinon calcul
+     */
+    public String getHtmlRapport(TypeRapport type, LocalDate debut, LocalDate fin) {
+        long version = versionDonnees(debut, fin);
+        Optional<String> enCache = RapportCache.getInstance().getHtmlEnCache(type, debut, fin, version);
+        if (enCache.isPresent()) {
+            return enCache.get();
+        }
+
+        // Rapport pré-généré en tâche de fond et toujours à jour : simple lecture du fichier
+        if (snapshot == null) {
+            Optional<String> pregenere = pregenereStore.chargerHtml(type, debut, fin);
+            if (pregenere.isPresent()) {
+                return pregenere.get();
+            }
+        }
+
+        try {
+            return RapportCache.getInstance().getHtml(type, debut, fin, version,
+                    () -> genererDonnees(type, debut, fin),
+                    donnees -> htmlBuilder.buildHtml(type, debut, fin, donnees));
+        } catch (RuntimeException e) {
+            logger.error("Erreur génération HTML {}", type, e);
+            return "<html><body><h1>Erreur</h1><p>" + e.getMessage() + "</p></body></html>";
+        }
+    }
+
+    /**
+     * Calcule les données d'un rapport (sans cache)
+     */
+    public Object genererDonnees(TypeRapport type, LocalDate debut, LocalDate fin) {
+        return switch (type) {
+            case ETAT_REPARTITION_AFFAIRES -> genererDonneesEtatRepartitionAffaires(debut, fin);
+            case ETAT_MANDATEMENT -> genererDonneesEtatMandatement(debut, fin);
+            case CENTRE_REPARTITION -> genererDonneesCentreRepartition(debut, fin);
+            case INDICATEURS_REELS -> genererDonneesIndicateursReels(debut, fin);
+            case REPARTITION_PRODUIT -> genererDonneesRepartitionProduit(debut, fin);
+            case ETAT_CUMULE_AGENT -> genererDonneesEtatCumuleParAgent(debut, fin);
+            case TABLEAU_AMENDES_SERVICE -> genererDonneesTableauAmendesParServices(debut, fin);
+            case MANDATEMENT_AGENTS -> genererDonneesMandatementAgents(debut, fin);
+        };
+    }
+
     /**
      * Template 1 - État de répartition des affaires contentieuses
      */
     public String genererEtatRepartitionAffaires(LocalDate debut, LocalDate fin) {
-        return htmlBuilder.buildHtml(TypeRapport.ETAT_REPARTITION_AFFAIRES, debut, fin);
+        return getHtmlRapport(TypeRapport.ETAT_REPARTITION_AFFAIRES, debut, fin);
     }
 
     /**
      * Template 2 - État par séries de mandatement
      */
     public String genererEtatMandatement(LocalDate debut, LocalDate fin) {
-        return htmlBuilder.buildHtml(TypeRapport.ETAT_MANDATEMENT, debut, fin);
+        return getHtmlRapport(TypeRapport.ETAT_MANDATEMENT, debut, fin);
     }
 
     /**
@@ -4037,61 +4180,41 @@ public class RapportService {
      */
     public String genererEtatCentreRepartition(LocalDate dateDebut, LocalDate dateFin) {
         logger.info("🌐 Génération HTML état centre répartition");
-
-        try {
-            // Générer les données
-            CentreRepartitionDTO data = genererDonneesCentreRepartition(dateDebut, dateFin);
-
-            // DEBUG : Vérifier les données
-            logger.info("Données générées : {} centres", data.getCentres().size());
-
-            // Générer le HTML
-            String html = htmlBuilder.buildHtml(TypeRapport.CENTRE_REPARTITION, dateDebut, dateFin);
-
-            // DEBUG : Vérifier le HTML
-            logger.info("HTML généré (premiers 200 caractères) : {}",
-                    html.length() > 200 ? html.substring(0, 200) : html);
-
-            return html;
-
-        } catch (Exception e) {
-            logger.error("Erreur génération HTML centre répartition", e);
-            return "<html><body><h1>Erreur</h1><p>" + e.getMessage() + "</p></body></html>";
-        }
+        return getHtmlRapport(TypeRapport.CENTRE_REPARTITION, dateDebut, dateFin);
     }
 
     /**
      * Template 4 - État de répartition des parts des indicateurs réels
      */
     public String genererEtatIndicateursReels(LocalDate debut, LocalDate fin) {
-        return htmlBuilder.buildHtml(TypeRapport.INDICATEURS_REELS, debut, fin);
+        return getHtmlRapport(TypeRapport.INDICATEURS_REELS, debut, fin);
     }
 
     /**
      * Template 5 - État de répartition du produit des affaires contentieuses
      */
     public String genererEtatRepartitionProduit(LocalDate debut, LocalDate fin) {
-        return htmlBuilder.buildHtml(TypeRapport.REPARTITION_PRODUIT, debut, fin);
+        return getHtmlRapport(TypeRapport.REPARTITION_PRODUIT, debut, fin);
     }
 
     /**
      * Template 6 - État cumulé par agent
      */
     public String genererEtatCumuleParAgent(LocalDate debut, LocalDate fin) {
-        return htmlBuilder.buildHtml(TypeRapport.ETAT_CUMULE_AGENT, debut, fin);
+        return getHtmlRapport(TypeRapport.ETAT_CUMULE_AGENT, debut, fin);
     }
 
     /**
      * Template 7 - Tableau des amendes par services
      */
     public String genererTableauAmendesParServices(LocalDate debut, LocalDate fin) {
-        return htmlBuilder.buildHtml(TypeRapport.TABLEAU_AMENDES_SERVICE, debut, fin);
+        return getHtmlRapport(TypeRapport.TABLEAU_AMENDES_SERVICE, debut, fin);
     }
 
     /**
      * Template 8 - État par séries de mandatements (agents)
      */
     public String genererEtatMandatementAgents(LocalDate debut, LocalDate fin) {
-        return htmlBuilder.buildHtml(TypeRapport.MANDATEMENT_AGENTS, debut, fin);
+        return getHtmlRapport(TypeRapport.MANDATEMENT_AGENTS, debut, fin);
     }
 }
\ No newline at end of file
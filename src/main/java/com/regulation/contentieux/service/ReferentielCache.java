@@ -0,0 +1,433 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.dao.BanqueDAO;
+import com.regulation.contentieux.dao.BureauDAO;
+import com.regulation.contentieux.dao.CentreDAO;
+import com.regulation.contentieux.dao.ContraventionDAO;
+import com.regulation.contentieux.dao.ServiceDAO;
+import com.regulation.contentieux.model.Banque;
+import com.regulation.contentieux.model.Bureau;
+import com.regulation.contentieux.model.Centre;
+import com.regulation.contentieux.model.Contravention;
+import com.regulation.contentieux.model.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache en mémoire des référentiels peu modifiés : centres, services, bureaux,
+ * banques et contraventions.
+ *
+ * - Les lectures se font sur un instantané immuable, sans verrou
+ * - Chaque écriture passant par les services métier remplace l'instantané
+ *   (copie sur écriture) et incrémente sa version ; les chargements à la
+ *   demande et les rechargements après expiration ne la changent pas
+ * - Honore cache.enabled, cache.maxSize (taille maximale par référentiel) et
+ *   cache.expireAfterWrite (secondes avant rechargement)
+ *
+ * Les éléments rendus sont des copies : un appelant qui modifie un bean (formulaire,
+ * liaison d'affaire…) ne modifie pas l'instantané partagé.
+ *
+ * Un référentiel plus grand que cache.maxSize n'est indexé que partiellement :
+ * les listes sont alors lues dans le DAO, et les recherches par ID absentes de
+ * l'index retombent sur le DAO.
+ */
+public class ReferentielCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferentielCache.class);
+    private static ReferentielCache instance;
+
+    /**
+     * Référentiels gérés par le cache
+     */
+    public enum Type {
+        CENTRE, SERVICE, BUREAU, BANQUE, CONTRAVENTION
+    }
+
+    private final CentreDAO centreDAO = new CentreDAO();
+    private final ServiceDAO serviceDAO = new ServiceDAO();
+    private final BureauDAO bureauDAO = new BureauDAO();
+    private final BanqueDAO banqueDAO = new BanqueDAO();
+    private final ContraventionDAO contraventionDAO = new ContraventionDAO();
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long expireAfterWriteNanos;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.VIDE);
+    private final Object rechargementLock = new Object();
+
+    private ReferentielCache() {
+        this(Boolean.parseBoolean(ConfigurationService.getInstance().getProperty("cache.enabled", "true").trim()),
+                Integer.parseInt(ConfigurationService.getInstance().getProperty("cache.maxSize", "1000").trim()),
+                Long.parseLong(ConfigurationService.getInstance().getProperty("cache.expireAfterWrite", "300").trim()));
+    }
+
+    /**
+     * Cache indépendant du singleton, paramétré directement (tests)
+     */
+    ReferentielCache(boolean enabled, int maxSize, long expireAfterWriteSecondes) {
+        this.enabled = enabled;
+        this.maxSize = Math.max(1, maxSize);
+        this.expireAfterWriteNanos = TimeUnit.SECONDS.toNanos(Math.max(1, expireAfterWriteSecondes));
+    }
+
+    public static synchronized ReferentielCache getInstance() {
+        if (instance == null) {
+            instance = new ReferentielCache();
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Version des référentiels, incrémentée à chaque invalidation (écriture ou
+     * synchronisation), pas par les chargements à la demande
+     */
+    public long getVersion() {
+        return snapshot.get().version();
+    }
+
+    // ==================== LECTURES ====================
+
+    public List<Centre> getCentres() {
+        return enabled ? liste(table(Type.CENTRE, Snapshot::centres), null, centreDAO::findAll, ReferentielCache::copier)
+                : centreDAO.findAll();
+    }
+
+    public List<Centre> getCentresActifs() {
+        return enabled ? liste(table(Type.CENTRE, Snapshot::centres), Centre::isActif, centreDAO::findAllActive, ReferentielCache::copier)
+                : centreDAO.findAllActive();
+    }
+
+    public Optional<Centre> findCentre(Long id) {
+        return enabled ? chercher(id, table(Type.CENTRE, Snapshot::centres), centreDAO::findById, ReferentielCache::copier)
+                : rechercheDirecte(id, centreDAO::findById);
+    }
+
+    public List<Service> getServices() {
+        return enabled ? liste(table(Type.SERVICE, Snapshot::services), null, serviceDAO::findAll, ReferentielCache::copier)
+                : serviceDAO.findAll();
+    }
+
+    public List<Service> getServicesActifs() {
+        return enabled ? liste(table(Type.SERVICE, Snapshot::services), Service::isActif, serviceDAO::findAllActive, ReferentielCache::copier)
+                : serviceDAO.findAllActive();
+    }
+
+    public Optional<Service> findService(Long id) {
+        return enabled ? chercher(id, table(Type.SERVICE, Snapshot::services), serviceDAO::findById, ReferentielCache::copier)
+                : rechercheDirecte(id, serviceDAO::findById);
+    }
+
+    public List<Bureau> getBureaux() {
+        return enabled ? liste(table(Type.BUREAU, Snapshot::bureaux), null, bureauDAO::findAll, ReferentielCache::copier)
+                : bureauDAO.findAll();
+    }
+
+    public List<Bureau> getBureauxActifs() {
+        return enabled ? liste(table(Type.BUREAU, Snapshot::bureaux), Bureau::isActif, bureauDAO::findAllActive, ReferentielCache::copier)
+                : bureauDAO.findAllActive();
+    }
+
+    public Optional<Bureau> findBureau(Long id) {
+        return enabled ? chercher(id, table(Type.BUREAU, Snapshot::bureaux), bureauDAO::findById, ReferentielCache::copier)
+                : rechercheDirecte(id, bureauDAO::findById);
+    }
+
+    public List<Banque> getBanques() {
+        return enabled ? liste(table(Type.BANQUE, Snapshot::banques), null, banqueDAO::findAll, ReferentielCache::copier)
+                : banqueDAO.findAll();
+    }
+
+    public List<Banque> getBanquesActives() {
+        return enabled ? liste(table(Type.BANQUE, Snapshot::banques), Banque::isActif, banqueDAO::findAllActive, ReferentielCache::copier)
+                : banqueDAO.findAllActive();
+    }
+
+    public Optional<Banque> findBanque(Long id) {
+        return enabled ? chercher(id, table(Type.BANQUE, Snapshot::banques), banqueDAO::findById, ReferentielCache::copier)
+                : rechercheDirecte(id, banqueDAO::findById);
+    }
+
+    public List<Contravention> getContraventions() {
+        return enabled ? liste(table(Type.CONTRAVENTION, Snapshot::contraventions), null, contraventionDAO::findAll, ReferentielCache::copier)
+                : contraventionDAO.findAll();
+    }
+
+    public List<Contravention> getContraventionsActives() {
+        return enabled ? liste(table(Type.CONTRAVENTION, Snapshot::contraventions), Contravention::isActif, contraventionDAO::findAllActive, ReferentielCache::copier)
+                : contraventionDAO.findAllActive();
+    }
+
+    public Optional<Contravention> findContravention(Long id) {
+        return enabled ? chercher(id, table(Type.CONTRAVENTION, Snapshot::contraventions), contraventionDAO::findById, ReferentielCache::copier)
+                : rechercheDirecte(id, contraventionDAO::findById);
+    }
+
+    // ==================== INVALIDATION ====================
+
+    /**
+     * Recharge un référentiel après écriture. Les référentiels qui l'embarquent
+     * (services et bureaux pour un centre, bureaux pour un service) sont vidés et
+     * rechargés à leur prochain accès ; les autres sont conservés tels quels
+     */
+    public void invalider(Type type) {
+        synchronized (rechargementLock) {
+            Snapshot courant = snapshot.get();
+            if (!enabled) {
+                // Rien à recharger, mais les consommateurs de la version doivent voir le changement
+                snapshot.set(courant.avecVersion(courant.version() + 1));
+                return;
+            }
+            Snapshot nouveau = courant.avec(type, charger(type));
+            for (Type dependant : dependants(type)) {
+                nouveau = nouveau.avec(dependant, null);
+            }
+            nouveau = nouveau.avecVersion(courant.version() + 1);
+            snapshot.set(nouveau);
+            logger.debug("🔄 Référentiel {} rechargé (version {})", type, nouveau.version());
+        }
+    }
+
+    /**
+     * Vide le cache ; chaque référentiel sera rechargé à son prochain accès
+     */
+    public void invaliderTout() {
+        synchronized (rechargementLock) {
+            snapshot.set(Snapshot.VIDE.avecVersion(snapshot.get().version() + 1));
+        }
+        logger.debug("🗑️ Cache des référentiels vidé");
+    }
+
+    // ==================== INTERNES ====================
+
+    /**
+     * Référentiels dont les éléments embarquent une copie du type donné
+     */
+    private static Set<Type> dependants(Type type) {
+        return switch (type) {
+            case CENTRE -> EnumSet.of(Type.SERVICE, Type.BUREAU);
+            case SERVICE -> EnumSet.of(Type.BUREAU);
+            default -> EnumSet.noneOf(Type.class);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Table<T> table(Type type, Function<Snapshot, Table<T>> accesseur) {
+        Table<T> table = accesseur.apply(snapshot.get());
+        if (table != null && !table.expiree(expireAfterWriteNanos)) {
+            return table;
+        }
+
+        synchronized (rechargementLock) {
+            // Un autre thread a peut-être rechargé pendant l'attente du verrou
+            Snapshot courant = snapshot.get();
+            table = accesseur.apply(courant);
+            if (table == null || table.expiree(expireAfterWriteNanos)) {
+                Table<?> chargee = charger(type);
+                snapshot.set(courant.avec(type, chargee));
+                table = (Table<T>) chargee;
+            }
+            return table;
+        }
+    }
+
+    private Table<?> charger(Type type) {
+        long debut = System.nanoTime();
+        Table<?> table = switch (type) {
+            case CENTRE -> Table.of(centreDAO.findAll(), Centre::getId, maxSize);
+            case SERVICE -> Table.of(serviceDAO.findAll(), Service::getId, maxSize);
+            case BUREAU -> Table.of(bureauDAO.findAll(), Bureau::getId, maxSize);
+            case BANQUE -> Table.of(banqueDAO.findAll(), Banque::getId, maxSize);
+            case CONTRAVENTION -> Table.of(contraventionDAO.findAll(), Contravention::getId, maxSize);
+        };
+
+        if (!table.complet()) {
+            logger.warn("⚠️ Référentiel {} au-delà de cache.maxSize ({}) : index partiel, listes lues en base",
+                    type, maxSize);
+        }
+        logger.debug("📦 Référentiel {} chargé : {} éléments en {} ms",
+                type, table.elements().size(), (System.nanoTime() - debut) / 1_000_000);
+        return table;
+    }
+
+    private static <T> Optional<T> chercher(Long id, Table<T> table, Function<Long, Optional<T>> dao,
+                                            UnaryOperator<T> copie) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        T element = table.parId().get(id);
+        if (element != null) {
+            return Optional.of(copie.apply(element));
+        }
+        // Référentiel partiel : l'élément peut exister hors cache
+        return table.complet() ? Optional.empty() : dao.apply(id);
+    }
+
+    private static <T> Optional<T> rechercheDirecte(Long id, Function<Long, Optional<T>> dao) {
+        return id == null ? Optional.empty() : dao.apply(id);
+    }
+
+    /**
+     * Copies des éléments de la table (filtrés si predicat non null) ; référentiel
+     * partiel : lecture complète dans le DAO
+     */
+    private static <T> List<T> liste(Table<T> table, Predicate<T> predicat, Supplier<List<T>> dao,
+                                     UnaryOperator<T> copie) {
+        if (!table.complet()) {
+            return dao.get();
+        }
+        List<T> copies = new ArrayList<>(table.elements().size());
+        for (T element : table.elements()) {
+            if (predicat == null || predicat.test(element)) {
+                copies.add(copie.apply(element));
+            }
+        }
+        return copies;
+    }
+
+    /**
+     * Page d'une liste, numérotée à partir de 1 ; vide au-delà de la dernière page
+     */
+    public static <T> List<T> page(List<T> elements, int page, int pageSize) {
+        if (page < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("Page et taille de page doivent être >= 1");
+        }
+        long debut = (long) (page - 1) * pageSize;
+        if (debut >= elements.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(elements.subList((int) debut, (int) Math.min(debut + pageSize, elements.size())));
+    }
+
+    // ==================== COPIES ====================
+
+    private static Centre copier(Centre source) {
+        Centre copie = new Centre();
+        copie.setId(source.getId());
+        copie.setCodeCentre(source.getCodeCentre());
+        copie.setNomCentre(source.getNomCentre());
+        copie.setDescription(source.getDescription());
+        copie.setAdresse(source.getAdresse());
+        copie.setActif(source.getActif());
+        copie.setCreatedAt(source.getCreatedAt());
+        return copie;
+    }
+
+    private static Service copier(Service source) {
+        Service copie = new Service();
+        copie.setId(source.getId());
+        copie.setCodeService(source.getCodeService());
+        copie.setNomService(source.getNomService());
+        copie.setDescription(source.getDescription());
+        copie.setActif(source.getActif());
+        copie.setCentreId(source.getCentreId());
+        copie.setCreatedAt(source.getCreatedAt());
+        if (source.getCentre() != null) {
+            copie.setCentre(copier(source.getCentre()));
+        }
+        return copie;
+    }
+
+    private static Bureau copier(Bureau source) {
+        Bureau copie = new Bureau();
+        copie.setId(source.getId());
+        copie.setCodeBureau(source.getCodeBureau());
+        copie.setNomBureau(source.getNomBureau());
+        copie.setDescription(source.getDescription());
+        copie.setActif(source.getActif());
+        copie.setServiceId(source.getServiceId());
+        copie.setCreatedAt(source.getCreatedAt());
+        if (source.getService() != null) {
+            copie.setService(copier(source.getService()));
+        }
+        return copie;
+    }
+
+    private static Banque copier(Banque source) {
+        Banque copie = new Banque();
+        copie.setId(source.getId());
+        copie.setCodeBanque(source.getCodeBanque());
+        copie.setNomBanque(source.getNomBanque());
+        copie.setDescription(source.getDescription());
+        copie.setAdresse(source.getAdresse());
+        copie.setTelephone(source.getTelephone());
+        copie.setEmail(source.getEmail());
+        copie.setActif(source.getActif());
+        copie.setCreatedAt(source.getCreatedAt());
+        return copie;
+    }
+
+    private static Contravention copier(Contravention source) {
+        Contravention copie = source.clone();
+        copie.setId(source.getId());
+        copie.setCreatedBy(source.getCreatedBy());
+        copie.setCreatedAt(source.getCreatedAt());
+        copie.setUpdatedBy(source.getUpdatedBy());
+        copie.setUpdatedAt(source.getUpdatedAt());
+        return copie;
+    }
+
+    /**
+     * Référentiel chargé : liste ordonnée et index par ID, tous deux immuables
+     */
+    private record Table<T>(List<T> elements, Map<Long, T> parId, boolean complet, long chargeLeNanos) {
+
+        static <T> Table<T> of(List<T> source, Function<T, Long> id, int maxSize) {
+            boolean complet = source.size() <= maxSize;
+            List<T> elements = List.copyOf(complet ? source : source.subList(0, maxSize));
+            Map<Long, T> parId = new HashMap<>(elements.size() * 2);
+            for (T element : elements) {
+                Long cle = id.apply(element);
+                if (cle != null) {
+                    parId.put(cle, element);
+                }
+            }
+            return new Table<>(elements, Collections.unmodifiableMap(parId), complet, System.nanoTime());
+        }
+
+        boolean expiree(long dureeNanos) {
+            return System.nanoTime() - chargeLeNanos > dureeNanos;
+        }
+    }
+
+    /**
+     * Instantané immuable des référentiels ; une table null n'est pas encore chargée
+     */
+    private record Snapshot(long version,
+                            Table<Centre> centres,
+                            Table<Service> services,
+                            Table<Bureau> bureaux,
+                            Table<Banque> banques,
+                            Table<Contravention> contraventions) {
+
+        static final Snapshot VIDE = new Snapshot(0L, null, null, null, null, null);
+
+        Snapshot avecVersion(long nouvelleVersion) {
+            return new Snapshot(nouvelleVersion, centres, services, bureaux, banques, contraventions);
+        }
+
+        @SuppressWarnings("unchecked")
+        Snapshot avec(Type type, Table<?> table) {
+            long v = version;
+            return switch (type) {
+                case CENTRE -> new Snapshot(v, (Table<Centre>) table, services, bureaux, banques, contraventions);
+                case SERVICE -> new Snapshot(v, centres, (Table<Service>) table, bureaux, banques, contraventions);
+                case BUREAU -> new Snapshot(v, centres, services, (Table<Bureau>) table, banques, contraventions);
+                case BANQUE -> new Snapshot(v, centres, services, bureaux, (Table<Banque>) table, contraventions);
+                case CONTRAVENTION -> new Snapshot(v, centres, services, bureaux, banques, (Table<Contravention>) table);
+            };
+        }
+    }
+}
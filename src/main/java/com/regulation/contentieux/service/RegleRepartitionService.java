@@ -0,0 +1,366 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.DataVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Jeux de règles de répartition versionnés, stockés dans regles_repartition
+ *
+ * - Chaque version porte ses taux et sa période de validité
+ * - Les versions sont compilées une fois en {@link PlanRepartition} immuables
+ *   et gardées en mémoire
+ * - Au chargement, les périodes sont découpées en segments consécutifs portant
+ *   chacun le plan applicable ; la recherche du plan d'une date ne touche pas
+ *   la base (recherche dichotomique sur les segments), ce qui permet de
+ *   recalculer une année passée avec ses propres règles au même coût qu'avec
+ *   une règle unique
+ *
+ * La table est créée et initialisée au démarrage par {@link DatabaseConfig}.
+ * Une nouvelle version (Administration → Règles de répartition) prend effet
+ * sans redéploiement ; les résultats de rapports en cache sont invalidés via
+ * {@link DataVersion}.
+ */
+public class RegleRepartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegleRepartitionService.class);
+    private static RegleRepartitionService instance;
+
+    private static final String CREATE_TABLE_SQL = """
+        CREATE TABLE IF NOT EXISTS regles_repartition (
+            version INTEGER PRIMARY KEY,
+            libelle TEXT,
+            date_debut TEXT NOT NULL,
+            date_fin TEXT,
+            taux_indicateur TEXT NOT NULL,
+            taux_flcf TEXT NOT NULL,
+            taux_tresor TEXT NOT NULL,
+            taux_chefs TEXT NOT NULL,
+            taux_saisissants TEXT NOT NULL,
+            taux_mutuelle TEXT NOT NULL,
+            taux_masse_commune TEXT NOT NULL,
+            taux_interessement TEXT NOT NULL,
+            taux_base_centre TEXT NOT NULL DEFAULT '0.60',
+            taux_indicateur_centre TEXT NOT NULL DEFAULT '0.25',
+            created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+        )
+    """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO regles_repartition (version, libelle, date_debut, date_fin,
+            taux_indicateur, taux_flcf, taux_tresor, taux_chefs, taux_saisissants,
+            taux_mutuelle, taux_masse_commune, taux_interessement,
+            taux_base_centre, taux_indicateur_centre)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    /**
+     * Règles du cahier des charges, utilisées pour initialiser la table
+     */
+    static final PlanRepartition PLAN_INITIAL = new PlanRepartition(1, "Cahier des charges",
+            LocalDate.of(1900, 1, 1), null,
+            new BigDecimal("0.10"), new BigDecimal("0.10"), new BigDecimal("0.15"),
+            new BigDecimal("0.15"), new BigDecimal("0.35"), new BigDecimal("0.05"),
+            new BigDecimal("0.30"), new BigDecimal("0.15"),
+            new BigDecimal("0.60"), new BigDecimal("0.25"));
+
+    private static final Comparator<PlanRepartition> ORDRE_PLANS =
+            Comparator.comparing(PlanRepartition::getDateDebut).thenComparingInt(PlanRepartition::getVersion);
+
+    /**
+     * Plans compilés : versions triées et segments de dates pour la recherche
+     */
+    record Index(PlanRepartition[] versions, LocalDate[] bornes, PlanRepartition[] segments,
+                         String empreinte) {
+    }
+
+    private volatile Index index;
+
+    private RegleRepartitionService() {
+    }
+
+    public static synchronized RegleRepartitionService getInstance() {
+        if (instance == null) {
+            instance = new RegleRepartitionService();
+        }
+        return instance;
+    }
+
+    /**
+     * Plan applicable à une date (date du jour si null)
+     *
+     * - Plusieurs versions couvrent la date : la version la plus récente l'emporte
+     * - Aucune version ne couvre la date (trou entre deux périodes) : la
+     *   version dont la période s'est terminée le plus tard reste appliquée
+     * - Date antérieure à toute règle : version de la première période
+     */
+    public PlanRepartition planPour(LocalDate date) {
+        return chercher(getIndex(), date != null ? date : LocalDate.now());
+    }
+
+    static PlanRepartition chercher(Index courant, LocalDate cible) {
+        if (courant.segments.length == 1) {
+            return courant.segments[0];
+        }
+
+        // Dernier segment dont la borne de début est <= cible
+        int bas = 0;
+        int haut = courant.bornes.length - 1;
+        int dernier = 0;
+        while (bas <= haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (courant.bornes[milieu].isAfter(cible)) {
+                haut = milieu - 1;
+            } else {
+                dernier = milieu;
+                bas = milieu + 1;
+            }
+        }
+        return courant.segments[dernier];
+    }
+
+    /**
+     * Plan en vigueur aujourd'hui
+     */
+    public PlanRepartition planCourant() {
+        return planPour(LocalDate.now());
+    }
+
+    /**
+     * Toutes les versions, triées par date de début
+     */
+    public List<PlanRepartition> listerVersions() {
+        return List.of(getIndex().versions);
+    }
+
+    /**
+     * Empreinte du catalogue (change à chaque nouvelle version ou modification rechargée)
+     */
+    public String getEmpreinte() {
+        return getIndex().empreinte;
+    }
+
+    /**
+     * Enregistre une nouvelle version de règles ; son numéro est attribué automatiquement
+     *
+     * @return le plan compilé avec son numéro de version
+     */
+    public synchronized PlanRepartition ajouterVersion(PlanRepartition regles) {
+        try {
+            int version;
+            try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT IFNULL(MAX(version), 0) + 1 FROM regles_repartition")) {
+                    version = rs.next() ? rs.getInt(1) : 1;
+                }
+                inserer(conn, version, regles);
+            }
+
+            logger.info("📐 Règles de répartition v{} enregistrées ({} → {})", version,
+                    regles.getDateDebut(), regles.getDateFin() != null ? regles.getDateFin() : "…");
+
+            recharger();
+            return Arrays.stream(getIndex().versions).filter(p -> p.getVersion() == version).findFirst().orElseThrow();
+
+        } catch (SQLException e) {
+            logger.error("❌ Erreur lors de l'enregistrement des règles de répartition", e);
+            throw new RuntimeException("Erreur lors de l'enregistrement des règles de répartition", e);
+        }
+    }
+
+    /**
+     * Recompile les plans depuis la base (après une modification directe de la table)
+     * et invalide les résultats de rapports calculés avec les anciennes règles
+     */
+    public synchronized void recharger() {
+        index = indexer(charger());
+        DataVersion.signalerEcriture("regles_repartition");
+    }
+
+    private Index getIndex() {
+        Index courant = index;
+        if (courant == null) {
+            synchronized (this) {
+                if (index == null) {
+                    index = indexer(charger());
+                }
+                courant = index;
+            }
+        }
+        return courant;
+    }
+
+    private List<PlanRepartition> charger() {
+        List<PlanRepartition> liste = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM regles_repartition")) {
+            while (rs.next()) {
+                try {
+                    liste.add(mapPlan(rs));
+                } catch (RuntimeException e) {
+                    logger.error("❌ Règles de répartition v{} invalides, ignorées: {}",
+                            rs.getInt("version"), e.getMessage());
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Impossible de charger les règles de répartition, règles initiales utilisées", e);
+        }
+
+        if (liste.isEmpty()) {
+            liste.add(PLAN_INITIAL);
+        }
+        liste.sort(ORDRE_PLANS);
+        logger.info("📐 {} version(s) de règles de répartition compilée(s)", liste.size());
+        return liste;
+    }
+
+    /**
+     * Découpe le calendrier aux dates où le plan applicable peut changer
+     * (débuts de période et lendemains de fin) et résout chaque segment une fois
+     */
+    static Index indexer(List<PlanRepartition> versions) {
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        for (PlanRepartition plan : versions) {
+            dates.add(plan.getDateDebut());
+            if (plan.getDateFin() != null && plan.getDateFin().isBefore(LocalDate.MAX)) {
+                dates.add(plan.getDateFin().plusDays(1));
+            }
+        }
+
+        List<LocalDate> bornes = new ArrayList<>();
+        List<PlanRepartition> segments = new ArrayList<>();
+        for (LocalDate borne : dates) {
+            PlanRepartition plan = resoudre(versions, borne);
+            // Segments consécutifs de même plan fusionnés
+            if (segments.isEmpty() || segments.get(segments.size() - 1) != plan) {
+                bornes.add(borne);
+                segments.add(plan);
+            }
+        }
+
+        StringBuilder empreinte = new StringBuilder();
+        for (PlanRepartition plan : versions) {
+            empreinte.append(plan.getVersion()).append(plan.getDateDebut()).append(plan.getDateFin())
+                    .append(plan.getTauxIndicateur()).append(plan.getTauxFLCF()).append(plan.getTauxTresor())
+                    .append(plan.getTauxChefs()).append(plan.getTauxSaisissants()).append(plan.getTauxMutuelle())
+                    .append(plan.getTauxMasseCommune()).append(plan.getTauxInteressement())
+                    .append(plan.getTauxBaseCentre()).append(plan.getTauxIndicateurCentre()).append(';');
+        }
+        int versionMax = versions.stream().mapToInt(PlanRepartition::getVersion).max().orElse(0);
+        return new Index(versions.toArray(new PlanRepartition[0]), bornes.toArray(new LocalDate[0]),
+                segments.toArray(new PlanRepartition[0]),
+                "r" + versionMax + ":" + Integer.toHexString(empreinte.toString().hashCode()));
+    }
+
+    private static PlanRepartition resoudre(List<PlanRepartition> versions, LocalDate date) {
+        PlanRepartition couvrant = null;
+        PlanRepartition precedent = null;
+        for (PlanRepartition plan : versions) {
+            if (plan.couvre(date)) {
+                if (couvrant == null || plan.getVersion() > couvrant.getVersion()) {
+                    couvrant = plan;
+                }
+            } else if (!plan.getDateDebut().isAfter(date)) {
+                // Période terminée avant la date : la plus tardive, puis la version la plus récente
+                if (precedent == null || plan.getDateFin().isAfter(precedent.getDateFin())
+                        || (plan.getDateFin().isEqual(precedent.getDateFin())
+                        && plan.getVersion() > precedent.getVersion())) {
+                    precedent = plan;
+                }
+            }
+        }
+        if (couvrant != null) {
+            return couvrant;
+        }
+        logger.warn("⚠️ Aucune règle de répartition ne couvre {} : {} prolongée", date, precedent);
+        return precedent;
+    }
+
+    private static PlanRepartition mapPlan(ResultSet rs) throws SQLException {
+        String fin = rs.getString("date_fin");
+        return new PlanRepartition(
+                rs.getInt("version"),
+                rs.getString("libelle"),
+                LocalDate.parse(rs.getString("date_debut")),
+                fin != null && !fin.isBlank() ? LocalDate.parse(fin) : null,
+                new BigDecimal(rs.getString("taux_indicateur")),
+                new BigDecimal(rs.getString("taux_flcf")),
+                new BigDecimal(rs.getString("taux_tresor")),
+                new BigDecimal(rs.getString("taux_chefs")),
+                new BigDecimal(rs.getString("taux_saisissants")),
+                new BigDecimal(rs.getString("taux_mutuelle")),
+                new BigDecimal(rs.getString("taux_masse_commune")),
+                new BigDecimal(rs.getString("taux_interessement")),
+                new BigDecimal(rs.getString("taux_base_centre")),
+                new BigDecimal(rs.getString("taux_indicateur_centre")));
+    }
+
+    private static void inserer(Connection conn, int version, PlanRepartition regles) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            stmt.setInt(1, version);
+            stmt.setString(2, regles.getLibelle());
+            stmt.setString(3, regles.getDateDebut().toString());
+            stmt.setString(4, regles.getDateFin() != null ? regles.getDateFin().toString() : null);
+            stmt.setString(5, regles.getTauxIndicateur().toPlainString());
+            stmt.setString(6, regles.getTauxFLCF().toPlainString());
+            stmt.setString(7, regles.getTauxTresor().toPlainString());
+            stmt.setString(8, regles.getTauxChefs().toPlainString());
+            stmt.setString(9, regles.getTauxSaisissants().toPlainString());
+            stmt.setString(10, regles.getTauxMutuelle().toPlainString());
+            stmt.setString(11, regles.getTauxMasseCommune().toPlainString());
+            stmt.setString(12, regles.getTauxInteressement().toPlainString());
+            stmt.setString(13, regles.getTauxBaseCentre().toPlainString());
+            stmt.setString(14, regles.getTauxIndicateurCentre().toPlainString());
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Tables créées avant l'ajout d'un taux : colonne ajoutée avec la valeur du cahier des charges
+     */
+    private static void ajouterColonneSiAbsente(Connection conn, String colonne, String defaut) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*) FROM pragma_table_info('regles_repartition') WHERE name = '" + colonne + "'")) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE regles_repartition ADD COLUMN " + colonne
+                    + " TEXT NOT NULL DEFAULT " + defaut);
+            logger.info("📐 Colonne {} ajoutée aux règles de répartition", colonne);
+        }
+    }
+
+    /**
+     * Crée la table des règles et y enregistre les règles initiales si elle est vide
+     * (appelé à l'initialisation du schéma, sur la connexion de {@link DatabaseConfig})
+     */
+    public static void preparerSchema(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+            ajouterColonneSiAbsente(conn, "taux_base_centre", "'0.60'");
+            ajouterColonneSiAbsente(conn, "taux_indicateur_centre", "'0.25'");
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM regles_repartition")) {
+                if (rs.next() && rs.getInt(1) == 0) {
+                    inserer(conn, PLAN_INITIAL.getVersion(), PLAN_INITIAL);
+                    logger.info("📐 Règles de répartition initiales enregistrées (v1)");
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("⚠️ Table des règles de répartition non créée: {}", e.getMessage());
+        }
+    }
+}
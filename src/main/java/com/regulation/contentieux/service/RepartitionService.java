@@ -1,9 +1,13 @@
 package com.regulation.contentieux.service;
 
-import com.regulation.contentieux.config.DatabaseConfig;
 import com.regulation.contentieux.model.*;
 import com.regulation.contentieux.dao.AgentDAO;
 import com.regulation.contentieux.dao.RepartitionDAO;
+import com.regulation.contentieux.service.CalculateurRepartition.MontantsRepartition;
+import com.regulation.contentieux.util.Annulation;
+import com.regulation.contentieux.util.DataVersion;
+import com.regulation.contentieux.util.MontantFixe;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +17,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -37,20 +42,16 @@ import java.util.*;
  *    - Mutuelle nationale = 5% × Produit net ayants droits
  *    - Masse commune = 30% × Produit net ayants droits
  *    - Intéressement = 15% × Produit net ayants droits
+ *
+ * Ces taux sont ceux de la version initiale ; les versions suivantes et leurs
+ * périodes de validité sont gérées par {@link RegleRepartitionService}.
  */
 public class RepartitionService {
 
     private static final Logger logger = LoggerFactory.getLogger(RepartitionService.class);
 
-    // Taux de répartition selon le cahier des charges
-    private static final BigDecimal TAUX_INDICATEUR = new BigDecimal("0.10");      // 10%
-    private static final BigDecimal TAUX_FLCF = new BigDecimal("0.10");           // 10%
-    private static final BigDecimal TAUX_TRESOR = new BigDecimal("0.15");         // 15%
-    private static final BigDecimal TAUX_CHEFS = new BigDecimal("0.15");          // 15%
-    private static final BigDecimal TAUX_SAISISSANTS = new BigDecimal("0.35");    // 35%
-    private static final BigDecimal TAUX_MUTUELLE = new BigDecimal("0.05");       // 5%
-    private static final BigDecimal TAUX_MASSE_COMMUNE = new BigDecimal("0.30");  // 30%
-    private static final BigDecimal TAUX_INTERESSEMENT = new BigDecimal("0.15");  // 15%
+    // Taux versionnés (table regles_repartition), choisis selon la date d'encaissement
+    private final RegleRepartitionService regles = RegleRepartitionService.getInstance();
 
     private final AgentDAO agentDAO;
     private final RepartitionDAO repartitionDAO;
@@ -64,57 +65,122 @@ public class RepartitionService {
      * Calcule la répartition pour un encaissement
      */
     public RepartitionResultat calculerRepartition(Encaissement encaissement, Affaire affaire) {
+        Annulation.verifier();
         logger.info("🧮 === CALCUL DE RÉPARTITION ===");
         logger.info("🧮 Encaissement: {} - Montant: {}",
                 encaissement.getReference(), encaissement.getMontantEncaisse());
 
-        RepartitionResultat resultat = new RepartitionResultat();
+        PlanRepartition plan = regles.planPour(encaissement.getDateEncaissement());
+        RepartitionResultat resultat = calculerMontants(encaissement.getMontantEncaisse(), hasIndicateur(affaire), plan);
         resultat.setEncaissement(encaissement);
 
-        BigDecimal montantEncaisse = encaissement.getMontantEncaisse();
+        // 6. Calcul des parts individuelles
+        calculerPartsIndividuelles(resultat, affaire);
+
+        // 7. Vérification de la cohérence
+        verifierCoherence(resultat);
+
+        return resultat;
+    }
+
+    /**
+     * Montants de la répartition (niveaux 1 et 2) sans les parts individuelles
+     *
+     * Aucun accès à la base : utilisable en masse par les rapports qui n'affichent
+     * que les parts globales (indicateur, FLCF, Trésor, ayants droits...).
+     */
+    public RepartitionResultat calculerMontants(BigDecimal montantEncaisse, boolean indicateurExiste,
+                                                LocalDate dateEncaissement) {
+        return calculerMontants(montantEncaisse, indicateurExiste, regles.planPour(dateEncaissement));
+    }
+
+    private RepartitionResultat calculerMontants(BigDecimal montantEncaisse, boolean indicateurExiste,
+                                                 PlanRepartition plan) {
+        if (MontantFixe.estEntier(montantEncaisse)) {
+            try {
+                return versResultat(montantEncaisse,
+                        plan.getCalculateur().calculer(MontantFixe.versLong(montantEncaisse), indicateurExiste));
+            } catch (ArithmeticException e) {
+                logger.debug("Montant {} hors capacité du calcul entier, calcul décimal", montantEncaisse);
+            }
+        }
+        return calculerMontantsDecimal(montantEncaisse, indicateurExiste, plan);
+    }
+
+    /**
+     * Conversion des montants entiers, aux mêmes échelles que le calcul décimal
+     */
+    private RepartitionResultat versResultat(BigDecimal montantEncaisse, MontantsRepartition montants) {
+        int echelle = Math.max(montantEncaisse.scale(), 0);
+
+        RepartitionResultat resultat = new RepartitionResultat();
+        resultat.setProduitDisponible(montantEncaisse);
+        resultat.setPartIndicateur(MontantFixe.versBigDecimal(montants.partIndicateur(), 0));
+        resultat.setProduitNet(MontantFixe.versBigDecimal(montants.produitNet(), echelle));
+        resultat.setPartFLCF(MontantFixe.versBigDecimal(montants.partFLCF(), 0));
+        resultat.setPartTresor(MontantFixe.versBigDecimal(montants.partTresor(), 0));
+        resultat.setProduitNetAyantsDroits(MontantFixe.versBigDecimal(montants.produitNetAyantsDroits(), echelle));
+        resultat.setPartChefs(MontantFixe.versBigDecimal(montants.partChefs(), 0));
+        resultat.setPartSaisissants(MontantFixe.versBigDecimal(montants.partSaisissants(), 0));
+        resultat.setPartMutuelle(MontantFixe.versBigDecimal(montants.partMutuelle(), 0));
+        resultat.setPartMasseCommune(MontantFixe.versBigDecimal(montants.partMasseCommune(), 0));
+        resultat.setPartInteressement(MontantFixe.versBigDecimal(montants.partInteressement(), 0));
+
+        logger.debug("💰 Répartition {} FCFA : indicateur {}, FLCF {}, Trésor {}, ayants droits {}",
+                montantEncaisse, montants.partIndicateur(), montants.partFLCF(),
+                montants.partTresor(), montants.produitNetAyantsDroits());
+        return resultat;
+    }
+
+    /**
+     * Calcul décimal de référence (montants non entiers ou hors capacité d'un long)
+     */
+    private RepartitionResultat calculerMontantsDecimal(BigDecimal montantEncaisse, boolean indicateurExiste,
+                                                        PlanRepartition plan) {
+        RepartitionResultat resultat = new RepartitionResultat();
         resultat.setProduitDisponible(montantEncaisse);
 
         // 1. Calcul de la part indicateur (si existe)
         BigDecimal partIndicateur = BigDecimal.ZERO;
-        if (hasIndicateur(affaire)) {
-            partIndicateur = montantEncaisse.multiply(TAUX_INDICATEUR)
+        if (indicateurExiste) {
+            partIndicateur = montantEncaisse.multiply(plan.getTauxIndicateur())
                     .setScale(0, RoundingMode.HALF_UP);
             resultat.setPartIndicateur(partIndicateur);
-            logger.info("💰 Part indicateur (10%): {} FCFA", partIndicateur);
+            logger.debug("💰 Part indicateur: {} FCFA", partIndicateur);
         }
 
         // 2. Calcul du produit net
         BigDecimal produitNet = montantEncaisse.subtract(partIndicateur);
         resultat.setProduitNet(produitNet);
-        logger.info("💰 Produit net: {} FCFA", produitNet);
+        logger.debug("💰 Produit net: {} FCFA", produitNet);
 
         // 3. Répartition niveau 1
-        BigDecimal partFLCF = produitNet.multiply(TAUX_FLCF)
+        BigDecimal partFLCF = produitNet.multiply(plan.getTauxFLCF())
                 .setScale(0, RoundingMode.HALF_UP);
-        BigDecimal partTresor = produitNet.multiply(TAUX_TRESOR)
+        BigDecimal partTresor = produitNet.multiply(plan.getTauxTresor())
                 .setScale(0, RoundingMode.HALF_UP);
 
         resultat.setPartFLCF(partFLCF);
         resultat.setPartTresor(partTresor);
 
-        logger.info("💰 Part FLCF (10%): {} FCFA", partFLCF);
-        logger.info("💰 Part Trésor (15%): {} FCFA", partTresor);
+        logger.debug("💰 Part FLCF: {} FCFA", partFLCF);
+        logger.debug("💰 Part Trésor: {} FCFA", partTresor);
 
         // 4. Produit net ayants droits
         BigDecimal produitNetAyantsDroits = produitNet.subtract(partFLCF).subtract(partTresor);
         resultat.setProduitNetAyantsDroits(produitNetAyantsDroits);
-        logger.info("💰 Produit net ayants droits: {} FCFA", produitNetAyantsDroits);
+        logger.debug("💰 Produit net ayants droits: {} FCFA", produitNetAyantsDroits);
 
         // 5. Répartition niveau 2
-        BigDecimal partChefs = produitNetAyantsDroits.multiply(TAUX_CHEFS)
+        BigDecimal partChefs = produitNetAyantsDroits.multiply(plan.getTauxChefs())
                 .setScale(0, RoundingMode.HALF_UP);
-        BigDecimal partSaisissants = produitNetAyantsDroits.multiply(TAUX_SAISISSANTS)
+        BigDecimal partSaisissants = produitNetAyantsDroits.multiply(plan.getTauxSaisissants())
                 .setScale(0, RoundingMode.HALF_UP);
-        BigDecimal partMutuelle = produitNetAyantsDroits.multiply(TAUX_MUTUELLE)
+        BigDecimal partMutuelle = produitNetAyantsDroits.multiply(plan.getTauxMutuelle())
                 .setScale(0, RoundingMode.HALF_UP);
-        BigDecimal partMasseCommune = produitNetAyantsDroits.multiply(TAUX_MASSE_COMMUNE)
+        BigDecimal partMasseCommune = produitNetAyantsDroits.multiply(plan.getTauxMasseCommune())
                 .setScale(0, RoundingMode.HALF_UP);
-        BigDecimal partInteressement = produitNetAyantsDroits.multiply(TAUX_INTERESSEMENT)
+        BigDecimal partInteressement = produitNetAyantsDroits.multiply(plan.getTauxInteressement())
                 .setScale(0, RoundingMode.HALF_UP);
 
         resultat.setPartChefs(partChefs);
@@ -123,17 +189,11 @@ public class RepartitionService {
         resultat.setPartMasseCommune(partMasseCommune);
         resultat.setPartInteressement(partInteressement);
 
-        logger.info("💰 Part chefs (15%): {} FCFA", partChefs);
-        logger.info("💰 Part saisissants (35%): {} FCFA", partSaisissants);
-        logger.info("💰 Part mutuelle (5%): {} FCFA", partMutuelle);
-        logger.info("💰 Part masse commune (30%): {} FCFA", partMasseCommune);
-        logger.info("💰 Part intéressement (15%): {} FCFA", partInteressement);
-
-        // 6. Calcul des parts individuelles
-        calculerPartsIndividuelles(resultat, affaire);
-
-        // 7. Vérification de la cohérence
-        verifierCoherence(resultat);
+        logger.debug("💰 Part chefs: {} FCFA", partChefs);
+        logger.debug("💰 Part saisissants: {} FCFA", partSaisissants);
+        logger.debug("💰 Part mutuelle: {} FCFA", partMutuelle);
+        logger.debug("💰 Part masse commune: {} FCFA", partMasseCommune);
+        logger.debug("💰 Part intéressement: {} FCFA", partInteressement);
 
         return resultat;
     }
@@ -147,14 +207,17 @@ public class RepartitionService {
      * CORRIGÉ : Division correcte des parts entre tous les bénéficiaires
      */
     private void calculerPartsIndividuelles(RepartitionResultat resultat, Affaire affaire) {
-        logger.info("👥 === CALCUL DES PARTS INDIVIDUELLES ===");
-
-        List<Agent> chefs = getChefs(affaire);
-        List<Agent> saisissants = getSaisissants(affaire);
-
         // CORRECTION : DD et DG font partie du pool des chefs
-        Agent dd = getAgentDD();
-        Agent dg = getAgentDG();
+        calculerPartsIndividuelles(resultat, getChefs(affaire), getSaisissants(affaire), getAgentDD(), getAgentDG());
+    }
+
+    /**
+     * Parts individuelles à partir d'acteurs déjà chargés : les rapports de période
+     * lisent les acteurs et les titulaires DD/DG une fois pour tous les encaissements
+     */
+    public void calculerPartsIndividuelles(RepartitionResultat resultat, List<Agent> chefs,
+                                           List<Agent> saisissants, Agent dd, Agent dg) {
+        logger.info("👥 === CALCUL DES PARTS INDIVIDUELLES ===");
 
         // Créer une liste combinée pour les chefs + DD + DG
         List<Agent> beneficiairesChefs = new ArrayList<>(chefs);
@@ -180,8 +243,7 @@ public class RepartitionService {
             BigDecimal partTotaleChefs = resultat.getPartChefs();
 
             // DIVISER la part totale par le nombre de bénéficiaires
-            BigDecimal partParBeneficiaire = partTotaleChefs
-                    .divide(new BigDecimal(beneficiairesChefs.size()), 2, RoundingMode.HALF_UP);
+            BigDecimal partParBeneficiaire = diviserPart(partTotaleChefs, beneficiairesChefs.size());
 
             logger.info("💰 Part totale chefs: {} FCFA à diviser entre {} bénéficiaires",
                     partTotaleChefs, beneficiairesChefs.size());
@@ -211,8 +273,7 @@ public class RepartitionService {
             BigDecimal partTotaleSaisissants = resultat.getPartSaisissants();
 
             // DIVISER la part totale par le nombre de saisissants
-            BigDecimal partParSaisissant = partTotaleSaisissants
-                    .divide(new BigDecimal(saisissants.size()), 2, RoundingMode.HALF_UP);
+            BigDecimal partParSaisissant = diviserPart(partTotaleSaisissants, saisissants.size());
 
             logger.info("💰 Part totale saisissants: {} FCFA à diviser entre {} saisissants",
                     partTotaleSaisissants, saisissants.size());
@@ -236,6 +297,21 @@ public class RepartitionService {
                 resultat.getPartSaisissants(), saisissants.size());
     }
 
+    /**
+     * Part globale divisée entre n bénéficiaires, arrondie HALF_UP au centime
+     */
+    private BigDecimal diviserPart(BigDecimal partGlobale, int beneficiaires) {
+        if (MontantFixe.estEntier(partGlobale)) {
+            try {
+                return MontantFixe.centimesVersBigDecimal(
+                        MontantFixe.partEnCentimes(MontantFixe.versLong(partGlobale), beneficiaires));
+            } catch (ArithmeticException e) {
+                logger.debug("Part {} hors capacité du calcul entier, calcul décimal", partGlobale);
+            }
+        }
+        return partGlobale.divide(new BigDecimal(beneficiaires), 2, RoundingMode.HALF_UP);
+    }
+
     /**
      * Enregistre les parts individuelles dans la base
      * NOUVEAU : Méthode pour sauvegarder correctement les parts individuelles
@@ -249,7 +325,7 @@ public class RepartitionService {
         ) VALUES (?, ?, ?, ?)
     """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             conn.setAutoCommit(false);
@@ -267,6 +343,7 @@ public class RepartitionService {
 
             int[] results = stmt.executeBatch();
             conn.commit();
+            DataVersion.signalerEcriture("repartition_details");
 
             logger.info("✅ {} parts individuelles enregistrées", results.length);
 
@@ -313,7 +390,7 @@ public class RepartitionService {
             AND role_sur_affaire = 'INDICATEUR'
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, affaire.getId());
@@ -358,7 +435,7 @@ public class RepartitionService {
             AND aa.role_sur_affaire = ?
         """;
 
-        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+        try (Connection conn = TransactionManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, affaire.getId());
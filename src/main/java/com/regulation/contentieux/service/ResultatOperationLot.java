@@ -0,0 +1,73 @@
+package com.regulation.contentieux.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Issue d'une opération appliquée à un lot d'éléments (validation, rejet,
+ * suppression), élément par élément
+ *
+ * L'opération est appliquée en une transaction : les éléments refusés ou
+ * introuvables n'empêchent pas le traitement des autres.
+ */
+public class ResultatOperationLot {
+
+    public enum Issue {
+        EFFECTUE,
+        INTROUVABLE,
+        REFUSE
+    }
+
+    /**
+     * Issue pour un identifiant, avec le motif en cas de refus
+     */
+    public record IssueElement(Long id, Issue issue, String motif) {
+    }
+
+    private final Map<Long, IssueElement> issues = new LinkedHashMap<>();
+
+    void effectue(Long id) {
+        issues.put(id, new IssueElement(id, Issue.EFFECTUE, null));
+    }
+
+    void introuvable(Long id) {
+        issues.put(id, new IssueElement(id, Issue.INTROUVABLE, "Élément introuvable"));
+    }
+
+    void refuse(Long id, String motif) {
+        issues.put(id, new IssueElement(id, Issue.REFUSE, motif));
+    }
+
+    public Map<Long, IssueElement> getIssues() {
+        return Collections.unmodifiableMap(issues);
+    }
+
+    public IssueElement getIssue(Long id) {
+        return issues.get(id);
+    }
+
+    public int getNombreEffectues() {
+        return (int) issues.values().stream().filter(i -> i.issue() == Issue.EFFECTUE).count();
+    }
+
+    /**
+     * Éléments non traités (refusés ou introuvables)
+     */
+    public List<IssueElement> getEchecs() {
+        return issues.values().stream()
+                .filter(i -> i.issue() != Issue.EFFECTUE)
+                .collect(Collectors.toList());
+    }
+
+    public boolean estComplet() {
+        return getEchecs().isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return getNombreEffectues() + "/" + issues.size() + " effectué(s)";
+    }
+}
@@ -22,6 +22,7 @@ public class ServiceOrganisationService {
     private static final Logger logger = LoggerFactory.getLogger(ServiceOrganisationService.class);
 
     private final ServiceDAO serviceDAO;
+    private final ReferentielCache referentielCache = ReferentielCache.getInstance();
     private final ValidationService validationService;
 
     public ServiceOrganisationService() {
@@ -35,7 +36,7 @@ public class ServiceOrganisationService {
      */
     public List<Service> getAllServices() {
         logger.debug("Récupération de tous les services");
-        return serviceDAO.findAll();
+        return referentielCache.getServices();
     }
 
     /**
@@ -46,8 +47,7 @@ public class ServiceOrganisationService {
      */
     public List<Service> getAllServices(int page, int pageSize) {
         logger.debug("Récupération des services - page: {}, taille: {}", page, pageSize);
-        int offset = (page - 1) * pageSize;
-        return serviceDAO.findAll(); // TODO: Implémenter la pagination dans le DAO si nécessaire
+        return ReferentielCache.page(referentielCache.getServices(), page, pageSize);
     }
 
     /**
@@ -56,7 +56,7 @@ public class ServiceOrganisationService {
      */
     public List<Service> getAllServicesActifs() {
         logger.debug("Récupération des services actifs");
-        return serviceDAO.findAllActive();
+        return referentielCache.getServicesActifs();
     }
 
     /**
@@ -82,7 +82,7 @@ public class ServiceOrganisationService {
             logger.warn("Tentative de recherche avec un ID null");
             return Optional.empty();
         }
-        return serviceDAO.findById(id);
+        return referentielCache.findService(id);
     }
 
     /**
@@ -121,6 +121,7 @@ public class ServiceOrganisationService {
         }
 
         Service saved = serviceDAO.save(service);
+        referentielCache.invalider(ReferentielCache.Type.SERVICE);
         logger.info("Service créé avec succès - ID: {}, Code: {}", saved.getId(), saved.getCodeService());
 
         return saved;
@@ -160,6 +161,7 @@ public class ServiceOrganisationService {
         }
 
         Service updated = serviceDAO.update(service);
+        referentielCache.invalider(ReferentielCache.Type.SERVICE);
         logger.info("Service mis à jour avec succès - Code: {}", updated.getCodeService());
 
         return updated;
@@ -180,6 +182,7 @@ public class ServiceOrganisationService {
         // TODO: Vérifier s'il y a des bureaux ou agents liés avant suppression
 
         serviceDAO.deleteById(id);
+        referentielCache.invalider(ReferentielCache.Type.SERVICE);
         logger.info("Service supprimé: {} - {}", service.get().getCodeService(), service.get().getNomService());
     }
 
@@ -198,6 +201,7 @@ public class ServiceOrganisationService {
         service.setActif(actif);
 
         serviceDAO.update(service);
+        referentielCache.invalider(ReferentielCache.Type.SERVICE);
         logger.info("Service {} {}: {}",
                 service.getCodeService(),
                 actif ? "activé" : "désactivé",
@@ -0,0 +1,242 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Points de reprise de la synchronisation incrémentale, persistés dans SQLite
+ *
+ * Pour chaque table on conserve la position (horodatage, rowid) du dernier lot
+ * committé côté MySQL. Après un arrêt brutal ou une coupure réseau, la
+ * synchronisation suivante repart de cette position.
+ *
+ * L'horodatage est normalisé en millisecondes epoch : selon le DAO, updated_at
+ * est écrit en texte (CURRENT_TIMESTAMP) ou en entier (setTimestamp). Un index
+ * sur cette expression permet de ne lire que les lignes modifiées.
+ *
+ * Les suppressions physiques sont journalisées par des triggers dans
+ * sync_suppressions, puis rejouées côté MySQL par le pipeline.
+ */
+public class SyncCheckpointStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncCheckpointStore.class);
+
+    private static final String CREATE_TABLE_SQL = """
+        CREATE TABLE IF NOT EXISTS sync_checkpoints (
+            table_name TEXT PRIMARY KEY,
+            last_watermark TEXT NOT NULL DEFAULT '',
+            last_rowid INTEGER NOT NULL DEFAULT 0,
+            updated_at DATETIME DEFAULT CURRENT_TIMESTAMP
+        )
+    """;
+
+    private static final String CREATE_SUPPRESSIONS_SQL = """
+        CREATE TABLE IF NOT EXISTS sync_suppressions (
+            id INTEGER PRIMARY KEY AUTOINCREMENT,
+            table_name TEXT NOT NULL,
+            cle TEXT NOT NULL,
+            deleted_at DATETIME DEFAULT CURRENT_TIMESTAMP
+        )
+    """;
+
+    private volatile boolean tableVerifiee = false;
+
+    /**
+     * Position de lecture d'une table (horodatage en millisecondes epoch)
+     */
+    public record Checkpoint(long watermark, long rowid) {
+        public static final Checkpoint ORIGINE = new Checkpoint(Long.MIN_VALUE, 0L);
+    }
+
+    /**
+     * Horodatage normalisé en millisecondes epoch (0 si la colonne est vide)
+     *
+     * L'expression doit rester identique à celle de l'index idx_*_sync pour
+     * que SQLite l'utilise.
+     */
+    static String expressionHorodatage(String colonne) {
+        return "COALESCE(CASE typeof(" + colonne + ")"
+                + " WHEN 'integer' THEN " + colonne
+                + " WHEN 'real' THEN CAST(" + colonne + " AS INTEGER)"
+                + " ELSE CAST(strftime('%s', " + colonne + ") AS INTEGER) * 1000 END, 0)";
+    }
+
+    /**
+     * Crée, pour chaque table synchronisée, l'index sur l'horodatage normalisé
+     * et le trigger qui journalise les suppressions ; appelé à l'initialisation
+     * du schéma
+     */
+    public static void preparerSchema(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+            stmt.execute(CREATE_SUPPRESSIONS_SQL);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_sync_suppressions_table ON sync_suppressions(table_name, id)");
+        } catch (SQLException e) {
+            logger.warn("⚠️ Tables de suivi de synchronisation non créées: {}", e.getMessage());
+            return;
+        }
+
+        int tables = 0;
+        for (String[] niveau : SynchronizationPipeline.TABLE_LEVELS) {
+            for (String table : niveau) {
+                try {
+                    List<String> colonnes = SynchronizationPipeline.getTableColumns(conn, table);
+                    List<String> cle = getColonnesCle(conn, table);
+                    if (colonnes.isEmpty() || cle.isEmpty()) {
+                        continue;
+                    }
+
+                    try (Statement stmt = conn.createStatement()) {
+                        String horodatage = SynchronizationPipeline.findWatermarkColumn(table, colonnes);
+                        String index = "idx_" + table + "_sync";
+                        String definition = horodatage != null ? expressionHorodatage(horodatage) : null;
+                        if (!indexSurExpression(conn, index, definition)) {
+                            // Colonne d'horodatage changée (updated_at ajouté) ou devenue absente
+                            stmt.execute("DROP INDEX IF EXISTS " + index);
+                        }
+                        if (definition != null) {
+                            stmt.execute("CREATE INDEX IF NOT EXISTS " + index + " ON " + table
+                                    + "(" + definition + ")");
+                        }
+
+                        List<String> valeursCle = new ArrayList<>();
+                        for (String colonne : cle) {
+                            valeursCle.add("OLD." + colonne);
+                        }
+                        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_sync_suppression"
+                                + " AFTER DELETE ON " + table + " BEGIN"
+                                + " INSERT INTO sync_suppressions (table_name, cle)"
+                                + " VALUES ('" + table + "', json_array(" + String.join(", ", valeursCle) + "));"
+                                + " END");
+                    }
+                    tables++;
+                } catch (SQLException e) {
+                    logger.warn("⚠️ Suivi de synchronisation non installé sur {}: {}", table, e.getMessage());
+                }
+            }
+        }
+        logger.debug("🔄 Suivi de synchronisation installé sur {} table(s)", tables);
+    }
+
+    /**
+     * Vrai si l'index est absent alors qu'aucune expression n'est attendue,
+     * ou s'il existe déjà sur l'expression attendue
+     */
+    private static boolean indexSurExpression(Connection conn, String index, String expression) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT sql FROM sqlite_master WHERE type = 'index' AND name = ?")) {
+            stmt.setString(1, index);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return true;
+                }
+                return expression != null && rs.getString(1) != null && rs.getString(1).contains(expression);
+            }
+        }
+    }
+
+    /**
+     * Colonnes de la clé primaire d'une table, dans l'ordre de la clé
+     */
+    static List<String> getColonnesCle(Connection conn, String tableName) throws SQLException {
+        List<String> cle = new ArrayList<>();
+        String sql = "SELECT name FROM pragma_table_info(?) WHERE pk > 0 ORDER BY pk";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, tableName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    cle.add(rs.getString(1));
+                }
+            }
+        }
+        return cle;
+    }
+
+    /**
+     * Oublie les suppressions journalisées, dans la transaction de l'appelant
+     * (restauration complète depuis MySQL : les tables locales sont vidées
+     * puis rechargées, il n'y a rien à rejouer)
+     */
+    public static void oublierSuppressions(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM sync_suppressions");
+        }
+    }
+
+    /**
+     * Retourne le point de reprise d'une table (ou l'origine si aucun)
+     */
+    public Checkpoint charger(String tableName) throws SQLException {
+        ensureTable();
+
+        String sql = "SELECT last_watermark, last_rowid FROM sync_checkpoints WHERE table_name = ?";
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, tableName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    try {
+                        return new Checkpoint(Long.parseLong(rs.getString(1)), rs.getLong(2));
+                    } catch (NumberFormatException e) {
+                        // Point de reprise d'avant la normalisation des horodatages
+                        logger.info("ℹ️ Point de reprise de {} à l'ancien format, resynchronisation complète", tableName);
+                    }
+                }
+            }
+        }
+        return Checkpoint.ORIGINE;
+    }
+
+    /**
+     * Enregistre le point de reprise d'une table
+     */
+    public void enregistrer(String tableName, Checkpoint checkpoint) throws SQLException {
+        ensureTable();
+
+        String sql = """
+            INSERT INTO sync_checkpoints (table_name, last_watermark, last_rowid, updated_at)
+            VALUES (?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT(table_name) DO UPDATE SET
+                last_watermark = excluded.last_watermark,
+                last_rowid = excluded.last_rowid,
+                updated_at = excluded.updated_at
+        """;
+
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, tableName);
+            stmt.setString(2, Long.toString(checkpoint.watermark()));
+            stmt.setLong(3, checkpoint.rowid());
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Efface tous les points de reprise (la prochaine synchronisation sera complète)
+     */
+    public void reinitialiser() throws SQLException {
+        ensureTable();
+
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            int deleted = stmt.executeUpdate("DELETE FROM sync_checkpoints");
+            logger.debug("🗑️ {} point(s) de reprise effacé(s)", deleted);
+        }
+    }
+
+    private void ensureTable() throws SQLException {
+        if (tableVerifiee) {
+            return;
+        }
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+            tableVerifiee = true;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.util.WriteActivityMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Planificateur de la synchronisation de fond SQLite → MySQL
+ *
+ * - Synchronisation incrémentale toutes les sync.interval secondes sur un thread dédié
+ * - Synchronisation au démarrage (sync.onStartup) et à l'arrêt (sync.onShutdown),
+ *   cette dernière sans bloquer la fermeture de l'interface
+ * - Report du cycle lorsque l'interface écrit intensivement en local
+ * - Reprise depuis le dernier lot committé (voir {@link SyncCheckpointStore})
+ * - Métriques de progression et de retard consultables via {@link #getMetrics()}
+ */
+public class SyncScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncScheduler.class);
+    private static SyncScheduler instance;
+
+    private static final long STARTUP_DELAY_SECONDS = 10;
+
+    private final SynchronizationService synchronizationService;
+    private final boolean enabled;
+    private final boolean onStartup;
+    private final boolean onShutdown;
+    private final long intervalSeconds;
+    private final long pauseQuietMillis;
+    private final long shutdownTimeoutSeconds;
+
+    private ScheduledExecutorService executor;
+
+    // Métriques
+    private final AtomicLong lignesCycleEnCours = new AtomicLong();
+    private final AtomicInteger cyclesReportes = new AtomicInteger();
+    private final AtomicInteger echecsConsecutifs = new AtomicInteger();
+    private final Map<String, Long> lignesParTable = new ConcurrentHashMap<>();
+    private volatile boolean cycleEnCours = false;
+    private volatile String tableEnCours = null;
+    private volatile LocalDateTime debutCycleEnCours = null;
+    private volatile LocalDateTime dernierSucces = null;
+    private volatile LocalDateTime dernierEchec = null;
+    private volatile SynchronizationService.SyncResult dernierResultat = null;
+    private final LocalDateTime demarrage = LocalDateTime.now();
+
+    private SyncScheduler() {
+        this(SynchronizationService.getInstance());
+    }
+
+    SyncScheduler(SynchronizationService synchronizationService) {
+        ConfigurationService config = ConfigurationService.getInstance();
+        this.synchronizationService = synchronizationService;
+        this.enabled = Boolean.parseBoolean(config.getProperty("sync.enabled", "false").trim());
+        this.onStartup = Boolean.parseBoolean(config.getProperty("sync.onStartup", "false").trim());
+        this.onShutdown = Boolean.parseBoolean(config.getProperty("sync.onShutdown", "false").trim());
+        this.intervalSeconds = Math.max(30, Long.parseLong(config.getProperty("sync.interval", "300").trim()));
+        this.pauseQuietMillis = Long.parseLong(config.getProperty("sync.pauseQuietMillis", "2000").trim());
+        this.shutdownTimeoutSeconds = Long.parseLong(config.getProperty("sync.shutdownTimeout", "60").trim());
+    }
+
+    public static synchronized SyncScheduler getInstance() {
+        if (instance == null) {
+            instance = new SyncScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Démarre la synchronisation périodique
+     */
+    public synchronized void start() {
+        if (!enabled) {
+            logger.info("ℹ️ Synchronisation automatique désactivée (sync.enabled=false)");
+            return;
+        }
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sync-scheduler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        long initialDelay = onStartup ? STARTUP_DELAY_SECONDS : intervalSeconds;
+        executor.scheduleWithFixedDelay(this::executerCycle, initialDelay, intervalSeconds, TimeUnit.SECONDS);
+
+        logger.info("⏱️ Synchronisation automatique planifiée toutes les {} s (premier cycle dans {} s)",
+                intervalSeconds, initialDelay);
+    }
+
+    /**
+     * Arrête le planificateur, avec une dernière synchronisation si sync.onShutdown
+     *
+     * Appelé depuis le thread JavaFX : la méthode rend la main aussitôt. Le cycle
+     * final s'exécute sur un thread non démon qui retient la JVM au plus
+     * sync.shutdownTimeout secondes ; au-delà, les lots déjà committés sont
+     * acquis et le reste reprendra au prochain démarrage.
+     */
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+
+        ScheduledExecutorService planificateur = executor;
+        executor = null;
+        planificateur.shutdown();
+
+        if (!onShutdown) {
+            planificateur.shutdownNow();
+            return;
+        }
+
+        Thread fermeture = new Thread(() -> {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+            try {
+                logger.info("🔄 Synchronisation de fermeture...");
+                // Attendre le cycle éventuellement en cours avant le cycle final
+                if (!planificateur.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                    logger.warn("⚠️ Cycle en cours non terminé, synchronisation de fermeture abandonnée");
+                    return;
+                }
+                CompletableFuture.runAsync(this::executerCycleFinal, runnable -> {
+                    Thread thread = new Thread(runnable, "sync-final");
+                    thread.setDaemon(true);
+                    thread.start();
+                }).get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                logger.warn("⚠️ Synchronisation de fermeture non terminée: {}", e.getMessage());
+            } finally {
+                planificateur.shutdownNow();
+            }
+        }, "sync-fermeture");
+        fermeture.setDaemon(false);
+        fermeture.start();
+    }
+
+    /**
+     * Déclenche immédiatement un cycle (hors planification)
+     */
+    public synchronized void declencherMaintenant() {
+        if (executor != null) {
+            executor.execute(this::executerCycle);
+        }
+    }
+
+    /**
+     * Cycle périodique : reporté si l'interface écrit en ce moment
+     */
+    private void executerCycle() {
+        if (WriteActivityMonitor.isBusy(pauseQuietMillis)) {
+            int reportes = cyclesReportes.incrementAndGet();
+            logger.debug("⏸️ Cycle de synchronisation reporté (écritures locales en cours, {} report(s))", reportes);
+            return;
+        }
+        executerSynchronisation();
+    }
+
+    private void executerCycleFinal() {
+        executerSynchronisation();
+    }
+
+    private void executerSynchronisation() {
+        cycleEnCours = true;
+        debutCycleEnCours = LocalDateTime.now();
+        lignesCycleEnCours.set(0);
+        lignesParTable.clear();
+
+        try {
+            SynchronizationService.SyncResult result = synchronizationService.synchroniserIncremental(
+                    (tableName, rows) -> {
+                        tableEnCours = tableName;
+                        lignesCycleEnCours.addAndGet(rows);
+                        lignesParTable.merge(tableName, (long) rows, Long::sum);
+                    });
+
+            dernierResultat = result;
+            if (result.isSuccess()) {
+                dernierSucces = LocalDateTime.now();
+                echecsConsecutifs.set(0);
+            } else {
+                dernierEchec = LocalDateTime.now();
+                int echecs = echecsConsecutifs.incrementAndGet();
+                logger.warn("⚠️ Échec de la synchronisation automatique ({} consécutif(s)): {} - reprise au prochain cycle",
+                        echecs, result.getMessage());
+            }
+        } catch (RuntimeException e) {
+            dernierEchec = LocalDateTime.now();
+            echecsConsecutifs.incrementAndGet();
+            logger.error("❌ Erreur inattendue du cycle de synchronisation", e);
+        } finally {
+            cycleEnCours = false;
+            tableEnCours = null;
+        }
+    }
+
+    /**
+     * Instantané des métriques de synchronisation
+     */
+    public SyncMetrics getMetrics() {
+        LocalDateTime reference = dernierSucces != null ? dernierSucces : demarrage;
+        return new SyncMetrics(
+                executor != null,
+                cycleEnCours,
+                WriteActivityMonitor.isBusy(pauseQuietMillis),
+                tableEnCours,
+                lignesCycleEnCours.get(),
+                Map.copyOf(lignesParTable),
+                debutCycleEnCours,
+                dernierSucces,
+                dernierEchec,
+                echecsConsecutifs.get(),
+                cyclesReportes.get(),
+                Duration.between(reference, LocalDateTime.now()).getSeconds(),
+                dernierResultat
+        );
+    }
+
+    /**
+     * Métriques de progression et de retard de la synchronisation
+     *
+     * @param retardSecondes Temps écoulé depuis la dernière synchronisation réussie
+     *                       (ou depuis le démarrage si aucune)
+     */
+    public record SyncMetrics(
+            boolean planifie,
+            boolean cycleEnCours,
+            boolean enPause,
+            String tableEnCours,
+            long lignesCycleEnCours,
+            Map<String, Long> lignesParTable,
+            LocalDateTime debutCycleEnCours,
+            LocalDateTime dernierSucces,
+            LocalDateTime dernierEchec,
+            int echecsConsecutifs,
+            int cyclesReportes,
+            long retardSecondes,
+            SynchronizationService.SyncResult dernierResultat
+    ) {
+    }
+}
@@ -0,0 +1,663 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.WriteActivityMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Moteur de synchronisation pipeliné SQLite → MySQL
+ *
+ * - Un thread lecteur par table alimente une file bornée de lots de lignes
+ * - Des threads écrivains vident la file vers MySQL (upsert multi-lignes grâce
+ *   à rewriteBatchedStatements=true, activé sur le pool MySQL)
+ * - Les tables d'un même niveau de dépendance sont synchronisées en parallèle,
+ *   les niveaux s'enchaînent dans l'ordre des clés étrangères
+ *
+ * Chaque lot est committé séparément : l'upsert étant idempotent, une
+ * synchronisation interrompue peut simplement être relancée. Les lignes sont
+ * lues dans l'ordre (horodatage, rowid) et la position du dernier lot committé
+ * de façon contiguë est persistée dans {@link SyncCheckpointStore}, ce qui
+ * permet le mode incrémental et la reprise après incident.
+ *
+ * Une fois les upserts terminés, les suppressions journalisées dans
+ * sync_suppressions sont rejouées côté MySQL, niveaux en ordre inverse.
+ */
+public class SynchronizationPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(SynchronizationPipeline.class);
+
+    /**
+     * Tables regroupées par niveau de dépendance (clés étrangères).
+     * Les tables d'un même niveau ne se référencent pas entre elles.
+     */
+    static final String[][] TABLE_LEVELS = {
+            {"centres", "banques", "contraventions", "contrevenants", "mandats", "utilisateurs", "parametres"},
+            {"services", "bureaux", "logs_activites"},
+            {"agents"},
+            {"affaires"},
+            {"encaissements", "affaire_acteurs", "affaire_contraventions"},
+            {"repartition_resultats"},
+            {"repartition_details"}
+    };
+
+    /**
+     * Colonne d'horodatage des modifications
+     */
+    private static final String MODIFICATION_COLUMN = "updated_at";
+
+    /**
+     * Tables en ajout seul, avec leur date de création : leurs lignes ne sont
+     * jamais modifiées sur place (les acteurs d'une affaire sont supprimés puis
+     * réinsérés), la date de création suffit comme point de reprise.
+     *
+     * Les autres tables sans updated_at sont relues entièrement à chaque cycle :
+     * une modification sur place n'y laisse aucune trace datée.
+     */
+    private static final Map<String, String> APPEND_ONLY_TABLES = Map.of(
+            "logs_activites", "created_at",
+            "affaire_acteurs", "assigned_at",
+            "repartition_resultats", "created_at");
+
+    // Marqueur de fin de flux pour les écrivains
+    private static final Batch END_OF_STREAM = new Batch(-1, List.of(), null);
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_QUEUE_CAPACITY = 8;
+    private static final int DEFAULT_WRITER_THREADS = 2;
+
+    private static final long DEFAULT_PAUSE_QUIET_MILLIS = 2000L;
+    private static final long DEFAULT_PAUSE_MAX_MILLIS = 60000L;
+
+    /**
+     * Écouteur de progression, appelé après chaque lot committé
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onBatchCommitted(String tableName, int rows);
+    }
+
+    /**
+     * Lot de lignes lu dans SQLite, avec sa position de fin
+     */
+    private record Batch(long sequence, List<Object[]> rows, SyncCheckpointStore.Checkpoint end) {
+    }
+
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int writerThreads;
+    private final SyncCheckpointStore checkpointStore = new SyncCheckpointStore();
+
+    private boolean incremental = false;
+    private boolean pauseOnLocalWrites = false;
+    private long pauseQuietMillis = DEFAULT_PAUSE_QUIET_MILLIS;
+    private ProgressListener progressListener = (tableName, rows) -> { };
+
+    public SynchronizationPipeline() {
+        ConfigurationService config = ConfigurationService.getInstance();
+        this.batchSize = parseInt(config.getProperty("sync.batchSize"), DEFAULT_BATCH_SIZE);
+        this.queueCapacity = parseInt(config.getProperty("sync.queueCapacity"), DEFAULT_QUEUE_CAPACITY);
+        this.writerThreads = parseInt(config.getProperty("sync.writerThreads"), DEFAULT_WRITER_THREADS);
+        this.pauseQuietMillis = parseInt(config.getProperty("sync.pauseQuietMillis"), (int) DEFAULT_PAUSE_QUIET_MILLIS);
+    }
+
+    public SynchronizationPipeline(int batchSize, int queueCapacity, int writerThreads) {
+        this.batchSize = Math.max(1, batchSize);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.writerThreads = Math.max(1, writerThreads);
+    }
+
+    /**
+     * Mode incrémental : ne lit que les lignes postérieures au dernier point de reprise
+     */
+    public SynchronizationPipeline incremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    /**
+     * Suspend la lecture tant que l'application écrit intensivement en local
+     */
+    public SynchronizationPipeline pauseOnLocalWrites(boolean pause) {
+        this.pauseOnLocalWrites = pause;
+        return this;
+    }
+
+    public SynchronizationPipeline progressListener(ProgressListener listener) {
+        this.progressListener = listener != null ? listener : (tableName, rows) -> { };
+        return this;
+    }
+
+    /**
+     * Synchronise toutes les tables vers MySQL, niveau par niveau
+     *
+     * @param result Résultat enrichi avec le volume et le débit de chaque table
+     * @throws SQLException à la première table en échec (les niveaux suivants ne sont pas traités)
+     */
+    public void sauvegarderVersMySQL(SynchronizationService.SyncResult result) throws SQLException {
+        int maxLevelWidth = 0;
+        for (String[] level : TABLE_LEVELS) {
+            maxLevelWidth = Math.max(maxLevelWidth, level.length);
+        }
+
+        ExecutorService readers = Executors.newFixedThreadPool(maxLevelWidth, namedThreads("sync-reader"));
+        ExecutorService writers = Executors.newFixedThreadPool(maxLevelWidth * writerThreads, namedThreads("sync-writer"));
+
+        logger.info("📤 Pipeline de synchronisation: lots de {}, file de {}, {} écrivain(s) par table",
+                batchSize, queueCapacity, writerThreads);
+
+        try {
+            for (String[] level : TABLE_LEVELS) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (String table : level) {
+                    futures.add(readers.submit(() -> {
+                        syncTable(table, writers, result);
+                        return null;
+                    }));
+                }
+
+                for (Future<?> future : futures) {
+                    awaitTable(future);
+                }
+            }
+
+            for (int i = TABLE_LEVELS.length - 1; i >= 0; i--) {
+                for (String table : TABLE_LEVELS[i]) {
+                    propagerSuppressions(table, result);
+                }
+            }
+        } finally {
+            readers.shutdownNow();
+            writers.shutdownNow();
+        }
+    }
+
+    /**
+     * Lit une table SQLite et la pousse vers MySQL via la file bornée
+     */
+    private void syncTable(String tableName, ExecutorService writers,
+                           SynchronizationService.SyncResult result) throws SQLException {
+        long start = System.nanoTime();
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong written = new AtomicLong();
+
+        try (Connection source = DatabaseConfig.getSQLiteConnection()) {
+            List<String> columns = getTableColumns(source, tableName);
+            if (columns.isEmpty()) {
+                logger.debug("Table {} absente de SQLite, ignorée", tableName);
+                return;
+            }
+
+            String watermarkColumn = findWatermarkColumn(tableName, columns);
+            SyncCheckpointStore.Checkpoint from = incremental && watermarkColumn != null
+                    ? checkpointStore.charger(tableName)
+                    : SyncCheckpointStore.Checkpoint.ORIGINE;
+            CheckpointTracker tracker = new CheckpointTracker(tableName);
+
+            String upsertSql = buildUpsertQuery(tableName, columns);
+            List<Future<?>> writerFutures = new ArrayList<>();
+            for (int i = 0; i < writerThreads; i++) {
+                writerFutures.add(writers.submit(
+                        () -> writeBatches(tableName, upsertSql, columns.size(), queue, tracker, failure, written)));
+            }
+
+            try {
+                readRows(source, tableName, columns, watermarkColumn, from, queue, failure);
+            } catch (SQLException | InterruptedException | RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                for (int i = 0; i < writerThreads; i++) {
+                    putUninterruptibly(queue, END_OF_STREAM);
+                }
+            }
+
+            for (Future<?> future : writerFutures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, e);
+                } catch (ExecutionException e) {
+                    failure.compareAndSet(null, e.getCause());
+                }
+            }
+        }
+
+        Throwable error = failure.get();
+        if (error != null) {
+            logger.error("❌ Erreur lors de la sync de {}: {}", tableName, error.getMessage());
+            throw error instanceof SQLException sqlError ? sqlError
+                    : new SQLException("Erreur lors de la synchronisation de " + tableName, error);
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        result.addTableSync(tableName, (int) written.get(), durationMillis);
+        logger.debug("✅ {} : {} enregistrements synchronisés en {} ms", tableName, written.get(), durationMillis);
+    }
+
+    /**
+     * Requête de lecture d'une table à partir d'un point de reprise, ordonnée
+     * par (horodatage normalisé, rowid)
+     *
+     * La borne basse porte sur l'expression seule pour que SQLite parcoure
+     * l'index idx_*_sync à partir du point de reprise, au lieu de relire et
+     * trier toute la table à chaque cycle.
+     *
+     * La borne haute écarte les lignes de la seconde en cours : CURRENT_TIMESTAMP
+     * n'a qu'une précision d'une seconde, une ligne réécrite dans la seconde du
+     * point de reprise (même horodatage, même rowid) serait sinon perdue. Elle
+     * sera lue au cycle suivant.
+     */
+    static String requeteLecture(String tableName, List<String> columns, String watermarkColumn) {
+        String watermark = watermarkColumn != null
+                ? SyncCheckpointStore.expressionHorodatage(watermarkColumn)
+                : "0";
+        return "SELECT rowid, " + watermark + ", " + String.join(", ", columns)
+                + " FROM " + tableName
+                + " WHERE " + watermark + " >= ? AND (" + watermark + " > ? OR rowid > ?)"
+                + " AND " + watermark + " < ?"
+                + " ORDER BY " + (watermarkColumn != null ? watermark + ", " : "") + "rowid";
+    }
+
+    /**
+     * Étage lecteur : parcourt la table dans l'ordre (horodatage, rowid) à partir
+     * du point de reprise, découpe le flux en lots et les dépose dans la file
+     */
+    private void readRows(Connection source, String tableName, List<String> columns, String watermarkColumn,
+                          SyncCheckpointStore.Checkpoint from, BlockingQueue<Batch> queue,
+                          AtomicReference<Throwable> failure) throws SQLException, InterruptedException {
+        String sql = requeteLecture(tableName, columns, watermarkColumn);
+
+        int columnCount = columns.size();
+        long sequence = 0;
+
+        try (PreparedStatement stmt = source.prepareStatement(sql)) {
+            stmt.setFetchSize(batchSize);
+            stmt.setLong(1, from.watermark());
+            stmt.setLong(2, from.watermark());
+            stmt.setLong(3, from.rowid());
+            stmt.setLong(4, horizonLecture());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<Object[]> rows = new ArrayList<>(batchSize);
+                long lastRowid = from.rowid();
+                long lastWatermark = from.watermark();
+
+                while (rs.next()) {
+                    lastRowid = rs.getLong(1);
+                    lastWatermark = rs.getLong(2);
+
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = rs.getObject(i + 3);
+                    }
+                    rows.add(row);
+
+                    if (rows.size() == batchSize) {
+                        if (!beforeEnqueue(failure)) {
+                            return;
+                        }
+                        putUninterruptibly(queue, new Batch(sequence++, rows,
+                                new SyncCheckpointStore.Checkpoint(lastWatermark, lastRowid)));
+                        rows = new ArrayList<>(batchSize);
+                    }
+                }
+
+                if (!rows.isEmpty() && beforeEnqueue(failure)) {
+                    putUninterruptibly(queue, new Batch(sequence, rows,
+                            new SyncCheckpointStore.Checkpoint(lastWatermark, lastRowid)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Début de la seconde précédente, en millisecondes epoch : toute écriture
+     * postérieure à la lecture aura un horodatage strictement supérieur
+     */
+    static long horizonLecture() {
+        return (System.currentTimeMillis() / 1000L) * 1000L - 1000L;
+    }
+
+    /**
+     * Rejoue côté MySQL les suppressions journalisées d'une table, par lots
+     *
+     * Une clé supprimée puis réinsérée localement (acteurs d'une affaire
+     * remplacés, par exemple) n'est pas rejouée : l'upsert l'a déjà mise à
+     * jour. Les entrées traitées sont effacées après chaque commit MySQL ;
+     * une interruption les laisse en place pour le cycle suivant.
+     */
+    private void propagerSuppressions(String tableName, SynchronizationService.SyncResult result) throws SQLException {
+        try (Connection source = DatabaseConfig.getSQLiteConnection()) {
+            List<String> cle = SyncCheckpointStore.getColonnesCle(source, tableName);
+            if (cle.isEmpty()) {
+                return;
+            }
+
+            StringBuilder valeurs = new StringBuilder();
+            StringBuilder absente = new StringBuilder();
+            StringBuilder conditionMySQL = new StringBuilder();
+            for (int i = 0; i < cle.size(); i++) {
+                String valeur = "json_extract(s.cle, '$[" + i + "]')";
+                valeurs.append(", ").append(valeur);
+                absente.append(i > 0 ? " AND " : "").append("t.").append(cle.get(i)).append(" = ").append(valeur);
+                conditionMySQL.append(i > 0 ? " AND " : "").append(cle.get(i)).append(" = ?");
+            }
+            String selectSql = "SELECT s.id, NOT EXISTS (SELECT 1 FROM " + tableName + " t WHERE " + absente + ")"
+                    + valeurs + " FROM sync_suppressions s"
+                    + " WHERE s.table_name = ? AND s.id > ? ORDER BY s.id LIMIT " + batchSize;
+            String deleteSql = "DELETE FROM " + tableName + " WHERE " + conditionMySQL;
+
+            long dernierId = 0;
+            int supprimees = 0;
+            Connection target = null;
+            try {
+                while (true) {
+                    List<Object[]> cles = new ArrayList<>();
+                    long dernierLu = dernierId;
+                    try (PreparedStatement stmt = source.prepareStatement(selectSql)) {
+                        stmt.setString(1, tableName);
+                        stmt.setLong(2, dernierId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                dernierLu = rs.getLong(1);
+                                if (rs.getBoolean(2)) {
+                                    Object[] valeursCle = new Object[cle.size()];
+                                    for (int i = 0; i < valeursCle.length; i++) {
+                                        valeursCle[i] = rs.getObject(i + 3);
+                                    }
+                                    cles.add(valeursCle);
+                                }
+                            }
+                        }
+                    }
+                    if (dernierLu == dernierId) {
+                        break;
+                    }
+
+                    if (!cles.isEmpty()) {
+                        if (target == null) {
+                            target = DatabaseConfig.getMySQLConnection();
+                            target.setAutoCommit(false);
+                        }
+                        try (PreparedStatement stmt = target.prepareStatement(deleteSql)) {
+                            for (Object[] valeursCle : cles) {
+                                for (int i = 0; i < valeursCle.length; i++) {
+                                    stmt.setObject(i + 1, valeursCle[i]);
+                                }
+                                stmt.addBatch();
+                            }
+                            stmt.executeBatch();
+                            target.commit();
+                        } catch (SQLException e) {
+                            rollbackQuietly(target);
+                            throw e;
+                        }
+                        supprimees += cles.size();
+                    }
+
+                    try (PreparedStatement stmt = source.prepareStatement(
+                            "DELETE FROM sync_suppressions WHERE table_name = ? AND id <= ?")) {
+                        stmt.setString(1, tableName);
+                        stmt.setLong(2, dernierLu);
+                        stmt.executeUpdate();
+                    }
+                    dernierId = dernierLu;
+                }
+            } finally {
+                closeQuietly(target);
+            }
+
+            if (supprimees > 0) {
+                result.addTableSuppressions(tableName, supprimees);
+                logger.debug("🗑️ {} : {} suppression(s) propagée(s)", tableName, supprimees);
+            }
+        }
+    }
+
+    /**
+     * Contrôle avant d'émettre un lot : arrêt si un écrivain a échoué, et
+     * mise en pause (bornée) pendant les écritures intensives de l'interface
+     */
+    private boolean beforeEnqueue(AtomicReference<Throwable> failure) throws InterruptedException {
+        if (failure.get() != null) {
+            return false;
+        }
+        if (pauseOnLocalWrites && WriteActivityMonitor.isBusy(pauseQuietMillis)) {
+            logger.debug("⏸️ Synchronisation en pause (écritures locales en cours)");
+            WriteActivityMonitor.awaitQuiet(pauseQuietMillis, DEFAULT_PAUSE_MAX_MILLIS);
+        }
+        return failure.get() == null;
+    }
+
+    /**
+     * Étage écrivain : une connexion MySQL dédiée, un commit par lot.
+     * Après une erreur, l'écrivain continue de vider la file sans écrire
+     * pour ne jamais bloquer le lecteur.
+     */
+    private Void writeBatches(String tableName, String upsertSql, int columnCount,
+                              BlockingQueue<Batch> queue,
+                              CheckpointTracker tracker,
+                              AtomicReference<Throwable> failure,
+                              AtomicLong written) {
+        Connection target = null;
+        PreparedStatement stmt = null;
+
+        try {
+            while (true) {
+                Batch batch = queue.take();
+                if (batch == END_OF_STREAM) {
+                    break;
+                }
+                if (failure.get() != null) {
+                    continue;
+                }
+
+                try {
+                    if (target == null) {
+                        target = DatabaseConfig.getMySQLConnection();
+                        target.setAutoCommit(false);
+                        stmt = target.prepareStatement(upsertSql);
+                    }
+
+                    for (Object[] row : batch.rows()) {
+                        for (int i = 0; i < columnCount; i++) {
+                            stmt.setObject(i + 1, row[i]);
+                        }
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    target.commit();
+
+                    written.addAndGet(batch.rows().size());
+                    tracker.committed(batch);
+                    progressListener.onBatchCommitted(tableName, batch.rows().size());
+
+                } catch (SQLException e) {
+                    failure.compareAndSet(null, e);
+                    rollbackQuietly(target);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            closeQuietly(stmt);
+            closeQuietly(target);
+        }
+        return null;
+    }
+
+    /**
+     * Fait avancer le point de reprise d'une table sur les lots committés de
+     * façon contiguë (les écrivains peuvent terminer leurs lots dans le désordre)
+     */
+    private final class CheckpointTracker {
+        private final String tableName;
+        private final Map<Long, Batch> termines = new HashMap<>();
+        private long prochaineSequence = 0;
+
+        CheckpointTracker(String tableName) {
+            this.tableName = tableName;
+        }
+
+        synchronized void committed(Batch batch) throws SQLException {
+            termines.put(batch.sequence(), batch);
+
+            Batch dernier = null;
+            Batch suivant;
+            while ((suivant = termines.remove(prochaineSequence)) != null) {
+                dernier = suivant;
+                prochaineSequence++;
+            }
+
+            if (dernier != null) {
+                checkpointStore.enregistrer(tableName, dernier.end());
+            }
+        }
+    }
+
+    private void awaitTable(Future<?> future) throws SQLException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Synchronisation interrompue", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlError) {
+                throw sqlError;
+            }
+            throw new SQLException("Erreur lors de la synchronisation", cause);
+        }
+    }
+
+    private static void putUninterruptibly(BlockingQueue<Batch> queue, Batch batch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(batch);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Colonne servant de point de reprise : updated_at, ou la date de création
+     * d'une table en ajout seul ; null si la table doit être relue entièrement
+     */
+    static String findWatermarkColumn(String tableName, List<String> columns) {
+        String creationColumn = APPEND_ONLY_TABLES.get(tableName);
+        for (String candidate : new String[]{MODIFICATION_COLUMN, creationColumn}) {
+            for (String column : columns) {
+                if (column.equalsIgnoreCase(candidate)) {
+                    return column;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Récupère la liste des colonnes déclarées d'une table SQLite
+     *
+     * PRAGMA table_info omet les colonnes générées (numero_periode,
+     * numero_sequence...) que DatabaseMetaData.getColumns renvoie : elles
+     * n'existent pas côté MySQL et un INSERT ne peut pas les renseigner.
+     */
+    static List<String> getTableColumns(Connection conn, String tableName) throws SQLException {
+        List<String> columns = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT name FROM pragma_table_info(?) ORDER BY cid")) {
+            stmt.setString(1, tableName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(rs.getString("name"));
+                }
+            }
+        }
+
+        return columns;
+    }
+
+    /**
+     * Construit l'upsert MySQL (INSERT ... ON DUPLICATE KEY UPDATE).
+     * Sa forme VALUES (?, ...) permet au driver de le réécrire en insert multi-lignes.
+     */
+    static String buildUpsertQuery(String tableName, List<String> columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName).append(" (");
+        StringBuilder values = new StringBuilder(" VALUES (");
+        StringBuilder updates = new StringBuilder(" ON DUPLICATE KEY UPDATE ");
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+                values.append(", ");
+                updates.append(", ");
+            }
+            String column = columns.get(i);
+            sql.append(column);
+            values.append("?");
+            updates.append(column).append(" = VALUES(").append(column).append(")");
+        }
+
+        return sql.append(")").append(values).append(")").append(updates).toString();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Valeur numérique invalide '{}', utilisation de {}", value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                logger.error("Erreur lors du rollback", e);
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource != null) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                logger.error("Erreur lors de la fermeture de la ressource", e);
+            }
+        }
+    }
+}
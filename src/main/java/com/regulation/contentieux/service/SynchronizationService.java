@@ -1,6 +1,7 @@
 package com.regulation.contentieux.service;
 
 import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.util.DataVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,7 +9,8 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service de synchronisation entre SQLite (local) et MySQL (distant)
@@ -37,86 +39,90 @@ public class SynchronizationService {
             "updated_at", "updated_at"
     );
 
-    private boolean synchronizationInProgress = false;
-    private LocalDateTime lastSyncTime = null;
+    private static SynchronizationService instance;
+
+    private final int batchSize = Integer.parseInt(
+            ConfigurationService.getInstance().getProperty("sync.batchSize", "1000").trim());
+
+    private final AtomicBoolean synchronizationInProgress = new AtomicBoolean(false);
+    private volatile LocalDateTime lastSyncTime = null;
+
+    SynchronizationService() {
+    }
+
+    /**
+     * Instance partagée : la garde "synchronisation en cours" doit valoir
+     * pour le planificateur comme pour les déclenchements manuels
+     */
+    public static synchronized SynchronizationService getInstance() {
+        if (instance == null) {
+            instance = new SynchronizationService();
+        }
+        return instance;
+    }
 
     /**
      * Synchronise SQLite vers MySQL (Sauvegarde)
      */
     public CompletableFuture<SyncResult> sauvegarderVersMySQL() {
-        return CompletableFuture.supplyAsync(() -> {
-            logger.info("🔄 === DÉBUT SYNCHRONISATION SQLite → MySQL ===");
-
-            if (synchronizationInProgress) {
-                logger.warn("⚠️ Synchronisation déjà en cours");
-                return new SyncResult(false, "Synchronisation déjà en cours");
-            }
-
-            synchronizationInProgress = true;
-            SyncResult result = new SyncResult();
-
-            Connection sqliteConn = null;
-            Connection mysqlConn = null;
+        return CompletableFuture.supplyAsync(() -> executerSauvegarde(new SynchronizationPipeline(), "SAUVEGARDE"));
+    }
 
-            try {
-                // Vérifier la disponibilité de MySQL
-                if (!DatabaseConfig.isMySQLAvailable()) {
-                    throw new SQLException("MySQL non disponible");
-                }
+    /**
+     * Synchronisation incrémentale SQLite → MySQL, exécutée dans le thread appelant
+     * Reprend à partir des derniers lots committés et cède la place aux écritures locales.
+     *
+     * @param listener Écouteur de progression (peut être null)
+     */
+    public SyncResult synchroniserIncremental(SynchronizationPipeline.ProgressListener listener) {
+        SynchronizationPipeline pipeline = new SynchronizationPipeline()
+                .incremental(true)
+                .pauseOnLocalWrites(true)
+                .progressListener(listener);
+        return executerSauvegarde(pipeline, "INCREMENTALE");
+    }
 
-                // CORRECTION: Gestion des SQLException des méthodes getConnection
-                try {
-                    sqliteConn = DatabaseConfig.getSQLiteConnection();
-                    mysqlConn = DatabaseConfig.getMySQLConnection();
-                } catch (SQLException e) {
-                    logger.error("❌ Erreur lors de l'obtention des connexions", e);
-                    result.setSuccess(false);
-                    result.setMessage("Erreur de connexion: " + e.getMessage());
-                    return result;
-                }
+    private SyncResult executerSauvegarde(SynchronizationPipeline pipeline, String type) {
+        logger.info("🔄 === DÉBUT SYNCHRONISATION SQLite → MySQL ({}) ===", type);
 
-                // Désactiver l'autocommit
-                mysqlConn.setAutoCommit(false);
+        if (!synchronizationInProgress.compareAndSet(false, true)) {
+            logger.warn("⚠️ Synchronisation déjà en cours");
+            return new SyncResult(false, "Synchronisation déjà en cours");
+        }
 
-                // Synchroniser chaque table
-                for (String table : TABLES_ORDER) {
-                    syncTableToMySQL(sqliteConn, mysqlConn, table, result);
-                }
+        SyncResult result = new SyncResult();
+        Connection sqliteConn = null;
 
-                // Commit si tout est OK
-                mysqlConn.commit();
+        try {
+            // Vérifier la disponibilité de MySQL (initialise le pool si nécessaire)
+            if (!DatabaseConfig.isMySQLAvailable()) {
+                DatabaseConfig.testMySQLConnection();
+            }
 
-                // Enregistrer le timestamp
-                lastSyncTime = LocalDateTime.now();
-                enregistrerSynchronisation(sqliteConn, "SAUVEGARDE", result);
+            // Synchroniser les tables via le pipeline (lecteurs/écrivains parallèles)
+            pipeline.sauvegarderVersMySQL(result);
 
-                result.setSuccess(true);
-                result.setMessage("Synchronisation réussie");
-                logger.info("✅ Synchronisation terminée avec succès");
+            // Enregistrer le timestamp
+            lastSyncTime = LocalDateTime.now();
+            sqliteConn = DatabaseConfig.getSQLiteConnection();
+            enregistrerSynchronisation(sqliteConn, type, result);
 
-            } catch (Exception e) {
-                // Rollback en cas d'erreur
-                if (mysqlConn != null) {
-                    try {
-                        mysqlConn.rollback();
-                    } catch (SQLException ex) {
-                        logger.error("Erreur lors du rollback", ex);
-                    }
-                }
+            result.setSuccess(true);
+            result.setMessage("Synchronisation réussie");
+            logger.info("✅ Synchronisation terminée avec succès ({} enregistrements)",
+                    result.getTotalRecordsSynced());
 
-                logger.error("❌ Erreur lors de la synchronisation", e);
-                result.setSuccess(false);
-                result.setMessage("Erreur: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("❌ Erreur lors de la synchronisation", e);
+            result.setSuccess(false);
+            result.setMessage("Erreur: " + e.getMessage());
 
-            } finally {
-                // Fermeture des connexions
-                closeConnection(sqliteConn);
-                closeConnection(mysqlConn);
-                synchronizationInProgress = false;
-            }
+        } finally {
+            closeConnection(sqliteConn);
+            synchronizationInProgress.set(false);
+        }
 
-            return result;
-        });
+        return result;
     }
 
     /**
@@ -126,12 +132,11 @@ public class SynchronizationService {
         return CompletableFuture.supplyAsync(() -> {
             logger.info("🔄 === DÉBUT RESTAURATION MySQL → SQLite ===");
 
-            if (synchronizationInProgress) {
+            if (!synchronizationInProgress.compareAndSet(false, true)) {
                 logger.warn("⚠️ Synchronisation déjà en cours");
                 return new SyncResult(false, "Synchronisation déjà en cours");
             }
 
-            synchronizationInProgress = true;
             SyncResult result = new SyncResult();
 
             Connection sqliteConn = null;
@@ -169,9 +174,17 @@ public class SynchronizationService {
                     syncTableFromMySQL(mysqlConn, sqliteConn, table, result);
                 }
 
+                // Les DELETE de vidage ont été journalisés : rien à rejouer côté MySQL
+                SyncCheckpointStore.oublierSuppressions(sqliteConn);
+
                 // Commit si tout est OK
                 sqliteConn.commit();
 
+                // Les rowid locaux ont changé : la prochaine synchronisation incrémentale repart de zéro
+                new SyncCheckpointStore().reinitialiser();
+                DataVersion.incrementer();
+                ReferentielCache.getInstance().invaliderTout();
+
                 // Enregistrer le timestamp
                 lastSyncTime = LocalDateTime.now();
                 enregistrerSynchronisation(sqliteConn, "RESTAURATION", result);
@@ -199,7 +212,7 @@ public class SynchronizationService {
                 // Fermeture des connexions
                 closeConnection(sqliteConn);
                 closeConnection(mysqlConn);
-                synchronizationInProgress = false;
+                synchronizationInProgress.set(false);
             }
 
             return result;
@@ -223,7 +236,7 @@ public class SynchronizationService {
      * Vérifie si une synchronisation est en cours
      */
     public boolean isSynchronizationInProgress() {
-        return synchronizationInProgress;
+        return synchronizationInProgress.get();
     }
 
     /**
@@ -237,7 +250,7 @@ public class SynchronizationService {
      * Retourne le statut actuel de la synchronisation
      */
     public SyncStatus getCurrentStatus() {
-        if (synchronizationInProgress) {
+        if (synchronizationInProgress.get()) {
             return SyncStatus.EN_COURS;
         }
 
@@ -257,55 +270,6 @@ public class SynchronizationService {
         return SyncStatus.SYNCHRONISE;
     }
 
-    /**
-     * Synchronise une table de SQLite vers MySQL
-     */
-    private void syncTableToMySQL(Connection source, Connection target,
-                                  String tableName, SyncResult result) throws SQLException {
-        logger.debug("📤 Synchronisation de {} vers MySQL...", tableName);
-
-        // Récupérer les colonnes de la table
-        List<String> columns = getTableColumns(source, tableName);
-
-        // Préparer les requêtes
-        String selectSql = "SELECT * FROM " + tableName;
-        String insertSql = buildUpsertQuery(tableName, columns, true); // true = MySQL syntax
-
-        int count = 0;
-        try (Statement selectStmt = source.createStatement();
-             ResultSet rs = selectStmt.executeQuery(selectSql);
-             PreparedStatement insertStmt = target.prepareStatement(insertSql)) {
-
-            while (rs.next()) {
-                // Copier les valeurs
-                for (int i = 1; i <= columns.size(); i++) {
-                    insertStmt.setObject(i, rs.getObject(i));
-                }
-
-                insertStmt.addBatch();
-                count++;
-
-                // Exécuter par batch
-                if (count % 1000 == 0) {
-                    insertStmt.executeBatch();
-                    logger.debug("   {} enregistrements traités...", count);
-                }
-            }
-
-            // Exécuter le dernier batch
-            if (count % 1000 != 0) {
-                insertStmt.executeBatch();
-            }
-
-            result.addTableSync(tableName, count);
-            logger.debug("✅ {} : {} enregistrements synchronisés", tableName, count);
-
-        } catch (SQLException e) {
-            logger.error("❌ Erreur lors de la sync de {}: {}", tableName, e.getMessage());
-            throw e;
-        }
-    }
-
     /**
      * Synchronise une table de MySQL vers SQLite
      */
@@ -313,11 +277,11 @@ public class SynchronizationService {
                                     String tableName, SyncResult result) throws SQLException {
         logger.debug("📥 Importation de {} depuis MySQL...", tableName);
 
-        // Récupérer les colonnes
-        List<String> columns = getTableColumns(target, tableName);
+        // Colonnes déclarées côté SQLite (sans les colonnes générées)
+        List<String> columns = SynchronizationPipeline.getTableColumns(target, tableName);
 
-        // Préparer les requêtes
-        String selectSql = "SELECT * FROM " + tableName;
+        // Préparer les requêtes : colonnes nommées, dans l'ordre de l'insertion
+        String selectSql = "SELECT " + String.join(", ", columns) + " FROM " + tableName;
         String insertSql = buildInsertQuery(tableName, columns); // SQLite syntax
 
         int count = 0;
@@ -335,14 +299,14 @@ public class SynchronizationService {
                 count++;
 
                 // Exécuter par batch
-                if (count % 1000 == 0) {
+                if (count % batchSize == 0) {
                     insertStmt.executeBatch();
                     logger.debug("   {} enregistrements importés...", count);
                 }
             }
 
             // Exécuter le dernier batch
-            if (count % 1000 != 0) {
+            if (count % batchSize != 0) {
                 insertStmt.executeBatch();
             }
 
@@ -355,22 +319,6 @@ public class SynchronizationService {
         }
     }
 
-    /**
-     * Récupère la liste des colonnes d'une table
-     */
-    private List<String> getTableColumns(Connection conn, String tableName) throws SQLException {
-        List<String> columns = new ArrayList<>();
-        DatabaseMetaData metaData = conn.getMetaData();
-
-        try (ResultSet rs = metaData.getColumns(null, null, tableName, null)) {
-            while (rs.next()) {
-                columns.add(rs.getString("COLUMN_NAME"));
-            }
-        }
-
-        return columns;
-    }
-
     /**
      * Construit une requête INSERT
      */
@@ -393,27 +341,6 @@ public class SynchronizationService {
         return sql.toString();
     }
 
-    /**
-     * Construit une requête UPSERT (INSERT ou UPDATE)
-     */
-    private String buildUpsertQuery(String tableName, List<String> columns, boolean mysqlSyntax) {
-        if (mysqlSyntax) {
-            // MySQL: INSERT ... ON DUPLICATE KEY UPDATE
-            StringBuilder sql = new StringBuilder(buildInsertQuery(tableName, columns));
-            sql.append(" ON DUPLICATE KEY UPDATE ");
-
-            for (int i = 0; i < columns.size(); i++) {
-                if (i > 0) sql.append(", ");
-                sql.append(columns.get(i)).append(" = VALUES(").append(columns.get(i)).append(")");
-            }
-
-            return sql.toString();
-        } else {
-            // SQLite: INSERT OR REPLACE
-            return buildInsertQuery(tableName, columns).replace("INSERT", "INSERT OR REPLACE");
-        }
-    }
-
     /**
      * Vide une table
      */
@@ -468,7 +395,9 @@ public class SynchronizationService {
     public static class SyncResult {
         private boolean success;
         private String message;
-        private Map<String, Integer> tableSyncs = new HashMap<>();
+        private Map<String, Integer> tableSyncs = new ConcurrentHashMap<>();
+        private Map<String, Long> tableDurations = new ConcurrentHashMap<>();
+        private Map<String, Integer> tableDeletions = new ConcurrentHashMap<>();
         private LocalDateTime timestamp = LocalDateTime.now();
 
         public SyncResult() {
@@ -485,6 +414,28 @@ public class SynchronizationService {
             tableSyncs.put(tableName, recordCount);
         }
 
+        public void addTableSync(String tableName, int recordCount, long durationMillis) {
+            tableSyncs.put(tableName, recordCount);
+            tableDurations.put(tableName, durationMillis);
+        }
+
+        public void addTableSuppressions(String tableName, int deletedCount) {
+            tableDeletions.merge(tableName, deletedCount, Integer::sum);
+        }
+
+        /**
+         * Débit de synchronisation d'une table en enregistrements par seconde
+         * (0 si la durée n'a pas été mesurée)
+         */
+        public double getThroughput(String tableName) {
+            Long duration = tableDurations.get(tableName);
+            Integer count = tableSyncs.get(tableName);
+            if (duration == null || count == null) {
+                return 0;
+            }
+            return count * 1000.0 / Math.max(1L, duration);
+        }
+
         public String toJson() {
             // Simple conversion JSON manuelle
             StringBuilder json = new StringBuilder("{");
@@ -500,6 +451,25 @@ public class SynchronizationService {
                 first = false;
             }
 
+            json.append("},\"throughput\":{");
+
+            first = true;
+            for (String tableName : tableDurations.keySet()) {
+                if (!first) json.append(",");
+                json.append("\"").append(tableName).append("\":")
+                        .append(String.format(Locale.ROOT, "%.1f", getThroughput(tableName)));
+                first = false;
+            }
+
+            json.append("},\"deletions\":{");
+
+            first = true;
+            for (Map.Entry<String, Integer> entry : tableDeletions.entrySet()) {
+                if (!first) json.append(",");
+                json.append("\"").append(entry.getKey()).append("\":").append(entry.getValue());
+                first = false;
+            }
+
             json.append("}}");
             return json.toString();
         }
@@ -512,6 +482,8 @@ public class SynchronizationService {
         public void setMessage(String message) { this.message = message; }
 
         public Map<String, Integer> getTableSyncs() { return tableSyncs; }
+        public Map<String, Long> getTableDurations() { return tableDurations; }
+        public Map<String, Integer> getTableDeletions() { return tableDeletions; }
         public LocalDateTime getTimestamp() { return timestamp; }
 
         public int getTotalRecordsSynced() {
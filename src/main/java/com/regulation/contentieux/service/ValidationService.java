@@ -3,10 +3,14 @@ package com.regulation.contentieux.service;
 import com.regulation.contentieux.exception.ValidationException;
 import com.regulation.contentieux.model.*;
 import com.regulation.contentieux.model.enums.*;
+import com.regulation.contentieux.util.SequencesNumeros;
+import com.regulation.contentieux.util.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -574,22 +578,33 @@ public class ValidationService {
     }
 
     /**
-     * Vérifie l'unicité d'un numéro
-     * À implémenter avec les DAOs correspondants
+     * Vérifie l'unicité d'un numéro (recherche dans l'index période/séquence)
      */
     public boolean isUniqueNumeroAffaire(String numero) {
-        // TODO: Vérifier en base
-        return true;
+        return isUniqueNumero(SequencesNumeros.Type.AFFAIRE, numero);
     }
 
     public boolean isUniqueNumeroEncaissement(String numero) {
-        // TODO: Vérifier en base
-        return true;
+        return isUniqueNumero(SequencesNumeros.Type.ENCAISSEMENT, numero);
     }
 
     public boolean isUniqueNumeroMandat(String numero) {
-        // TODO: Vérifier en base
-        return true;
+        return isUniqueNumero(SequencesNumeros.Type.MANDAT, numero);
+    }
+
+    private boolean isUniqueNumero(SequencesNumeros.Type type, String numero) {
+        if (isBlank(numero)) {
+            return true;
+        }
+
+        try (Connection conn = TransactionManager.getConnection()) {
+            return !SequencesNumeros.existe(conn, type, numero.trim());
+
+        } catch (SQLException e) {
+            // La contrainte UNIQUE de la table reste la garantie finale
+            logger.error("Erreur lors de la vérification d'unicité de {} dans {}", numero, type.getTable(), e);
+            return true;
+        }
     }
 
     // ========== Méthodes utilitaires ==========
@@ -0,0 +1,120 @@
+package com.regulation.contentieux.util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Annulation coopérative des traitements longs (génération de rapports)
+ *
+ * Le traitement est exécuté avec un jeton lié au thread courant ; les boucles
+ * de lecture (DAO, générateurs) appellent {@link #verifier()} et s'arrêtent
+ * par une CancellationException dès que le jeton est levé. Aucune
+ * interruption de thread n'est nécessaire : les connexions du pool ne sont
+ * jamais coupées au milieu d'une requête.
+ *
+ * Avec un {@link Jeton}, l'annulation interrompt aussi les requêtes en cours
+ * déclarées par {@link #surveiller(Statement)} (Statement.cancel) : une
+ * lecture longue devenue inutile libère sa connexion sans attendre la fin.
+ */
+public final class Annulation {
+
+    private static final ThreadLocal<BooleanSupplier> JETON = new ThreadLocal<>();
+
+    private Annulation() {
+        // Classe utilitaire
+    }
+
+    /**
+     * Exécute le travail avec le jeton d'annulation donné
+     */
+    public static void executer(BooleanSupplier estAnnule, Runnable travail) {
+        BooleanSupplier precedent = JETON.get();
+        JETON.set(estAnnule);
+        try {
+            travail.run();
+        } finally {
+            if (precedent != null) {
+                JETON.set(precedent);
+            } else {
+                JETON.remove();
+            }
+        }
+    }
+
+    /**
+     * Jeton annulable depuis un autre thread, qui interrompt les requêtes surveillées
+     */
+    public static final class Jeton implements BooleanSupplier {
+        private volatile boolean annule;
+        private final Set<Statement> requetes = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public boolean getAsBoolean() {
+            return annule;
+        }
+
+        public void annuler() {
+            annule = true;
+            requetes.forEach(Jeton::interrompre);
+        }
+
+        private static void interrompre(Statement requete) {
+            try {
+                requete.cancel();
+            } catch (SQLException e) {
+                // Requête déjà terminée ou fermée
+            }
+        }
+    }
+
+    /**
+     * Déclaration d'une requête surveillée, à fermer dès la fin de la lecture
+     */
+    @FunctionalInterface
+    public interface Surveillance extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Surveillance AUCUNE = () -> { };
+
+    /**
+     * Rend la requête interruptible par le jeton du traitement courant
+     *
+     * Sans effet hors d'un traitement lancé avec un {@link Jeton} ; si le
+     * traitement est déjà annulé, la requête n'est pas exécutée.
+     */
+    public static Surveillance surveiller(Statement requete) {
+        if (!(JETON.get() instanceof Jeton jeton)) {
+            return AUCUNE;
+        }
+        jeton.requetes.add(requete);
+        if (jeton.annule) {
+            // Statement.cancel est sans effet sur une requête pas encore lancée
+            jeton.requetes.remove(requete);
+            throw new CancellationException("Traitement annulé");
+        }
+        return () -> jeton.requetes.remove(requete);
+    }
+
+    /**
+     * Vrai si le traitement courant a été annulé
+     */
+    public static boolean estAnnule() {
+        BooleanSupplier jeton = JETON.get();
+        return (jeton != null && jeton.getAsBoolean()) || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Interrompt le traitement courant s'il a été annulé
+     */
+    public static void verifier() {
+        if (estAnnule()) {
+            throw new CancellationException("Traitement annulé");
+        }
+    }
+}
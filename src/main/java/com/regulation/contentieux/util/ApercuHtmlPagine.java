@@ -0,0 +1,347 @@
+package com.regulation.contentieux.util;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Worker;
+import javafx.event.EventHandler;
+import javafx.scene.web.WebEngine;
+import javafx.scene.web.WebEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Aperçu HTML paginé pour les rapports volumineux
+ *
+ * Le document complet n'est jamais donné tel quel à WebKit lorsqu'un tableau
+ * dépasse {@link #SEUIL_LIGNES} lignes : l'en-tête du rapport et la première
+ * page de lignes sont affichés immédiatement, les pages suivantes sont
+ * insérées à la demande lorsque l'utilisateur approche du bas du document.
+ * Les lignes de total en fin de tableau restent visibles dès le départ.
+ *
+ * Le HTML complet reste la référence pour l'impression et l'export PDF ;
+ * cette classe ne sert qu'à l'affichage. Toutes les méthodes publiques
+ * doivent être appelées depuis le thread JavaFX.
+ *
+ * Objectif : première page affichée en moins de {@link #OBJECTIF_PREMIERE_PAGE_MS} ms ;
+ * le temps réel (découpage et chargement WebKit) est journalisé à chaque affichage.
+ */
+public final class ApercuHtmlPagine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApercuHtmlPagine.class);
+
+    /**
+     * Nombre de lignes à partir duquel un tableau est paginé
+     */
+    public static final int SEUIL_LIGNES = 1000;
+
+    /**
+     * Lignes insérées par page
+     */
+    public static final int LIGNES_PAR_PAGE = 200;
+
+    /**
+     * Délai visé entre la demande d'affichage et la première page chargée
+     */
+    public static final long OBJECTIF_PREMIERE_PAGE_MS = 1000;
+
+    private static final int MAX_LIGNES_TOTAL_CONSERVEES = 5;
+    private static final String SIGNAL_SUITE = "apercu:suite";
+    private static final String ID_MARQUEUR = "apercu-suite";
+
+    private static final String SCRIPT = """
+        <script>
+        (function() {
+            var attente = false;
+            function verifier() {
+                if (attente || !document.getElementById('%1$s')) return;
+                var bas = window.innerHeight + (window.pageYOffset || document.documentElement.scrollTop);
+                if (bas >= document.body.scrollHeight - 1500) {
+                    attente = true;
+                    alert('%2$s');
+                }
+            }
+            window.__apercuAjouter = function(html, info, fini) {
+                var marqueur = document.getElementById('%1$s');
+                if (marqueur) {
+                    marqueur.insertAdjacentHTML('beforebegin', html);
+                    if (fini) {
+                        marqueur.parentNode.removeChild(marqueur);
+                    } else {
+                        marqueur.cells[0].textContent = info;
+                    }
+                }
+                attente = false;
+                setTimeout(verifier, 0);
+            };
+            window.addEventListener('scroll', verifier);
+            window.addEventListener('resize', verifier);
+            setTimeout(verifier, 0);
+        })();
+        </script>
+        """.formatted(ID_MARQUEUR, SIGNAL_SUITE);
+
+    /**
+     * Document découpé : squelette affiché immédiatement et pages différées
+     */
+    record Decoupage(String squelette, List<String> pages, int lignesTotal, int lignesInitiales) {
+    }
+
+    private final WebEngine engine;
+    private final EventHandler<WebEvent<String>> alertePrecedente;
+    private final Deque<String> pagesRestantes = new ArrayDeque<>();
+    private int lignesTotal;
+    private int lignesAffichees;
+
+    public ApercuHtmlPagine(WebEngine engine) {
+        this.engine = engine;
+        this.alertePrecedente = engine.getOnAlert();
+        engine.setOnAlert(this::surAlerte);
+    }
+
+    /**
+     * Affiche le document, paginé s'il contient un tableau volumineux
+     */
+    public void afficher(String html) {
+        pagesRestantes.clear();
+        lignesTotal = 0;
+        lignesAffichees = 0;
+
+        if (html == null) {
+            engine.loadContent("");
+            return;
+        }
+
+        long debut = System.nanoTime();
+        Decoupage decoupage = decouper(html);
+        mesurerPremierePage(debut, decoupage != null);
+        if (decoupage == null) {
+            engine.loadContent(html);
+            return;
+        }
+
+        pagesRestantes.addAll(decoupage.pages());
+        lignesTotal = decoupage.lignesTotal();
+        lignesAffichees = decoupage.lignesInitiales();
+        engine.loadContent(decoupage.squelette());
+
+        logger.debug("📄 Aperçu paginé : {} lignes, {} affichées, {} page(s) différée(s), découpage en {} ms",
+                lignesTotal, lignesAffichees, pagesRestantes.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    public boolean isPagine() {
+        return lignesTotal > 0;
+    }
+
+    public int getLignesTotal() {
+        return lignesTotal;
+    }
+
+    public int getLignesAffichees() {
+        return lignesAffichees;
+    }
+
+    /**
+     * Journalise le délai jusqu'à la fin du chargement du document affiché
+     */
+    private void mesurerPremierePage(long debut, boolean pagine) {
+        engine.getLoadWorker().stateProperty().addListener(new ChangeListener<>() {
+            // Annulation du chargement précédent ignorée : seul compte celui de ce document
+            private boolean demarre;
+
+            @Override
+            public void changed(ObservableValue<? extends Worker.State> observable,
+                                Worker.State ancien, Worker.State etat) {
+                if (etat == Worker.State.SCHEDULED || etat == Worker.State.RUNNING) {
+                    demarre = true;
+                    return;
+                }
+                if (!demarre || etat == Worker.State.READY) {
+                    return;
+                }
+                observable.removeListener(this);
+                long duree = (System.nanoTime() - debut) / 1_000_000;
+                if (etat == Worker.State.SUCCEEDED && duree > OBJECTIF_PREMIERE_PAGE_MS) {
+                    logger.warn("⚠️ Première page de l'aperçu affichée en {} ms (objectif {} ms, paginé : {})",
+                            duree, OBJECTIF_PREMIERE_PAGE_MS, pagine);
+                } else {
+                    logger.debug("⏱️ Première page de l'aperçu : {} en {} ms (paginé : {})", etat, duree, pagine);
+                }
+            }
+        });
+    }
+
+    private void surAlerte(WebEvent<String> event) {
+        if (!SIGNAL_SUITE.equals(event.getData())) {
+            if (alertePrecedente != null) {
+                alertePrecedente.handle(event);
+            }
+            return;
+        }
+        // Hors de l'appel JavaScript en cours : pas de réentrance dans le moteur
+        Platform.runLater(this::pageSuivante);
+    }
+
+    private void pageSuivante() {
+        String page = pagesRestantes.poll();
+        if (page == null) {
+            return;
+        }
+        lignesAffichees = Math.min(lignesTotal, lignesAffichees + LIGNES_PAR_PAGE);
+        boolean fini = pagesRestantes.isEmpty();
+        try {
+            engine.executeScript("window.__apercuAjouter(" + litteralJs(page) + ", "
+                    + litteralJs(texteMarqueur(lignesAffichees, lignesTotal)) + ", " + fini + ")");
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Insertion de la page suivante impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Découpe le plus grand tableau du document, null si aucun n'atteint le seuil
+     * ou si sa structure ne permet pas d'insérer des lignes (tableaux imbriqués,
+     * plusieurs corps de tableau dans la partie différée)
+     */
+    static Decoupage decouper(String html) {
+        String bas = html.toLowerCase(Locale.ROOT);
+        if (bas.length() != html.length()) {
+            // Casse changeant la longueur : positions non transposables
+            return null;
+        }
+
+        int meilleurDebut = -1;
+        int meilleureFin = -1;
+        List<Integer> meilleuresLignes = List.of();
+
+        int debut = bas.indexOf("<table");
+        while (debut >= 0) {
+            int fin = bas.indexOf("</table>", debut);
+            if (fin < 0) {
+                break;
+            }
+            int suivante = bas.indexOf("<table", debut + 6);
+            if (suivante < 0 || suivante > fin) {
+                List<Integer> lignes = positionsLignes(bas, debut, fin);
+                if (lignes.size() > meilleuresLignes.size()) {
+                    meilleurDebut = debut;
+                    meilleureFin = fin;
+                    meilleuresLignes = lignes;
+                }
+                debut = bas.indexOf("<table", fin);
+            } else {
+                // Tableau contenant un autre tableau : non paginé
+                debut = suivante;
+            }
+        }
+
+        int n = meilleuresLignes.size();
+        if (meilleurDebut < 0 || n < SEUIL_LIGNES) {
+            return null;
+        }
+
+        int finDerniereLigne = bas.lastIndexOf("</tr>", meilleureFin);
+        if (finDerniereLigne < meilleuresLignes.get(n - 1)) {
+            return null;
+        }
+        finDerniereLigne += "</tr>".length();
+
+        // Lignes de total finales conservées dans le squelette
+        int conservees = 0;
+        while (conservees < MAX_LIGNES_TOTAL_CONSERVEES && conservees < n - LIGNES_PAR_PAGE) {
+            int i = n - 1 - conservees;
+            int finLigne = i == n - 1 ? finDerniereLigne : meilleuresLignes.get(i + 1);
+            if (!bas.substring(meilleuresLignes.get(i), finLigne).contains("total")) {
+                break;
+            }
+            conservees++;
+        }
+
+        int premiereDifferee = LIGNES_PAR_PAGE;
+        int finDifferees = n - conservees;
+        if (finDifferees <= premiereDifferee) {
+            return null;
+        }
+        int debutZone = meilleuresLignes.get(premiereDifferee);
+        int finZone = finDifferees == n ? finDerniereLigne : meilleuresLignes.get(finDifferees);
+        String zone = bas.substring(debutZone, finZone);
+        if (zone.contains("<tbody") || zone.contains("</tbody") || zone.contains("<thead")
+                || zone.contains("<tfoot") || zone.contains("</thead")) {
+            return null;
+        }
+
+        List<String> pages = new ArrayList<>();
+        for (int i = premiereDifferee; i < finDifferees; i += LIGNES_PAR_PAGE) {
+            int j = Math.min(i + LIGNES_PAR_PAGE, finDifferees);
+            int finPage = j == n ? finDerniereLigne : meilleuresLignes.get(j);
+            pages.add(html.substring(meilleuresLignes.get(i), finPage));
+        }
+
+        String marqueur = "<tr id=\"" + ID_MARQUEUR + "\"><td colspan=\"100\" "
+                + "style=\"text-align:center;font-style:italic;color:#666;padding:12px\">"
+                + texteMarqueur(premiereDifferee, n) + "</td></tr>";
+
+        StringBuilder squelette = new StringBuilder(debutZone + (html.length() - finZone) + SCRIPT.length() + 256);
+        squelette.append(html, 0, debutZone).append(marqueur).append(html, finZone, html.length());
+
+        int finBody = bas.lastIndexOf("</body>");
+        if (finBody >= finZone) {
+            // Position décalée : la zone différée a été retirée avant </body>
+            squelette.insert(finBody - (finZone - debutZone) + marqueur.length(), SCRIPT);
+        } else {
+            squelette.append(SCRIPT);
+        }
+
+        return new Decoupage(squelette.toString(), pages, n, premiereDifferee);
+    }
+
+    private static List<Integer> positionsLignes(String bas, int debutTable, int finTable) {
+        List<Integer> positions = new ArrayList<>();
+        int i = bas.indexOf("<tr", debutTable);
+        while (i >= 0 && i < finTable) {
+            char suivant = i + 3 < bas.length() ? bas.charAt(i + 3) : ' ';
+            if (suivant == '>' || Character.isWhitespace(suivant)) {
+                positions.add(i);
+            }
+            i = bas.indexOf("<tr", i + 3);
+        }
+        return positions;
+    }
+
+    private static String texteMarqueur(int affichees, int total) {
+        return "Lignes affichées : " + affichees + " / " + total + " — faites défiler pour afficher la suite";
+    }
+
+    /**
+     * Chaîne littérale JavaScript (guillemets doubles)
+     */
+    static String litteralJs(String texte) {
+        StringBuilder sb = new StringBuilder(texte.length() + 16);
+        sb.append('"');
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                case '\u2028' -> sb.append("\\u2028");
+                case '\u2029' -> sb.append("\\u2029");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,232 @@
+package com.regulation.contentieux.util;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.service.PerformanceTestService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Audit des plans d'exécution SQLite (EXPLAIN QUERY PLAN)
+ *
+ * - {@link #capturer(Runnable)} relève les requêtes préparées par le thread
+ *   courant pendant un scénario (appels de DAO et de services)
+ * - {@link #auditer(Collection)} demande le plan de chaque requête et signale
+ *   les parcours complets de table et les tris en table temporaire
+ *
+ * Un parcours complet est attendu pour une recherche libre (LIKE '%...%')
+ * ou une lecture sans filtre ; il n'est signalé comme anomalie que dans les
+ * autres cas.
+ *
+ * Exécution autonome : main() joue le scénario du banc de performance et journalise le rapport.
+ */
+public final class AuditPlansRequetes {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPlansRequetes.class);
+
+    private static final ThreadLocal<Set<String>> capture = new ThreadLocal<>();
+
+    private static final Pattern TABLE_ALIAS = Pattern.compile(
+            "\\b(?:FROM|JOIN)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(\\w+))?", Pattern.CASE_INSENSITIVE);
+
+    private static final Set<String> MOTS_CLES = Set.of(
+            "WHERE", "LEFT", "RIGHT", "INNER", "OUTER", "CROSS", "JOIN", "ON", "USING", "GROUP",
+            "ORDER", "LIMIT", "HAVING", "UNION", "SET", "AND", "OR");
+
+    private AuditPlansRequetes() {
+    }
+
+    /**
+     * Plan d'une requête
+     *
+     * @param etapes           Lignes du plan (colonne detail)
+     * @param parcoursComplets Tables lues en entier, sans index
+     * @param triTemporaire    Tri ou regroupement en table temporaire
+     * @param erreur           Message si le plan n'a pas pu être obtenu
+     */
+    public record PlanRequete(String sql, List<String> etapes, List<String> parcoursComplets,
+                              boolean triTemporaire, String erreur) {
+
+        /**
+         * Parcours complet attendu : recherche libre ou lecture sans filtre
+         */
+        public boolean parcoursAttendu() {
+            String requete = sql.toUpperCase(Locale.ROOT);
+            return requete.contains(" LIKE ") || !requete.contains(" WHERE ")
+                    || requete.matches("(?s).*\\sWHERE\\s+1\\s*=\\s*1\\s+(ORDER|LIMIT|GROUP)\\b.*");
+        }
+
+        public boolean anomalie() {
+            return erreur == null && !parcoursComplets.isEmpty() && !parcoursAttendu();
+        }
+    }
+
+    // ==================== CAPTURE ====================
+
+    /**
+     * Exécute le scénario et renvoie les requêtes préparées pendant son
+     * exécution sur le thread courant, dans l'ordre de première apparition
+     */
+    public static Set<String> capturer(Runnable scenario) {
+        Set<String> precedente = capture.get();
+        Set<String> requetes = new LinkedHashSet<>();
+        capture.set(requetes);
+        try {
+            scenario.run();
+        } finally {
+            if (precedente != null) {
+                precedente.addAll(requetes);
+                capture.set(precedente);
+            } else {
+                capture.remove();
+            }
+        }
+        return requetes;
+    }
+
+    /**
+     * Enveloppe la connexion si une capture est en cours sur ce thread ;
+     * la renvoie telle quelle sinon
+     */
+    public static Connection observer(Connection conn) {
+        Set<String> requetes = capture.get();
+        if (requetes == null || conn == null) {
+            return conn;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    String nom = method.getName();
+                    if ((nom.equals("prepareStatement") || nom.equals("prepareCall"))
+                            && args != null && args[0] instanceof String sql) {
+                        requetes.add(normaliser(sql));
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static String normaliser(String sql) {
+        return sql.strip().replaceAll("\\s+", " ");
+    }
+
+    // ==================== AUDIT ====================
+
+    /**
+     * Plan d'exécution de chaque requête, les paramètres restant non liés (NULL)
+     */
+    public static List<PlanRequete> auditer(Collection<String> requetes) {
+        List<PlanRequete> plans = new ArrayList<>(requetes.size());
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            for (String sql : requetes) {
+                if (sql.regionMatches(true, 0, "PRAGMA", 0, 6) || sql.regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+                    continue;
+                }
+                plans.add(expliquer(conn, sql));
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Audit des plans impossible", e);
+        }
+        return plans;
+    }
+
+    private static PlanRequete expliquer(Connection conn, String sql) {
+        Map<String, String> tables = tablesParAlias(sql);
+        List<String> etapes = new ArrayList<>();
+        List<String> parcours = new ArrayList<>();
+        boolean triTemporaire = false;
+
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String detail = rs.getString(4);
+                etapes.add(detail);
+                if (detail.startsWith("USE TEMP B-TREE")) {
+                    triTemporaire = true;
+                } else if (detail.startsWith("SCAN ") && !detail.contains(" USING ")) {
+                    String alias = detail.substring(5).trim();
+                    String table = tables.get(alias.toLowerCase(Locale.ROOT));
+                    if (table != null && !table.startsWith("sqlite_")) {
+                        parcours.add(table);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            return new PlanRequete(sql, etapes, parcours, false, e.getMessage());
+        }
+        return new PlanRequete(sql, etapes, parcours, triTemporaire, null);
+    }
+
+    /**
+     * Tables de la requête par alias (le plan désigne les tables par leur alias)
+     */
+    private static Map<String, String> tablesParAlias(String sql) {
+        Map<String, String> tables = new HashMap<>();
+        Matcher m = TABLE_ALIAS.matcher(sql);
+        while (m.find()) {
+            String table = m.group(1).toLowerCase(Locale.ROOT);
+            tables.put(table, table);
+            String alias = m.group(2);
+            if (alias != null && !MOTS_CLES.contains(alias.toUpperCase(Locale.ROOT))) {
+                tables.put(alias.toLowerCase(Locale.ROOT), table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Résumé lisible de l'audit
+     */
+    public static String formater(List<PlanRequete> plans) {
+        StringBuilder sb = new StringBuilder();
+        long anomalies = plans.stream().filter(PlanRequete::anomalie).count();
+        sb.append(String.format("=== AUDIT DES PLANS : %d requêtes, %d parcours complets à traiter ===%n",
+                plans.size(), anomalies));
+        for (PlanRequete plan : plans) {
+            String statut = plan.erreur() != null ? "⚠️ ERREUR"
+                    : plan.anomalie() ? "❌ PARCOURS COMPLET"
+                    : !plan.parcoursComplets().isEmpty() ? "ℹ️ PARCOURS ATTENDU"
+                    : "✅ INDEX";
+            sb.append('\n').append(statut);
+            if (!plan.parcoursComplets().isEmpty()) {
+                sb.append(" ").append(plan.parcoursComplets());
+            }
+            if (plan.triTemporaire()) {
+                sb.append(" + tri temporaire");
+            }
+            sb.append('\n').append("   ").append(plan.sql()).append('\n');
+            if (plan.erreur() != null) {
+                sb.append("   ").append(plan.erreur()).append('\n');
+            }
+            for (String etape : plan.etapes()) {
+                sb.append("   └ ").append(etape).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        PerformanceTestService banc = new PerformanceTestService();
+        List<PlanRequete> plans = auditer(banc.capturerRequetesScenario());
+        logger.info("\n{}", formater(plans));
+        DatabaseConfig.closeAllConnections();
+    }
+}
@@ -0,0 +1,514 @@
+package com.regulation.contentieux.util;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.service.ConfigurationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Base d'archive des affaires clôturées (fichier SQLite attaché sous le nom "archive")
+ *
+ * Tout ce qui est archivé est antérieur à la date limite enregistrée dans
+ * parametres (archive.date_limite) : une période qui commence à cette date ou
+ * après se lit sur la base courante seule. Pour une période plus ancienne,
+ * {@link #connexionPourPeriode(LocalDate)} attache l'archive et réécrit les
+ * requêtes de lecture préparées : chaque table archivée citée après FROM,
+ * JOIN ou dans une liste FROM devient l'union de ses lignes courantes et
+ * archivées, sans changer le SQL appelant.
+ *
+ * Le déplacement des lignes est fait par ArchivageService, en copie puis
+ * suppression : entre les deux, une ligne est présente dans les deux bases.
+ * L'union écarte alors la copie archivée (voir {@link #reecrire}).
+ */
+public final class BaseArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(BaseArchive.class);
+
+    public static final String ALIAS = "archive";
+    public static final String CLE_DATE_LIMITE = "archive.date_limite";
+
+    // Mots qui suivent une table sans en être l'alias
+    private static final Set<String> MOTS_CLES = Set.of(
+            "WHERE", "LEFT", "RIGHT", "FULL", "INNER", "OUTER", "CROSS", "NATURAL", "JOIN", "ON", "USING",
+            "GROUP", "ORDER", "LIMIT", "HAVING", "UNION", "EXCEPT", "INTERSECT", "WINDOW", "SET", "AND", "OR");
+
+    // Mots qui terminent la liste des tables d'un FROM (au même niveau de parenthèses)
+    private static final Set<String> FIN_LISTE_FROM = Set.of(
+            "WHERE", "GROUP", "ORDER", "LIMIT", "HAVING", "UNION", "EXCEPT", "INTERSECT", "WINDOW", "SELECT");
+
+    /**
+     * Parent dont la présence dans la base courante implique celle de la ligne :
+     * une affaire et ses dépendants sont supprimés dans la même transaction
+     */
+    private static final Map<String, String> PARENTS = Map.of(
+            "affaire_id", "affaires",
+            "repartition_resultat_id", "repartition_resultats");
+
+    private static volatile LocalDate dateLimite;
+    private static volatile boolean dateLimiteChargee = false;
+    private static volatile Map<String, List<String>> colonnesArchive;
+
+    private BaseArchive() {
+    }
+
+    /**
+     * Fichier de l'archive (archive.path, surchargeable par System Property comme sqlite.path)
+     */
+    public static Path getChemin() {
+        return Path.of(System.getProperty("archive.path", ConfigurationService.getInstance()
+                .getProperty("archive.path", "data/gestion_contentieux_archive.db")).trim());
+    }
+
+    // ==================== DATE LIMITE ====================
+
+    /**
+     * Date avant laquelle des lignes ont pu être archivées ; vide si rien ne l'a été
+     */
+    public static Optional<LocalDate> getDateLimite() {
+        if (!dateLimiteChargee) {
+            try (Connection conn = DatabaseConfig.getSQLiteConnection();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT valeur FROM parametres WHERE cle = ?")) {
+                stmt.setString(1, CLE_DATE_LIMITE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    dateLimite = rs.next() ? LocalDate.parse(rs.getString(1)) : null;
+                }
+            } catch (SQLException | RuntimeException e) {
+                logger.debug("Date limite d'archive indisponible : {}", e.getMessage());
+                dateLimite = null;
+            }
+            dateLimiteChargee = true;
+        }
+        return Optional.ofNullable(dateLimite);
+    }
+
+    /**
+     * Enregistre la nouvelle date limite (dans la transaction de l'archivage)
+     */
+    public static void definirDateLimite(Connection conn, LocalDate limite) throws SQLException {
+        String sql = """
+            INSERT INTO parametres (cle, valeur, description, type_valeur)
+            VALUES (?, ?, 'Lignes antérieures déplacées dans la base d''archive', 'STRING')
+            ON CONFLICT(cle) DO UPDATE SET valeur = excluded.valeur, updated_at = CURRENT_TIMESTAMP
+        """;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, CLE_DATE_LIMITE);
+            stmt.setString(2, limite.toString());
+            stmt.executeUpdate();
+        }
+        dateLimite = limite;
+        dateLimiteChargee = true;
+    }
+
+    /**
+     * Relit la date limite à la prochaine demande (après une restauration de la base)
+     */
+    public static void oublierDateLimite() {
+        dateLimiteChargee = false;
+    }
+
+    /**
+     * Vrai si une période commençant à dateDebut (null : sans borne) peut
+     * contenir des lignes archivées
+     */
+    public static boolean estNecessaire(LocalDate dateDebut) {
+        Optional<LocalDate> limite = getDateLimite();
+        return limite.isPresent()
+                && (dateDebut == null || dateDebut.isBefore(limite.get()))
+                && Files.exists(getChemin());
+    }
+
+    // ==================== CONNEXIONS ====================
+
+    /**
+     * Attache l'archive à la connexion (sans effet si elle l'est déjà) ;
+     * le fichier est créé s'il n'existe pas
+     */
+    public static void attacher(Connection conn) throws SQLException {
+        if (estAttachee(conn)) {
+            return;
+        }
+        Path chemin = getChemin().toAbsolutePath();
+        try {
+            Files.createDirectories(chemin.getParent());
+        } catch (IOException e) {
+            throw new SQLException("Dossier de l'archive inaccessible : " + chemin.getParent(), e);
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("ATTACH DATABASE ? AS " + ALIAS)) {
+            stmt.setString(1, chemin.toString());
+            stmt.execute();
+        }
+    }
+
+    public static void detacher(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            if (estAttachee(conn)) {
+                stmt.execute("DETACH DATABASE " + ALIAS);
+            }
+        } catch (SQLException e) {
+            logger.warn("⚠️ Archive non détachée : {}", e.getMessage());
+        }
+    }
+
+    private static boolean estAttachee(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA database_list")) {
+            while (rs.next()) {
+                if (ALIAS.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Connexion de lecture pour une période commençant à dateDebut
+     *
+     * Période postérieure à la date limite : connexion habituelle
+     * ({@link TransactionManager#getConnection()}). Sinon connexion dédiée,
+     * archive attachée et requêtes réécrites ; l'archive est détachée à la
+     * fermeture. Dans une transaction, l'archive ne peut pas être attachée :
+     * la lecture se limite alors à la base courante.
+     */
+    public static Connection connexionPourPeriode(LocalDate dateDebut) throws SQLException {
+        if (!estNecessaire(dateDebut)) {
+            return TransactionManager.getConnection();
+        }
+        if (TransactionManager.isInTransaction()) {
+            logger.warn("⚠️ Lecture de période antérieure au {} dans une transaction : archive non consultée",
+                    dateLimite);
+            return TransactionManager.getConnection();
+        }
+
+        Connection conn = DatabaseConfig.getSQLiteConnection();
+        Map<String, List<String>> tables;
+        try {
+            attacher(conn);
+            tables = getColonnesArchive(conn);
+        } catch (SQLException e) {
+            logger.warn("⚠️ Archive indisponible, lecture sur la base courante seule : {}", e.getMessage());
+            detacher(conn);
+            return conn;
+        }
+        return envelopper(conn, tables);
+    }
+
+    /**
+     * Connexion de lecture pour les détails d'une affaire (acteurs,
+     * contraventions...) : l'archive n'est attachée que si l'affaire n'est
+     * plus dans la base courante
+     */
+    public static Connection connexionPourAffaire(Long affaireId) throws SQLException {
+        if (affaireId == null || getDateLimite().isEmpty() || !Files.exists(getChemin())) {
+            return TransactionManager.getConnection();
+        }
+        try (Connection conn = TransactionManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM affaires WHERE id = ?")) {
+            stmt.setLong(1, affaireId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return TransactionManager.getConnection();
+                }
+            }
+        }
+        return connexionPourPeriode(null);
+    }
+
+    private static Connection envelopper(Connection conn, Map<String, List<String>> tables) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    String nom = method.getName();
+                    if ((nom.equals("prepareStatement") || nom.equals("prepareCall"))
+                            && args != null && args[0] instanceof String sql) {
+                        args[0] = reecrire(sql, tables);
+                    } else if (nom.equals("close")) {
+                        detacher(conn);
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    // ==================== RÉÉCRITURE ====================
+
+    /**
+     * Remplace chaque table archivée citée après FROM ou JOIN, ou dans une liste
+     * FROM, par l'union de ses lignes courantes et archivées, en conservant
+     * l'alias (ou le nom de la table comme alias)
+     *
+     * Le SQL est parcouru jeton par jeton : littéraux, identifiants entre
+     * guillemets et commentaires sont recopiés tels quels, les sous-requêtes
+     * sont réécrites à leur tour. Seules les lectures (SELECT, WITH) sont
+     * réécrites ; une table qualifiée par sa base (main.affaires) est laissée telle quelle.
+     *
+     * Côté archive, l'union ne garde que les lignes absentes de la base
+     * courante : même id, ou parent (affaire, résultat de répartition) encore
+     * présent. Une ligne copiée mais pas encore supprimée n'est lue qu'une fois.
+     */
+    static String reecrire(String sql, Map<String, List<String>> tables) {
+        if (!estLecture(sql)) {
+            return sql;
+        }
+        StringBuilder sb = new StringBuilder(sql.length() + 256);
+        Deque<Boolean> listesFrom = new ArrayDeque<>();
+        boolean listeFrom = false;
+        int i = 0;
+        int n = sql.length();
+        while (i < n) {
+            int fin = finLitteral(sql, i);
+            if (fin > i) {
+                sb.append(sql, i, fin);
+                i = fin;
+                continue;
+            }
+            char c = sql.charAt(i);
+            if (estCaractereMot(c)) {
+                int finMot = finMot(sql, i);
+                String mot = sql.substring(i, finMot).toUpperCase(Locale.ROOT);
+                sb.append(sql, i, finMot);
+                i = finMot;
+                if (mot.equals("FROM") || mot.equals("JOIN")) {
+                    listeFrom = true;
+                    i = referenceTable(sql, i, tables, sb);
+                } else if (FIN_LISTE_FROM.contains(mot)) {
+                    listeFrom = false;
+                }
+                continue;
+            }
+            sb.append(c);
+            i++;
+            if (c == '(') {
+                listesFrom.push(listeFrom);
+                listeFrom = false;
+            } else if (c == ')') {
+                listeFrom = !listesFrom.isEmpty() && listesFrom.pop();
+            } else if (c == ',' && listeFrom) {
+                i = referenceTable(sql, i, tables, sb);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lit la référence de table qui commence à debut (après les espaces) et
+     * la remplace si la table est archivée ; renvoie la position suivante
+     */
+    private static int referenceTable(String sql, int debut, Map<String, List<String>> tables, StringBuilder sb) {
+        int j = sauterEspaces(sql, debut);
+        sb.append(sql, debut, j);
+        int finNom = finIdentifiant(sql, j);
+        if (finNom == j || (finNom < sql.length() && sql.charAt(finNom) == '.')) {
+            // Sous-requête, fonction ou table qualifiée : parcours normal
+            return j;
+        }
+        String nom = sansGuillemets(sql.substring(j, finNom));
+        List<String> colonnes = tables.get(nom.toLowerCase(Locale.ROOT));
+        if (colonnes == null) {
+            return j;
+        }
+
+        String alias = sql.substring(j, finNom);
+        int suite = finNom;
+        int k = sauterEspaces(sql, finNom);
+        int finMot = finIdentifiant(sql, k);
+        if (finMot > k) {
+            String mot = sql.substring(k, finMot);
+            if (mot.equalsIgnoreCase("AS")) {
+                int debutAlias = sauterEspaces(sql, finMot);
+                int finAlias = finIdentifiant(sql, debutAlias);
+                if (finAlias > debutAlias) {
+                    alias = sql.substring(debutAlias, finAlias);
+                    suite = finAlias;
+                }
+            } else if (!MOTS_CLES.contains(mot.toUpperCase(Locale.ROOT))) {
+                alias = mot;
+                suite = finMot;
+            }
+        }
+        sb.append(union(nom.toLowerCase(Locale.ROOT), colonnes)).append(' ').append(alias);
+        return suite;
+    }
+
+    /**
+     * Lignes courantes et archivées d'une table, sans doublon entre les deux bases
+     */
+    private static String union(String table, List<String> colonnes) {
+        String colonnesSql = String.join(", ", colonnes);
+        String archivee = ALIAS + "." + table;
+        String absente = "";
+        if (colonnes.stream().anyMatch("id"::equalsIgnoreCase)) {
+            absente = " WHERE NOT EXISTS (SELECT 1 FROM main." + table
+                    + " WHERE main." + table + ".id = " + archivee + ".id)";
+        } else {
+            for (Map.Entry<String, String> parent : PARENTS.entrySet()) {
+                if (colonnes.stream().anyMatch(parent.getKey()::equalsIgnoreCase)) {
+                    absente = " WHERE NOT EXISTS (SELECT 1 FROM main." + parent.getValue()
+                            + " WHERE main." + parent.getValue() + ".id = " + archivee + "." + parent.getKey() + ")";
+                    break;
+                }
+            }
+        }
+        return "(SELECT " + colonnesSql + " FROM main." + table
+                + " UNION ALL SELECT " + colonnesSql + " FROM " + archivee + absente + ")";
+    }
+
+    /**
+     * Vrai pour une requête de lecture (premier mot SELECT ou WITH)
+     */
+    private static boolean estLecture(String sql) {
+        int i = 0;
+        while (i < sql.length()) {
+            int fin = finLitteral(sql, i);
+            char c = sql.charAt(i);
+            if (fin > i && (c == '-' || c == '/')) {
+                i = fin;
+            } else if (Character.isWhitespace(c) || c == '(') {
+                i++;
+            } else {
+                String mot = sql.substring(i, finMot(sql, i)).toUpperCase(Locale.ROOT);
+                return mot.equals("SELECT") || mot.equals("WITH");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fin du littéral, de l'identifiant entre guillemets ou du commentaire qui
+     * commence à i ; i s'il n'en commence aucun
+     */
+    private static int finLitteral(String sql, int i) {
+        char c = sql.charAt(i);
+        int n = sql.length();
+        if (c == '\'' || c == '"' || c == '`' || c == '[') {
+            char fermant = c == '[' ? ']' : c;
+            int j = i + 1;
+            while (j < n) {
+                if (sql.charAt(j) == fermant) {
+                    // Guillemet doublé : échappement
+                    if (fermant != ']' && j + 1 < n && sql.charAt(j + 1) == fermant) {
+                        j += 2;
+                        continue;
+                    }
+                    return j + 1;
+                }
+                j++;
+            }
+            return n;
+        }
+        if (c == '-' && i + 1 < n && sql.charAt(i + 1) == '-') {
+            int fin = sql.indexOf('\n', i);
+            return fin < 0 ? n : fin + 1;
+        }
+        if (c == '/' && i + 1 < n && sql.charAt(i + 1) == '*') {
+            int fin = sql.indexOf("*/", i + 2);
+            return fin < 0 ? n : fin + 2;
+        }
+        return i;
+    }
+
+    /**
+     * Fin de l'identifiant (simple ou entre guillemets) qui commence à i ; i sinon
+     */
+    private static int finIdentifiant(String sql, int i) {
+        if (i >= sql.length()) {
+            return i;
+        }
+        char c = sql.charAt(i);
+        if (c == '"' || c == '`' || c == '[') {
+            return finLitteral(sql, i);
+        }
+        return estCaractereMot(c) ? finMot(sql, i) : i;
+    }
+
+    private static String sansGuillemets(String identifiant) {
+        char c = identifiant.charAt(0);
+        return c == '"' || c == '`' || c == '[' ? identifiant.substring(1, identifiant.length() - 1) : identifiant;
+    }
+
+    private static int finMot(String sql, int i) {
+        int j = i;
+        while (j < sql.length() && estCaractereMot(sql.charAt(j))) {
+            j++;
+        }
+        return j;
+    }
+
+    private static boolean estCaractereMot(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static int sauterEspaces(String sql, int i) {
+        int j = i;
+        while (j < sql.length() && Character.isWhitespace(sql.charAt(j))) {
+            j++;
+        }
+        return j;
+    }
+
+    /**
+     * Colonnes des tables présentes dans l'archive attachée
+     */
+    private static Map<String, List<String>> getColonnesArchive(Connection conn) throws SQLException {
+        Map<String, List<String>> colonnes = colonnesArchive;
+        if (colonnes != null) {
+            return colonnes;
+        }
+
+        colonnes = new LinkedHashMap<>();
+        List<String> tables = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT name FROM " + ALIAS + ".sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%'")) {
+            while (rs.next()) {
+                tables.add(rs.getString(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        for (String table : tables) {
+            List<String> noms = new ArrayList<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA " + ALIAS + ".table_info(" + table + ")")) {
+                while (rs.next()) {
+                    noms.add(rs.getString("name"));
+                }
+            }
+            if (!noms.isEmpty()) {
+                colonnes.put(table, List.copyOf(noms));
+            }
+        }
+        colonnes = Collections.unmodifiableMap(colonnes);
+        colonnesArchive = colonnes;
+        return colonnes;
+    }
+
+    /**
+     * À appeler après une modification du schéma de l'archive
+     */
+    public static void invaliderSchema() {
+        colonnesArchive = null;
+    }
+}
@@ -0,0 +1,311 @@
+package com.regulation.contentieux.util;
+
+import com.regulation.contentieux.service.AppExecutors;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Chargement des pages d'une liste paginée
+ *
+ * - Chaque demande reçoit un numéro de génération : seul le résultat de la
+ *   dernière demande est affiché, une réponse arrivée en retard est ignorée
+ * - La requête d'une demande devenue inutile est interrompue
+ *   (Statement.cancel via {@link Annulation.Jeton}) et libère sa connexion
+ * - Les demandes rapprochées (saisie, clics successifs) sont regroupées en
+ *   une seule requête, celle de la dernière demande
+ * - La page suivante est préchargée en arrière-plan ; une page préchargée
+ *   n'est servie que si aucune écriture n'a eu lieu depuis ({@link DataVersion})
+ *
+ * {@link #demander(Object)} s'appelle depuis le thread JavaFX ; les critères
+ * de la demande doivent y être lus (un record : égalité par valeur).
+ *
+ * @param <R> Demande : critères de recherche, numéro et taille de page
+ * @param <T> Élément affiché
+ */
+public class ChargeurListe<R, T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargeurListe.class);
+
+    private static final long DELAI_REGROUPEMENT_MS = 80;
+    private static final long DUREE_VIE_PAGE_MS = 30_000;
+    private static final int PAGES_EN_CACHE = 4;
+
+    /**
+     * Page chargée et nombre total d'éléments correspondant aux critères
+     */
+    public record Page<T>(List<T> elements, long total) {
+    }
+
+    /**
+     * Requête de chargement d'une page, exécutée hors du thread JavaFX
+     */
+    @FunctionalInterface
+    public interface Requete<R, T> {
+        Page<T> charger(R demande) throws Exception;
+    }
+
+    private record Demande<R>(long generation, R requete) {
+    }
+
+    private record PageEnCache<T>(Page<T> page, long version, long epoque, long chargeeLe) {
+    }
+
+    private final String nom;
+    private final Requete<R, T> requete;
+    private final BiFunction<R, Page<T>, R> pageSuivante;
+    private final BiConsumer<R, Page<T>> affichage;
+    private final Consumer<Throwable> erreur;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong epoque = new AtomicLong();
+    private final AtomicReference<Demande<R>> enAttente = new AtomicReference<>();
+    private final AtomicReference<R> prechargement = new AtomicReference<>();
+    private final AtomicBoolean planifie = new AtomicBoolean();
+    private volatile Demande<R> voulue;
+    private volatile Annulation.Jeton jetonEnCours;
+    private volatile R requeteEnCours;
+
+    private final Map<R, PageEnCache<T>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<R, PageEnCache<T>> eldest) {
+            return size() > PAGES_EN_CACHE;
+        }
+    };
+
+    /**
+     * @param nom          Nom de la liste (logs)
+     * @param requete      Chargement d'une page
+     * @param pageSuivante Demande de la page suivante d'une page chargée, null s'il n'y en a pas
+     * @param affichage    Affichage de la page, appelé sur le thread JavaFX
+     * @param erreur       Échec du chargement de la page demandée, appelé sur le thread JavaFX
+     */
+    public ChargeurListe(String nom, Requete<R, T> requete, BiFunction<R, Page<T>, R> pageSuivante,
+                         BiConsumer<R, Page<T>> affichage, Consumer<Throwable> erreur) {
+        this.nom = nom;
+        this.requete = requete;
+        this.pageSuivante = pageSuivante;
+        this.affichage = affichage;
+        this.erreur = erreur;
+    }
+
+    /**
+     * Demande l'affichage d'une page
+     *
+     * @return true si la page était préchargée et vient d'être affichée,
+     *         false si elle est en cours de chargement
+     */
+    public boolean demander(R demande) {
+        Demande<R> nouvelle = new Demande<>(generation.incrementAndGet(), demande);
+        voulue = nouvelle;
+
+        Page<T> prechargee = lireCache(demande);
+        if (prechargee != null) {
+            interrompreEnCours(demande);
+            enAttente.set(null);
+            affichage.accept(demande, prechargee);
+            precharger(demande, prechargee);
+            return true;
+        }
+
+        // La page est peut-être déjà en cours de chargement (préchargement) : elle sera affichée à son arrivée
+        Annulation.Jeton jeton = jetonEnCours;
+        if (jeton != null && !jeton.getAsBoolean() && demande.equals(requeteEnCours)) {
+            enAttente.set(null);
+            return false;
+        }
+
+        interrompreEnCours(demande);
+        enAttente.set(nouvelle);
+        planifier(true);
+        return false;
+    }
+
+    /**
+     * Oublie les pages préchargées (après une modification faite depuis la liste)
+     */
+    public void invalider() {
+        epoque.incrementAndGet();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    // ==================== EXÉCUTION ====================
+
+    private void planifier(boolean regrouper) {
+        if (!planifie.compareAndSet(false, true)) {
+            return;
+        }
+        AppExecutors.getInstance().executerIO(new Task<Void>() {
+            @Override
+            protected Void call() throws Exception {
+                if (regrouper) {
+                    Thread.sleep(DELAI_REGROUPEMENT_MS);
+                }
+                traiter();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Traite la dernière demande puis le préchargement, sur le thread d'E/S
+     */
+    private void traiter() {
+        try {
+            while (true) {
+                Demande<R> demande = enAttente.getAndSet(null);
+                R cible;
+                if (demande != null) {
+                    if (demande.generation() != generation.get()) {
+                        continue; // remplacée entre-temps
+                    }
+                    cible = demande.requete();
+                } else {
+                    cible = prechargement.getAndSet(null);
+                    if (cible == null) {
+                        break;
+                    }
+                    if (lireCache(cible) != null) {
+                        continue;
+                    }
+                }
+                charger(cible);
+            }
+        } finally {
+            planifie.set(false);
+        }
+
+        // Demande arrivée pendant la sortie de boucle
+        if (enAttente.get() != null || prechargement.get() != null) {
+            planifier(false);
+        }
+    }
+
+    private void charger(R cible) {
+        Annulation.Jeton jeton = new Annulation.Jeton();
+        requeteEnCours = cible;
+        jetonEnCours = jeton;
+        Demande<R> attendue = voulue;
+        if (attendue != null && !cible.equals(attendue.requete()) && enAttente.get() != null) {
+            jeton.annuler();
+        }
+
+        long version = DataVersion.getVersion();
+        long epoqueChargement = epoque.get();
+        long debut = System.nanoTime();
+        AtomicReference<Page<T>> resultat = new AtomicReference<>();
+        try {
+            Annulation.executer(jeton, () -> {
+                try {
+                    resultat.set(requete.charger(cible));
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+
+            if (jeton.getAsBoolean()) {
+                // Résultat éventuellement partiel d'une requête interrompue
+                logger.debug("⏹️ Chargement {} abandonné : {}", nom, cible);
+                return;
+            }
+
+            Page<T> page = resultat.get();
+            synchronized (cache) {
+                if (epoqueChargement == epoque.get()) {
+                    cache.put(cible, new PageEnCache<>(page, version, epoqueChargement, System.currentTimeMillis()));
+                }
+            }
+            logger.debug("📄 {} chargée en {} ms : {}", nom, (System.nanoTime() - debut) / 1_000_000, cible);
+            publier(cible, page);
+
+        } catch (CancellationException e) {
+            logger.debug("⏹️ Chargement {} annulé : {}", nom, cible);
+        } catch (RuntimeException e) {
+            if (jeton.getAsBoolean()) {
+                logger.debug("⏹️ Requête {} interrompue : {}", nom, cible);
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            signalerErreur(cible, cause);
+        } finally {
+            jetonEnCours = null;
+            requeteEnCours = null;
+        }
+    }
+
+    /**
+     * Affiche la page si elle est toujours celle attendue, puis précharge la suivante
+     */
+    private void publier(R cible, Page<T> page) {
+        Demande<R> attendue = voulue;
+        if (attendue == null || !cible.equals(attendue.requete())) {
+            return; // page préchargée
+        }
+        Platform.runLater(() -> {
+            if (voulue == attendue && attendue.generation() == generation.get()) {
+                affichage.accept(cible, page);
+            }
+        });
+        precharger(cible, page);
+    }
+
+    private void signalerErreur(R cible, Throwable cause) {
+        Demande<R> attendue = voulue;
+        if (attendue == null || !cible.equals(attendue.requete())) {
+            logger.debug("Préchargement {} en échec: {}", nom, cause.getMessage());
+            return;
+        }
+        Platform.runLater(() -> {
+            if (voulue == attendue && attendue.generation() == generation.get()) {
+                erreur.accept(cause);
+            }
+        });
+    }
+
+    private void precharger(R courante, Page<T> page) {
+        R suivante = pageSuivante != null ? pageSuivante.apply(courante, page) : null;
+        if (suivante != null && lireCache(suivante) == null) {
+            prechargement.set(suivante);
+            planifier(false);
+        }
+    }
+
+    private void interrompreEnCours(R demande) {
+        Annulation.Jeton jeton = jetonEnCours;
+        if (jeton != null && !demande.equals(requeteEnCours)) {
+            jeton.annuler();
+        }
+    }
+
+    private Page<T> lireCache(R demande) {
+        synchronized (cache) {
+            PageEnCache<T> entree = cache.get(demande);
+            if (entree == null) {
+                return null;
+            }
+            if (entree.version() != DataVersion.getVersion() || entree.epoque() != epoque.get()
+                    || System.currentTimeMillis() - entree.chargeeLe() > DUREE_VIE_PAGE_MS) {
+                cache.remove(demande);
+                return null;
+            }
+            return entree.page();
+        }
+    }
+}
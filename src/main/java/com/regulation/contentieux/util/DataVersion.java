@@ -0,0 +1,74 @@
+package com.regulation.contentieux.util;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version monotone des données alimentant les rapports et les listes
+ *
+ * Incrémentée à chaque écriture sur une table lue par les rapports (affaires,
+ * encaissements, acteurs, mandats, répartitions, règles, contrevenants,
+ * contraventions et référentiels) ; un résultat de rapport ou une page de
+ * liste préchargée calculé avec une version antérieure est considéré comme périmé.
+ *
+ * Mêmes tables que les compteurs persistés de RapportPregenereStore.
+ */
+public final class DataVersion {
+
+    private static final Set<String> TABLES_SUIVIES = Set.of(
+            "affaires", "encaissements", "affaire_acteurs", "affaire_contraventions", "affaires_centres",
+            "mandats", "repartition_resultats", "repartition_details", "repartition_parts_individuelles",
+            "regles_repartition", "roles_speciaux", "agents", "contrevenants", "contraventions",
+            "centres", "services", "bureaux", "banques");
+
+    private static final AtomicLong version = new AtomicLong();
+
+    // Écritures suivies faites dans la transaction en cours du thread
+    private static final ThreadLocal<Boolean> ecrituresEnTransaction = new ThreadLocal<>();
+
+    // Publication à la fin de la transaction principale, validée ou non
+    static {
+        TransactionManager.surFinTransaction(validee -> publierEcrituresTransaction());
+    }
+
+    private DataVersion() {
+        // Classe utilitaire
+    }
+
+    /**
+     * Version courante des données
+     */
+    public static long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Signale une écriture sur une table ; sans effet si la table n'alimente pas les rapports
+     */
+    public static void signalerEcriture(String table) {
+        if (table != null && TABLES_SUIVIES.contains(table)) {
+            version.incrementAndGet();
+            if (TransactionManager.isInTransaction()) {
+                ecrituresEnTransaction.set(Boolean.TRUE);
+            }
+        }
+    }
+
+    /**
+     * Fin de transaction : les écritures ne deviennent visibles qu'au commit,
+     * un résultat calculé entre l'écriture et le commit doit aussi être périmé
+     */
+    private static void publierEcrituresTransaction() {
+        if (Boolean.TRUE.equals(ecrituresEnTransaction.get())) {
+            ecrituresEnTransaction.remove();
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Invalide inconditionnellement (imports, restaurations, migrations)
+     */
+    public static void incrementer() {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,171 @@
+package com.regulation.contentieux.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecteur CSV en flux (UTF-8, BOM toléré)
+ *
+ * - Automate sur un tampon de caractères réutilisé : pas de readLine() ni de
+ *   split(), seules les valeurs des champs sont matérialisées en chaînes
+ * - Séparateur détecté sur la première ligne (';' ou ',')
+ * - Guillemets doubles, guillemets échappés ("") et retours à la ligne dans
+ *   un champ entre guillemets ; fins de ligne \n, \r\n ou \r
+ */
+public class LecteurCsv implements LecteurTabulaire {
+
+    private static final int TAILLE_TAMPON = 64 * 1024;
+    private static final char BOM = '\uFEFF';
+
+    private Reader reader;
+    private final char[] tampon = new char[TAILLE_TAMPON];
+    private int position;
+    private int limite;
+
+    @Override
+    public void parcourir(File fichier, ConsommateurLigne consommateur) throws IOException {
+        try (Reader source = new InputStreamReader(new FileInputStream(fichier), StandardCharsets.UTF_8)) {
+            parcourir(source, consommateur);
+        }
+    }
+
+    /**
+     * Parcourt un flux CSV déjà ouvert
+     */
+    public void parcourir(Reader source, ConsommateurLigne consommateur) throws IOException {
+        this.reader = source;
+        this.position = 0;
+        this.limite = 0;
+
+        if (!remplir()) {
+            return;
+        }
+        if (tampon[0] == BOM) {
+            position = 1;
+        }
+        char separateur = detecterSeparateur();
+
+        StringBuilder champ = new StringBuilder(64);
+        List<String> valeurs = new ArrayList<>(32);
+        boolean champCite = false;
+        long numero = 1;
+        long numeroDebutLigne = 1;
+
+        int c;
+        while ((c = suivant()) >= 0) {
+            if (c == '"' && champ.length() == 0 && !champCite) {
+                // Champ entre guillemets : jusqu'au guillemet fermant non doublé
+                champCite = true;
+                while ((c = suivant()) >= 0) {
+                    if (c == '"') {
+                        if (regarder() == '"') {
+                            suivant();
+                            champ.append('"');
+                        } else {
+                            break;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            numero++;
+                        }
+                        champ.append((char) c);
+                    }
+                }
+            } else if (c == separateur) {
+                valeurs.add(valeur(champ, champCite));
+                champ.setLength(0);
+                champCite = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && regarder() == '\n') {
+                    suivant();
+                }
+                valeurs.add(valeur(champ, champCite));
+                champ.setLength(0);
+                champCite = false;
+                emettre(valeurs, numeroDebutLigne, consommateur);
+                numero++;
+                numeroDebutLigne = numero;
+            } else {
+                champ.append((char) c);
+            }
+        }
+
+        // Dernière ligne sans fin de ligne
+        if (champ.length() > 0 || champCite || !valeurs.isEmpty()) {
+            valeurs.add(valeur(champ, champCite));
+            emettre(valeurs, numeroDebutLigne, consommateur);
+        }
+    }
+
+    private int suivant() throws IOException {
+        if (position >= limite && !remplir()) {
+            return -1;
+        }
+        return tampon[position++];
+    }
+
+    private int regarder() throws IOException {
+        if (position >= limite && !remplir()) {
+            return -1;
+        }
+        return tampon[position];
+    }
+
+    private boolean remplir() throws IOException {
+        int lus = reader.read(tampon, 0, tampon.length);
+        if (lus <= 0) {
+            return false;
+        }
+        position = 0;
+        limite = lus;
+        return true;
+    }
+
+    private static String valeur(StringBuilder champ, boolean champCite) {
+        if (champ.length() == 0) {
+            return champCite ? "" : null;
+        }
+        return champ.toString();
+    }
+
+    private static void emettre(List<String> valeurs, long numero, ConsommateurLigne consommateur) {
+        for (String valeur : valeurs) {
+            if (valeur != null && !valeur.isBlank()) {
+                consommateur.ligne(numero, valeurs.toArray(new String[0]));
+                break;
+            }
+        }
+        valeurs.clear();
+    }
+
+    /**
+     * Séparateur le plus fréquent hors guillemets sur la première ligne du tampon
+     */
+    private char detecterSeparateur() {
+        int pointsVirgules = 0;
+        int virgules = 0;
+        boolean guillemets = false;
+        for (int i = position; i < limite; i++) {
+            char c = tampon[i];
+            if (c == '"') {
+                guillemets = !guillemets;
+            } else if (!guillemets) {
+                if (c == '\n' || c == '\r') {
+                    break;
+                }
+                if (c == ';') {
+                    pointsVirgules++;
+                } else if (c == ',') {
+                    virgules++;
+                }
+            }
+        }
+        return pointsVirgules > 0 && pointsVirgules >= virgules ? ';' : ',';
+    }
+}
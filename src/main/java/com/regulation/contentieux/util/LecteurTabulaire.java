@@ -0,0 +1,46 @@
+package com.regulation.contentieux.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Lecture en flux d'un fichier tabulaire (CSV, Excel) ligne par ligne
+ *
+ * Les lignes sont transmises au consommateur au fil de la lecture : la
+ * mémoire utilisée ne dépend pas de la taille du fichier. Les lignes
+ * entièrement vides sont ignorées.
+ */
+public interface LecteurTabulaire {
+
+    /**
+     * Reçoit chaque ligne lue
+     */
+    @FunctionalInterface
+    interface ConsommateurLigne {
+        /**
+         * @param numero  Numéro de la ligne dans le fichier (1 pour la première)
+         * @param valeurs Valeurs des cellules, null pour une cellule vide
+         */
+        void ligne(long numero, String[] valeurs);
+    }
+
+    /**
+     * Parcourt toutes les lignes du fichier, en-tête compris
+     */
+    void parcourir(File fichier, ConsommateurLigne consommateur) throws IOException;
+
+    /**
+     * Lecteur adapté à l'extension du fichier (.xlsx ou .csv)
+     */
+    static LecteurTabulaire pour(File fichier) {
+        String nom = fichier.getName().toLowerCase(Locale.ROOT);
+        if (nom.endsWith(".xlsx")) {
+            return new LecteurXlsx();
+        }
+        if (nom.endsWith(".csv") || nom.endsWith(".txt")) {
+            return new LecteurCsv();
+        }
+        throw new IllegalArgumentException("Format de fichier non pris en charge: " + fichier.getName());
+    }
+}
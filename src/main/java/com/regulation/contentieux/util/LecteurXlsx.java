@@ -0,0 +1,127 @@
+package com.regulation.contentieux.util;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Lecteur Excel (.xlsx) en flux sur la première feuille
+ *
+ * Utilise l'API événementielle de POI (XSSFReader + SAX) : le classeur n'est
+ * jamais chargé en objets, seules la table des chaînes partagées et la ligne
+ * courante sont en mémoire. Les cellules au format date sont restituées au
+ * format ISO (yyyy-MM-dd), les nombres sans séparateur de milliers.
+ */
+public class LecteurXlsx implements LecteurTabulaire {
+
+    @Override
+    public void parcourir(File fichier, ConsommateurLigne consommateur) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(fichier, PackageAccess.READ)) {
+            ReadOnlySharedStringsTable chaines = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            StylesTable styles = xssfReader.getStylesTable();
+
+            Iterator<InputStream> feuilles = xssfReader.getSheetsData();
+            if (!feuilles.hasNext()) {
+                return;
+            }
+
+            try (InputStream feuille = feuilles.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, chaines,
+                        new CollecteurLigne(consommateur), new FormatValeurs(), false));
+                parser.parse(new InputSource(feuille));
+            }
+
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Lecture du classeur impossible: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Assemble les cellules d'une ligne (éventuellement creuse) en tableau de valeurs
+     */
+    private static final class CollecteurLigne implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ConsommateurLigne consommateur;
+        private String[] valeurs = new String[16];
+        private int derniereColonne = -1;
+        private int ligneCourante;
+
+        CollecteurLigne(ConsommateurLigne consommateur) {
+            this.consommateur = consommateur;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            ligneCourante = rowNum;
+            derniereColonne = -1;
+        }
+
+        @Override
+        public void cell(String reference, String valeur, XSSFComment commentaire) {
+            int colonne = reference != null ? new CellReference(reference).getCol() : derniereColonne + 1;
+            if (colonne >= valeurs.length) {
+                valeurs = Arrays.copyOf(valeurs, Math.max(colonne + 1, valeurs.length * 2));
+            }
+            // Colonnes sautées : cellules vides
+            for (int i = derniereColonne + 1; i < colonne; i++) {
+                valeurs[i] = null;
+            }
+            valeurs[colonne] = valeur != null && !valeur.isEmpty() ? valeur : null;
+            derniereColonne = Math.max(derniereColonne, colonne);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (derniereColonne < 0) {
+                return;
+            }
+            for (int i = 0; i <= derniereColonne; i++) {
+                if (valeurs[i] != null && !valeurs[i].isBlank()) {
+                    consommateur.ligne(ligneCourante + 1L, Arrays.copyOf(valeurs, derniereColonne + 1));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Dates au format ISO, nombres bruts (pas de format d'affichage ni d'arrondi)
+     */
+    private static final class FormatValeurs extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double valeur, int indexFormat, String format, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(indexFormat, format) && DateUtil.isValidExcelDate(valeur)) {
+                return DateUtil.getLocalDateTime(valeur, use1904Windowing).toLocalDate()
+                        .format(DateTimeFormatter.ISO_LOCAL_DATE);
+            }
+            if (valeur == Math.rint(valeur) && Math.abs(valeur) < 1e15) {
+                return Long.toString((long) valeur);
+            }
+            return BigDecimal.valueOf(valeur).toPlainString();
+        }
+    }
+}
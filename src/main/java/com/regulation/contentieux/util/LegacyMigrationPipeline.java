@@ -0,0 +1,338 @@
+package com.regulation.contentieux.util;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Pipeline de migration en masse depuis une source MySQL historique vers SQLite
+ *
+ * - Lecture en flux de la source avec un curseur serveur (fetchSize = Integer.MIN_VALUE),
+ *   sans charger le résultat en mémoire
+ * - Résolution des références via des index code → id préchargés (aucune requête par ligne)
+ * - Insertions SQLite en lots, dans de grandes transactions ; un lot refusé est
+ *   rejoué ligne par ligne pour isoler les lignes fautives
+ * - Rapport de progression et de rejets, chaque rejet portant la clé de la ligne source
+ */
+public class LegacyMigrationPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyMigrationPipeline.class);
+
+    private static final int DEFAULT_BATCH_SIZE = 5_000;
+    private static final int DEFAULT_COMMIT_INTERVAL = 100_000;
+    private static final int DEFAULT_PROGRESS_INTERVAL = 50_000;
+
+    private final int batchSize;
+    private final int commitInterval;
+    private final int progressInterval;
+    private ProgressListener progressListener = report -> { };
+
+    /**
+     * Transforme une ligne source en paramètres de l'insertion cible
+     */
+    @FunctionalInterface
+    public interface RowMapper {
+        /**
+         * @param source Ligne courante de la source
+         * @param cle    Clé de la ligne source (pour les rejets)
+         * @param report Rapport, pour enregistrer un rejet
+         * @return Paramètres de l'insertion, dans l'ordre, ou null si la ligne est rejetée
+         */
+        Object[] map(ResultSet source, String cle, MigrationReport report) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(MigrationReport report);
+    }
+
+    public LegacyMigrationPipeline() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_COMMIT_INTERVAL, DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    public LegacyMigrationPipeline(int batchSize, int commitInterval, int progressInterval) {
+        this.batchSize = Math.max(1, batchSize);
+        this.commitInterval = Math.max(this.batchSize, commitInterval);
+        this.progressInterval = Math.max(1, progressInterval);
+    }
+
+    public LegacyMigrationPipeline progressListener(ProgressListener listener) {
+        this.progressListener = listener != null ? listener : report -> { };
+        return this;
+    }
+
+    /**
+     * Précharge un index code → id depuis SQLite
+     *
+     * @param sql Requête retournant (code, id)
+     */
+    public static Map<String, Long> chargerIndex(Connection conn, String sql) throws SQLException {
+        Map<String, Long> index = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                String code = rs.getString(1);
+                if (code != null) {
+                    index.put(code.trim(), rs.getLong(2));
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Exécute la migration : flux MySQL → mapper → insertions SQLite par lots
+     *
+     * @param nom        Nom de la migration (journaux et rapport)
+     * @param sourceSql  Requête de lecture MySQL
+     * @param colonneCle Colonne source identifiant la ligne dans les rejets
+     * @param insertSql  Requête d'insertion SQLite
+     * @param mapper     Transformation ligne à ligne
+     * @param sqliteConn Connexion SQLite (les index préchargés doivent en provenir)
+     */
+    public MigrationReport executer(String nom, String sourceSql, String colonneCle, String insertSql,
+                                    RowMapper mapper, Connection sqliteConn) throws SQLException {
+        MigrationReport report = new MigrationReport(nom);
+        logger.info("🚀 Migration {} : lots de {}, commit tous les {} enregistrements",
+                nom, batchSize, commitInterval);
+
+        boolean autoCommit = sqliteConn.getAutoCommit();
+        sqliteConn.setAutoCommit(false);
+
+        try (Connection mysqlConn = DatabaseConfig.getMySQLConnection();
+             Statement source = mysqlConn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             PreparedStatement target = sqliteConn.prepareStatement(insertSql)) {
+
+            // Curseur serveur : le driver MySQL transmet les lignes une à une
+            // (valeur propre à ce driver, refusée par les autres)
+            boolean driverMySQL = mysqlConn.getMetaData().getDriverName().toLowerCase(Locale.ROOT).contains("mysql");
+            source.setFetchSize(driverMySQL ? Integer.MIN_VALUE : batchSize);
+
+            Lot lot = new Lot(batchSize);
+            int nonCommittes = 0;
+
+            try (ResultSet rs = source.executeQuery(sourceSql)) {
+                while (rs.next()) {
+                    report.lignesLues++;
+
+                    String cle = null;
+                    Object[] valeurs;
+                    try {
+                        cle = rs.getString(colonneCle);
+                        valeurs = mapper.map(rs, cle, report);
+                    } catch (SQLException | RuntimeException e) {
+                        report.rejeter(cle, "Erreur de transformation: " + e.getMessage());
+                        valeurs = null;
+                    }
+
+                    if (valeurs != null) {
+                        lot.ajouter(report.lignesLues, cle, valeurs);
+                    }
+
+                    if (lot.taille() >= batchSize) {
+                        nonCommittes += lot.taille();
+                        report.lignesMigrees += executerLot(sqliteConn, target, lot, report);
+
+                        if (nonCommittes >= commitInterval) {
+                            sqliteConn.commit();
+                            nonCommittes = 0;
+                        }
+                    }
+
+                    if (report.lignesLues % progressInterval == 0) {
+                        logger.info("... {} : {} lues, {} migrées, {} rejets",
+                                nom, report.lignesLues, report.lignesMigrees, report.getNombreRejets());
+                        progressListener.onProgress(report);
+                    }
+                }
+            }
+
+            if (lot.taille() > 0) {
+                report.lignesMigrees += executerLot(sqliteConn, target, lot, report);
+            }
+            sqliteConn.commit();
+
+        } catch (SQLException e) {
+            rollbackQuietly(sqliteConn);
+            throw e;
+        } finally {
+            sqliteConn.setAutoCommit(autoCommit);
+        }
+
+        report.terminer();
+        progressListener.onProgress(report);
+        logger.info("✅ Migration {} terminée : {}", nom, report.resume());
+        return report;
+    }
+
+    /**
+     * Lignes en attente d'insertion, avec leur numéro et leur clé source
+     */
+    private static final class Lot {
+        private final List<Object[]> valeurs;
+        private final List<Long> lignes;
+        private final List<String> cles;
+
+        Lot(int capacite) {
+            this.valeurs = new ArrayList<>(capacite);
+            this.lignes = new ArrayList<>(capacite);
+            this.cles = new ArrayList<>(capacite);
+        }
+
+        void ajouter(long ligne, String cle, Object[] parametres) {
+            valeurs.add(parametres);
+            lignes.add(ligne);
+            cles.add(cle);
+        }
+
+        int taille() {
+            return valeurs.size();
+        }
+
+        void vider() {
+            valeurs.clear();
+            lignes.clear();
+            cles.clear();
+        }
+    }
+
+    /**
+     * Exécute un lot sous un point de sauvegarde
+     *
+     * Les compteurs de executeBatch ne permettent pas d'isoler les lignes en
+     * échec : sqlite-jdbc renvoie 0 pour les lignes qui suivent l'erreur, sans
+     * les avoir exécutées. Un lot refusé est donc annulé puis rejoué ligne par
+     * ligne, chaque ligne refusée devenant un rejet.
+     *
+     * @return Nombre de lignes insérées
+     */
+    private int executerLot(Connection conn, PreparedStatement target, Lot lot, MigrationReport report)
+            throws SQLException {
+        int inseres;
+        Savepoint pointLot = conn.setSavepoint();
+        try {
+            for (Object[] valeurs : lot.valeurs) {
+                lier(target, valeurs);
+                target.addBatch();
+            }
+            target.executeBatch();
+            conn.releaseSavepoint(pointLot);
+            inseres = lot.taille();
+        } catch (SQLException e) {
+            target.clearBatch();
+            conn.rollback(pointLot);
+            logger.debug("Lot refusé ({}), insertion ligne par ligne", e.getMessage());
+            inseres = rejouer(conn, target, lot, report);
+        }
+        lot.vider();
+        return inseres;
+    }
+
+    private int rejouer(Connection conn, PreparedStatement target, Lot lot, MigrationReport report)
+            throws SQLException {
+        int inseres = 0;
+        for (int i = 0; i < lot.taille(); i++) {
+            Savepoint pointLigne = conn.setSavepoint();
+            try {
+                lier(target, lot.valeurs.get(i));
+                target.executeUpdate();
+                conn.releaseSavepoint(pointLigne);
+                inseres++;
+            } catch (SQLException e) {
+                conn.rollback(pointLigne);
+                report.rejeter(lot.lignes.get(i), lot.cles.get(i), "Insertion refusée: " + e.getMessage());
+            }
+        }
+        return inseres;
+    }
+
+    private static void lier(PreparedStatement target, Object[] valeurs) throws SQLException {
+        for (int i = 0; i < valeurs.length; i++) {
+            target.setObject(i + 1, valeurs[i]);
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.error("Erreur lors du rollback", e);
+        }
+    }
+
+    /**
+     * Rapport de migration : volumes, rejets et débit
+     */
+    public static class MigrationReport {
+        private static final int MAX_REJETS_DETAILLES = 1000;
+
+        private final String nom;
+        private final long debut = System.nanoTime();
+        private long dureeMillis = -1;
+
+        private long lignesLues = 0;
+        private long lignesMigrees = 0;
+        private long nombreRejets = 0;
+        private final Map<String, Long> rejetsParMotif = new LinkedHashMap<>();
+        private final List<Rejet> rejets = new ArrayList<>();
+        private final Map<String, Long> compteurs = new LinkedHashMap<>();
+
+        public record Rejet(long ligne, String cle, String motif) {
+        }
+
+        MigrationReport(String nom) {
+            this.nom = nom;
+        }
+
+        /**
+         * Enregistre le rejet de la ligne courante
+         */
+        public synchronized void rejeter(String cle, String motif) {
+            rejeter(lignesLues, cle, motif);
+        }
+
+        synchronized void rejeter(long ligne, String cle, String motif) {
+            nombreRejets++;
+            rejetsParMotif.merge(motif, 1L, Long::sum);
+            if (rejets.size() < MAX_REJETS_DETAILLES) {
+                rejets.add(new Rejet(ligne, cle, motif));
+            }
+        }
+
+        /**
+         * Incrémente un compteur libre (ex. : centres créés)
+         */
+        public synchronized void incrementer(String compteur) {
+            compteurs.merge(compteur, 1L, Long::sum);
+        }
+
+        void terminer() {
+            dureeMillis = (System.nanoTime() - debut) / 1_000_000;
+        }
+
+        public String getNom() { return nom; }
+        public long getLignesLues() { return lignesLues; }
+        public long getLignesMigrees() { return lignesMigrees; }
+        public synchronized long getNombreRejets() { return nombreRejets; }
+        public synchronized Map<String, Long> getRejetsParMotif() { return new LinkedHashMap<>(rejetsParMotif); }
+        public synchronized List<Rejet> getRejets() { return new ArrayList<>(rejets); }
+        public synchronized long getCompteur(String compteur) { return compteurs.getOrDefault(compteur, 0L); }
+
+        public long getDureeMillis() {
+            return dureeMillis >= 0 ? dureeMillis : (System.nanoTime() - debut) / 1_000_000;
+        }
+
+        public double getLignesParSeconde() {
+            return lignesLues * 1000.0 / Math.max(1L, getDureeMillis());
+        }
+
+        public synchronized String resume() {
+            return String.format("%d lues, %d migrées, %d rejets en %d ms (%.0f lignes/s)%s",
+                    lignesLues, lignesMigrees, nombreRejets, getDureeMillis(), getLignesParSeconde(),
+                    compteurs.isEmpty() ? "" : " " + compteurs);
+        }
+    }
+}
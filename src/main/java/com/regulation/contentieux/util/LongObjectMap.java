@@ -0,0 +1,147 @@
+package com.regulation.contentieux.util;
+
+import java.util.function.LongFunction;
+
+/**
+ * Table de hachage à clés long primitives (adressage ouvert, sondage linéaire)
+ *
+ * Évite le boxing des identifiants et les entrées chaînées de HashMap sur les
+ * agrégations volumineuses (ex. : cumul par agent sur une période).
+ * Non thread-safe ; pas de suppression.
+ */
+public final class LongObjectMap<V> {
+
+    private static final float CHARGE_MAX = 0.5f;
+
+    private long[] cles;
+    private Object[] valeurs;
+    private int taille;
+    private int masque;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int capaciteAttendue) {
+        int capacite = Integer.highestOneBit(Math.max(4, (int) (capaciteAttendue / CHARGE_MAX)) - 1) << 1;
+        cles = new long[capacite];
+        valeurs = new Object[capacite];
+        masque = capacite - 1;
+    }
+
+    /**
+     * Valeur associée à la clé, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long cle) {
+        for (int i = indice(cle); valeurs[i] != null; i = (i + 1) & masque) {
+            if (cles[i] == cle) {
+                return (V) valeurs[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Valeur associée à la clé, créée par la fabrique si absente
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long cle, LongFunction<V> fabrique) {
+        int i = indice(cle);
+        for (; valeurs[i] != null; i = (i + 1) & masque) {
+            if (cles[i] == cle) {
+                return (V) valeurs[i];
+            }
+        }
+        V valeur = fabrique.apply(cle);
+        cles[i] = cle;
+        valeurs[i] = valeur;
+        if (++taille > cles.length * CHARGE_MAX) {
+            agrandir();
+        }
+        return valeur;
+    }
+
+    /**
+     * Associe une valeur (non null) à la clé
+     */
+    public void put(long cle, V valeur) {
+        if (valeur == null) {
+            throw new IllegalArgumentException("Valeur null non supportée");
+        }
+        int i = indice(cle);
+        for (; valeurs[i] != null; i = (i + 1) & masque) {
+            if (cles[i] == cle) {
+                valeurs[i] = valeur;
+                return;
+            }
+        }
+        cles[i] = cle;
+        valeurs[i] = valeur;
+        if (++taille > cles.length * CHARGE_MAX) {
+            agrandir();
+        }
+    }
+
+    public boolean containsKey(long cle) {
+        return get(cle) != null;
+    }
+
+    public int size() {
+        return taille;
+    }
+
+    public boolean isEmpty() {
+        return taille == 0;
+    }
+
+    /**
+     * Parcourt les entrées (ordre non spécifié)
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntreeConsumer<V> action) {
+        for (int i = 0; i < cles.length; i++) {
+            if (valeurs[i] != null) {
+                action.accept(cles[i], (V) valeurs[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntreeConsumer<V> {
+        void accept(long cle, V valeur);
+    }
+
+    private int indice(long cle) {
+        // Mélange des bits (finaliseur de MurmurHash3) : les ID séquentiels se répartissent uniformément
+        long h = cle;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & masque;
+    }
+
+    private void agrandir() {
+        long[] anciennesCles = cles;
+        Object[] anciennesValeurs = valeurs;
+        cles = new long[anciennesCles.length << 1];
+        valeurs = new Object[anciennesValeurs.length << 1];
+        masque = cles.length - 1;
+
+        for (int j = 0; j < anciennesCles.length; j++) {
+            if (anciennesValeurs[j] != null) {
+                int i = indice(anciennesCles[j]);
+                while (valeurs[i] != null) {
+                    i = (i + 1) & masque;
+                }
+                cles[i] = anciennesCles[j];
+                valeurs[i] = anciennesValeurs[j];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongObjectMap{taille=" + taille + ", capacite=" + cles.length + "}";
+    }
+}
@@ -7,12 +7,14 @@ import com.regulation.contentieux.dao.AffaireCentreDAO;
 import com.regulation.contentieux.model.Centre;
 import com.regulation.contentieux.model.Affaire;
 import com.regulation.contentieux.model.AffaireCentre;
+import com.regulation.contentieux.service.ReferentielCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*; // <-- IMPORT MANQUANT pour Connection, Statement, PreparedStatement, ResultSet
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -34,115 +36,103 @@ public class MigrationParCentresService {
         this.affaireCentreDAO = new AffaireCentreDAO();
     }
 
-    public void migrerDonneesParCentres() {
+    /**
+     * Migre parcentres (MySQL) vers affaires_centres (SQLite) via le pipeline de migration en masse :
+     * centres et affaires sont résolus depuis des index préchargés, les centres manquants
+     * sont créés dans la même transaction que les relations.
+     */
+    public LegacyMigrationPipeline.MigrationReport migrerDonneesParCentres() {
         logger.info("🔄 Début migration des données parcentres...");
 
-        int compteurMigres = 0;
-        int compteurErreurs = 0;
-        int compteurCentresCrees = 0;
-
-        try (Connection mysqlConn = DatabaseConfig.getMySQLConnection();
-             Connection sqliteConn = DatabaseConfig.getSQLiteConnection()) {
-
-            // 1. Lire toutes les données de parcentres
-            String sqlSelect = """
-                SELECT CODCENTR, NOTRANSAC, MONTBASE, MONTINDIC, 
-                       DATMANDAT, NOMANDAT
-                FROM parcentres
-                WHERE CODCENTR IS NOT NULL 
-                AND NOTRANSAC IS NOT NULL
-            """;
-
-            try (PreparedStatement stmtSelect = mysqlConn.prepareStatement(sqlSelect);
-                 ResultSet rs = stmtSelect.executeQuery()) {
-
-                // Préparer les requêtes SQLite
-                String sqlFindCentre = "SELECT id FROM centres WHERE code_centre = ?";
-                String sqlFindAffaire = "SELECT id FROM affaires WHERE numero_affaire = ?";
-                String sqlInsertRelation = """
-                    INSERT OR REPLACE INTO affaires_centres 
-                    (affaire_id, centre_id, montant_base, montant_indicateur, source)
-                    VALUES (?, ?, ?, ?, 'MIGRATION')
-                """;
-
-                PreparedStatement stmtFindCentre = sqliteConn.prepareStatement(sqlFindCentre);
-                PreparedStatement stmtFindAffaire = sqliteConn.prepareStatement(sqlFindAffaire);
-                PreparedStatement stmtInsert = sqliteConn.prepareStatement(sqlInsertRelation);
-
-                while (rs.next()) {
-                    try {
-                        String codeCentre = rs.getString("CODCENTR");
-                        String numeroAffaire = rs.getString("NOTRANSAC");
-                        double montantBase = rs.getDouble("MONTBASE");
-                        double montantIndic = rs.getDouble("MONTINDIC");
-
-                        // Trouver l'ID du centre
-                        stmtFindCentre.setString(1, codeCentre);
-                        ResultSet rsCentre = stmtFindCentre.executeQuery();
-
-                        Long centreId = null;
-                        if (rsCentre.next()) {
-                            centreId = rsCentre.getLong("id");
-                        } else {
-                            logger.warn("Centre non trouvé : {}, création...", codeCentre);
-                            // Créer le centre s'il n'existe pas
-                            Centre nouveauCentre = new Centre();
-                            nouveauCentre.setCodeCentre(codeCentre);
-                            nouveauCentre.setNomCentre("Centre " + codeCentre);
-                            nouveauCentre = centreDAO.save(nouveauCentre);
-                            centreId = nouveauCentre.getId();
-                            compteurCentresCrees++;
-                            logger.info("✅ Centre créé : {} (ID: {})", codeCentre, centreId);
+        String sqlSelect = """
+            SELECT CODCENTR, NOTRANSAC, MONTBASE, MONTINDIC,
+                   DATMANDAT, NOMANDAT
+            FROM parcentres
+            WHERE CODCENTR IS NOT NULL
+            AND NOTRANSAC IS NOT NULL
+        """;
+
+        String sqlInsertRelation = """
+            INSERT OR REPLACE INTO affaires_centres
+            (affaire_id, centre_id, montant_base, montant_indicateur, source)
+            VALUES (?, ?, ?, ?, 'MIGRATION')
+        """;
+
+        String sqlInsertCentre = "INSERT INTO centres (code_centre, nom_centre) VALUES (?, ?)";
+
+        try (Connection sqliteConn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmtInsertCentre = sqliteConn.prepareStatement(
+                     sqlInsertCentre, Statement.RETURN_GENERATED_KEYS)) {
+
+            // 1. Précharger les index code → id (aucune requête par ligne ensuite)
+            Map<String, Long> centresParCode = LegacyMigrationPipeline.chargerIndex(
+                    sqliteConn, "SELECT code_centre, id FROM centres");
+            Map<String, Long> affairesParNumero = LegacyMigrationPipeline.chargerIndex(
+                    sqliteConn, "SELECT numero_affaire, id FROM affaires");
+            logger.info("📇 Index chargés : {} centres, {} affaires",
+                    centresParCode.size(), affairesParNumero.size());
+
+            // 2. Flux parcentres → affaires_centres
+            LegacyMigrationPipeline.MigrationReport report = new LegacyMigrationPipeline().executer(
+                    "parcentres", sqlSelect, "NOTRANSAC", sqlInsertRelation,
+                    (rs, cle, rapport) -> {
+                        String codeCentre = rs.getString("CODCENTR").trim();
+                        String numeroAffaire = cle.trim();
+
+                        Long affaireId = affairesParNumero.get(numeroAffaire);
+                        if (affaireId == null) {
+                            rapport.rejeter(cle, "Affaire non trouvée");
+                            return null;
                         }
 
-                        // Trouver l'ID de l'affaire
-                        stmtFindAffaire.setString(1, numeroAffaire);
-                        ResultSet rsAffaire = stmtFindAffaire.executeQuery();
-
-                        if (rsAffaire.next() && centreId != null) {
-                            long affaireId = rsAffaire.getLong("id");
-
-                            // Insérer la relation
-                            stmtInsert.setLong(1, affaireId);
-                            stmtInsert.setLong(2, centreId);
-                            stmtInsert.setBigDecimal(3, BigDecimal.valueOf(montantBase));
-                            stmtInsert.setBigDecimal(4, BigDecimal.valueOf(montantIndic));
-                            stmtInsert.executeUpdate();
-
-                            compteurMigres++;
-
-                            if (compteurMigres % 100 == 0) {
-                                logger.info("... {} relations migrées", compteurMigres);
-                            }
-                        } else {
-                            if (centreId == null) {
-                                logger.error("Impossible de créer/trouver le centre : {}", codeCentre);
-                            } else {
-                                logger.debug("Affaire non trouvée : {}", numeroAffaire);
-                            }
-                            compteurErreurs++;
+                        Long centreId = centresParCode.get(codeCentre);
+                        if (centreId == null) {
+                            centreId = creerCentre(stmtInsertCentre, codeCentre);
+                            centresParCode.put(codeCentre, centreId);
+                            rapport.incrementer("centresCrees");
+                            logger.info("✅ Centre créé : {} (ID: {})", codeCentre, centreId);
                         }
 
-                    } catch (Exception e) {
-                        logger.error("Erreur migration ligne : {}", e.getMessage());
-                        compteurErreurs++;
-                    }
-                }
-
-                // Fermer les PreparedStatements
-                stmtFindCentre.close();
-                stmtFindAffaire.close();
-                stmtInsert.close();
+                        return new Object[] {
+                                affaireId,
+                                centreId,
+                                BigDecimal.valueOf(rs.getDouble("MONTBASE")),
+                                BigDecimal.valueOf(rs.getDouble("MONTINDIC"))
+                        };
+                    },
+                    sqliteConn);
+
+            DataVersion.incrementer();
+            if (report.getCompteur("centresCrees") > 0) {
+                ReferentielCache.getInstance().invalider(ReferentielCache.Type.CENTRE);
             }
 
             logger.info("✅ Migration terminée :");
-            logger.info("   - Relations migrées : {}", compteurMigres);
-            logger.info("   - Centres créés : {}", compteurCentresCrees);
-            logger.info("   - Erreurs : {}", compteurErreurs);
+            logger.info("   - Relations migrées : {}", report.getLignesMigrees());
+            logger.info("   - Centres créés : {}", report.getCompteur("centresCrees"));
+            logger.info("   - Rejets : {} {}", report.getNombreRejets(), report.getRejetsParMotif());
+            return report;
 
-        } catch (Exception e) {
+        } catch (SQLException e) {
             logger.error("❌ Erreur migration parcentres", e);
+            throw new RuntimeException("Erreur migration parcentres", e);
+        }
+    }
+
+    /**
+     * Crée un centre manquant sur la connexion de migration (même transaction)
+     */
+    private long creerCentre(PreparedStatement stmtInsertCentre, String codeCentre) throws SQLException {
+        stmtInsertCentre.setString(1, codeCentre);
+        stmtInsertCentre.setString(2, "Centre " + codeCentre);
+        stmtInsertCentre.executeUpdate();
+
+        try (ResultSet keys = stmtInsertCentre.getGeneratedKeys()) {
+            if (keys.next()) {
+                return keys.getLong(1);
+            }
         }
+        throw new SQLException("Impossible de créer le centre : " + codeCentre);
     }
 
     /**
@@ -0,0 +1,155 @@
+package com.regulation.contentieux.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Arithmétique monétaire en virgule fixe sur des long
+ *
+ * Les montants sont des entiers (FCFA, ou centimes pour les parts
+ * individuelles). Les arrondis reproduisent exactement
+ * {@code BigDecimal.setScale(0, RoundingMode.HALF_UP)} et
+ * {@code BigDecimal.divide(n, 2, RoundingMode.HALF_UP)} ; tout dépassement de
+ * capacité lève une {@link ArithmeticException} au lieu de produire un
+ * résultat faux.
+ */
+public final class MontantFixe {
+
+    /**
+     * Nombre de centimes dans un franc
+     */
+    public static final long CENTIMES = 100L;
+
+    private static final long[] PUISSANCES_DIX = new long[19];
+
+    static {
+        PUISSANCES_DIX[0] = 1L;
+        for (int i = 1; i < PUISSANCES_DIX.length; i++) {
+            PUISSANCES_DIX[i] = PUISSANCES_DIX[i - 1] * 10L;
+        }
+    }
+
+    private MontantFixe() {
+        // Classe utilitaire
+    }
+
+    /**
+     * Taux exact sous forme de fraction décimale (ex. : 0.15 → 15 / 100)
+     */
+    public record Taux(long numerateur, long denominateur) {
+
+        public Taux {
+            if (denominateur <= 0) {
+                throw new IllegalArgumentException("Dénominateur de taux invalide: " + denominateur);
+            }
+        }
+
+        /**
+         * Conversion exacte d'un taux décimal ; ArithmeticException si non représentable
+         */
+        public static Taux de(BigDecimal taux) {
+            int echelle = taux.scale();
+            long nonEchelonne = taux.unscaledValue().longValueExact();
+            if (echelle <= 0) {
+                return new Taux(Math.multiplyExact(nonEchelonne, puissanceDix(-echelle)), 1L);
+            }
+            return new Taux(nonEchelonne, puissanceDix(echelle));
+        }
+
+        /**
+         * Applique le taux à un montant entier, arrondi HALF_UP à l'unité
+         */
+        public long appliquer(long montant) {
+            long produit = Math.multiplyExact(montant, numerateur);
+            if (denominateur == 100L && produit >= 0 && produit <= Long.MAX_VALUE - 50L) {
+                // Pourcentages : diviseur constant, remplacé par une multiplication par le JIT
+                return (produit + 50L) / 100L;
+            }
+            return diviserArrondi(produit, denominateur);
+        }
+
+        public BigDecimal versBigDecimal() {
+            return BigDecimal.valueOf(numerateur).divide(BigDecimal.valueOf(denominateur));
+        }
+    }
+
+    /**
+     * Vrai si le montant est entier et tient dans un long
+     */
+    public static boolean estEntier(BigDecimal montant) {
+        if (montant == null) {
+            return false;
+        }
+        if (montant.signum() == 0) {
+            return true;
+        }
+        BigDecimal reduit = montant.stripTrailingZeros();
+        return reduit.scale() <= 0 && reduit.precision() - reduit.scale() <= 18;
+    }
+
+    /**
+     * Conversion exacte d'un montant entier ; ArithmeticException sinon
+     */
+    public static long versLong(BigDecimal montant) {
+        return montant.longValueExact();
+    }
+
+    /**
+     * Montant entier vers BigDecimal à l'échelle demandée (0 pour un montant en FCFA)
+     */
+    public static BigDecimal versBigDecimal(long montant, int echelle) {
+        BigDecimal valeur = BigDecimal.valueOf(montant);
+        return echelle > 0 ? valeur.setScale(echelle) : valeur;
+    }
+
+    /**
+     * Montant en centimes vers BigDecimal en francs à deux décimales
+     */
+    public static BigDecimal centimesVersBigDecimal(long centimes) {
+        return BigDecimal.valueOf(centimes, 2);
+    }
+
+    /**
+     * Division entière arrondie HALF_UP (au plus loin de zéro à mi-chemin)
+     */
+    public static long diviserArrondi(long dividende, long diviseur) {
+        if (dividende >= 0 && diviseur > 0) {
+            // Cas courant : une seule division (r >= d - d/2 ⇔ arrondi supérieur)
+            return Math.addExact(dividende, diviseur >> 1) / diviseur;
+        }
+        if (diviseur == 0) {
+            throw new ArithmeticException("Division par zéro");
+        }
+        if (dividende == Long.MIN_VALUE || diviseur == Long.MIN_VALUE) {
+            throw new ArithmeticException("Dépassement de capacité");
+        }
+        long quotient = dividende / diviseur;
+        long reste = Math.abs(dividende % diviseur);
+        long absDiviseur = Math.abs(diviseur);
+        if (reste >= absDiviseur - reste) {
+            quotient += (dividende < 0) == (diviseur < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Part d'un montant entier divisé entre n bénéficiaires, en centimes arrondis HALF_UP
+     */
+    public static long partEnCentimes(long montant, int beneficiaires) {
+        return diviserArrondi(Math.multiplyExact(montant, CENTIMES), beneficiaires);
+    }
+
+    public static long ajouter(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long soustraire(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    private static long puissanceDix(int exposant) {
+        if (exposant < 0 || exposant >= PUISSANCES_DIX.length) {
+            throw new ArithmeticException("Échelle hors limites: " + exposant);
+        }
+        return PUISSANCES_DIX[exposant];
+    }
+}
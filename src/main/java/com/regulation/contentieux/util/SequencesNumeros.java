@@ -0,0 +1,224 @@
+package com.regulation.contentieux.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Numéros mensuels des affaires (yyMMNNNNN), encaissements (yyMMRNNNNN)
+ * et mandats (yyMMMNNNN)
+ *
+ * La période yyMM et la séquence sont exposées en colonnes générées
+ * numero_periode / numero_sequence, indexées ensemble : le dernier numéro
+ * d'une période et l'existence d'un numéro se lisent par une recherche dans
+ * l'index, sans LIKE sur le numéro texte. Sur une table sans ces colonnes
+ * (schéma ancien, SQLite sans colonnes générées), les requêtes par préfixe
+ * restent utilisées.
+ */
+public final class SequencesNumeros {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequencesNumeros.class);
+
+    public static final String COLONNE_PERIODE = "numero_periode";
+    public static final String COLONNE_SEQUENCE = "numero_sequence";
+
+    private static final DateTimeFormatter FORMAT_PERIODE = DateTimeFormatter.ofPattern("yyMM");
+
+    public enum Type {
+        AFFAIRE("affaires", "numero_affaire", "", 5),
+        ENCAISSEMENT("encaissements", "numero_encaissement", "R", 5),
+        MANDAT("mandats", "numero_mandat", "M", 4);
+
+        private final String table;
+        private final String colonne;
+        private final String lettre;
+        private final int chiffres;
+        private volatile Boolean colonnesGenerees;
+
+        Type(String table, String colonne, String lettre, int chiffres) {
+            this.table = table;
+            this.colonne = colonne;
+            this.lettre = lettre;
+            this.chiffres = chiffres;
+        }
+
+        public String getTable() { return table; }
+        public String getColonne() { return colonne; }
+
+        public String prefixe(String periode) {
+            return periode + lettre;
+        }
+
+        public String formater(String periode, int sequence) {
+            return prefixe(periode) + String.format("%0" + chiffres + "d", sequence);
+        }
+
+        public int getSequenceMax() {
+            return (int) Math.pow(10, chiffres) - 1;
+        }
+
+        int longueur() {
+            return 4 + lettre.length() + chiffres;
+        }
+
+        /**
+         * Motif GLOB d'un numéro bien formé
+         */
+        String motif() {
+            return "[0-9]".repeat(4) + lettre + "[0-9]".repeat(chiffres);
+        }
+
+        String expressionPeriode() {
+            return "CASE WHEN " + colonne + " GLOB '" + motif() + "' THEN SUBSTR(" + colonne + ", 1, 4) END";
+        }
+
+        String expressionSequence() {
+            return "CASE WHEN " + colonne + " GLOB '" + motif() + "' THEN CAST(SUBSTR(" + colonne + ", "
+                    + (5 + lettre.length()) + ") AS INTEGER) END";
+        }
+
+        String nomIndex() {
+            return "idx_" + table + "_numero_sequence";
+        }
+    }
+
+    private SequencesNumeros() {
+    }
+
+    public static String periodeCourante() {
+        return periode(LocalDate.now());
+    }
+
+    public static String periode(LocalDate date) {
+        return date.format(FORMAT_PERIODE);
+    }
+
+    // ==================== MIGRATION ====================
+
+    /**
+     * Ajoute les colonnes générées et leur index aux tables qui ont la colonne
+     * du numéro ; sans effet sur une table déjà migrée
+     *
+     * Colonnes VIRTUAL : ALTER TABLE ne peut pas ajouter de colonne STORED,
+     * et l'index conserve de toute façon les valeurs calculées.
+     */
+    public static void creerColonnes(Connection conn) {
+        for (Type type : Type.values()) {
+            type.colonnesGenerees = null;
+            try {
+                if (!colonneExiste(conn, type.table, type.colonne)) {
+                    logger.debug("Colonnes de séquence ignorées : {}.{} absente", type.table, type.colonne);
+                    continue;
+                }
+
+                try (Statement stmt = conn.createStatement()) {
+                    if (!colonneExiste(conn, type.table, COLONNE_PERIODE)) {
+                        stmt.execute("ALTER TABLE " + type.table + " ADD COLUMN " + COLONNE_PERIODE
+                                + " TEXT GENERATED ALWAYS AS (" + type.expressionPeriode() + ") VIRTUAL");
+                    }
+                    if (!colonneExiste(conn, type.table, COLONNE_SEQUENCE)) {
+                        stmt.execute("ALTER TABLE " + type.table + " ADD COLUMN " + COLONNE_SEQUENCE
+                                + " INTEGER GENERATED ALWAYS AS (" + type.expressionSequence() + ") VIRTUAL");
+                    }
+                    stmt.execute("CREATE INDEX IF NOT EXISTS " + type.nomIndex() + " ON " + type.table
+                            + "(" + COLONNE_PERIODE + ", " + COLONNE_SEQUENCE + ")");
+                }
+                logger.debug("🔢 Colonnes de séquence vérifiées sur {}", type.table);
+
+            } catch (SQLException e) {
+                logger.warn("⚠️ Colonnes de séquence non créées sur {}: {}", type.table, e.getMessage());
+            }
+        }
+    }
+
+    // ==================== RECHERCHES ====================
+
+    /**
+     * Dernier numéro bien formé de la période
+     */
+    public static Optional<String> dernierNumero(Connection conn, Type type, String periode) throws SQLException {
+        if (colonnesGenerees(conn, type)) {
+            String sql = "SELECT " + COLONNE_SEQUENCE + " FROM " + type.table
+                    + " WHERE " + COLONNE_PERIODE + " = ? ORDER BY " + COLONNE_SEQUENCE + " DESC LIMIT 1";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, periode);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? Optional.of(type.formater(periode, rs.getInt(1))) : Optional.empty();
+                }
+            }
+        }
+
+        // Numéros de largeur fixe : l'ordre du texte est celui de la séquence
+        String sql = "SELECT " + type.colonne + " FROM " + type.table + " WHERE " + type.colonne
+                + " LIKE ? AND LENGTH(" + type.colonne + ") = ? ORDER BY " + type.colonne + " DESC LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, type.prefixe(periode) + "%");
+            stmt.setInt(2, type.longueur());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Optional.ofNullable(rs.getString(1)) : Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Un enregistrement porte-t-il déjà ce numéro
+     */
+    public static boolean existe(Connection conn, Type type, String numero) throws SQLException {
+        boolean bienForme = numero.length() == type.longueur() && numero.matches(
+                "\\d{4}" + type.lettre + "\\d{" + type.chiffres + "}");
+
+        String sql;
+        if (bienForme && colonnesGenerees(conn, type)) {
+            sql = "SELECT 1 FROM " + type.table + " WHERE " + COLONNE_PERIODE + " = ? AND "
+                    + COLONNE_SEQUENCE + " = ? AND " + type.colonne + " = ? LIMIT 1";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, numero.substring(0, 4));
+                stmt.setInt(2, Integer.parseInt(numero.substring(4 + type.lettre.length())));
+                stmt.setString(3, numero);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next();
+                }
+            }
+        }
+
+        sql = "SELECT 1 FROM " + type.table + " WHERE " + type.colonne + " = ? LIMIT 1";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, numero);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean colonnesGenerees(Connection conn, Type type) throws SQLException {
+        Boolean presentes = type.colonnesGenerees;
+        if (presentes == null) {
+            presentes = colonneExiste(conn, type.table, COLONNE_SEQUENCE);
+            type.colonnesGenerees = presentes;
+        }
+        return presentes;
+    }
+
+    /**
+     * PRAGMA table_xinfo : contrairement à table_info, liste aussi les colonnes générées
+     */
+    private static boolean colonneExiste(Connection conn, String table, String colonne) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_xinfo(" + table + ")")) {
+            while (rs.next()) {
+                if (colonne.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -5,13 +5,24 @@ import com.regulation.contentieux.exception.TransactionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Gestionnaire de transactions pour garantir l'atomicité des opérations
  * Pattern Singleton pour gérer les transactions de manière centralisée
+ *
+ * Les DAO et services obtiennent leurs connexions par {@link #getConnection()} :
+ * dans une transaction, toutes les requêtes partagent la connexion de la
+ * transaction et un seul commit ; hors transaction, connexion du pool en
+ * auto-commit comme auparavant.
  */
 public class TransactionManager {
 
@@ -21,6 +32,20 @@ public class TransactionManager {
     // Thread-local pour stocker la connexion courante par thread
     private static final ThreadLocal<Connection> currentConnection = new ThreadLocal<>();
     private static final ThreadLocal<Integer> transactionDepth = new ThreadLocal<>();
+    // Un rollback() demandé par un participant annule toute la transaction
+    private static final ThreadLocal<Boolean> rollbackOnly = new ThreadLocal<>();
+
+    // Appelés à la fin de chaque transaction principale, dans l'ordre d'inscription
+    private static final List<FinTransaction> finsTransaction = new CopyOnWriteArrayList<>();
+
+    /**
+     * Écouteur de fin de transaction principale, appelé sur le thread de la
+     * transaction après le commit ou le rollback et la libération de la connexion
+     */
+    @FunctionalInterface
+    public interface FinTransaction {
+        void terminer(boolean validee);
+    }
 
     private TransactionManager() {
         // Constructeur privé pour singleton
@@ -43,6 +68,7 @@ public class TransactionManager {
      */
     public <T> T executeInTransaction(Callable<T> operation) {
         boolean isNewTransaction = false;
+        boolean committed = false;
         Connection conn = null;
 
         try {
@@ -52,6 +78,7 @@ public class TransactionManager {
                 // Nouvelle transaction
                 isNewTransaction = true;
                 conn = DatabaseConfig.getSQLiteConnection();
+                WriteActivityMonitor.beginWrite();
                 conn.setAutoCommit(false);
                 currentConnection.set(conn);
                 transactionDepth.set(1);
@@ -68,7 +95,11 @@ public class TransactionManager {
 
             // Commit si c'est la transaction principale
             if (isNewTransaction) {
+                if (Boolean.TRUE.equals(rollbackOnly.get())) {
+                    throw new TransactionException("Transaction annulée par un rollback d'un participant");
+                }
                 conn.commit();
+                committed = true;
                 logger.debug("✅ Transaction committée avec succès");
             }
 
@@ -98,6 +129,9 @@ public class TransactionManager {
                 }
                 currentConnection.remove();
                 transactionDepth.remove();
+                rollbackOnly.remove();
+                notifierFinTransaction(committed);
+                WriteActivityMonitor.endWrite();
                 logger.debug("🔒 Transaction fermée");
             } else if (!isNewTransaction) {
                 // Décrémenter le niveau de transaction imbriquée
@@ -109,6 +143,24 @@ public class TransactionManager {
         }
     }
 
+    /**
+     * Inscrit un écouteur de fin de transaction (données différées jusqu'au
+     * commit : événements d'audit, version des données des rapports...)
+     */
+    public static void surFinTransaction(FinTransaction ecouteur) {
+        finsTransaction.add(ecouteur);
+    }
+
+    private static void notifierFinTransaction(boolean validee) {
+        for (FinTransaction ecouteur : finsTransaction) {
+            try {
+                ecouteur.terminer(validee);
+            } catch (RuntimeException e) {
+                logger.error("Erreur d'un écouteur de fin de transaction", e);
+            }
+        }
+    }
+
     /**
      * Exécute une opération dans une transaction sans valeur de retour
      */
@@ -119,6 +171,71 @@ public class TransactionManager {
         });
     }
 
+    /**
+     * Connexion à utiliser par les DAO et services
+     *
+     * Dans une transaction, renvoie la connexion de la transaction enveloppée :
+     * close(), commit(), setAutoCommit() y sont sans effet et rollback() marque
+     * la transaction pour annulation, la transaction principale décidant seule
+     * de l'issue. Les blocs try-with-resources et les commits manuels existants
+     * restent donc corrects dans les deux cas.
+     */
+    public static Connection getConnection() throws SQLException {
+        Connection conn = currentConnection.get();
+        if (conn == null) {
+            return DatabaseConfig.getSQLiteConnection();
+        }
+        return AuditPlansRequetes.observer((Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnexionParticipante(conn)));
+    }
+
+    /**
+     * Vue d'une connexion transactionnelle pour un participant de la transaction
+     */
+    private static final class ConnexionParticipante implements InvocationHandler {
+
+        private final Connection connexion;
+        private boolean fermee;
+
+        ConnexionParticipante(Connection connexion) {
+            this.connexion = connexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    fermee = true;
+                    return null;
+                case "isClosed":
+                    return fermee || connexion.isClosed();
+                case "commit":
+                case "setAutoCommit":
+                    return null;
+                case "getAutoCommit":
+                    return false;
+                case "rollback":
+                    if (args == null || args.length == 0) {
+                        rollbackOnly.set(Boolean.TRUE);
+                        logger.debug("↩️ Rollback demandé par un participant, transaction marquée pour annulation");
+                        return null;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
     /**
      * Obtient la connexion courante de la transaction
      * Utile pour les DAO qui ont besoin de la connexion transactionnelle
@@ -0,0 +1,69 @@
+package com.regulation.contentieux.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Suivi de l'activité d'écriture locale (transactions SQLite en cours)
+ * Permet aux traitements de fond (synchronisation, pré-calculs) de céder la
+ * place lorsque l'interface effectue des écritures intensives.
+ */
+public final class WriteActivityMonitor {
+
+    private static final AtomicInteger activeWrites = new AtomicInteger();
+    private static volatile long lastWriteNanos = 0L;
+
+    private WriteActivityMonitor() {
+        // Classe utilitaire
+    }
+
+    /**
+     * Signale le début d'une écriture
+     */
+    public static void beginWrite() {
+        activeWrites.incrementAndGet();
+        lastWriteNanos = System.nanoTime();
+    }
+
+    /**
+     * Signale la fin d'une écriture
+     */
+    public static void endWrite() {
+        activeWrites.decrementAndGet();
+        lastWriteNanos = System.nanoTime();
+    }
+
+    /**
+     * Nombre d'écritures en cours
+     */
+    public static int getActiveWrites() {
+        return activeWrites.get();
+    }
+
+    /**
+     * Vrai si une écriture est en cours ou s'est terminée il y a moins de quietPeriodMillis
+     */
+    public static boolean isBusy(long quietPeriodMillis) {
+        if (activeWrites.get() > 0) {
+            return true;
+        }
+        long last = lastWriteNanos;
+        return last != 0L && System.nanoTime() - last < TimeUnit.MILLISECONDS.toNanos(quietPeriodMillis);
+    }
+
+    /**
+     * Attend que l'activité d'écriture retombe, au plus maxWaitMillis
+     *
+     * @return true si le calme est revenu, false si l'attente maximale est atteinte
+     */
+    public static boolean awaitQuiet(long quietPeriodMillis, long maxWaitMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        while (isBusy(quietPeriodMillis)) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(Math.min(250L, Math.max(1L, quietPeriodMillis)));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package com.regulation.contentieux.dao;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.model.Affaire;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Agrégat des amendes par (service, bureau) comparé au calcul historique
+ * (findByServiceAndPeriod puis cumul en Java)
+ */
+class AgregatAmendesTest {
+
+    private static final LocalDate DEBUT = LocalDate.of(2031, 3, 1);
+    private static final LocalDate FIN = LocalDate.of(2031, 3, 31);
+
+    private static final long CENTRE = 930001L;
+    private static final long SERVICE_1 = 930001L;
+    private static final long SERVICE_2 = 930002L;
+    private static final long BUREAU_1 = 930001L;
+    private static final long BUREAU_2 = 930002L;
+    private static final long CONTREVENANT = 930001L;
+
+    private final AffaireDAO affaireDAO = new AffaireDAO();
+
+    @BeforeAll
+    static void creerDonnees() throws SQLException {
+        // Colonne lue par AffaireDAO mais absente du schéma créé à neuf
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*) FROM pragma_table_info('affaires') WHERE name = 'contravention_id'")) {
+            if (rs.next() && rs.getInt(1) == 0) {
+                executer("ALTER TABLE affaires ADD COLUMN contravention_id INTEGER");
+            }
+        }
+        nettoyer();
+        executer("INSERT INTO centres (id, code_centre, nom_centre) VALUES (" + CENTRE + ", 'TST-C', 'Centre test')");
+        executer("INSERT INTO services (id, code_service, nom_service, centre_id) VALUES "
+                + "(" + SERVICE_1 + ", 'TST-S1', 'Service 1', " + CENTRE + "), "
+                + "(" + SERVICE_2 + ", 'TST-S2', 'Service 2', " + CENTRE + ")");
+        // Deux bureaux homonymes
+        executer("INSERT INTO bureaux (id, code_bureau, nom_bureau, centre_id) VALUES "
+                + "(" + BUREAU_1 + ", 'TST-B1', 'Bureau du port', " + CENTRE + "), "
+                + "(" + BUREAU_2 + ", 'TST-B2', 'Bureau du port', " + CENTRE + ")");
+        executer("INSERT INTO contrevenants (id, code, nom_complet) VALUES (" + CONTREVENANT + ", 'TST-CV', 'Contrevenant test')");
+
+        affaire(930001L, LocalDate.of(2031, 3, 5), new BigDecimal("1000.10"), SERVICE_1, BUREAU_1, false);
+        affaire(930002L, LocalDate.of(2031, 3, 31), new BigDecimal("2000.20"), SERVICE_1, BUREAU_2, false);
+        affaire(930003L, LocalDate.of(2031, 3, 10), null, SERVICE_2, BUREAU_1, false);
+        affaire(930004L, LocalDate.of(2031, 3, 12), new BigDecimal("500"), SERVICE_2, BUREAU_2, true);
+        affaire(930005L, LocalDate.of(2031, 4, 1), new BigDecimal("700"), SERVICE_1, BUREAU_1, false);
+
+        encaissement(930001L, 930001L, LocalDate.of(2031, 3, 6), new BigDecimal("400"), "VALIDE");
+        encaissement(930002L, 930001L, LocalDate.of(2031, 4, 2), new BigDecimal("100"), "VALIDE");
+        encaissement(930003L, 930002L, LocalDate.of(2031, 3, 7), new BigDecimal("300"), "EN_ATTENTE");
+        encaissement(930004L, 930003L, LocalDate.of(2031, 3, 12), new BigDecimal("50.05"), "VALIDE");
+    }
+
+    @AfterAll
+    static void nettoyer() throws SQLException {
+        executer("DELETE FROM encaissements WHERE id BETWEEN 930001 AND 930099");
+        executer("DELETE FROM affaires WHERE id BETWEEN 930001 AND 930099");
+        executer("DELETE FROM contrevenants WHERE id = " + CONTREVENANT);
+        executer("DELETE FROM bureaux WHERE id IN (" + BUREAU_1 + ", " + BUREAU_2 + ")");
+        executer("DELETE FROM services WHERE id IN (" + SERVICE_1 + ", " + SERVICE_2 + ")");
+        executer("DELETE FROM centres WHERE id = " + CENTRE);
+    }
+
+    @Test
+    void agregatIdentiqueAuCalculParService() {
+        Map<Long, Integer> nombres = new HashMap<>();
+        Map<Long, BigDecimal> montants = new HashMap<>();
+        for (AffaireDAO.AgregatAmendes agregat : affaireDAO.agregerAmendesParServiceEtBureau(DEBUT, FIN)) {
+            nombres.merge(agregat.serviceId(), agregat.nombreAffaires(), Integer::sum);
+            montants.merge(agregat.serviceId(), agregat.montantTotal(), BigDecimal::add);
+        }
+
+        for (long serviceId : new long[] {SERVICE_1, SERVICE_2}) {
+            List<Affaire> affaires = affaireDAO.findByServiceAndPeriod(serviceId, DEBUT, FIN);
+            BigDecimal attendu = BigDecimal.ZERO;
+            for (Affaire affaire : affaires) {
+                if (affaire.getMontantTotal() != null) {
+                    attendu = attendu.add(affaire.getMontantTotal());
+                }
+            }
+            assertEquals(affaires.size(), nombres.getOrDefault(serviceId, 0), "service " + serviceId);
+            assertEquals(0, attendu.compareTo(montants.getOrDefault(serviceId, BigDecimal.ZERO)),
+                    "service " + serviceId + " : " + attendu + " / " + montants.get(serviceId));
+        }
+    }
+
+    @Test
+    void encaisseLimiteALaPeriodeEtAuxEncaissementsValides() {
+        Map<Long, BigDecimal> encaisses = new HashMap<>();
+        for (AffaireDAO.AgregatAmendes agregat : affaireDAO.agregerAmendesParServiceEtBureau(DEBUT, FIN)) {
+            encaisses.merge(agregat.serviceId(), agregat.montantEncaisse(), BigDecimal::add);
+        }
+
+        assertEquals(0, new BigDecimal("400").compareTo(encaisses.get(SERVICE_1)), encaisses.toString());
+        assertEquals(0, new BigDecimal("50.05").compareTo(encaisses.get(SERVICE_2)), encaisses.toString());
+    }
+
+    @Test
+    void bureauxHomonymesRestentDistincts() {
+        Map<Long, BigDecimal> parBureau = new HashMap<>();
+        for (AffaireDAO.AgregatAmendes agregat : affaireDAO.agregerAmendesParServiceEtBureau(DEBUT, FIN)) {
+            parBureau.merge(agregat.bureauId(), agregat.montantTotal(), BigDecimal::add);
+        }
+
+        assertEquals(0, new BigDecimal("1000.10").compareTo(parBureau.get(BUREAU_1)), parBureau.toString());
+        assertEquals(0, new BigDecimal("2000.20").compareTo(parBureau.get(BUREAU_2)), parBureau.toString());
+    }
+
+    private static void affaire(long id, LocalDate date, BigDecimal montant, long serviceId, long bureauId,
+                                boolean supprimee) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO affaires (id, numero_affaire, date_creation, montant_total, montant_amende_total, "
+                             + "contrevenant_id, service_id, bureau_id, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            stmt.setLong(1, id);
+            stmt.setString(2, "TST" + id);
+            stmt.setDate(3, Date.valueOf(date));
+            stmt.setBigDecimal(4, montant != null ? montant : BigDecimal.ZERO);
+            stmt.setBigDecimal(5, montant);
+            stmt.setLong(6, CONTREVENANT);
+            stmt.setLong(7, serviceId);
+            stmt.setLong(8, bureauId);
+            stmt.setInt(9, supprimee ? 1 : 0);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void encaissement(long id, long affaireId, LocalDate date, BigDecimal montant, String statut)
+            throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO encaissements (id, reference, date_encaissement, montant_encaisse, "
+                             + "mode_reglement, statut, affaire_id) VALUES (?, ?, ?, ?, 'ESPECES', ?, ?)")) {
+            stmt.setLong(1, id);
+            stmt.setString(2, "TST-ENC-" + id);
+            stmt.setDate(3, Date.valueOf(date));
+            stmt.setBigDecimal(4, montant);
+            stmt.setString(5, statut);
+            stmt.setLong(6, affaireId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
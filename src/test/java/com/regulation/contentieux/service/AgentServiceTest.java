@@ -0,0 +1,90 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.service.ResultatOperationLot.Issue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Suppression d'agents en lot : agents intervenant sur une affaire refusés,
+ * lots de plus de 500 identifiants
+ */
+class AgentServiceTest {
+
+    private static final long CONTREVENANT = 955001L;
+    private static final long AFFAIRE = 955001L;
+    private static final long PREMIER = 955001L;
+    private static final int AGENTS = 600;
+    private static final long INTERVENANT = PREMIER;
+    private static final long INEXISTANT = 955999L;
+
+    @BeforeEach
+    void creerDonnees() throws SQLException {
+        supprimerDonnees();
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO agents (id, code_agent, nom, prenom) VALUES (?, ?, 'Agent', 'Lot')")) {
+            conn.setAutoCommit(false);
+            for (long id = PREMIER; id < PREMIER + AGENTS; id++) {
+                stmt.setLong(1, id);
+                stmt.setString(2, "TST" + id);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+        executer("INSERT INTO contrevenants (id, code, nom_complet) VALUES (" + CONTREVENANT + ", 'TST-AG', 'Contrevenant agents')");
+        executer("INSERT INTO affaires (id, numero_affaire, date_creation, montant_total, montant_amende_total, "
+                + "contrevenant_id) VALUES (" + AFFAIRE + ", 'TST" + AFFAIRE + "', '2031-07-01', 1000, 1000, "
+                + CONTREVENANT + ")");
+        executer("INSERT INTO affaire_acteurs (affaire_id, agent_id, role_sur_affaire) VALUES ("
+                + AFFAIRE + ", " + INTERVENANT + ", 'SAISISSANT')");
+    }
+
+    @AfterEach
+    void supprimerDonnees() throws SQLException {
+        executer("DELETE FROM affaire_acteurs WHERE affaire_id = " + AFFAIRE);
+        executer("DELETE FROM affaires WHERE id = " + AFFAIRE);
+        executer("DELETE FROM contrevenants WHERE id = " + CONTREVENANT);
+        executer("DELETE FROM agents WHERE id BETWEEN " + PREMIER + " AND " + INEXISTANT);
+    }
+
+    @Test
+    void agentsIntervenantsRefusesEtAutresSupprimes() throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        for (long id = PREMIER; id < PREMIER + AGENTS; id++) {
+            ids.add(id);
+        }
+        ids.add(INEXISTANT);
+
+        ResultatOperationLot resultat = new AgentService().deleteAgents(ids);
+
+        assertEquals(AGENTS + 1, resultat.getIssues().size());
+        assertEquals(AGENTS - 1, resultat.getNombreEffectues());
+        assertEquals(Issue.REFUSE, resultat.getIssue(INTERVENANT).issue());
+        assertEquals(Issue.INTROUVABLE, resultat.getIssue(INEXISTANT).issue());
+        assertEquals(Issue.EFFECTUE, resultat.getIssue(PREMIER + AGENTS - 1).issue());
+
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM agents WHERE id BETWEEN " + PREMIER + " AND " + INEXISTANT)) {
+            assertTrue(rs.next());
+            assertEquals(INTERVENANT, rs.getLong(1));
+            assertFalse(rs.next());
+        }
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
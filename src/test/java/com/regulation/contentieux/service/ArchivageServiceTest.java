@@ -0,0 +1,139 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.dao.AffaireDAO;
+import com.regulation.contentieux.model.Affaire;
+import com.regulation.contentieux.util.BaseArchive;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Affaire déplacée dans l'archive : toujours consultable, lue une seule fois
+ * pendant la fenêtre entre la copie et la suppression
+ */
+class ArchivageServiceTest {
+
+    private static final LocalDate LIMITE = LocalDate.of(2001, 1, 1);
+
+    private static final long CONTREVENANT = 990001L;
+    private static final long AFFAIRE = 990001L;
+    private static final long ENCAISSEMENT = 990001L;
+
+    @BeforeAll
+    static void archiverAffaire() throws Exception {
+        // Colonne lue par AffaireDAO mais absente du schéma créé à neuf
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*) FROM pragma_table_info('affaires') WHERE name = 'contravention_id'")) {
+            if (rs.next() && rs.getInt(1) == 0) {
+                executer("ALTER TABLE affaires ADD COLUMN contravention_id INTEGER");
+            }
+        }
+        nettoyer();
+        executer("INSERT INTO contrevenants (id, code, nom_complet) VALUES (" + CONTREVENANT + ", 'TST-AR', 'Contrevenant archivé')");
+        insererAffaire();
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO encaissements (id, reference, date_encaissement, montant_encaisse, "
+                             + "mode_reglement, statut, affaire_id) VALUES (?, 'TST-AR-1', ?, 1000, 'ESPECES', 'VALIDE', ?)")) {
+            stmt.setLong(1, ENCAISSEMENT);
+            stmt.setDate(2, Date.valueOf(LocalDate.of(2000, 3, 5)));
+            stmt.setLong(3, AFFAIRE);
+            stmt.executeUpdate();
+        }
+
+        assertTrue(ArchivageService.getInstance().archiver(LIMITE) >= 1);
+    }
+
+    @AfterAll
+    static void nettoyer() throws SQLException {
+        executer("DELETE FROM encaissements WHERE id = " + ENCAISSEMENT);
+        executer("DELETE FROM affaires WHERE id = " + AFFAIRE);
+        executer("DELETE FROM contrevenants WHERE id = " + CONTREVENANT);
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            BaseArchive.attacher(conn);
+            try (Statement stmt = conn.createStatement()) {
+                for (String table : new String[]{"encaissements", "affaires"}) {
+                    if (existe(conn, table)) {
+                        stmt.executeUpdate("DELETE FROM " + BaseArchive.ALIAS + "." + table
+                                + " WHERE id = " + (table.equals("affaires") ? AFFAIRE : ENCAISSEMENT));
+                    }
+                }
+                stmt.executeUpdate("DELETE FROM main.parametres WHERE cle = '" + BaseArchive.CLE_DATE_LIMITE + "'");
+            } finally {
+                BaseArchive.detacher(conn);
+            }
+        }
+        BaseArchive.oublierDateLimite();
+    }
+
+    @Test
+    void affaireArchiveeRelueParFindById() throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM affaires WHERE id = " + AFFAIRE)) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1), "Affaire supprimée de la base courante");
+        }
+
+        Optional<Affaire> affaire = new AffaireDAO().findById(AFFAIRE);
+
+        assertTrue(affaire.isPresent());
+        assertEquals("TST" + AFFAIRE, affaire.get().getNumeroAffaire());
+    }
+
+    @Test
+    void ligneDansLesDeuxBasesLueUneFois() throws SQLException {
+        // État entre la copie validée dans l'archive et la suppression de la base courante
+        insererAffaire();
+        try (Connection conn = BaseArchive.connexionPourPeriode(null);
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM affaires a JOIN encaissements e ON e.affaire_id = a.id WHERE a.id = ?")) {
+            stmt.setLong(1, AFFAIRE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+            }
+        } finally {
+            executer("DELETE FROM affaires WHERE id = " + AFFAIRE);
+        }
+    }
+
+    private static void insererAffaire() throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO affaires (id, numero_affaire, date_creation, montant_total, montant_amende_total, "
+                             + "statut, contrevenant_id) VALUES (?, ?, ?, 1000, 1000, 'CLOSE', ?)")) {
+            stmt.setLong(1, AFFAIRE);
+            stmt.setString(2, "TST" + AFFAIRE);
+            stmt.setDate(3, Date.valueOf(LocalDate.of(2000, 3, 1)));
+            stmt.setLong(4, CONTREVENANT);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean existe(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT 1 FROM " + BaseArchive.ALIAS + ".sqlite_master WHERE type = 'table' AND name = ?")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.exception.TransactionException;
+import com.regulation.contentieux.util.TransactionManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Événements d'audit émis dans une transaction : libérés au commit seulement
+ */
+class AuditServiceTest {
+
+    @Test
+    void evenementsAbandonnesAuRollback() {
+        AuditService audit = AuditService.getInstance();
+        TransactionManager manager = TransactionManager.getInstance();
+        long avant = audit.getEvenementsRecus();
+
+        assertThrows(TransactionException.class, () -> manager.executeInTransaction(() -> {
+            audit.enregistrer(null, AuditService.MODIFICATION, "test", 980001L, null,
+                    AuditService.etat("statut", "ANNULE"));
+            assertEquals(avant, audit.getEvenementsRecus(), "Retenu jusqu'à la fin de la transaction");
+            throw new IllegalStateException("Échec de l'opération");
+        }));
+        assertEquals(avant, audit.getEvenementsRecus());
+
+        manager.executeInTransaction(() -> audit.enregistrer(null, AuditService.MODIFICATION, "test", 980002L,
+                null, AuditService.etat("statut", "VALIDE")));
+        assertEquals(avant + 1, audit.getEvenementsRecus());
+    }
+}
@@ -0,0 +1,87 @@
+package com.regulation.contentieux.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Répartition d'un lot d'encaissements : calcul BigDecimal de référence contre
+ * {@link CalculateurRepartition}
+ *
+ * Lancement (après mvn test-compile) :
+ * java -cp target/test-classes:target/classes:&lt;classpath de test&gt;
+ *      com.regulation.contentieux.service.CalculateurRepartitionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculateurRepartitionBenchmark {
+
+    private static final BigDecimal[] TAUX = {
+            new BigDecimal("0.10"), new BigDecimal("0.10"), new BigDecimal("0.15"), new BigDecimal("0.15"),
+            new BigDecimal("0.35"), new BigDecimal("0.05"), new BigDecimal("0.30"), new BigDecimal("0.15")};
+
+    private long[] montants;
+    private BigDecimal[] montantsDecimaux;
+    private CalculateurRepartition calculateur;
+
+    @Setup
+    public void preparer() {
+        SplittableRandom aleatoire = new SplittableRandom(42);
+        montants = new long[4_096];
+        montantsDecimaux = new BigDecimal[montants.length];
+        for (int i = 0; i < montants.length; i++) {
+            montants[i] = aleatoire.nextLong(1_000, 50_000_000);
+            montantsDecimaux[i] = BigDecimal.valueOf(montants[i]);
+        }
+        calculateur = new CalculateurRepartition(TAUX[0], TAUX[1], TAUX[2], TAUX[3],
+                TAUX[4], TAUX[5], TAUX[6], TAUX[7]);
+    }
+
+    @Benchmark
+    public void decimal(Blackhole trou) {
+        for (int i = 0; i < montantsDecimaux.length; i++) {
+            BigDecimal montant = montantsDecimaux[i];
+            BigDecimal partIndicateur = (i & 1) == 0 ? arrondi(montant, TAUX[0]) : BigDecimal.ZERO;
+            BigDecimal produitNet = montant.subtract(partIndicateur);
+            BigDecimal partFLCF = arrondi(produitNet, TAUX[1]);
+            BigDecimal partTresor = arrondi(produitNet, TAUX[2]);
+            BigDecimal ayantsDroits = produitNet.subtract(partFLCF).subtract(partTresor);
+            trou.consume(partIndicateur);
+            trou.consume(partFLCF);
+            trou.consume(partTresor);
+            trou.consume(arrondi(ayantsDroits, TAUX[3]));
+            trou.consume(arrondi(ayantsDroits, TAUX[4]));
+            trou.consume(arrondi(ayantsDroits, TAUX[5]));
+            trou.consume(arrondi(ayantsDroits, TAUX[6]));
+            trou.consume(arrondi(ayantsDroits, TAUX[7]));
+        }
+    }
+
+    @Benchmark
+    public void fixe(Blackhole trou) {
+        for (int i = 0; i < montants.length; i++) {
+            trou.consume(calculateur.calculer(montants[i], (i & 1) == 0));
+        }
+    }
+
+    private static BigDecimal arrondi(BigDecimal montant, BigDecimal taux) {
+        return montant.multiply(taux).setScale(0, RoundingMode.HALF_UP);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CalculateurRepartitionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.service.CalculateurRepartition.MontantsRepartition;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calcul entier de la répartition comparé au calcul BigDecimal de référence
+ * (mêmes formules que RepartitionService.calculerMontantsDecimal), sur des
+ * montants et des taux tirés au hasard
+ */
+class CalculateurRepartitionTest {
+
+    private static final int CAS = 200_000;
+
+    @Test
+    void identiqueAuCalculDecimalPourLesTauxEnVigueur() {
+        BigDecimal[] taux = {
+                new BigDecimal("0.10"), new BigDecimal("0.10"), new BigDecimal("0.15"), new BigDecimal("0.15"),
+                new BigDecimal("0.35"), new BigDecimal("0.05"), new BigDecimal("0.30"), new BigDecimal("0.15")};
+        verifier(taux, new SplittableRandom(42));
+    }
+
+    @Test
+    void identiqueAuCalculDecimalPourDesTauxQuelconques() {
+        SplittableRandom aleatoire = new SplittableRandom(7);
+        for (int jeu = 0; jeu < 50; jeu++) {
+            BigDecimal[] taux = new BigDecimal[8];
+            for (int i = 0; i < taux.length; i++) {
+                // Pourcentages entiers, demi-pourcents et taux à trois ou quatre décimales
+                int echelle = 2 + aleatoire.nextInt(3);
+                long max = (long) Math.pow(10, echelle);
+                taux[i] = BigDecimal.valueOf(aleatoire.nextLong(0, max + 1), echelle);
+            }
+            verifier(taux, aleatoire);
+        }
+    }
+
+    @Test
+    void depassementDeCapaciteSignale() {
+        CalculateurRepartition calculateur = new CalculateurRepartition(
+                new BigDecimal("0.10"), new BigDecimal("0.10"), new BigDecimal("0.15"), new BigDecimal("0.15"),
+                new BigDecimal("0.35"), new BigDecimal("0.05"), new BigDecimal("0.30"), new BigDecimal("0.15"));
+
+        assertThrows(ArithmeticException.class, () -> calculateur.calculer(Long.MAX_VALUE, true));
+    }
+
+    private static void verifier(BigDecimal[] taux, SplittableRandom aleatoire) {
+        CalculateurRepartition calculateur = new CalculateurRepartition(
+                taux[0], taux[1], taux[2], taux[3], taux[4], taux[5], taux[6], taux[7]);
+        int cas = CAS / 10;
+        for (int i = 0; i < cas; i++) {
+            long montant = switch (i % 5) {
+                case 0 -> aleatoire.nextLong(0, 1_000);
+                case 1 -> aleatoire.nextLong(-1_000_000, 100_000_000);
+                case 2 -> aleatoire.nextLong(0, Long.MAX_VALUE / 100_000);
+                case 3 -> aleatoire.nextLong(0, 1_000_000) * 5;
+                default -> aleatoire.nextLong(0, 10_000) * 1_000 + 500;
+            };
+            boolean indicateur = aleatoire.nextBoolean();
+
+            long[] attendu = reference(BigDecimal.valueOf(montant), indicateur, taux);
+            long[] obtenu = valeurs(calculateur.calculer(montant, indicateur));
+            assertArrayEquals(attendu, obtenu, () -> montant + " " + indicateur + " " + Arrays.toString(taux));
+        }
+    }
+
+    private static long[] reference(BigDecimal montant, boolean indicateur, BigDecimal[] taux) {
+        BigDecimal partIndicateur = indicateur ? arrondi(montant, taux[0]) : BigDecimal.ZERO;
+        BigDecimal produitNet = montant.subtract(partIndicateur);
+        BigDecimal partFLCF = arrondi(produitNet, taux[1]);
+        BigDecimal partTresor = arrondi(produitNet, taux[2]);
+        BigDecimal ayantsDroits = produitNet.subtract(partFLCF).subtract(partTresor);
+        return new long[] {
+                montant.longValueExact(), partIndicateur.longValueExact(), produitNet.longValueExact(),
+                partFLCF.longValueExact(), partTresor.longValueExact(), ayantsDroits.longValueExact(),
+                arrondi(ayantsDroits, taux[3]).longValueExact(), arrondi(ayantsDroits, taux[4]).longValueExact(),
+                arrondi(ayantsDroits, taux[5]).longValueExact(), arrondi(ayantsDroits, taux[6]).longValueExact(),
+                arrondi(ayantsDroits, taux[7]).longValueExact()};
+    }
+
+    private static BigDecimal arrondi(BigDecimal montant, BigDecimal taux) {
+        return montant.multiply(taux).setScale(0, RoundingMode.HALF_UP);
+    }
+
+    private static long[] valeurs(MontantsRepartition m) {
+        return new long[] {
+                m.produitDisponible(), m.partIndicateur(), m.produitNet(), m.partFLCF(), m.partTresor(),
+                m.produitNetAyantsDroits(), m.partChefs(), m.partSaisissants(), m.partMutuelle(),
+                m.partMasseCommune(), m.partInteressement()};
+    }
+}
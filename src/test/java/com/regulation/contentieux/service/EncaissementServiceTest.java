@@ -0,0 +1,137 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.dao.EncaissementDAO;
+import com.regulation.contentieux.model.enums.StatutEncaissement;
+import com.regulation.contentieux.service.ResultatOperationLot.Issue;
+import com.regulation.contentieux.util.TransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Changement de statut en lot : issue par identifiant, lots de plus de
+ * 500 identifiants, lignes modifiées entre la vérification et l'UPDATE
+ */
+class EncaissementServiceTest {
+
+    private static final long CONTREVENANT = 950001L;
+    private static final long AFFAIRE = 950001L;
+    private static final long PREMIER = 950001L;
+    private static final int EN_ATTENTE = 1_200;
+    private static final long VALIDE = PREMIER + EN_ATTENTE;
+    private static final long INEXISTANT = 959999L;
+
+    @BeforeEach
+    void creerDonnees() throws SQLException {
+        supprimerDonnees();
+        executer("INSERT INTO contrevenants (id, code, nom_complet) VALUES (" + CONTREVENANT + ", 'TST-LOT', 'Contrevenant lot')");
+        executer("INSERT INTO affaires (id, numero_affaire, date_creation, montant_total, montant_amende_total, "
+                + "contrevenant_id) VALUES (" + AFFAIRE + ", 'TST" + AFFAIRE + "', '2031-07-01', 1000000, 1000000, "
+                + CONTREVENANT + ")");
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO encaissements (id, reference, date_encaissement, montant_encaisse, "
+                             + "mode_reglement, statut, affaire_id) VALUES (?, ?, ?, 100, 'ESPECES', ?, ?)")) {
+            conn.setAutoCommit(false);
+            for (long id = PREMIER; id <= VALIDE; id++) {
+                stmt.setLong(1, id);
+                stmt.setString(2, "TST-LOT-" + id);
+                stmt.setDate(3, Date.valueOf(LocalDate.of(2031, 7, 1)));
+                stmt.setString(4, id == VALIDE ? "VALIDE" : "EN_ATTENTE");
+                stmt.setLong(5, AFFAIRE);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+    }
+
+    @AfterEach
+    void supprimerDonnees() throws SQLException {
+        executer("DELETE FROM encaissements WHERE id BETWEEN " + PREMIER + " AND " + INEXISTANT);
+        executer("DELETE FROM affaires WHERE id = " + AFFAIRE);
+        executer("DELETE FROM contrevenants WHERE id = " + CONTREVENANT);
+    }
+
+    @Test
+    void issueParIdentifiantSurPlusieursLots() throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        for (long id = PREMIER; id <= VALIDE; id++) {
+            ids.add(id);
+        }
+        ids.add(INEXISTANT);
+        ids.add(PREMIER); // doublon : une seule issue
+
+        ResultatOperationLot resultat = new EncaissementService().validerEncaissements(ids, "test");
+
+        assertEquals(EN_ATTENTE + 2, resultat.getIssues().size());
+        assertEquals(EN_ATTENTE, resultat.getNombreEffectues());
+        assertEquals(Issue.EFFECTUE, resultat.getIssue(PREMIER + EN_ATTENTE - 1).issue());
+        assertEquals(Issue.REFUSE, resultat.getIssue(VALIDE).issue());
+        assertEquals(Issue.INTROUVABLE, resultat.getIssue(INEXISTANT).issue());
+        assertEquals(EN_ATTENTE + 1, compter("VALIDE"));
+        assertEquals(0, compter("EN_ATTENTE"));
+    }
+
+    @Test
+    void lignesModifieesAvantLUpdateRelues() throws SQLException {
+        long annuleeEntreTemps = PREMIER;
+        long supprimeeEntreTemps = PREMIER + 1;
+        long restee = PREMIER + 2;
+
+        // Une autre écriture passe entre la lecture des statuts et la mise à jour
+        EncaissementDAO dao = new EncaissementDAO() {
+            @Override
+            public int updateStatutEnLot(Collection<Long> ids, StatutEncaissement statutAttendu,
+                                         StatutEncaissement nouveauStatut, String updatedBy) {
+                try (Connection conn = TransactionManager.getConnection();
+                     Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("UPDATE encaissements SET statut = 'ANNULE' WHERE id = " + annuleeEntreTemps);
+                    stmt.executeUpdate("DELETE FROM encaissements WHERE id = " + supprimeeEntreTemps);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+                return super.updateStatutEnLot(ids, statutAttendu, nouveauStatut, updatedBy);
+            }
+        };
+
+        ResultatOperationLot resultat = new EncaissementService(dao).rejeterEncaissements(
+                List.of(annuleeEntreTemps, supprimeeEntreTemps, restee), "test");
+
+        assertEquals(1, resultat.getNombreEffectues());
+        assertEquals(Issue.EFFECTUE, resultat.getIssue(restee).issue());
+        assertEquals(Issue.REFUSE, resultat.getIssue(annuleeEntreTemps).issue());
+        assertTrue(resultat.getIssue(annuleeEntreTemps).motif().contains("modifié pendant l'opération"));
+        assertEquals(Issue.INTROUVABLE, resultat.getIssue(supprimeeEntreTemps).issue());
+        assertEquals(1, compter("REJETE"));
+        assertEquals(1, compter("ANNULE"));
+    }
+
+    private static long compter(String statut) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM encaissements WHERE affaire_id = ? AND statut = ?")) {
+            stmt.setLong(1, AFFAIRE);
+            stmt.setString(2, statut);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
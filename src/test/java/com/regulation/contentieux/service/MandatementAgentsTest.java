@@ -0,0 +1,212 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.dao.AffaireDAO;
+import com.regulation.contentieux.model.Affaire;
+import com.regulation.contentieux.model.Encaissement;
+import com.regulation.contentieux.model.RepartitionResultat;
+import com.regulation.contentieux.model.enums.StatutEncaissement;
+import com.regulation.contentieux.service.RapportService.EtatMandatementDTO;
+import com.regulation.contentieux.service.RapportService.MandatementDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.sql.Date;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mandatement par agents comparé au calcul historique (affaire rechargée et
+ * répartition complète pour chaque encaissement)
+ */
+class MandatementAgentsTest {
+
+    private static final LocalDate DEBUT = LocalDate.of(2033, 5, 1);
+    private static final LocalDate FIN = LocalDate.of(2033, 5, 31);
+
+    private static final long CONTREVENANT = 975001L;
+    private static final long[] AGENTS = {975001L, 975002L, 975003L, 975004L};
+
+    /** Affaire -> agent -> rôles */
+    private static final Map<Long, Map<Long, List<String>>> ACTEURS = new LinkedHashMap<>();
+    private static final List<Encaissement> ENCAISSEMENTS = new ArrayList<>();
+
+    @BeforeAll
+    static void creerDonnees() throws SQLException {
+        // Colonnes lues par AffaireDAO et le chargeur de période mais absentes du schéma créé à neuf
+        ajouterColonne("affaires", "contravention_id", "INTEGER");
+        ajouterColonne("encaissements", "numero_encaissement", "TEXT");
+        nettoyer();
+        executer("INSERT INTO contrevenants (id, code, nom_complet) VALUES (" + CONTREVENANT + ", 'TST-MCV', 'Contrevenant mandatement')");
+        for (long agent : AGENTS) {
+            executer("INSERT INTO agents (id, code_agent, nom, prenom) VALUES (" + agent + ", 'TST-M" + agent
+                    + "', 'Agent', 'Mandatement " + agent + "')");
+        }
+
+        // Agent 975002 à la fois chef et saisissant
+        affaire(975001L, LocalDate.of(2033, 5, 2), false);
+        acteur(975001L, 975001L, "CHEF");
+        acteur(975001L, 975002L, "CHEF");
+        acteur(975001L, 975002L, "SAISISSANT");
+        acteur(975001L, 975003L, "SAISISSANT");
+        // Sans chef ; le vérificateur compte l'affaire mais ne perçoit rien
+        affaire(975002L, LocalDate.of(2033, 5, 10), false);
+        acteur(975002L, 975004L, "SAISISSANT");
+        acteur(975002L, 975001L, "VERIFICATEUR");
+        // Créée avant la période
+        affaire(975003L, LocalDate.of(2033, 4, 20), false);
+        acteur(975003L, 975001L, "CHEF");
+        // Supprimée
+        affaire(975004L, LocalDate.of(2033, 5, 5), true);
+        acteur(975004L, 975003L, "CHEF");
+
+        encaissement(975001L, 975001L, LocalDate.of(2033, 5, 3), new BigDecimal("100000"), "VALIDE");
+        encaissement(975002L, 975001L, LocalDate.of(2033, 5, 20), new BigDecimal("33333.33"), "VALIDE");
+        encaissement(975003L, 975001L, LocalDate.of(2033, 5, 21), new BigDecimal("5000"), "EN_ATTENTE");
+        encaissement(975004L, 975001L, LocalDate.of(2033, 6, 2), new BigDecimal("7000"), "VALIDE");
+        encaissement(975005L, 975002L, LocalDate.of(2033, 5, 15), new BigDecimal("250000"), "VALIDE");
+        encaissement(975006L, 975003L, LocalDate.of(2033, 5, 4), new BigDecimal("9000"), "VALIDE");
+        encaissement(975007L, 975004L, LocalDate.of(2033, 5, 5), new BigDecimal("8000"), "VALIDE");
+    }
+
+    @AfterAll
+    static void nettoyer() throws SQLException {
+        executer("DELETE FROM encaissements WHERE id BETWEEN 975001 AND 975099");
+        executer("DELETE FROM affaire_acteurs WHERE affaire_id BETWEEN 975001 AND 975099");
+        executer("DELETE FROM affaires WHERE id BETWEEN 975001 AND 975099");
+        executer("DELETE FROM agents WHERE id BETWEEN 975001 AND 975099");
+        executer("DELETE FROM contrevenants WHERE id = " + CONTREVENANT);
+        ACTEURS.clear();
+        ENCAISSEMENTS.clear();
+    }
+
+    @Test
+    void mandatementIdentiqueAuCalculParEncaissement() {
+        Map<Long, BigDecimal> attendus = calculHistorique();
+
+        EtatMandatementDTO rapport = new RapportService().genererDonneesMandatementAgents(DEBUT, FIN);
+        Map<Long, MandatementDTO> parAgent = new HashMap<>();
+        for (MandatementDTO mandatement : rapport.getMandatements()) {
+            if (mandatement.getAgent() != null && mandatement.getAgent().getId() != null) {
+                parAgent.put(mandatement.getAgent().getId(), mandatement);
+            }
+        }
+
+        for (long agent : AGENTS) {
+            MandatementDTO mandatement = parAgent.get(agent);
+            assertNotNull(mandatement, "agent " + agent);
+            BigDecimal attendu = attendus.getOrDefault(agent, BigDecimal.ZERO);
+            assertEquals(0, attendu.compareTo(mandatement.getProduitNet()),
+                    "agent " + agent + " : " + attendu + " / " + mandatement.getProduitNet());
+        }
+        // Affaires de la période non supprimées, tous rôles confondus
+        assertTrue(parAgent.get(975001L).getObservations().endsWith("2 affaire(s)"));
+        assertTrue(parAgent.get(975003L).getObservations().endsWith("1 affaire(s)"));
+        assertTrue(attendus.get(975002L).signum() > 0);
+    }
+
+    /**
+     * Calcul historique : affaire rechargée et répartition complète de chaque
+     * encaissement validé de la période, première part individuelle de chaque acteur
+     */
+    private static Map<Long, BigDecimal> calculHistorique() {
+        AffaireDAO affaireDAO = new AffaireDAO();
+        RepartitionService repartitionService = new RepartitionService();
+        Map<Long, BigDecimal> parts = new HashMap<>();
+
+        for (Encaissement enc : ENCAISSEMENTS) {
+            if (enc.getStatut() != StatutEncaissement.VALIDE
+                    || enc.getDateEncaissement().isBefore(DEBUT) || enc.getDateEncaissement().isAfter(FIN)) {
+                continue;
+            }
+            Optional<Affaire> affaire = affaireDAO.findById(enc.getAffaire().getId());
+            if (affaire.isEmpty() || affaire.get().getDateCreation().isBefore(DEBUT)
+                    || affaire.get().getDateCreation().isAfter(FIN)) {
+                continue;
+            }
+
+            RepartitionResultat repartition = repartitionService.calculerRepartition(enc, affaire.get());
+            for (long agent : ACTEURS.get(affaire.get().getId()).keySet()) {
+                repartition.getPartsIndividuelles().stream()
+                        .filter(p -> p.getAgent().getId() == agent)
+                        .findFirst()
+                        .ifPresent(p -> parts.merge(agent, p.getMontant(), BigDecimal::add));
+            }
+        }
+        return parts;
+    }
+
+    private static void affaire(long id, LocalDate date, boolean supprimee) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO affaires (id, numero_affaire, date_creation, montant_total, montant_amende_total, "
+                             + "contrevenant_id, deleted) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            stmt.setLong(1, id);
+            stmt.setString(2, "TST" + id);
+            stmt.setDate(3, Date.valueOf(date));
+            stmt.setBigDecimal(4, new BigDecimal("500000"));
+            stmt.setBigDecimal(5, new BigDecimal("500000"));
+            stmt.setLong(6, CONTREVENANT);
+            stmt.setInt(7, supprimee ? 1 : 0);
+            stmt.executeUpdate();
+        }
+        ACTEURS.put(id, new LinkedHashMap<>());
+    }
+
+    private static void acteur(long affaireId, long agentId, String role) throws SQLException {
+        executer("INSERT INTO affaire_acteurs (affaire_id, agent_id, role_sur_affaire) VALUES ("
+                + affaireId + ", " + agentId + ", '" + role + "')");
+        ACTEURS.get(affaireId).computeIfAbsent(agentId, id -> new ArrayList<>()).add(role);
+    }
+
+    private static void encaissement(long id, long affaireId, LocalDate date, BigDecimal montant, String statut)
+            throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO encaissements (id, reference, numero_encaissement, date_encaissement, "
+                             + "montant_encaisse, mode_reglement, statut, affaire_id) VALUES (?, ?, ?, ?, ?, 'ESPECES', ?, ?)")) {
+            stmt.setLong(1, id);
+            stmt.setString(2, "TST-ENC-" + id);
+            stmt.setString(3, "TST-ENC-" + id);
+            stmt.setDate(4, Date.valueOf(date));
+            stmt.setBigDecimal(5, montant);
+            stmt.setString(6, statut);
+            stmt.setLong(7, affaireId);
+            stmt.executeUpdate();
+        }
+
+        Encaissement enc = new Encaissement();
+        enc.setId(id);
+        enc.setReference("TST-ENC-" + id);
+        enc.setDateEncaissement(date);
+        enc.setMontantEncaisse(montant);
+        enc.setStatut(StatutEncaissement.valueOf(statut));
+        Affaire affaire = new Affaire();
+        affaire.setId(affaireId);
+        enc.setAffaire(affaire);
+        ENCAISSEMENTS.add(enc);
+    }
+
+    private static void ajouterColonne(String table, String colonne, String type) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT COUNT(*) FROM pragma_table_info('" + table + "') WHERE name = '" + colonne + "'")) {
+            if (rs.next() && rs.getInt(1) == 0) {
+                executer("ALTER TABLE " + table + " ADD COLUMN " + colonne + " " + type);
+            }
+        }
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.model.Agent;
+import com.regulation.contentieux.model.Centre;
+import com.regulation.contentieux.model.Service;
+import com.regulation.contentieux.model.enums.TypeRapport;
+import com.regulation.contentieux.service.RapportService.IndicateurReelDTO;
+import com.regulation.contentieux.service.RapportService.IndicateursReelsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copies des données en cache et mémoire comptée sur le contenu réel
+ */
+class RapportCacheTest {
+
+    @Test
+    void chaqueAppelantRecoitSaPropreCopie() {
+        RapportCache cache = RapportCache.getInstance();
+        LocalDate debut = LocalDate.of(2031, 3, 1);
+        LocalDate fin = LocalDate.of(2031, 3, 31);
+        AtomicInteger calculs = new AtomicInteger();
+
+        IndicateursReelsDTO calcule = (IndicateursReelsDTO) cache.getDonnees(TypeRapport.INDICATEURS_REELS,
+                debut, fin, () -> {
+                    calculs.incrementAndGet();
+                    return rapport(debut, fin, 3);
+                });
+        IndicateursReelsDTO copie = (IndicateursReelsDTO) cache.getDonnees(TypeRapport.INDICATEURS_REELS,
+                debut, fin, () -> fail("Données déjà en cache"));
+
+        assertEquals(1, calculs.get());
+        assertNotSame(calcule, copie);
+        assertNotSame(calcule.getIndicateurs(), copie.getIndicateurs());
+        assertEquals(3, copie.getIndicateurs().size());
+
+        IndicateurReelDTO ligne = copie.getIndicateurs().get(0);
+        assertEquals(new BigDecimal("1500.50"), ligne.getMontantEncaisse());
+        assertEquals(debut, ligne.getDateEncaissement());
+        assertEquals("Agent 0", ligne.getIndicateur().getNom());
+        assertEquals("Centre test", ligne.getIndicateur().getService().getCentre().getNomCentre());
+
+        // Modifier une copie n'altère ni le cache ni l'instance calculée
+        copie.getIndicateurs().clear();
+        calcule.setTitreRapport("Modifié");
+        IndicateursReelsDTO relu = (IndicateursReelsDTO) cache.getDonnees(TypeRapport.INDICATEURS_REELS,
+                debut, fin, () -> fail("Données déjà en cache"));
+        assertEquals(3, relu.getIndicateurs().size());
+        assertEquals("Indicateurs", relu.getTitreRapport());
+    }
+
+    @Test
+    void memoireCompteeSurLesDonnees() {
+        RapportCache cache = RapportCache.getInstance();
+        LocalDate debut = LocalDate.of(2031, 4, 1);
+        LocalDate fin = LocalDate.of(2031, 4, 30);
+
+        long avant = cache.getOctetsUtilises();
+        cache.getDonnees(TypeRapport.INDICATEURS_REELS, debut, fin, () -> rapport(debut, fin, 1));
+        long petit = cache.getOctetsUtilises() - avant;
+
+        avant = cache.getOctetsUtilises();
+        cache.getDonnees(TypeRapport.INDICATEURS_REELS, debut, fin.minusDays(1), () -> rapport(debut, fin, 2_000));
+        long grand = cache.getOctetsUtilises() - avant;
+
+        assertTrue(petit > 0 && petit < 10_000, "Petit rapport : " + petit);
+        assertTrue(grand > 100 * petit, "Grand rapport : " + grand);
+    }
+
+    private static IndicateursReelsDTO rapport(LocalDate debut, LocalDate fin, int lignes) {
+        Centre centre = new Centre();
+        centre.setNomCentre("Centre test");
+        Service service = new Service();
+        service.setNomService("Service test");
+        service.setCentre(centre);
+        // Liens parent-enfant : cycle ignoré par la copie
+        centre.setServices(List.of(service));
+
+        IndicateursReelsDTO dto = new IndicateursReelsDTO();
+        dto.setDateDebut(debut);
+        dto.setDateFin(fin);
+        dto.setTitreRapport("Indicateurs");
+        for (int i = 0; i < lignes; i++) {
+            Agent agent = new Agent();
+            agent.setNom("Agent " + i);
+            agent.setService(service);
+
+            IndicateurReelDTO ligne = new IndicateurReelDTO();
+            ligne.setNumeroEncaissement("E" + i);
+            ligne.setDateEncaissement(debut);
+            ligne.setMontantEncaisse(new BigDecimal("1500.50"));
+            ligne.setIndicateur(agent);
+            dto.getIndicateurs().add(ligne);
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,67 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Empreinte des rapports pré-générés : toute écriture sur une table lue par
+ * les rapports doit la changer
+ */
+class RapportPregenereStoreTest {
+
+    private static final LocalDate DEBUT = LocalDate.of(2032, 1, 1);
+    private static final LocalDate FIN = LocalDate.of(2032, 1, 31);
+
+    private final RapportPregenereStore store = new RapportPregenereStore();
+
+    @AfterAll
+    static void nettoyer() throws SQLException {
+        executer("DELETE FROM mandats WHERE numero_mandat = 'TST-M-940001'");
+        executer("DELETE FROM contraventions WHERE id = 940001");
+        executer("DELETE FROM centres WHERE id = 940001");
+    }
+
+    @Test
+    void referentielChangeLEmpreinte() throws SQLException {
+        String avant = store.calculerEmpreinte(DEBUT, FIN);
+        executer("INSERT INTO centres (id, code_centre, nom_centre) VALUES (940001, 'TST-EMP', 'Centre empreinte')");
+        String apresAjout = store.calculerEmpreinte(DEBUT, FIN);
+        assertNotEquals(avant, apresAjout);
+
+        // Renommage sans changement de volume
+        executer("UPDATE centres SET nom_centre = 'Centre renommé' WHERE id = 940001");
+        assertNotEquals(apresAjout, store.calculerEmpreinte(DEBUT, FIN));
+    }
+
+    @Test
+    void contraventionEtMandatChangentLEmpreinte() throws SQLException {
+        String avant = store.calculerEmpreinte(DEBUT, FIN);
+        executer("INSERT INTO contraventions (id, code, libelle) VALUES (940001, 'TST-EMP', 'Contravention empreinte')");
+        String apresContravention = store.calculerEmpreinte(DEBUT, FIN);
+        assertNotEquals(avant, apresContravention);
+
+        executer("INSERT INTO mandats (numero_mandat, date_debut, date_fin) VALUES "
+                + "('TST-M-940001', '2032-01-01', '2032-01-31')");
+        assertNotEquals(apresContravention, store.calculerEmpreinte(DEBUT, FIN));
+    }
+
+    @Test
+    void empreinteStableSansEcriture() throws SQLException {
+        assertEquals(store.calculerEmpreinte(DEBUT, FIN), store.calculerEmpreinte(DEBUT, FIN));
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.service.RapportSchedulerService.Declencheur;
+import com.regulation.contentieux.service.RapportSchedulerService.RapportProgramme;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Échéances des programmations mensuelles
+ */
+class RapportSchedulerServiceTest {
+
+    @Test
+    void prochaineOccurrenceDansLeMoisCourant() {
+        assertEquals(LocalDateTime.of(2030, 5, 15, 6, 0),
+                RapportSchedulerService.prochaineOccurrence(15, 6, LocalDateTime.of(2030, 5, 3, 12, 0)));
+    }
+
+    @Test
+    void prochaineOccurrenceStrictementPosterieure() {
+        // Référence exactement à l'échéance : mois suivant
+        assertEquals(LocalDateTime.of(2030, 6, 1, 0, 0),
+                RapportSchedulerService.prochaineOccurrence(1, 0, LocalDateTime.of(2030, 5, 1, 0, 0)));
+        assertEquals(LocalDateTime.of(2030, 6, 1, 0, 0),
+                RapportSchedulerService.prochaineOccurrence(1, 0, LocalDateTime.of(2030, 5, 20, 9, 30)));
+    }
+
+    @Test
+    void jourRameneALaFinDuMois() {
+        assertEquals(LocalDateTime.of(2030, 2, 28, 23, 0),
+                RapportSchedulerService.prochaineOccurrence(31, 23, LocalDateTime.of(2030, 2, 10, 0, 0)));
+        assertEquals(LocalDateTime.of(2032, 2, 29, 23, 0),
+                RapportSchedulerService.prochaineOccurrence(31, 23, LocalDateTime.of(2032, 1, 31, 23, 0)));
+    }
+
+    @Test
+    void nouvelleProgrammationMensuelleNonEchue() {
+        RapportSchedulerService scheduler = RapportSchedulerService.getInstance();
+        // Échéance du mois courant toujours passée (le 1er à 0h) : ne doit pas partir au prochain cycle
+        RapportProgramme programme = scheduler.ajouterProgramme("Test échéance", Declencheur.MENSUEL, 1, 0, Set.of());
+        try {
+            LocalDateTime maintenant = LocalDateTime.now();
+            assertTrue(programme.prochaineExecution().isAfter(maintenant));
+            assertFalse(programme.estEchue(maintenant));
+        } finally {
+            scheduler.supprimerProgramme(programme.id());
+        }
+    }
+}
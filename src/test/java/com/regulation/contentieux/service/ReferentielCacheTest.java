@@ -0,0 +1,100 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.dao.CentreDAO;
+import com.regulation.contentieux.model.Centre;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache des référentiels : copies rendues, invalidation des référentiels
+ * dépendants et repli sur le DAO au-delà de cache.maxSize
+ */
+class ReferentielCacheTest {
+
+    private static final long CENTRE_A = 985001L;
+    private static final long CENTRE_B = 985002L;
+    private static final long SERVICE = 985001L;
+    private static final long BANQUE = 985001L;
+
+    @BeforeEach
+    void creerDonnees() throws SQLException {
+        nettoyer();
+        executer("INSERT INTO centres (id, code_centre, nom_centre) VALUES (" + CENTRE_A + ", 'TST-CA', 'Centre cache A')");
+        executer("INSERT INTO centres (id, code_centre, nom_centre) VALUES (" + CENTRE_B + ", 'TST-CB', 'Centre cache B')");
+    }
+
+    @AfterEach
+    void nettoyer() throws SQLException {
+        executer("DELETE FROM banques WHERE id = " + BANQUE);
+        executer("DELETE FROM services WHERE id = " + SERVICE);
+        executer("DELETE FROM centres WHERE id IN (" + CENTRE_A + ", " + CENTRE_B + ")");
+    }
+
+    @Test
+    void copiesIsolees() {
+        ReferentielCache cache = new ReferentielCache(true, 1_000, 300);
+
+        Centre copie = cache.findCentre(CENTRE_A).orElseThrow();
+        copie.setNomCentre("Modifié");
+        cache.getCentres().forEach(c -> c.setNomCentre("Modifié"));
+
+        assertEquals("Centre cache A", cache.findCentre(CENTRE_A).orElseThrow().getNomCentre());
+        assertNotSame(cache.findCentre(CENTRE_A).orElseThrow(), cache.findCentre(CENTRE_A).orElseThrow());
+        assertTrue(cache.getCentres().stream().noneMatch(c -> "Modifié".equals(c.getNomCentre())));
+    }
+
+    @Test
+    void invaliderCentreVideServicesEtBureaux() throws SQLException {
+        ReferentielCache cache = new ReferentielCache(true, 1_000, 300);
+        cache.getServices();
+        cache.getBureaux();
+        cache.getBanques();
+        long version = cache.getVersion();
+
+        executer("UPDATE centres SET nom_centre = 'Centre renommé' WHERE id = " + CENTRE_A);
+        executer("INSERT INTO services (id, code_service, nom_service, centre_id) VALUES ("
+                + SERVICE + ", 'TST-SC', 'Service cache', " + CENTRE_A + ")");
+        executer("INSERT INTO banques (id, code_banque, nom_banque) VALUES (" + BANQUE + ", 'TST-BC', 'Banque cache')");
+
+        // Avant invalidation, l'instantané chargé reste servi
+        assertTrue(cache.findService(SERVICE).isEmpty());
+
+        cache.invalider(ReferentielCache.Type.CENTRE);
+
+        assertEquals(version + 1, cache.getVersion());
+        assertEquals("Centre renommé", cache.findCentre(CENTRE_A).orElseThrow().getNomCentre());
+        // Services (et bureaux) embarquent le centre : rechargés au prochain accès
+        assertTrue(cache.findService(SERVICE).isPresent());
+        // Les référentiels indépendants sont conservés
+        assertTrue(cache.findBanque(BANQUE).isEmpty());
+    }
+
+    @Test
+    void indexPartielRetombeSurLeDao() {
+        ReferentielCache cache = new ReferentielCache(true, 1, 300);
+        List<Centre> enBase = new CentreDAO().findAll();
+        assertTrue(enBase.size() > 1);
+
+        assertEquals(enBase.size(), cache.getCentres().size());
+        // Au plus un centre est indexé : l'autre vient du DAO
+        assertEquals("Centre cache A", cache.findCentre(CENTRE_A).orElseThrow().getNomCentre());
+        assertEquals("Centre cache B", cache.findCentre(CENTRE_B).orElseThrow().getNomCentre());
+        assertTrue(cache.findCentre(-1L).isEmpty());
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.regulation.contentieux.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Choix du plan applicable à une date : chevauchements, trous et dates antérieures
+ */
+class RegleRepartitionServiceTest {
+
+    @Test
+    void versionLaPlusRecenteLEmporteEnCasDeChevauchement() {
+        // v2 commence avant v3 mais la recouvre : v3 l'emporte sur sa période
+        PlanRepartition v1 = plan(1, "2020-01-01", null);
+        PlanRepartition v2 = plan(2, "2023-01-01", "2023-12-31");
+        PlanRepartition v3 = plan(3, "2022-06-01", "2023-06-30");
+        RegleRepartitionService.Index index = indexer(v1, v2, v3);
+
+        assertSame(v1, chercher(index, "2022-05-31"));
+        assertSame(v3, chercher(index, "2022-06-01"));
+        assertSame(v3, chercher(index, "2023-03-15"));
+        assertSame(v3, chercher(index, "2023-06-30"));
+        assertSame(v2, chercher(index, "2023-07-01"));
+        assertSame(v2, chercher(index, "2023-12-31"));
+        assertSame(v1, chercher(index, "2024-01-01"));
+    }
+
+    @Test
+    void derniereRegleTermineeProlongeeDansUnTrou() {
+        PlanRepartition v1 = plan(1, "2020-01-01", "2020-12-31");
+        PlanRepartition v2 = plan(2, "2021-01-01", "2021-06-30");
+        PlanRepartition v3 = plan(3, "2022-01-01", null);
+        RegleRepartitionService.Index index = indexer(v1, v2, v3);
+
+        assertSame(v2, chercher(index, "2021-07-01"));
+        assertSame(v2, chercher(index, "2021-12-31"));
+        assertSame(v3, chercher(index, "2022-01-01"));
+    }
+
+    @Test
+    void dateAnterieureAToutesLesRegles() {
+        PlanRepartition v1 = plan(1, "2020-01-01", "2020-12-31");
+        PlanRepartition v2 = plan(2, "2021-01-01", null);
+        RegleRepartitionService.Index index = indexer(v1, v2);
+
+        assertSame(v1, chercher(index, "1999-01-01"));
+    }
+
+    @Test
+    void empreinteStablePuisModifieeParUnChangementDeTaux() {
+        String empreinte = indexer(plan(1, "2020-01-01", null)).empreinte();
+        assertEquals(empreinte, indexer(plan(1, "2020-01-01", null)).empreinte());
+        assertNotEquals(empreinte, indexer(plan(1, "2020-01-01", "2030-12-31")).empreinte());
+    }
+
+    private static RegleRepartitionService.Index indexer(PlanRepartition... plans) {
+        List<PlanRepartition> versions = new ArrayList<>(List.of(plans));
+        versions.sort((a, b) -> a.getDateDebut().compareTo(b.getDateDebut()));
+        return RegleRepartitionService.indexer(versions);
+    }
+
+    private static PlanRepartition chercher(RegleRepartitionService.Index index, String date) {
+        return RegleRepartitionService.chercher(index, LocalDate.parse(date));
+    }
+
+    private static PlanRepartition plan(int version, String debut, String fin) {
+        return new PlanRepartition(version, "v" + version, LocalDate.parse(debut),
+                fin != null ? LocalDate.parse(fin) : null,
+                new BigDecimal("0.10"), new BigDecimal("0.10"), new BigDecimal("0.15"),
+                new BigDecimal("0.15"), new BigDecimal("0.35"), new BigDecimal("0.05"),
+                new BigDecimal("0.30"), new BigDecimal("0.15"),
+                new BigDecimal("0.60"), new BigDecimal("0.25"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.model.Centre;
+import com.regulation.contentieux.service.RapportService.CentreStatsDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * État cumulé par centre : quotes-parts des règles en vigueur à la date de chaque encaissement
+ */
+class StatsCentreTest {
+
+    private static final LocalDate DEBUT = LocalDate.of(2031, 6, 1);
+    private static final LocalDate FIN = LocalDate.of(2031, 6, 30);
+
+    private static final long CENTRE = 960001L;
+    private static final long SERVICE = 960001L;
+    private static final long CONTREVENANT = 960001L;
+    private static final long AFFAIRE = 960001L;
+
+    private static Integer versionAjoutee;
+
+    @BeforeAll
+    static void creerDonnees() throws SQLException {
+        nettoyer();
+        executer("INSERT INTO centres (id, code_centre, nom_centre) VALUES (" + CENTRE + ", 'TST-RC', 'Centre règles')");
+        executer("INSERT INTO services (id, code_service, nom_service, centre_id) VALUES ("
+                + SERVICE + ", 'TST-RS', 'Service règles', " + CENTRE + ")");
+        executer("INSERT INTO contrevenants (id, code, nom_complet) VALUES (" + CONTREVENANT + ", 'TST-RCV', 'Contrevenant règles')");
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO affaires (id, numero_affaire, date_creation, montant_total, montant_amende_total, "
+                             + "contrevenant_id, service_id) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            stmt.setLong(1, AFFAIRE);
+            stmt.setString(2, "TST" + AFFAIRE);
+            stmt.setDate(3, Date.valueOf(DEBUT));
+            stmt.setBigDecimal(4, new BigDecimal("5000"));
+            stmt.setBigDecimal(5, new BigDecimal("5000"));
+            stmt.setLong(6, CONTREVENANT);
+            stmt.setLong(7, SERVICE);
+            stmt.executeUpdate();
+        }
+        encaissement(960001L, LocalDate.of(2031, 6, 10), new BigDecimal("1000"));
+        encaissement(960002L, LocalDate.of(2031, 6, 20), new BigDecimal("1000"));
+    }
+
+    @AfterAll
+    static void nettoyer() throws SQLException {
+        executer("DELETE FROM encaissements WHERE id BETWEEN 960001 AND 960099");
+        executer("DELETE FROM affaires WHERE id = " + AFFAIRE);
+        executer("DELETE FROM contrevenants WHERE id = " + CONTREVENANT);
+        executer("DELETE FROM services WHERE id = " + SERVICE);
+        executer("DELETE FROM centres WHERE id = " + CENTRE);
+        if (versionAjoutee != null) {
+            executer("DELETE FROM regles_repartition WHERE version = " + versionAjoutee);
+            RegleRepartitionService.getInstance().recharger();
+            versionAjoutee = null;
+        }
+    }
+
+    @Test
+    void changementDeReglesEnCoursDePeriode() {
+        RapportService rapportService = new RapportService();
+        Centre centre = new Centre();
+        centre.setId(CENTRE);
+        centre.setNomCentre("Centre règles");
+
+        // Règles initiales sur toute la période : 60 % base, 25 % indicateur
+        CentreStatsDTO avant = rapportService.calculerStatsCentre(centre, DEBUT, FIN);
+        assertEquals(0, new BigDecimal("2000").compareTo(avant.getMontantTotal()), avant.getMontantTotal().toString());
+        assertEquals(0, new BigDecimal("1200").compareTo(avant.getRepartitionBase()), avant.getRepartitionBase().toString());
+        assertEquals(0, new BigDecimal("500").compareTo(avant.getRepartitionIndicateur()));
+
+        // Nouvelle version à partir du 15 : seul l'encaissement du 20 change de taux
+        PlanRepartition initial = RegleRepartitionService.PLAN_INITIAL;
+        PlanRepartition nouvelle = RegleRepartitionService.getInstance().ajouterVersion(new PlanRepartition(0,
+                "Test mi-période", LocalDate.of(2031, 6, 15), FIN,
+                initial.getTauxIndicateur(), initial.getTauxFLCF(), initial.getTauxTresor(),
+                initial.getTauxChefs(), initial.getTauxSaisissants(), initial.getTauxMutuelle(),
+                initial.getTauxMasseCommune(), initial.getTauxInteressement(),
+                new BigDecimal("0.50"), new BigDecimal("0.30")));
+        versionAjoutee = nouvelle.getVersion();
+
+        CentreStatsDTO apres = rapportService.calculerStatsCentre(centre, DEBUT, FIN);
+        assertEquals(0, new BigDecimal("2000").compareTo(apres.getMontantTotal()));
+        assertEquals(0, new BigDecimal("1100").compareTo(apres.getRepartitionBase()), apres.getRepartitionBase().toString());
+        assertEquals(0, new BigDecimal("550").compareTo(apres.getRepartitionIndicateur()),
+                apres.getRepartitionIndicateur().toString());
+        assertEquals(0, new BigDecimal("1650").compareTo(apres.getPartTotalCentre()));
+    }
+
+    private static void encaissement(long id, LocalDate date, BigDecimal montant) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO encaissements (id, reference, date_encaissement, montant_encaisse, "
+                             + "mode_reglement, statut, affaire_id) VALUES (?, ?, ?, ?, 'ESPECES', 'VALIDE', ?)")) {
+            stmt.setLong(1, id);
+            stmt.setString(2, "TST-ENC-" + id);
+            stmt.setDate(3, Date.valueOf(date));
+            stmt.setBigDecimal(4, montant);
+            stmt.setLong(5, AFFAIRE);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void executer(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.regulation.contentieux.service;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Synchronisation SQLite → MySQL contre une base H2 en mode MySQL
+ * (mysql.url et sqlite.path sont fixés par la configuration surefire)
+ */
+class SynchronizationPipelineTest {
+
+    private static final long ID_A = 910001L;
+    private static final long ID_B = 910002L;
+    private static final long ID_MANDAT = 910003L;
+
+    @BeforeAll
+    static void creerBaseMySQL() throws SQLException {
+        try (Connection sqlite = DatabaseConfig.getSQLiteConnection();
+             Connection mysql = DatabaseConfig.getMySQLConnection();
+             Statement stmt = mysql.createStatement()) {
+            for (String[] niveau : SynchronizationPipeline.TABLE_LEVELS) {
+                for (String table : niveau) {
+                    List<String> cle = SyncCheckpointStore.getColonnesCle(sqlite, table);
+                    List<String> definitions = new ArrayList<>();
+                    try (Statement lecture = sqlite.createStatement();
+                         ResultSet rs = lecture.executeQuery("PRAGMA table_info(" + table + ")")) {
+                        while (rs.next()) {
+                            String type = rs.getString("type").toUpperCase(Locale.ROOT);
+                            definitions.add(rs.getString("name")
+                                    + (type.contains("INT") ? " BIGINT" : " VARCHAR(4000)"));
+                        }
+                    }
+                    if (definitions.isEmpty()) {
+                        continue;
+                    }
+                    if (!cle.isEmpty()) {
+                        definitions.add("PRIMARY KEY (" + String.join(", ", cle) + ")");
+                    }
+                    stmt.execute("CREATE TABLE IF NOT EXISTS " + table + " (" + String.join(", ", definitions) + ")");
+                }
+            }
+        }
+    }
+
+    @BeforeEach
+    void nettoyer() throws Exception {
+        executerSQLite("DELETE FROM centres WHERE id IN (" + ID_A + ", " + ID_B + ")");
+        executerSQLite("DELETE FROM mandats WHERE id = " + ID_MANDAT);
+        attendreHorizon();
+        synchroniser();
+    }
+
+    @Test
+    void synchronisationIncrementaleNeRelitQueLesModifications() throws Exception {
+        executerSQLite("INSERT INTO centres (id, code_centre, nom_centre, updated_at) "
+                + "VALUES (" + ID_A + ", 'TST-A', 'Centre A', CURRENT_TIMESTAMP)");
+        attendreHorizon();
+
+        assertEquals(1, synchroniser().getTableSyncs().get("centres"));
+        assertEquals("Centre A", nomMySQL(ID_A));
+        assertEquals(0, synchroniser().getTableSyncs().get("centres"));
+
+        // updated_at écrit par setTimestamp (millisecondes) après un horodatage texte
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "UPDATE centres SET nom_centre = ?, updated_at = ? WHERE id = ?")) {
+            stmt.setString(1, "Centre A modifié");
+            stmt.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            stmt.setLong(3, ID_A);
+            stmt.executeUpdate();
+        }
+        attendreHorizon();
+
+        assertEquals(1, synchroniser().getTableSyncs().get("centres"));
+        assertEquals("Centre A modifié", nomMySQL(ID_A));
+    }
+
+    @Test
+    void modificationSurPlaceDUnMandatPropagee() throws Exception {
+        executerSQLite("INSERT INTO mandats (id, numero_mandat, date_debut, date_fin, actif) "
+                + "VALUES (" + ID_MANDAT + ", 'TST-M1', '2031-01-01', '2031-01-31', 0)");
+        attendreHorizon();
+        synchroniser();
+        assertEquals("2031-01-31", valeurMySQL("mandats", "date_fin", ID_MANDAT));
+
+        // Mise à jour sur place, comme MandatService (actif, statut, dates...)
+        executerSQLite("UPDATE mandats SET date_fin = '2031-02-28', updated_at = CURRENT_TIMESTAMP "
+                + "WHERE id = " + ID_MANDAT);
+        attendreHorizon();
+
+        assertEquals(1, synchroniser().getTableSyncs().get("mandats"));
+        assertEquals("2031-02-28", valeurMySQL("mandats", "date_fin", ID_MANDAT));
+    }
+
+    @Test
+    void tablesSansHorodatageDeModificationRelues() {
+        List<String> colonnes = List.of("id", "affaire_id", "created_at");
+
+        assertEquals("updated_at", SynchronizationPipeline.findWatermarkColumn("mandats",
+                List.of("id", "created_at", "updated_at")));
+        assertNull(SynchronizationPipeline.findWatermarkColumn("affaire_contraventions", colonnes));
+        assertEquals("created_at", SynchronizationPipeline.findWatermarkColumn("repartition_resultats", colonnes));
+        assertEquals("assigned_at", SynchronizationPipeline.findWatermarkColumn("affaire_acteurs",
+                List.of("affaire_id", "agent_id", "role_sur_affaire", "assigned_at")));
+    }
+
+    @Test
+    void suppressionsPropageesSaufCleReinseree() throws Exception {
+        executerSQLite("INSERT INTO centres (id, code_centre, nom_centre) VALUES "
+                + "(" + ID_A + ", 'TST-A', 'Centre A'), (" + ID_B + ", 'TST-B', 'Centre B')");
+        attendreHorizon();
+        synchroniser();
+
+        // B supprimé puis réinséré sous la même clé, dans la même seconde
+        executerSQLite("DELETE FROM centres WHERE id = " + ID_A);
+        executerSQLite("DELETE FROM centres WHERE id = " + ID_B);
+        executerSQLite("INSERT INTO centres (id, code_centre, nom_centre) VALUES (" + ID_B + ", 'TST-B', 'Centre B bis')");
+        attendreHorizon();
+
+        SynchronizationService.SyncResult result = synchroniser();
+
+        assertNull(nomMySQL(ID_A));
+        assertEquals("Centre B bis", nomMySQL(ID_B));
+        assertEquals(1, result.getTableDeletions().get("centres"));
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM sync_suppressions WHERE table_name = 'centres'")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void lectureIncrementaleParcourtIndexHorodatage() throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            List<String> colonnes = SynchronizationPipeline.getTableColumns(conn, "centres");
+            String sql = SynchronizationPipeline.requeteLecture("centres", colonnes, "updated_at");
+
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+                stmt.setLong(1, 0);
+                stmt.setLong(2, 0);
+                stmt.setLong(3, 0);
+                stmt.setLong(4, SynchronizationPipeline.horizonLecture());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString("detail")).append('\n');
+                    }
+                }
+            }
+            assertTrue(plan.toString().contains("SEARCH centres USING INDEX idx_centres_sync"), plan.toString());
+            assertFalse(plan.toString().contains("TEMP B-TREE"), plan.toString());
+        }
+    }
+
+    @Test
+    void colonnesGenereesExcluesDeLaSynchronisation() throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            List<String> colonnes = SynchronizationPipeline.getTableColumns(conn, "affaires");
+
+            assertTrue(colonnes.contains("numero_affaire"), colonnes.toString());
+            assertFalse(colonnes.contains("numero_periode"), colonnes.toString());
+            assertFalse(colonnes.contains("numero_sequence"), colonnes.toString());
+        }
+    }
+
+    private static SynchronizationService.SyncResult synchroniser() throws SQLException {
+        SynchronizationService.SyncResult result = new SynchronizationService.SyncResult();
+        new SynchronizationPipeline(100, 2, 1).incremental(true).sauvegarderVersMySQL(result);
+        return result;
+    }
+
+    /**
+     * Les lignes de la seconde en cours ne sont lues qu'au cycle suivant
+     */
+    private static void attendreHorizon() throws InterruptedException {
+        Thread.sleep(2_000);
+    }
+
+    private static void executerSQLite(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    private static String valeurMySQL(String table, String colonne, long id) throws SQLException {
+        try (Connection conn = DatabaseConfig.getMySQLConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT " + colonne + " FROM " + table + " WHERE id = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static String nomMySQL(long id) throws SQLException {
+        try (Connection conn = DatabaseConfig.getMySQLConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT nom_centre FROM centres WHERE id = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
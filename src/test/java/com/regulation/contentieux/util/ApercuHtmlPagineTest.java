@@ -0,0 +1,99 @@
+package com.regulation.contentieux.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Matcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Découpage de l'aperçu : squelette affiché d'emblée et pages différées
+ * reconstituant exactement le document d'origine
+ */
+class ApercuHtmlPagineTest {
+
+    @Test
+    void grandTableauDecoupeSansPerte() {
+        String html = rapport(50_000, true);
+
+        ApercuHtmlPagine.Decoupage decoupage = ApercuHtmlPagine.decouper(html);
+
+        assertNotNull(decoupage);
+        assertEquals(50_002, decoupage.lignesTotal()); // en-tête, lignes de données et total
+        assertEquals(ApercuHtmlPagine.LIGNES_PAR_PAGE, decoupage.lignesInitiales());
+        assertEquals(250, decoupage.pages().size());
+
+        String squelette = decoupage.squelette();
+        // Première page seulement (en-tête compris), ligne de total et script avant </body>
+        assertTrue(squelette.length() < 20_000, "Squelette : " + squelette.length());
+        assertTrue(squelette.contains("<td>198</td>"));
+        assertFalse(squelette.contains("<td>199</td>"));
+        assertTrue(squelette.contains("TOTAL"));
+        assertTrue(squelette.contains("</script>\n</body>"));
+
+        assertEquals(html, reconstituer(decoupage));
+    }
+
+    @Test
+    void tableauSousLeSeuilNonDecoupe() {
+        // Seuil compté sur toutes les lignes du tableau, en-tête et total compris
+        assertNull(ApercuHtmlPagine.decouper(rapport(ApercuHtmlPagine.SEUIL_LIGNES - 3, true)));
+        assertNotNull(ApercuHtmlPagine.decouper(rapport(ApercuHtmlPagine.SEUIL_LIGNES - 1, false)));
+    }
+
+    @Test
+    void tableauContenantUnTableauNonDecoupe() {
+        StringBuilder html = new StringBuilder("<html><body><table>");
+        for (int i = 0; i < 2_000; i++) {
+            html.append("<tr><td>").append(i).append("</td></tr>");
+            if (i == 10) {
+                html.append("<tr><td><table><tr><td>détail</td></tr></table></td></tr>");
+            }
+        }
+        html.append("</table></body></html>");
+
+        assertNull(ApercuHtmlPagine.decouper(html.toString()));
+    }
+
+    @Test
+    void plusieursCorpsDansLaZoneDiffereeNonDecoupes() {
+        StringBuilder html = new StringBuilder("<html><body><table><tbody>");
+        for (int i = 0; i < 2_000; i++) {
+            if (i == 1_000) {
+                html.append("</tbody><tbody>");
+            }
+            html.append("<tr><td>").append(i).append("</td></tr>");
+        }
+        html.append("</tbody></table></body></html>");
+
+        assertNull(ApercuHtmlPagine.decouper(html.toString()));
+    }
+
+    @Test
+    void litteralJsEchappe() {
+        assertEquals("\"a\\\"b\\\\c\\nd\\u2028\\u0001\"",
+                ApercuHtmlPagine.litteralJs("a\"b\\c\nd \u0001"));
+    }
+
+    private static String rapport(int lignes, boolean total) {
+        StringBuilder sb = new StringBuilder("<html><head><title>Rapport</title></head><body><h1>État</h1>"
+                + "<table class=\"rapport-table\"><thead><tr><th>N°</th><th>Montant</th></tr></thead><tbody>");
+        for (int i = 0; i < lignes; i++) {
+            sb.append("<tr><td>").append(i).append("</td><td class=\"montant\">1 000</td></tr>\n");
+        }
+        if (total) {
+            sb.append("<tr class=\"total-row\"><td>TOTAL</td><td>x</td></tr>");
+        }
+        return sb.append("</tbody></table><p>fin</p>\n</body></html>").toString();
+    }
+
+    /**
+     * Document obtenu une fois toutes les pages insérées à la place du marqueur
+     */
+    private static String reconstituer(ApercuHtmlPagine.Decoupage decoupage) {
+        String pages = String.join("", decoupage.pages());
+        return decoupage.squelette()
+                .replaceAll("(?s)<tr id=\"apercu-suite\">.*?</tr>", Matcher.quoteReplacement(pages))
+                .replaceAll("(?s)<script>.*</script>\\s*", "");
+    }
+}
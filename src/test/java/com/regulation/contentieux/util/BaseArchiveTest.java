@@ -0,0 +1,75 @@
+package com.regulation.contentieux.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Réécriture des lectures sur l'union base courante + archive
+ */
+class BaseArchiveTest {
+
+    private static final Map<String, List<String>> TABLES = Map.of(
+            "affaires", List.of("id", "numero_affaire"),
+            "encaissements", List.of("id", "affaire_id"),
+            "affaire_acteurs", List.of("affaire_id", "agent_id"));
+
+    private static final String AFFAIRES = "(SELECT id, numero_affaire FROM main.affaires UNION ALL "
+            + "SELECT id, numero_affaire FROM archive.affaires WHERE NOT EXISTS "
+            + "(SELECT 1 FROM main.affaires WHERE main.affaires.id = archive.affaires.id))";
+    private static final String ENCAISSEMENTS = "(SELECT id, affaire_id FROM main.encaissements UNION ALL "
+            + "SELECT id, affaire_id FROM archive.encaissements WHERE NOT EXISTS "
+            + "(SELECT 1 FROM main.encaissements WHERE main.encaissements.id = archive.encaissements.id))";
+    private static final String ACTEURS = "(SELECT affaire_id, agent_id FROM main.affaire_acteurs UNION ALL "
+            + "SELECT affaire_id, agent_id FROM archive.affaire_acteurs WHERE NOT EXISTS "
+            + "(SELECT 1 FROM main.affaires WHERE main.affaires.id = archive.affaire_acteurs.affaire_id))";
+
+    @Test
+    void aliasConservesOuAjoutes() {
+        assertEquals("SELECT a.id FROM " + AFFAIRES + " a WHERE a.id = ?",
+                BaseArchive.reecrire("SELECT a.id FROM affaires a WHERE a.id = ?", TABLES));
+        assertEquals("SELECT x.id FROM " + AFFAIRES + " x",
+                BaseArchive.reecrire("SELECT x.id FROM affaires AS x", TABLES));
+        assertEquals("SELECT affaires.id FROM " + AFFAIRES + " affaires WHERE id > 0",
+                BaseArchive.reecrire("SELECT affaires.id FROM affaires WHERE id > 0", TABLES));
+        assertEquals("SELECT * FROM " + AFFAIRES + " a LEFT JOIN " + ENCAISSEMENTS + " e ON e.affaire_id = a.id",
+                BaseArchive.reecrire("SELECT * FROM affaires a LEFT JOIN encaissements e ON e.affaire_id = a.id",
+                        TABLES));
+        assertEquals("SELECT * FROM " + AFFAIRES + " \"affaires\"",
+                BaseArchive.reecrire("SELECT * FROM \"affaires\"", TABLES));
+    }
+
+    @Test
+    void listeFromEtSousRequetes() {
+        assertEquals("SELECT * FROM " + AFFAIRES + " a, " + ENCAISSEMENTS + " e WHERE e.affaire_id = a.id",
+                BaseArchive.reecrire("SELECT * FROM affaires a, encaissements e WHERE e.affaire_id = a.id", TABLES));
+        assertEquals("SELECT * FROM (SELECT id FROM " + AFFAIRES + " a) t, " + ACTEURS + " aa WHERE aa.affaire_id = t.id",
+                BaseArchive.reecrire("SELECT * FROM (SELECT id FROM affaires a) t, affaire_acteurs aa "
+                        + "WHERE aa.affaire_id = t.id", TABLES));
+        // Virgules de la liste SELECT et des fonctions : pas de table
+        assertEquals("SELECT COALESCE(a.id, 0), a.numero_affaire FROM " + AFFAIRES + " a "
+                        + "WHERE a.id IN (SELECT affaire_id FROM " + ENCAISSEMENTS + " encaissements), 1",
+                BaseArchive.reecrire("SELECT COALESCE(a.id, 0), a.numero_affaire FROM affaires a "
+                        + "WHERE a.id IN (SELECT affaire_id FROM encaissements), 1", TABLES));
+    }
+
+    @Test
+    void litterauxCommentairesEtTablesQualifieesIntacts() {
+        String sql = "SELECT 'FROM affaires', \"from encaissements\" -- FROM affaires\n"
+                + "FROM main.affaires /* JOIN encaissements */ JOIN agents g ON g.id = 1";
+        assertEquals(sql, BaseArchive.reecrire(sql, TABLES));
+        assertEquals("SELECT 'l''affaire FROM affaires' FROM " + AFFAIRES + " a",
+                BaseArchive.reecrire("SELECT 'l''affaire FROM affaires' FROM affaires a", TABLES));
+    }
+
+    @Test
+    void ecrituresNonReecrites() {
+        String sql = "DELETE FROM affaires WHERE id IN (SELECT affaire_id FROM encaissements)";
+        assertEquals(sql, BaseArchive.reecrire(sql, TABLES));
+        assertEquals("WITH t AS (SELECT id FROM " + AFFAIRES + " affaires) SELECT * FROM t",
+                BaseArchive.reecrire("WITH t AS (SELECT id FROM affaires) SELECT * FROM t", TABLES));
+    }
+}
@@ -0,0 +1,89 @@
+package com.regulation.contentieux.util;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migration d'un million de lignes depuis une source H2 (mode MySQL) vers SQLite,
+ * avec les réglages par défaut du pipeline (objectif : moins d'une minute)
+ *
+ * Lancement (après mvn test-compile) :
+ * java -cp target/test-classes:target/classes:&lt;classpath de test&gt;
+ *      com.regulation.contentieux.util.LegacyMigrationPipelineBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LegacyMigrationPipelineBenchmark {
+
+    private static final int LIGNES = 1_000_000;
+
+    private static final LegacyMigrationPipeline.RowMapper MAPPER =
+            (rs, cle, rapport) -> new Object[] { rs.getString("CODE"), rs.getLong("VALEUR") };
+
+    @Setup(Level.Trial)
+    public void creerSource() throws SQLException {
+        // Bases de banc d'essai, hors des données de l'application
+        System.setProperty("sqlite.path", System.getProperty("sqlite.path", "target/benchmark-data/migration.db"));
+        System.setProperty("mysql.url", System.getProperty("mysql.url",
+                "jdbc:h2:mem:migration;MODE=MySQL;DB_CLOSE_DELAY=-1;IGNORE_UNKNOWN_SETTINGS=TRUE"));
+
+        try (Connection mysql = DatabaseConfig.getMySQLConnection();
+             Statement stmt = mysql.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS source_test");
+            stmt.execute("CREATE TABLE source_test (NUMERO BIGINT PRIMARY KEY, CODE VARCHAR(20), VALEUR BIGINT)");
+            stmt.executeUpdate("INSERT INTO source_test SELECT X, 'C' || X, X FROM SYSTEM_RANGE(1, " + LIGNES + ")");
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void viderCible() throws SQLException {
+        try (Connection sqlite = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = sqlite.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS migration_test");
+            stmt.execute("CREATE TABLE migration_test (code TEXT UNIQUE, valeur INTEGER NOT NULL)");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void supprimerTables() throws SQLException {
+        try (Connection sqlite = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = sqlite.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS migration_test");
+        }
+        try (Connection mysql = DatabaseConfig.getMySQLConnection();
+             Statement stmt = mysql.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS source_test");
+        }
+    }
+
+    @Benchmark
+    public long unMillionDeLignes() throws SQLException {
+        try (Connection sqlite = DatabaseConfig.getSQLiteConnection()) {
+            LegacyMigrationPipeline.MigrationReport report = new LegacyMigrationPipeline().executer("test",
+                    "SELECT NUMERO, CODE, VALEUR FROM source_test ORDER BY NUMERO", "NUMERO",
+                    "INSERT INTO migration_test (code, valeur) VALUES (?, ?)", MAPPER, sqlite);
+            if (report.getLignesMigrees() != LIGNES) {
+                throw new IllegalStateException("Lignes migrées : " + report.getLignesMigrees());
+            }
+            return report.getLignesMigrees();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LegacyMigrationPipelineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
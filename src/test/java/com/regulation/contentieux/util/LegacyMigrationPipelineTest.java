@@ -0,0 +1,108 @@
+package com.regulation.contentieux.util;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migration en masse depuis une source H2 (mode MySQL) vers SQLite
+ */
+class LegacyMigrationPipelineTest {
+
+    private static final String INSERT_SQL = "INSERT INTO migration_test (code, valeur) VALUES (?, ?)";
+
+    private static final LegacyMigrationPipeline.RowMapper MAPPER = (rs, cle, rapport) -> {
+        Long valeur = rs.getObject("VALEUR", Long.class);
+        if (valeur != null && valeur < 0) {
+            rapport.rejeter(cle, "Valeur négative");
+            return null;
+        }
+        return new Object[] { rs.getString("CODE"), valeur };
+    };
+
+    @BeforeEach
+    void creerTables() throws SQLException {
+        try (Connection sqlite = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = sqlite.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS migration_test");
+            stmt.execute("CREATE TABLE migration_test (code TEXT UNIQUE, valeur INTEGER NOT NULL)");
+        }
+        try (Connection mysql = DatabaseConfig.getMySQLConnection();
+             Statement stmt = mysql.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS source_test");
+            stmt.execute("CREATE TABLE source_test (NUMERO BIGINT PRIMARY KEY, CODE VARCHAR(20), VALEUR BIGINT)");
+        }
+    }
+
+    @AfterEach
+    void supprimerTables() throws SQLException {
+        try (Connection sqlite = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = sqlite.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS migration_test");
+        }
+        try (Connection mysql = DatabaseConfig.getMySQLConnection();
+             Statement stmt = mysql.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS source_test");
+        }
+    }
+
+    @Test
+    void lotRefuseRejoueLigneParLigneAvecCles() throws SQLException {
+        // 2 : doublon de code, 3 : NULL refusé par SQLite, 4 : rejeté par le mapper
+        executerMySQL("INSERT INTO source_test VALUES "
+                + "(1, 'A', 10), (2, 'A', 20), (3, 'C', NULL), (4, 'D', -1), (5, 'E', 50), (6, 'F', 60)");
+
+        LegacyMigrationPipeline.MigrationReport report = migrer(new LegacyMigrationPipeline(10, 100, 100));
+
+        assertEquals(6, report.getLignesLues());
+        assertEquals(3, report.getLignesMigrees());
+        assertEquals(3, report.getNombreRejets());
+        assertEquals(List.of("2", "3", "4"), report.getRejets().stream()
+                .map(LegacyMigrationPipeline.MigrationReport.Rejet::cle)
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(3, compterSQLite());
+    }
+
+    @Test
+    void plusieursLotsEtCommitsSansPerte() throws SQLException {
+        executerMySQL("INSERT INTO source_test SELECT X, 'C' || X, X FROM SYSTEM_RANGE(1, 12000)");
+
+        // 3 lots, un commit intermédiaire ; la durée est mesurée par LegacyMigrationPipelineBenchmark
+        LegacyMigrationPipeline.MigrationReport report = migrer(new LegacyMigrationPipeline(5_000, 10_000, 5_000));
+
+        assertEquals(12_000, report.getLignesLues());
+        assertEquals(12_000, report.getLignesMigrees());
+        assertEquals(0, report.getNombreRejets());
+        assertEquals(12_000, compterSQLite());
+    }
+
+    private static LegacyMigrationPipeline.MigrationReport migrer(LegacyMigrationPipeline pipeline) throws SQLException {
+        try (Connection sqlite = DatabaseConfig.getSQLiteConnection()) {
+            return pipeline.executer("test", "SELECT NUMERO, CODE, VALEUR FROM source_test ORDER BY NUMERO",
+                    "NUMERO", INSERT_SQL, MAPPER, sqlite);
+        }
+    }
+
+    private static void executerMySQL(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getMySQLConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        }
+    }
+
+    private static long compterSQLite() throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM migration_test")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
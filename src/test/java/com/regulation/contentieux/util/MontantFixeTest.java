@@ -0,0 +1,82 @@
+package com.regulation.contentieux.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Arrondis en virgule fixe comparés à BigDecimal sur des valeurs tirées au hasard
+ */
+class MontantFixeTest {
+
+    @Test
+    void diviserArrondiCommeBigDecimalHalfUp() {
+        SplittableRandom aleatoire = new SplittableRandom(11);
+        for (int i = 0; i < 200_000; i++) {
+            long dividende = switch (i % 3) {
+                case 0 -> aleatoire.nextLong(-10_000, 10_000);
+                case 1 -> aleatoire.nextLong();
+                default -> aleatoire.nextLong(0, 1_000_000) * 2 + 1;
+            };
+            long diviseur = aleatoire.nextBoolean()
+                    ? aleatoire.nextLong(1, 1_000) * (aleatoire.nextBoolean() ? 1 : -1)
+                    : 2;
+            if (dividende == Long.MIN_VALUE) {
+                continue;
+            }
+
+            long attendu = BigDecimal.valueOf(dividende)
+                    .divide(BigDecimal.valueOf(diviseur), 0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(attendu, MontantFixe.diviserArrondi(dividende, diviseur), dividende + " / " + diviseur);
+        }
+    }
+
+    @Test
+    void partEnCentimesCommeDivideDeuxDecimales() {
+        SplittableRandom aleatoire = new SplittableRandom(13);
+        for (int i = 0; i < 200_000; i++) {
+            long montant = aleatoire.nextLong(-1_000_000_000L, 1_000_000_000_000L);
+            int beneficiaires = 1 + aleatoire.nextInt(40);
+
+            BigDecimal attendu = BigDecimal.valueOf(montant)
+                    .divide(new BigDecimal(beneficiaires), 2, RoundingMode.HALF_UP);
+            BigDecimal obtenu = MontantFixe.centimesVersBigDecimal(MontantFixe.partEnCentimes(montant, beneficiaires));
+            // Même valeur et même échelle
+            assertEquals(attendu, obtenu, montant + " / " + beneficiaires);
+        }
+    }
+
+    @Test
+    void tauxAppliqueCommeSetScaleHalfUp() {
+        SplittableRandom aleatoire = new SplittableRandom(17);
+        for (int i = 0; i < 200_000; i++) {
+            BigDecimal taux = BigDecimal.valueOf(aleatoire.nextLong(0, 100_001), 2 + aleatoire.nextInt(4));
+            long montant = aleatoire.nextLong(-100_000_000L, 100_000_000_000L);
+
+            long attendu = BigDecimal.valueOf(montant).multiply(taux)
+                    .setScale(0, RoundingMode.HALF_UP).longValueExact();
+            assertEquals(attendu, MontantFixe.Taux.de(taux).appliquer(montant), montant + " × " + taux);
+        }
+    }
+
+    @Test
+    void depassementsSignales() {
+        assertThrows(ArithmeticException.class, () -> MontantFixe.Taux.de(new BigDecimal("0.15")).appliquer(Long.MAX_VALUE));
+        assertThrows(ArithmeticException.class, () -> MontantFixe.partEnCentimes(Long.MAX_VALUE / 10, 3));
+    }
+
+    @Test
+    void estEntier() {
+        assertTrue(MontantFixe.estEntier(new BigDecimal("1500")));
+        assertTrue(MontantFixe.estEntier(new BigDecimal("1500.00")));
+        assertTrue(MontantFixe.estEntier(new BigDecimal("1.5E+3")));
+        assertTrue(MontantFixe.estEntier(BigDecimal.ZERO.setScale(2)));
+        assertFalse(MontantFixe.estEntier(new BigDecimal("1500.50")));
+        assertFalse(MontantFixe.estEntier(new BigDecimal("1E+19")));
+        assertFalse(MontantFixe.estEntier(null));
+    }
+}
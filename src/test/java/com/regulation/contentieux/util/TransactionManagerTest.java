@@ -0,0 +1,138 @@
+package com.regulation.contentieux.util;
+
+import com.regulation.contentieux.config.DatabaseConfig;
+import com.regulation.contentieux.exception.TransactionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Connexions participantes : la transaction principale décide seule du commit
+ */
+class TransactionManagerTest {
+
+    private static final long ID_A = 970001L;
+    private static final long ID_B = 970002L;
+
+    @AfterEach
+    void nettoyer() throws SQLException {
+        try (Connection conn = DatabaseConfig.getSQLiteConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM centres WHERE id IN (" + ID_A + ", " + ID_B + ")");
+        }
+    }
+
+    @Test
+    void closeCommitEtAutoCommitSansEffetDansUneTransaction() throws SQLException {
+        TransactionManager manager = TransactionManager.getInstance();
+
+        assertThrows(TransactionException.class, () -> manager.executeInTransaction(() -> {
+            // Participant qui gère lui-même sa connexion, comme les DAO existants
+            try (Connection conn = TransactionManager.getConnection()) {
+                conn.setAutoCommit(false);
+                inserer(conn, ID_A);
+                conn.commit();
+                conn.setAutoCommit(true);
+                assertFalse(conn.getAutoCommit());
+            }
+
+            // Connexion fermée par le participant : la transaction continue
+            try (Connection conn = TransactionManager.getConnection()) {
+                assertTrue(existe(conn, ID_A));
+                inserer(conn, ID_B);
+            }
+            throw new IllegalStateException("Échec après les commits des participants");
+        }));
+
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            assertFalse(existe(conn, ID_A));
+            assertFalse(existe(conn, ID_B));
+        }
+        assertFalse(TransactionManager.isInTransaction());
+    }
+
+    @Test
+    void rollbackDUnParticipantAnnuleLaTransaction() throws SQLException {
+        TransactionManager manager = TransactionManager.getInstance();
+
+        TransactionException erreur = assertThrows(TransactionException.class,
+                () -> manager.executeInTransaction(() -> {
+                    try (Connection conn = TransactionManager.getConnection()) {
+                        inserer(conn, ID_A);
+                    }
+                    try (Connection conn = TransactionManager.getConnection()) {
+                        conn.rollback();
+                    }
+                    // L'opération se termine normalement, mais sans commit possible
+                    return null;
+                }));
+        assertTrue(erreur.getCause().getMessage().contains("rollback"), erreur.getCause().getMessage());
+
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            assertFalse(existe(conn, ID_A));
+        }
+
+        // Le marquage ne survit pas à la transaction
+        manager.executeInTransaction(() -> {
+            try (Connection conn = TransactionManager.getConnection()) {
+                inserer(conn, ID_B);
+            }
+            return null;
+        });
+        try (Connection conn = DatabaseConfig.getSQLiteConnection()) {
+            assertTrue(existe(conn, ID_B));
+        }
+    }
+
+    @Test
+    void ecouteursAppelesAvecLIssueDeLaTransaction() {
+        List<Boolean> issues = new ArrayList<>();
+        Thread thread = Thread.currentThread();
+        AtomicBoolean ecoute = new AtomicBoolean(true);
+        // Les écouteurs restent inscrits : on n'observe que ce test
+        TransactionManager.surFinTransaction(validee -> {
+            if (ecoute.get() && Thread.currentThread() == thread) {
+                issues.add(validee);
+            }
+        });
+
+        TransactionManager manager = TransactionManager.getInstance();
+        try {
+            manager.executeInTransaction(() -> null);
+            assertThrows(TransactionException.class, () -> manager.executeInTransaction(() -> {
+                throw new IllegalStateException("Échec");
+            }));
+            // Transaction imbriquée : une seule notification, pour la principale
+            manager.executeInTransaction(() -> manager.executeInTransaction(() -> null));
+        } finally {
+            ecoute.set(false);
+        }
+
+        assertEquals(List.of(true, false, true), issues);
+    }
+
+    private static void inserer(Connection conn, long id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO centres (id, code_centre, nom_centre) VALUES (?, ?, ?)")) {
+            stmt.setLong(1, id);
+            stmt.setString(2, "TST-T" + id);
+            stmt.setString(3, "Centre transaction");
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean existe(Connection conn, long id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM centres WHERE id = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}